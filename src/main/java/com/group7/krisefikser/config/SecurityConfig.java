@@ -62,6 +62,14 @@ public class SecurityConfig {
              .requestMatchers(HttpMethod.GET,
                 "/api/affected-area",
                 "/api/point-of-interest",
+                "/api/point-of-interest/nearest",
+                "/api/point-of-interest/clusters",
+                "/api/point-of-interest/*/occupancy",
+                "/api/affected-area/clusters",
+                "/api/changes",
+                "/api/offline-bundle",
+                "/api/offline-bundle/*",
+                "/api/notification/stream",
                 "/h2-console/**",
                 "/swagger-ui/**",
                 "/v3/api-docs/**",
@@ -4,7 +4,9 @@ import com.group7.krisefikser.dto.request.article.GeneralInfoRequest;
 import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
 import com.group7.krisefikser.enums.Theme;
 import com.group7.krisefikser.model.article.GeneralInfo;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.service.article.GeneralInfoService;
+import com.group7.krisefikser.utils.ContentUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -13,9 +15,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
-import java.util.List;
 import java.util.logging.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponse;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
@@ -44,9 +47,11 @@ public class GeneralInfoController {
   /**
    * Endpoint to get all general information.
    * This method retrieves all general information from the system.
-   * It returns a list of GeneralInfo objects.
+   * It returns a list of GeneralInfo objects, serialized in advance.
    *
-   * @return a list of GeneralInfo objects
+   * @param ifNoneMatch    the ETag of the content the client already has
+   * @param acceptEncoding the encodings the client accepts
+   * @return a list of GeneralInfo objects as JSON, gzipped if the client accepts it
    */
   @Operation(
       summary = "Get all general information",
@@ -63,12 +68,15 @@ public class GeneralInfoController {
       }
   )
   @GetMapping("/all")
-  public ResponseEntity<List<GeneralInfoResponse>> getAllGeneralInfo() {
+  public ResponseEntity<byte[]> getAllGeneralInfo(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
     logger.info("Received request to get all general information");
     try {
-      List<GeneralInfoResponse> allGeneralInfo = generalInfoService.getAllGeneralInfo();
+      SerializedContent allGeneralInfo = generalInfoService.getAllGeneralInfoContent();
       logger.info("Successfully retrieved all general information");
-      return new ResponseEntity<>(allGeneralInfo, HttpStatus.OK);
+      return ContentUtils.toResponse(allGeneralInfo, ifNoneMatch, acceptEncoding);
     } catch (Exception e) {
       logger.severe("Error retrieving all general information: " + e.getMessage());
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -80,8 +88,10 @@ public class GeneralInfoController {
    * This method retrieves general information based on the specified theme.
    * It accepts a theme as a path variable and returns a list of GeneralInfo objects.
    *
-   * @param theme the theme to filter the general information
-   * @return a list of GeneralInfo objects matching the specified theme
+   * @param theme          the theme to filter the general information
+   * @param ifNoneMatch    the ETag of the content the client already has
+   * @param acceptEncoding the encodings the client accepts
+   * @return a list of GeneralInfo objects matching the specified theme, as JSON
    */
   @Operation(summary = "Get general information by theme")
   @ApiResponses(value = {
@@ -92,8 +102,11 @@ public class GeneralInfoController {
           content = @Content)
   })
   @GetMapping("/{theme}")
-  public ResponseEntity<List<GeneralInfoResponse>> getGeneralInfoByTheme(
-      @Valid @PathVariable String theme) {
+  public ResponseEntity<byte[]> getGeneralInfoByTheme(
+      @Valid @PathVariable String theme,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
     logger.info("Received request to get general information by theme: " + theme);
     try {
       Theme parsedTheme;
@@ -102,11 +115,10 @@ public class GeneralInfoController {
       } catch (IllegalArgumentException e) {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid theme: " + theme);
       }
-      List<GeneralInfoResponse> generalInfoByTheme =
-          generalInfoService.getGeneralInfoByTheme(parsedTheme);
+      SerializedContent generalInfoByTheme =
+          generalInfoService.getGeneralInfoByThemeContent(parsedTheme);
       logger.info("Successfully retrieved general information for theme: " + theme);
-      return new ResponseEntity<>(
-          generalInfoByTheme, HttpStatus.OK);
+      return ContentUtils.toResponse(generalInfoByTheme, ifNoneMatch, acceptEncoding);
     } catch (ResponseStatusException e) {
       logger.warning("Error retrieving general information by theme: " + e.getMessage());
       return ResponseEntity.status(e.getStatusCode()).body(null);
@@ -1,21 +1,23 @@
 package com.group7.krisefikser.controller.article;
 
 import com.group7.krisefikser.dto.response.article.NewsArticleResponse;
-import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
 import com.group7.krisefikser.model.article.NewsArticle;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.service.article.NewsArticleService;
+import com.group7.krisefikser.utils.ContentUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.List;
 import java.util.logging.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -46,7 +48,9 @@ public class NewsArticleController {
   /**
    * Retrieves all news articles.
    *
-   * @return a ResponseEntity containing a list of NewsArticle objects
+   * @param ifNoneMatch    the ETag of the content the client already has
+   * @param acceptEncoding the encodings the client accepts
+   * @return a ResponseEntity containing a list of NewsArticle objects as JSON
    */
   @Operation(
       summary = "Get all news articles",
@@ -68,11 +72,14 @@ public class NewsArticleController {
       )
   })
   @GetMapping
-  public ResponseEntity<List<ShortenedNewsArticleResponse>> getAllNews() {
+  public ResponseEntity<byte[]> getAllNews(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
     logger.info("Fetching all news articles");
     try {
-      List<ShortenedNewsArticleResponse> newsArticles = newsArticleService.getAllNewsArticles();
-      return ResponseEntity.ok(newsArticles);
+      SerializedContent newsArticles = newsArticleService.getAllNewsArticlesContent();
+      return ContentUtils.toResponse(newsArticles, ifNoneMatch, acceptEncoding);
     } catch (Exception e) {
       logger.severe("Error fetching news articles: " + e.getMessage());
       return ResponseEntity.status(500).build();
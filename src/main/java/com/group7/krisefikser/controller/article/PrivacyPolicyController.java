@@ -5,7 +5,9 @@ import com.group7.krisefikser.dto.request.article.UpdateUnregisteredPrivacyPolic
 import com.group7.krisefikser.dto.request.user.TwoFactorLoginRequest;
 import com.group7.krisefikser.dto.response.article.GetRegisteredPrivacyPolicyResponse;
 import com.group7.krisefikser.dto.response.article.GetUnregisteredPrivacyPolicyResponse;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.service.article.PrivacyPolicyService;
+import com.group7.krisefikser.utils.ContentUtils;
 import com.group7.krisefikser.utils.ValidationUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,12 +17,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.logging.Logger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 /**
@@ -40,7 +44,9 @@ public class PrivacyPolicyController {
   /**
    * Endpoint to get the registered privacy policy.
    *
-   * @return ResponseEntity containing the registered privacy policy.
+   * @param ifNoneMatch the ETag of the content the client already has.
+   * @param acceptEncoding the encodings the client accepts.
+   * @return ResponseEntity containing the registered privacy policy as JSON.
    */
   @Operation(
       summary = "Get the registered privacy policy",
@@ -62,13 +68,16 @@ public class PrivacyPolicyController {
       }
   )
   @GetMapping("/registered")
-  public ResponseEntity<?> getRegisteredPrivacyPolicy() {
+  public ResponseEntity<?> getRegisteredPrivacyPolicy(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
     logger.info("Fetching registered privacy policy");
 
     try {
-      GetRegisteredPrivacyPolicyResponse response =
-          privacyPolicyService.getRegisteredPrivacyPolicy();
-      return ResponseEntity.ok(response);
+      SerializedContent response =
+          privacyPolicyService.getRegisteredPrivacyPolicyContent();
+      return ContentUtils.toResponse(response, ifNoneMatch, acceptEncoding);
     } catch (Exception e) {
       logger.severe("Error fetching registered privacy policy: " + e.getMessage());
       return ResponseEntity.status(500).body("Error fetching registered privacy policy");
@@ -78,7 +87,9 @@ public class PrivacyPolicyController {
   /**
    * Endpoint to get the unregistered privacy policy.
    *
-   * @return ResponseEntity containing the unregistered privacy policy.
+   * @param ifNoneMatch the ETag of the content the client already has.
+   * @param acceptEncoding the encodings the client accepts.
+   * @return ResponseEntity containing the unregistered privacy policy as JSON.
    */
   @Operation(
       summary = "Get the unregistered privacy policy",
@@ -100,12 +111,15 @@ public class PrivacyPolicyController {
       }
   )
   @GetMapping("/unregistered")
-  public ResponseEntity<?> getUnregisteredPrivacyPolicy() {
+  public ResponseEntity<?> getUnregisteredPrivacyPolicy(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
     logger.info("Fetching unregistered privacy policy");
     try {
-      GetUnregisteredPrivacyPolicyResponse response =
-          privacyPolicyService.getUnregisteredPrivacyPolicy();
-      return ResponseEntity.ok(response);
+      SerializedContent response =
+          privacyPolicyService.getUnregisteredPrivacyPolicyContent();
+      return ContentUtils.toResponse(response, ifNoneMatch, acceptEncoding);
     } catch (Exception e) {
       logger.severe("Error fetching unregistered privacy policy: " + e.getMessage());
       return ResponseEntity.status(500).body("Error fetching unregistered privacy policy");
@@ -4,6 +4,8 @@ import com.group7.krisefikser.dto.request.household.EmergencyGroupRequest;
 import com.group7.krisefikser.dto.request.household.InvitationReplyRequest;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupInvitationResponse;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupResponse;
+import com.group7.krisefikser.dto.response.household.NearbyHouseholdResponse;
+import com.group7.krisefikser.dto.response.household.RedistributionPlanResponse;
 import com.group7.krisefikser.dto.response.other.ErrorResponse;
 import com.group7.krisefikser.service.household.EmergencyGroupService;
 import com.group7.krisefikser.service.user.UserService;
@@ -28,6 +30,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -186,6 +189,66 @@ public class EmergencyGroupController {
     }
   }
 
+  /**
+   * Finds households near the current user's household that can be invited to its
+   * emergency group.
+   *
+   * @param radiusKm the radius to search, in kilometers
+   * @param limit    the maximum number of households to return
+   * @return a response entity containing the nearby households
+   */
+  @Operation(
+          summary = "Find Nearby Households",
+          description = "Find households near the current user's household that are not in "
+                  + "its emergency group. Distances are rounded up to whole kilometers.",
+          parameters = {
+            @Parameter(name = "radiusKm", description = "Radius to search in kilometers, "
+                    + "at most 20"),
+            @Parameter(name = "limit", description = "Maximum number of households, at most 50")
+          },
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Nearby households retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = NearbyHouseholdResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid radius or limit, or the household has no location",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "Household not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/nearby-households")
+  public ResponseEntity<Object> getNearbyHouseholds(
+          @RequestParam(defaultValue = "5") double radiusKm,
+          @RequestParam(defaultValue = "20") int limit) {
+    try {
+      List<NearbyHouseholdResponse> households =
+              emergencyGroupService.findNearbyHouseholds(radiusKm, limit);
+      logger.info("Found {} households within {} km.", households.size(), radiusKm);
+      return ResponseEntity.ok(households);
+    } catch (NoSuchElementException e) {
+      logger.error("Household not found: {}", e.getMessage());
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (IllegalArgumentException e) {
+      logger.error("Failed to find nearby households: {}", e.getMessage());
+      return ResponseEntity.status(400).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.error("An unexpected error occurred while finding nearby households: {}",
+              e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "An unexpected error occurred while finding nearby households."
+      ));
+    }
+  }
+
   /**
    * Answers the invitation to an emergency group.
    * This method allows a user to accept or decline an invitation
@@ -291,4 +354,51 @@ public class EmergencyGroupController {
       ));
     }
   }
+
+  /**
+   * Plans how shared supplies should be redistributed in the current user's emergency group.
+   *
+   * @return a response entity containing the redistribution plan
+   */
+  @Operation(
+          summary = "Get Redistribution Plan",
+          description = "Compute which households in the current user's emergency group should "
+                  + "give shared food and water to which, so that every household can last "
+                  + "equally long. Transfers are kept few and short.",
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Redistribution plan computed successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RedistributionPlanResponse.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "The household is not in an emergency group",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/redistribution-plan")
+  public ResponseEntity<Object> getRedistributionPlan() {
+    try {
+      Long householdId = (long) userService.getCurrentUserHouseholdId();
+      Long emergencyGroupId = emergencyGroupService.getEmergencyGroupIdByHouseholdId(householdId);
+      RedistributionPlanResponse plan = emergencyGroupService.getRedistributionPlan(
+              emergencyGroupId);
+      logger.info("Redistribution plan with {} transfers computed for emergency group {}.",
+              plan.getTransfers().size(), emergencyGroupId);
+      return ResponseEntity.ok(plan);
+    } catch (NoSuchElementException e) {
+      logger.error("Emergency group not found: {}", e.getMessage());
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.error("An unexpected error occurred while computing redistribution plan: {}",
+              e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "An unexpected error occurred while computing the redistribution plan."
+      ));
+    }
+  }
 }
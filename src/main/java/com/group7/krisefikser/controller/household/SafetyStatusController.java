@@ -0,0 +1,181 @@
+package com.group7.krisefikser.controller.household;
+
+import com.group7.krisefikser.dto.request.household.SafetyStatusRequest;
+import com.group7.krisefikser.dto.response.household.SafetyStatusResponse;
+import com.group7.krisefikser.dto.response.other.ErrorResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.service.household.SafetyStatusService;
+import com.group7.krisefikser.utils.ValidationUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class for handling requests related to safety statuses.
+ * Users report whether they are safe during an affected area incident, and see the
+ * statuses of their household and emergency group.
+ */
+@RestController
+@RequestMapping("/api/safety-status")
+@Tag(name = "Safety Status", description = "Endpoints for reporting and viewing whether "
+        + "household and group members are safe")
+@RequiredArgsConstructor
+public class SafetyStatusController {
+
+  private final SafetyStatusService safetyStatusService;
+
+  private static final Logger logger = Logger.getLogger(SafetyStatusController.class.getName());
+
+  /**
+   * Endpoint to report whether the current user is safe during an affected area incident.
+   *
+   * @param affectedAreaId The ID of the affected area.
+   * @param request        The request containing whether the user is safe.
+   * @param bindingResult  The result of the validation.
+   * @return ResponseEntity containing the reported status.
+   */
+  @Operation(
+          summary = "Report safety status",
+          description = "Reports whether the user is safe during an affected area incident. "
+                  + "The status replaces any earlier status of the user for the area and is "
+                  + "visible to household and group members immediately.",
+          parameters = {
+            @Parameter(name = "affectedAreaId", in = ParameterIn.PATH, required = true,
+                    description = "ID of the affected area",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Status reported",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = SafetyStatusResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+            @ApiResponse(responseCode = "404", description = "Affected area not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @PostMapping("/{affectedAreaId}")
+  public ResponseEntity<Object> reportStatus(@PathVariable Long affectedAreaId,
+                                             @RequestBody @Valid SafetyStatusRequest request,
+                                             BindingResult bindingResult) {
+    if (bindingResult.hasErrors()) {
+      return ValidationUtils.handleValidationErrors(bindingResult);
+    }
+    try {
+      return ResponseEntity.ok(safetyStatusService.reportStatus(affectedAreaId,
+              request.getSafe()));
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error reporting safety status: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while reporting safety status"));
+    }
+  }
+
+  /**
+   * Endpoint to get the safety statuses of the current user's household.
+   *
+   * @param affectedAreaId The ID of the affected area.
+   * @return ResponseEntity containing the status of every household member.
+   */
+  @Operation(
+          summary = "Get safety statuses of household members",
+          description = "Retrieves whether each member of the user's household, including the "
+                  + "user, has reported themselves safe for an affected area. Safe is null "
+                  + "for members who have not reported a status.",
+          parameters = {
+            @Parameter(name = "affectedAreaId", in = ParameterIn.PATH, required = true,
+                    description = "ID of the affected area",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Statuses retrieved",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(
+                                    implementation = SafetyStatusResponse.class)))),
+            @ApiResponse(responseCode = "404", description = "Affected area not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/{affectedAreaId}/household")
+  public ResponseEntity<Object> getHouseholdStatuses(@PathVariable Long affectedAreaId) {
+    try {
+      return ResponseEntity.ok(safetyStatusService.getHouseholdStatuses(affectedAreaId));
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error retrieving household safety statuses: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while retrieving safety statuses"));
+    }
+  }
+
+  /**
+   * Endpoint to get the safety statuses of the current user's emergency group.
+   *
+   * @param affectedAreaId The ID of the affected area.
+   * @return ResponseEntity containing the status of every group member.
+   */
+  @Operation(
+          summary = "Get safety statuses of group members",
+          description = "Retrieves whether each member of the user's emergency group, "
+                  + "including the user, has reported themselves safe for an affected area. "
+                  + "Members carry their household ID. A user whose household is not in a "
+                  + "group gets their household.",
+          parameters = {
+            @Parameter(name = "affectedAreaId", in = ParameterIn.PATH, required = true,
+                    description = "ID of the affected area",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Statuses retrieved",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(
+                                    implementation = SafetyStatusResponse.class)))),
+            @ApiResponse(responseCode = "404", description = "Affected area not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/{affectedAreaId}/group")
+  public ResponseEntity<Object> getGroupStatuses(@PathVariable Long affectedAreaId) {
+    try {
+      return ResponseEntity.ok(safetyStatusService.getGroupStatuses(affectedAreaId));
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error retrieving group safety statuses: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while retrieving safety statuses"));
+    }
+  }
+}
@@ -5,6 +5,7 @@ import com.group7.krisefikser.dto.request.item.StorageItemRequest;
 import com.group7.krisefikser.dto.request.item.StorageItemSearchRequest;
 import com.group7.krisefikser.dto.request.item.StorageItemSortRequest;
 import com.group7.krisefikser.dto.response.item.AggregatedStorageItemResponse;
+import com.group7.krisefikser.dto.response.item.NearestSharedItemResponse;
 import com.group7.krisefikser.dto.response.item.StorageItemGroupResponse;
 import com.group7.krisefikser.dto.response.item.StorageItemResponse;
 import com.group7.krisefikser.dto.response.other.ErrorResponse;
@@ -199,6 +200,57 @@ public class StorageItemController {
     }
   }
 
+  /**
+   * Endpoint to find the households in the group that share an item and are closest
+   * to a position.
+   *
+   * @param itemId    The ID of the item to search for
+   * @param latitude  The latitude of the position to search from
+   * @param longitude The longitude of the position to search from
+   * @param k         The maximum number of households to return
+   * @return A response entity containing the nearest sharing households
+   */
+  @Operation(
+          summary = "Find the nearest households in the group sharing an item",
+          description = "Retrieves the k households in the authenticated user's emergency "
+                  + "group that share the given item and are closest to the given position, "
+                  + "with their total shared quantity and distance.",
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved "
+                    + "nearest sharing households",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = NearestSharedItemResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid position or no group"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+          }
+  )
+  @GetMapping("/emergency-group/by-item/{itemId}/nearest")
+  public ResponseEntity<Object> getNearestSharedStorageItemsInGroupByItemId(
+          @Parameter(description = "Item ID", required = true)
+          @PathVariable int itemId,
+          @Parameter(description = "Latitude of the position to search from", required = true)
+          @RequestParam double latitude,
+          @Parameter(description = "Longitude of the position to search from", required = true)
+          @RequestParam double longitude,
+          @Parameter(description = "Maximum number of households to return")
+          @RequestParam(defaultValue = "5") int k) {
+    try {
+      List<NearestSharedItemResponse> responses = storageItemService
+              .getNearestSharedStorageItemsInGroupByItemId(itemId, latitude, longitude, k);
+      return ResponseEntity.ok(responses);
+    } catch (NoSuchElementException | IllegalArgumentException e) {
+      logger.info(e.getMessage());
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(
+              e.getMessage()
+      ));
+    } catch (Exception e) {
+      logger.severe("Error retrieving nearest shared storage items: " + e.getMessage());
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(
+              "An unexpected error occurred while retrieving shared storage items."
+      ));
+    }
+  }
+
   /**
    * Endpoint to find storage items that will expire within a specified number of days.
    *
@@ -1,9 +1,14 @@
 package com.group7.krisefikser.controller.location;
 
 import com.group7.krisefikser.dto.request.location.AffectedAreaRequest;
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.dto.response.location.EvacuationResponse;
 import com.group7.krisefikser.dto.response.other.ErrorResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
 import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.service.location.EvacuationService;
 import com.group7.krisefikser.utils.ValidationUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,6 +26,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -39,6 +45,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @Tag(name = "Affected Area", description = "Endpoints for managing affected areas")
 public class AffectedAreaController {
   private final AffectedAreaService affectedAreaService;
+  private final EvacuationService evacuationService;
 
   private static final Logger logger = Logger.getLogger(AffectedAreaController.class.getName());
 
@@ -49,7 +56,8 @@ public class AffectedAreaController {
    */
   @Operation(
           summary = "Get all affected areas",
-          description = "Retrieves a list of all affected areas.",
+          description = "Retrieves a list of all active affected areas. Resolved areas are "
+                  + "not included.",
           responses = {
             @ApiResponse(responseCode = "200", description =
                     "Successfully retrieved all affected areas",
@@ -71,6 +79,53 @@ public class AffectedAreaController {
     }
   }
 
+  /**
+   * Endpoint to fetch the map clusters of affected areas in a viewport.
+   *
+   * @param request       the zoom level and bounding box of the viewport
+   * @param bindingResult the result of validating the request
+   * @return the clusters in the viewport
+   */
+  @Operation(
+          summary = "Get clustered affected areas",
+          description = "Retrieves the affected areas with their center inside a bounding "
+                  + "box, clustered for the given zoom level. Each cluster has a count, a "
+                  + "centroid and a breakdown by severity level, and carries the ID of the "
+                  + "affected area when it holds a single one.",
+          responses = {
+            @ApiResponse(responseCode = "200", description =
+                    "Successfully retrieved clusters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ClusterResponse.class))),
+            @ApiResponse(responseCode = "400", description =
+                    "Invalid zoom level or bounding box provided",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/clusters")
+  public ResponseEntity<Object> getAffectedAreaClusters(
+          @Valid @ModelAttribute ClusterRequest request,
+          BindingResult bindingResult
+  ) {
+    if (bindingResult.hasErrors()) {
+      return ValidationUtils.handleValidationErrors(bindingResult);
+    }
+    try {
+      List<ClusterResponse> clusters = affectedAreaService.getAffectedAreaClusters(request);
+      return ResponseEntity.ok(clusters);
+    } catch (IllegalArgumentException e) {
+      logger.info("Invalid cluster request: " + e.getMessage());
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error fetching affected area clusters: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse("Internal server error"));
+    }
+  }
+
   /**
    * Endpoint to add a new affected area.
    *
@@ -120,7 +175,7 @@ public class AffectedAreaController {
               .toUri();
       logger.info("Successfully added a new affected area");
       return ResponseEntity.created(location).body(addedArea);
-    } catch (IllegalStateException e) {
+    } catch (IllegalArgumentException | IllegalStateException e) {
       logger.severe(e.getMessage());
       return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
     } catch (Exception e) {
@@ -174,6 +229,52 @@ public class AffectedAreaController {
     }
   }
 
+  /**
+   * Endpoint to resolve an affected area when the incident is over.
+   *
+   * @param id the ID of the affected area to be resolved
+   * @return a response entity indicating the result of the resolution
+   */
+  @Operation(
+          summary = "Resolve an affected area",
+          description = "Marks an active affected area as resolved and sets its end time to "
+                  + "now. A resolved area is no longer returned, used for notifications or "
+                  + "changed by updates, and is moved to the archive after a week.",
+          parameters = {
+            @Parameter(
+                    name = "id", in = ParameterIn.PATH,
+                    description = "ID of the affected area to be resolved",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "204", description =
+                    "Successfully resolved the affected area"),
+            @ApiResponse(responseCode = "404", description =
+                    "Active affected area not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description =
+                    "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @PostMapping("/{id}/resolve")
+  public ResponseEntity<Object> resolveAffectedArea(@PathVariable Long id) {
+    logger.info("Resolving affected area with ID: " + id);
+    try {
+      affectedAreaService.resolveAffectedArea(id);
+      logger.info("Successfully resolved affected area with ID: " + id);
+      return ResponseEntity.noContent().build();
+    } catch (ResourceNotFoundException e) {
+      logger.info(e.getMessage());
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error resolving affected area: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse("Internal server error"));
+    }
+  }
+
   /**
    * Endpoint to update an existing affected area.
    *
@@ -230,7 +331,7 @@ public class AffectedAreaController {
       AffectedAreaResponse updatedArea = affectedAreaService.updateAffectedArea(id, request);
       logger.info("Successfully updated affected area with ID: " + id);
       return ResponseEntity.ok(updatedArea);
-    } catch (IllegalStateException e) {
+    } catch (IllegalArgumentException | IllegalStateException e) {
       logger.severe(e.getMessage());
       return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
     } catch (Exception e) {
@@ -238,4 +339,61 @@ public class AffectedAreaController {
       return ResponseEntity.status(500).body("Error updating affected area");
     }
   }
+
+  /**
+   * Endpoint to assign the households in the high danger zone of an affected area to
+   * shelters.
+   *
+   * @param id the ID of the affected area
+   * @return a summary of the assignments
+   */
+  @Operation(
+          summary = "Assign households to shelters",
+          description = "Assigns every household in the high danger zone of an affected area "
+                  + "that has no shelter yet to the nearest shelter with free capacity, "
+                  + "outside the medium and high danger zones of the area, and adds the "
+                  + "members of the household to the occupancy of the shelter.",
+          parameters = {
+            @Parameter(
+                    name = "id", in = ParameterIn.PATH,
+                    description = "ID of the affected area to evacuate",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description =
+                    "Successfully assigned households to shelters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EvacuationResponse.class))),
+            @ApiResponse(responseCode = "404", description =
+                    "Affected area not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description =
+                    "A shelter was filled or a household was assigned by another "
+                            + "evacuation, try again",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description =
+                    "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @PostMapping("/{id}/evacuation")
+  public ResponseEntity<Object> assignShelters(@PathVariable Long id) {
+    logger.info("Assigning shelters for affected area with ID: " + id);
+    try {
+      EvacuationResponse response = evacuationService.assignShelters(id);
+      return ResponseEntity.ok(response);
+    } catch (ResourceNotFoundException e) {
+      logger.info(e.getMessage());
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (IllegalStateException e) {
+      logger.warning(e.getMessage());
+      return ResponseEntity.status(409).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error assigning shelters: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse("Internal server error"));
+    }
+  }
 }
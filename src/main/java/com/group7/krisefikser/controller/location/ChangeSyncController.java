@@ -0,0 +1,80 @@
+package com.group7.krisefikser.controller.location;
+
+import com.group7.krisefikser.dto.response.location.ChangesResponse;
+import com.group7.krisefikser.dto.response.other.ErrorResponse;
+import com.group7.krisefikser.service.location.ChangeSyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class for syncing points of interest and affected areas.
+ * Clients that keep a copy of the map data fetch only what changed since their last sync.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@Tag(name = "Change Sync", description = "Endpoint for syncing points of interest and "
+        + "affected areas")
+@RequiredArgsConstructor
+public class ChangeSyncController {
+
+  private final ChangeSyncService changeSyncService;
+
+  private static final Logger logger = Logger.getLogger(ChangeSyncController.class.getName());
+
+  /**
+   * Endpoint to get the changes to points of interest and affected areas since a sync.
+   *
+   * @param since The sequence number returned by the client's last sync.
+   * @return ResponseEntity containing the changes.
+   */
+  @Operation(
+          summary = "Get changes to points of interest and affected areas",
+          description = "Retrieves the points of interest and affected areas that were added "
+                  + "or changed, and the IDs of those that were deleted, since the sync that "
+                  + "returned the given sequence number. Without since, or when since is too "
+                  + "old, everything is returned with reset set to true and the client "
+                  + "should replace its copy. The returned seq is passed as since in the "
+                  + "next sync, right away if hasMore is true.",
+          parameters = {
+            @Parameter(name = "since", in = ParameterIn.QUERY,
+                    description = "Sequence number returned by the last sync",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved changes",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ChangesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid sequence number",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping
+  public ResponseEntity<Object> getChanges(@RequestParam(required = false) Long since) {
+    try {
+      return ResponseEntity.ok(changeSyncService.getChanges(since));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error retrieving changes: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while retrieving changes"));
+    }
+  }
+}
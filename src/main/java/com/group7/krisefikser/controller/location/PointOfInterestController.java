@@ -1,11 +1,19 @@
 package com.group7.krisefikser.controller.location;
 
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.request.location.GetPointsOfInterestRequest;
 import com.group7.krisefikser.dto.request.location.PointOfInterestRequest;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.dto.response.location.NearestPointOfInterestResponse;
+import com.group7.krisefikser.dto.response.location.PointOfInterestImportResponse;
 import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
+import com.group7.krisefikser.dto.response.location.ShelterOccupancyResponse;
 import com.group7.krisefikser.dto.response.other.ErrorResponse;
 import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.service.location.PointOfInterestImportService;
 import com.group7.krisefikser.service.location.PointOfInterestService;
+import com.group7.krisefikser.service.location.ShelterCheckInService;
 import com.group7.krisefikser.utils.ValidationUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +23,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.logging.Logger;
@@ -30,6 +39,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -44,18 +54,26 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @Tag(name = "Point of Interest", description = "Endpoints for managing points of interest")
 public class PointOfInterestController {
   private final PointOfInterestService pointOfInterestService;
+  private final ShelterCheckInService shelterCheckInService;
+  private final PointOfInterestImportService pointOfInterestImportService;
 
   private static final Logger logger = Logger.getLogger(PointOfInterestController.class.getName());
 
   /**
    * Constructor for PointOfInterestController.
-   * This constructor is used for dependency injection of the PointOfInterestService.
+   * This constructor is used for dependency injection of the services.
    *
-   * @param pointOfInterestService The service to be injected.
+   * @param pointOfInterestService       The service to be injected.
+   * @param shelterCheckInService        The service counting check-ins at shelters.
+   * @param pointOfInterestImportService The service importing points of interest from files.
    */
   @Autowired
-  public PointOfInterestController(PointOfInterestService pointOfInterestService) {
+  public PointOfInterestController(PointOfInterestService pointOfInterestService,
+                                   ShelterCheckInService shelterCheckInService,
+                                   PointOfInterestImportService pointOfInterestImportService) {
     this.pointOfInterestService = pointOfInterestService;
+    this.shelterCheckInService = shelterCheckInService;
+    this.pointOfInterestImportService = pointOfInterestImportService;
   }
 
   /**
@@ -68,7 +86,13 @@ public class PointOfInterestController {
   @Operation(
           summary = "Get points of interest by types",
           description = "Retrieves a list of points of interest based on the "
-                  + "provided types in the query parameters.",
+                  + "provided types in the query parameters. The result can be limited to "
+                  + "a bounding box with minLatitude, minLongitude, maxLatitude and "
+                  + "maxLongitude, or to a radius with latitude, longitude and radiusKm, "
+                  + "in which case the points are ordered by distance. With openAt (HH:mm) "
+                  + "or openNow=true only points open at that time are returned; opening "
+                  + "hours that close past midnight are handled, and points without "
+                  + "opening hours are treated as always open.",
           parameters = @Parameter(
                   name = "types",
                   description = "List of point of interest types to filter by. "
@@ -88,7 +112,7 @@ public class PointOfInterestController {
                             schema = @Schema(implementation =
                                     PointOfInterestResponse.class))),
             @ApiResponse(responseCode = "400",
-                    description = "Invalid point of interest type provided",
+                    description = "Invalid point of interest type or area provided",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = List.class))),
             @ApiResponse(responseCode = "500",
@@ -116,6 +140,172 @@ public class PointOfInterestController {
     }
   }
 
+  /**
+   * Endpoint to get the points of interest closest to a position.
+   *
+   * @param types     The types of points of interest to include.
+   * @param latitude  The latitude of the position.
+   * @param longitude The longitude of the position.
+   * @param k         The maximum number of points of interest to return.
+   * @return ResponseEntity containing the nearest points of interest with their distances.
+   */
+  @Operation(
+          summary = "Get the nearest points of interest",
+          description = "Retrieves the k points of interest of the given types that are "
+                  + "closest to the given position, with their great-circle distance in "
+                  + "kilometers, ordered by distance.",
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved nearest points of interest",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation =
+                                    NearestPointOfInterestResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid type, position or k provided",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class)))
+          }
+  )
+  @GetMapping("/nearest")
+  public ResponseEntity<List<NearestPointOfInterestResponse>> getNearestPointsOfInterest(
+          @Parameter(description = "Point of interest types to include", required = true)
+          @RequestParam List<String> types,
+          @Parameter(description = "Latitude of the position", required = true)
+          @RequestParam double latitude,
+          @Parameter(description = "Longitude of the position", required = true)
+          @RequestParam double longitude,
+          @Parameter(description = "Maximum number of points of interest to return")
+          @RequestParam(defaultValue = "5") int k) {
+    try {
+      List<NearestPointOfInterestResponse> nearest = pointOfInterestService
+              .getNearestPointsOfInterest(types, latitude, longitude, k);
+      return ResponseEntity.ok(nearest);
+    } catch (IllegalArgumentException e) {
+      logger.info("Error retrieving nearest points of interest: " + e.getMessage());
+      return ResponseEntity.badRequest().body(List.of());
+    } catch (Exception e) {
+      logger.severe("Unexpected error: " + e.getMessage());
+      return ResponseEntity.status(500).body(List.of());
+    }
+  }
+
+  /**
+   * Endpoint to get the map clusters of points of interest in a viewport.
+   *
+   * @param request       The zoom level and bounding box of the viewport.
+   * @param bindingResult The result of validating the request.
+   * @param types         The types of points of interest to include.
+   * @return ResponseEntity containing the clusters in the viewport.
+   */
+  @Operation(
+          summary = "Get clustered points of interest",
+          description = "Retrieves the points of interest of the given types inside a "
+                  + "bounding box, clustered for the given zoom level. Each cluster has a "
+                  + "count, a centroid and a breakdown by type, and carries the ID of the "
+                  + "point of interest when it holds a single one. The number of clusters "
+                  + "depends on the viewport and zoom level, not on the number of points.",
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved clusters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ClusterResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid zoom level, bounding box or type provided",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/clusters")
+  public ResponseEntity<Object> getPointOfInterestClusters(
+          @Valid @ModelAttribute ClusterRequest request,
+          BindingResult bindingResult,
+          @Parameter(description = "Point of interest types to include", required = true)
+          @RequestParam List<String> types) {
+    if (bindingResult.hasErrors()) {
+      return ValidationUtils.handleValidationErrors(bindingResult);
+    }
+    try {
+      List<ClusterResponse> clusters = pointOfInterestService
+              .getPointOfInterestClusters(request, types);
+      return ResponseEntity.ok(clusters);
+    } catch (IllegalArgumentException e) {
+      logger.info("Error retrieving point of interest clusters: " + e.getMessage());
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Unexpected error: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse("Internal server error"));
+    }
+  }
+
+  /**
+   * Endpoint to import points of interest from the file of an external registry.
+   * The request body is the file itself, which is read as it arrives.
+   *
+   * @param format The format of the file, geojson or csv.
+   * @param body   The file.
+   * @return ResponseEntity containing the number of imported and rejected rows.
+   */
+  @Operation(
+          summary = "Import points of interest",
+          description = "Adds or updates points of interest from a GeoJSON FeatureCollection "
+                  + "of point features or a CSV file with a header row, sent as the request "
+                  + "body. Each row needs external_id, type, latitude and longitude, and may "
+                  + "have opens_at, closes_at, contact_number, description and capacity. "
+                  + "In GeoJSON these are feature properties, the coordinates come from the "
+                  + "geometry and the feature ID is used when there is no external_id. A "
+                  + "point of interest imported before with the same external_id is updated. "
+                  + "Invalid rows are skipped and the first of them are listed, with rows "
+                  + "numbered from 1 after the header. If the file cannot be read to the "
+                  + "end, the rows before the error are kept and complete is false.",
+          parameters = {
+            @Parameter(name = "format", in = ParameterIn.QUERY, required = true,
+                    description = "Format of the file, geojson or csv")
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description = "The file was imported",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation =
+                                    PointOfInterestImportResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Unknown format or missing CSV column, or the file could "
+                            + "not be read to the end, in which case the import result is "
+                            + "returned",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @PostMapping("/import")
+  public ResponseEntity<Object> importPointsOfInterest(@RequestParam String format,
+                                                       InputStream body) {
+    logger.info("Received request to import points of interest from " + format);
+    try {
+      PointOfInterestImportResponse result = pointOfInterestImportService
+              .importPointsOfInterest(body, format);
+      if (!result.isComplete()) {
+        return ResponseEntity.badRequest().body(result);
+      }
+      return ResponseEntity.ok(result);
+    } catch (IllegalArgumentException e) {
+      logger.info("Error importing points of interest: " + e.getMessage());
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Unexpected error: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while importing points of interest"));
+    }
+  }
+
   /**
    * Endpoint to add a new point of interest.
    * This endpoint will accept a request containing the details of the point of
@@ -296,4 +486,151 @@ public class PointOfInterestController {
       ));
     }
   }
+
+  /**
+   * Endpoint to get the number of people checked in at a shelter.
+   *
+   * @param id The ID of the shelter.
+   * @return ResponseEntity containing the occupancy of the shelter.
+   */
+  @Operation(
+          summary = "Get the occupancy of a shelter",
+          description = "Retrieves the number of people currently checked in at a shelter, "
+                  + "together with its capacity.",
+          parameters = {
+            @Parameter(name = "id", in = ParameterIn.PATH, required = true,
+                    description = "ID of the shelter",
+                    schema = @Schema(type = "integer", format = "int64"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved the occupancy",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ShelterOccupancyResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Shelter not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @GetMapping("/{id}/occupancy")
+  public ResponseEntity<Object> getShelterOccupancy(@PathVariable Long id) {
+    try {
+      return ResponseEntity.ok(shelterCheckInService.getOccupancy(id));
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Unexpected error: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while fetching shelter occupancy"));
+    }
+  }
+
+  /**
+   * Endpoint to check people in at a shelter.
+   *
+   * @param id     The ID of the shelter.
+   * @param people The number of people checking in.
+   * @return ResponseEntity containing the occupancy of the shelter after the check-in.
+   */
+  @Operation(
+          summary = "Check people in at a shelter",
+          description = "Adds people to the number of people checked in at a shelter.",
+          parameters = {
+            @Parameter(name = "id", in = ParameterIn.PATH, required = true,
+                    description = "ID of the shelter",
+                    schema = @Schema(type = "integer", format = "int64")),
+            @Parameter(name = "people", in = ParameterIn.QUERY,
+                    description = "Number of people checking in, 1 by default",
+                    schema = @Schema(type = "integer", defaultValue = "1"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully checked in",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ShelterOccupancyResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid number of people",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Shelter not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @PostMapping("/{id}/check-in")
+  public ResponseEntity<Object> checkIn(@PathVariable Long id,
+                                        @RequestParam(defaultValue = "1") int people) {
+    try {
+      return ResponseEntity.ok(shelterCheckInService.checkIn(id, people));
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Unexpected error: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while checking in"));
+    }
+  }
+
+  /**
+   * Endpoint to check people out of a shelter.
+   *
+   * @param id     The ID of the shelter.
+   * @param people The number of people checking out.
+   * @return ResponseEntity containing the occupancy of the shelter after the check-out.
+   */
+  @Operation(
+          summary = "Check people out of a shelter",
+          description = "Subtracts people from the number of people checked in at a shelter.",
+          parameters = {
+            @Parameter(name = "id", in = ParameterIn.PATH, required = true,
+                    description = "ID of the shelter",
+                    schema = @Schema(type = "integer", format = "int64")),
+            @Parameter(name = "people", in = ParameterIn.QUERY,
+                    description = "Number of people checking out, 1 by default",
+                    schema = @Schema(type = "integer", defaultValue = "1"))
+          },
+          responses = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully checked out",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ShelterOccupancyResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid number of people",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Shelter not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409",
+                    description = "Fewer people are checked in than are checking out",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class)))
+          }
+  )
+  @PostMapping("/{id}/check-out")
+  public ResponseEntity<Object> checkOut(@PathVariable Long id,
+                                         @RequestParam(defaultValue = "1") int people) {
+    try {
+      return ResponseEntity.ok(shelterCheckInService.checkOut(id, people));
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(409).body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Unexpected error: " + e.getMessage());
+      return ResponseEntity.status(500).body(new ErrorResponse(
+              "Internal server error while checking out"));
+    }
+  }
 }
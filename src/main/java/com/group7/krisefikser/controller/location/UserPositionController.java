@@ -3,6 +3,9 @@ package com.group7.krisefikser.controller.location;
 import com.group7.krisefikser.dto.request.location.SharePositionRequest;
 import com.group7.krisefikser.dto.response.location.GroupMemberPositionResponse;
 import com.group7.krisefikser.dto.response.location.HouseholdMemberPositionResponse;
+import com.group7.krisefikser.dto.response.location.MemberPositionUpdateResponse;
+import com.group7.krisefikser.dto.response.location.PositionHistoryPointResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
 import com.group7.krisefikser.service.location.UserPositionService;
 import com.group7.krisefikser.utils.ValidationUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,17 +14,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.logging.Logger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controller class for handling requests related to user positions.
@@ -197,4 +207,100 @@ public class UserPositionController {
       return ResponseEntity.status(500).body("Error retrieving group positions");
     }
   }
+
+  /**
+   * Endpoint to stream the positions of household and group members.
+   * The stream starts with the current positions and then pushes every change.
+   *
+   * @return ResponseEntity containing the event stream.
+   */
+  @Operation(
+      summary = "Stream positions of household and group members",
+      description = "Opens a Server-Sent Events stream. The first event, \"positions\", holds "
+          + "the members currently sharing their position. Later events are \"position\" "
+          + "for a new position and \"stopped\" when a member stops sharing. A client that "
+          + "falls behind only receives the latest position of each member.",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Stream opened",
+              content = @Content(
+                  mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                  schema = @Schema(implementation = MemberPositionUpdateResponse.class)
+              )
+          ),
+          @ApiResponse(responseCode = "503", description = "Too many open streams")
+      }
+  )
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamPositions() {
+    logger.info("Received request to stream member positions");
+
+    try {
+      return ResponseEntity.ok(userPositionService.subscribeToPositions());
+    } catch (IllegalStateException e) {
+      logger.warning("Rejected position stream subscription: " + e.getMessage());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+  }
+
+  /**
+   * Endpoint to get the position history of the user or of a household or group member.
+   * Without a range, the last 24 hours are returned.
+   *
+   * @param userId The ID of the user whose history is retrieved.
+   * @param from   The start of the time range.
+   * @param to     The end of the time range.
+   * @return ResponseEntity containing the positions in the range.
+   */
+  @Operation(
+      summary = "Get position history of a member",
+      description = "Retrieves where the user or a member of their household or emergency "
+          + "group has been. The last hour has every shared position, the last day one "
+          + "position per five minutes and older history one position per hour.",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Successfully retrieved position history",
+              content = @Content(
+                  mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  array = @io.swagger.v3.oas.annotations.media.ArraySchema(
+                      schema = @Schema(implementation = PositionHistoryPointResponse.class)
+                  )
+              )
+          ),
+          @ApiResponse(responseCode = "400", description = "Invalid time range",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+          @ApiResponse(responseCode = "404", description = "No visible history for the user",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+          @ApiResponse(responseCode = "500", description = "Internal server error",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+      }
+  )
+  @GetMapping("/history/{userId}")
+  public ResponseEntity<?> getPositionHistory(
+      @PathVariable Long userId,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    logger.info("Received request to get position history of user " + userId);
+
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LocalDateTime start = from != null ? from : end.minusDays(1);
+    try {
+      List<PositionHistoryPointResponse> history =
+          userPositionService.getPositionHistory(userId, start, end);
+      return ResponseEntity.ok(history);
+    } catch (IllegalArgumentException e) {
+      logger.info("Invalid position history request: " + e.getMessage());
+      return ResponseEntity.badRequest().body(e.getMessage());
+    } catch (ResourceNotFoundException e) {
+      logger.info("Position history not visible: " + e.getMessage());
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    } catch (Exception e) {
+      logger.severe("Error retrieving position history: " + e.getMessage());
+      return ResponseEntity.status(500).body("Error retrieving position history");
+    }
+  }
 }
@@ -0,0 +1,129 @@
+package com.group7.krisefikser.controller.other;
+
+import com.group7.krisefikser.dto.response.other.AlertResponse;
+import com.group7.krisefikser.dto.response.other.UnreadAlertCountResponse;
+import com.group7.krisefikser.service.other.AlertService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class for the alert inbox of the current user.
+ * Alerts are created when an affected area covering the user's household or shared
+ * position is created or updated.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/alerts")
+@Tag(name = "Alerts", description = "Inbox of danger zone alerts for the current user")
+public class AlertController {
+
+  private final AlertService alertService;
+  private static final Logger logger = Logger.getLogger(AlertController.class.getName());
+
+  /**
+   * Endpoint to get the most recent alerts of the current user.
+   *
+   * @return ResponseEntity containing the alerts, newest first
+   */
+  @Operation(
+      summary = "Get alerts",
+      description = "Retrieves the most recent danger zone alerts of the current user.",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Successfully retrieved alerts",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = AlertResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error occurred while retrieving alerts",
+              content = @Content(mediaType = "application/json")
+          )
+      }
+  )
+  @GetMapping
+  public ResponseEntity<List<AlertResponse>> getAlerts() {
+    try {
+      return ResponseEntity.ok(alertService.getAlerts());
+    } catch (Exception e) {
+      logger.severe("Error retrieving alerts: " + e.getMessage());
+      return ResponseEntity.status(500).body(null);
+    }
+  }
+
+  /**
+   * Endpoint to count the unread alerts of the current user.
+   *
+   * @return ResponseEntity containing the number of unread alerts
+   */
+  @Operation(
+      summary = "Count unread alerts",
+      description = "Returns the number of unread danger zone alerts of the current user.",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Successfully counted unread alerts",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = UnreadAlertCountResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error occurred while counting alerts",
+              content = @Content(mediaType = "application/json")
+          )
+      }
+  )
+  @GetMapping("/unread-count")
+  public ResponseEntity<UnreadAlertCountResponse> getUnreadCount() {
+    try {
+      return ResponseEntity.ok(alertService.getUnreadCount());
+    } catch (Exception e) {
+      logger.severe("Error counting unread alerts: " + e.getMessage());
+      return ResponseEntity.status(500).body(null);
+    }
+  }
+
+  /**
+   * Endpoint to mark all alerts of the current user as read.
+   *
+   * @return ResponseEntity with no content
+   */
+  @Operation(
+      summary = "Mark alerts as read",
+      description = "Marks all danger zone alerts of the current user as read.",
+      responses = {
+          @ApiResponse(responseCode = "204", description = "Alerts marked as read"),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error occurred while updating alerts",
+              content = @Content(mediaType = "application/json")
+          )
+      }
+  )
+  @PutMapping("/read")
+  public ResponseEntity<Void> markAllAsRead() {
+    try {
+      alertService.markAllAsRead();
+      return ResponseEntity.noContent().build();
+    } catch (Exception e) {
+      logger.severe("Error marking alerts as read: " + e.getMessage());
+      return ResponseEntity.status(500).build();
+    }
+  }
+}
@@ -1,21 +1,34 @@
 package com.group7.krisefikser.controller.other;
 
 import com.group7.krisefikser.dto.request.other.NotificationRequest;
+import com.group7.krisefikser.dto.request.other.ZoneClassificationRequest;
+import com.group7.krisefikser.dto.response.other.ErrorResponse;
+import com.group7.krisefikser.dto.response.other.IncidentUpdateResponse;
 import com.group7.krisefikser.dto.response.other.NotificationResponse;
+import com.group7.krisefikser.dto.response.other.ZoneClassificationResponse;
+import com.group7.krisefikser.service.other.IncidentStreamService;
 import com.group7.krisefikser.service.other.NotificationService;
+import com.group7.krisefikser.utils.ValidationUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import java.util.List;
 import java.util.logging.Logger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controller class for handling notifications.
@@ -30,6 +43,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class NotificationController {
 
   private final NotificationService notificationService;
+  private final IncidentStreamService incidentStreamService;
   private static final Logger logger = Logger.getLogger(NotificationController.class.getName());
 
   /**
@@ -74,4 +88,104 @@ public class NotificationController {
       return ResponseEntity.status(500).body(null);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Endpoint to classify a batch of positions against the danger zones of affected areas.
+   * Handles POST requests to "/api/notification/zones"
+   *
+   * @param request       the positions to classify
+   * @param bindingResult the result of validating the request
+   * @return ResponseEntity containing the danger zone of every position, in input order
+   */
+  @Operation(
+      summary = "Classify positions against danger zones",
+      description = "Returns, for every position in the request and in the same order, the "
+          + "most dangerous zone (HIGH, MEDIUM, LOW or NONE) it lies in and the ID of the "
+          + "affected area that gives that zone.",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Successfully classified the positions",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ZoneClassificationResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Missing, too many or invalid positions",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error occurred while classifying positions",
+              content = @Content(mediaType = "application/json")
+          )
+      }
+  )
+  @PostMapping("/zones")
+  public ResponseEntity<Object> classifyZones(
+      @Valid @RequestBody ZoneClassificationRequest request, BindingResult bindingResult) {
+    if (bindingResult.hasErrors()) {
+      return ValidationUtils.handleValidationErrors(bindingResult);
+    }
+    try {
+      List<ZoneClassificationResponse> zones =
+          notificationService.classifyZones(request.getPoints());
+      logger.info("Classified " + zones.size() + " positions against danger zones");
+      return ResponseEntity.ok(zones);
+    } catch (IllegalArgumentException e) {
+      logger.info("Invalid zone classification request: " + e.getMessage());
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    } catch (Exception e) {
+      logger.severe("Error classifying positions: " + e.getMessage());
+      return ResponseEntity.status(500).body(null);
+    }
+  }
+
+  /**
+   * Endpoint to subscribe to incident notifications over Server-Sent Events.
+   * Handles GET requests to "/api/notification/stream"
+   *
+   * @param latitude  the latitude of the client
+   * @param longitude the longitude of the client
+   * @return ResponseEntity containing the event stream
+   */
+  @Operation(
+      summary = "Stream incident notifications",
+      description = "Opens a Server-Sent Events stream for a position. The first event, "
+          + "\"incidents\", lists the incidents whose medium danger zone contains the "
+          + "position. Afterwards \"incident\" events are pushed when an incident covering "
+          + "the position appears or changes, and \"resolved\" events when it no longer "
+          + "covers the position. Clients should reconnect when the stream ends.",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Stream opened",
+              content = @Content(
+                  mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                  schema = @Schema(implementation = IncidentUpdateResponse.class)
+              )
+          ),
+          @ApiResponse(responseCode = "400", description = "Invalid coordinates"),
+          @ApiResponse(responseCode = "503", description = "Too many open streams")
+      }
+  )
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamIncidents(@RequestParam double latitude,
+                                                    @RequestParam double longitude) {
+    try {
+      SseEmitter emitter = incidentStreamService.subscribe(latitude, longitude);
+      return ResponseEntity.ok(emitter);
+    } catch (IllegalArgumentException e) {
+      logger.info("Invalid incident stream request: " + e.getMessage());
+      return ResponseEntity.badRequest().build();
+    } catch (IllegalStateException e) {
+      logger.warning("Rejected incident stream subscriber: " + e.getMessage());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.group7.krisefikser.controller.other;
+
+import com.group7.krisefikser.dto.response.other.OfflineBundleResponse;
+import com.group7.krisefikser.model.other.SerializedContent;
+import com.group7.krisefikser.service.other.OfflineBundleService;
+import com.group7.krisefikser.utils.ContentUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class for the offline bundle.
+ * The bundle is built in advance, so a request only writes the stored bytes.
+ */
+@RestController
+@RequestMapping("/api/offline-bundle")
+@Tag(name = "Offline Bundle", description = "Endpoints for downloading everything needed "
+        + "during a crisis in one request")
+@RequiredArgsConstructor
+public class OfflineBundleController {
+  static final Duration LATEST_MAX_AGE = Duration.ofMinutes(1);
+  static final Duration VERSION_MAX_AGE = Duration.ofDays(365);
+
+  private final OfflineBundleService offlineBundleService;
+
+  private static final Logger logger = Logger.getLogger(OfflineBundleController.class.getName());
+
+  /**
+   * Endpoint to get the latest offline bundle.
+   *
+   * @param ifNoneMatch    The ETag of the bundle the client already has.
+   * @param acceptEncoding The encodings the client accepts.
+   * @return ResponseEntity containing the bundle, or 304 if the client has it.
+   */
+  @Operation(
+          summary = "Get the latest offline bundle",
+          description = "Retrieves the points of interest, active affected areas, general "
+                  + "information by theme and latest news headlines in one gzipped JSON "
+                  + "document. The ETag is the bundle version, and Content-Location points "
+                  + "to the same version under a URL that can be cached for a year.",
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved bundle",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OfflineBundleResponse.class))),
+            @ApiResponse(responseCode = "304", description = "The client has the latest bundle")
+          }
+  )
+  @GetMapping
+  public ResponseEntity<byte[]> getLatestBundle(
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
+    SerializedContent bundle = offlineBundleService.getBundle();
+    return respond(bundle, ifNoneMatch, acceptEncoding,
+            CacheControl.maxAge(LATEST_MAX_AGE).cachePublic().mustRevalidate());
+  }
+
+  /**
+   * Endpoint to get a specific version of the offline bundle.
+   * Only the latest version is kept, so older versions are not found.
+   *
+   * @param version        The version of the bundle.
+   * @param ifNoneMatch    The ETag of the bundle the client already has.
+   * @param acceptEncoding The encodings the client accepts.
+   * @return ResponseEntity containing the bundle, or 404 if the version is not the latest.
+   */
+  @Operation(
+          summary = "Get a version of the offline bundle",
+          description = "Retrieves the offline bundle of the given version, which never "
+                  + "changes and may be cached for a year. Only the latest version is "
+                  + "available.",
+          parameters = {
+            @Parameter(name = "version", in = ParameterIn.PATH, required = true,
+                    description = "Version of the bundle")
+          },
+          responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved bundle",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OfflineBundleResponse.class))),
+            @ApiResponse(responseCode = "304", description = "The client has this version"),
+            @ApiResponse(responseCode = "404", description = "Version is not the latest")
+          }
+  )
+  @GetMapping("/{version}")
+  public ResponseEntity<byte[]> getBundleVersion(
+          @PathVariable String version,
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
+    SerializedContent bundle = offlineBundleService.getBundle();
+    if (!bundle.getVersion().equals(version)) {
+      logger.info("Requested offline bundle version " + version + " is not the latest");
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+    return respond(bundle, ifNoneMatch, acceptEncoding,
+            CacheControl.maxAge(VERSION_MAX_AGE).cachePublic().immutable());
+  }
+
+  private static ResponseEntity<byte[]> respond(SerializedContent bundle, String ifNoneMatch,
+                                                String acceptEncoding,
+                                                CacheControl cacheControl) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.CONTENT_LOCATION, "/api/offline-bundle/" + bundle.getVersion());
+    return ContentUtils.toResponse(bundle, ifNoneMatch, acceptEncoding, cacheControl, headers);
+  }
+}
@@ -0,0 +1,13 @@
+package com.group7.krisefikser.dto.request.household;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * DTO for reporting whether the user is safe during an affected area incident.
+ */
+@Data
+public class SafetyStatusRequest {
+  @NotNull(message = "Safe is required")
+  private Boolean safe;
+}
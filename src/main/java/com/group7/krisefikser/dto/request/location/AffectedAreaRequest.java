@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -57,4 +58,9 @@ public class AffectedAreaRequest {
           + "(Z|[+-]\\d{2}:\\d{2})?$",
           message = "Start date must be in ISO format (yyyy-MM-ddTHH:mm:ss[.nnn][Z/+HH:MM])")
   private String startDate;
+
+  @Size(max = 65535, message = "Polygon must be at most 65535 characters")
+  @Pattern(regexp = "^[?-~]+(;[?-~]+)*$",
+          message = "Polygon must be encoded polyline rings separated by ';'")
+  private String polygon;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.group7.krisefikser.dto.request.location;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a request for the map clusters visible in a viewport at a zoom level.
+ * A minimum longitude greater than the maximum longitude means the viewport crosses
+ * the antimeridian.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterRequest {
+  @NotNull(message = "Zoom cannot be null")
+  @Min(value = 0, message = "Zoom must be between 0 and 22")
+  @Max(value = 22, message = "Zoom must be between 0 and 22")
+  private Integer zoom;
+
+  @NotNull(message = "Minimum latitude cannot be null")
+  @DecimalMin(value = "-90.0", message = "Latitude must be between -90.0 and 90.0")
+  @DecimalMax(value = "90.0", message = "Latitude must be between -90.0 and 90.0")
+  private Double minLatitude;
+
+  @NotNull(message = "Minimum longitude cannot be null")
+  @DecimalMin(value = "-180.0", message = "Longitude must be between -180.0 and 180.0")
+  @DecimalMax(value = "180.0", message = "Longitude must be between -180.0 and 180.0")
+  private Double minLongitude;
+
+  @NotNull(message = "Maximum latitude cannot be null")
+  @DecimalMin(value = "-90.0", message = "Latitude must be between -90.0 and 90.0")
+  @DecimalMax(value = "90.0", message = "Latitude must be between -90.0 and 90.0")
+  private Double maxLatitude;
+
+  @NotNull(message = "Maximum longitude cannot be null")
+  @DecimalMin(value = "-180.0", message = "Longitude must be between -180.0 and 180.0")
+  @DecimalMax(value = "180.0", message = "Longitude must be between -180.0 and 180.0")
+  private Double maxLongitude;
+}
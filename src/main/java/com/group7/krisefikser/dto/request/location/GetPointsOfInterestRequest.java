@@ -3,13 +3,56 @@ package com.group7.krisefikser.dto.request.location;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Request class for getting points of interest.
  * This class can be used to encapsulate any parameters needed for the request.
+ * The result can be limited to a bounding box (all four min/max coordinates) or to a
+ * radius around a position (latitude, longitude and radiusKm).
+ * It can also be limited to points that are open at a time of day (openAt, as HH:mm) or
+ * open now (openNow).
  */
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class GetPointsOfInterestRequest {
   private List<String> types;
+  private Double minLatitude;
+  private Double minLongitude;
+  private Double maxLatitude;
+  private Double maxLongitude;
+  private Double latitude;
+  private Double longitude;
+  private Double radiusKm;
+  private String openAt;
+  private Boolean openNow;
+
+  /**
+   * Creates a request for all points of interest of the given types.
+   *
+   * @param types the types of points of interest to retrieve
+   */
+  public GetPointsOfInterestRequest(List<String> types) {
+    this.types = types;
+  }
+
+  /**
+   * Checks whether the request limits the result to a bounding box.
+   *
+   * @return true if any bounding box coordinate is given
+   */
+  public boolean hasBoundingBox() {
+    return minLatitude != null || minLongitude != null
+            || maxLatitude != null || maxLongitude != null;
+  }
+
+  /**
+   * Checks whether the request limits the result to a radius around a position.
+   *
+   * @return true if a radius is given
+   */
+  public boolean hasRadius() {
+    return radiusKm != null;
+  }
 }
@@ -3,6 +3,7 @@ package com.group7.krisefikser.dto.request.location;
 import com.group7.krisefikser.enums.PointOfInterestType;
 import com.group7.krisefikser.validation.ValidEnum;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -29,4 +30,6 @@ public class PointOfInterestRequest {
   private String closesAt;
   private String contactNumber;
   private String description;
+  @PositiveOrZero(message = "Capacity cannot be negative")
+  private Integer capacity;
 }
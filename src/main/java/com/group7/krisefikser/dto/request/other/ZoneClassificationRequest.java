@@ -0,0 +1,24 @@
+package com.group7.krisefikser.dto.request.other;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class represents a request to classify a batch of positions against the danger zones
+ * of all affected areas, for example the positions of all household members or the points
+ * of a route.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZoneClassificationRequest {
+  public static final int MAX_POINTS = 10_000;
+
+  @NotEmpty(message = "At least one point is required")
+  @Size(max = MAX_POINTS, message = "At most " + MAX_POINTS + " points can be classified")
+  private List<NotificationRequest> points;
+}
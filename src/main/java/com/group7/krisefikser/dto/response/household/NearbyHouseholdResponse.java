@@ -0,0 +1,18 @@
+package com.group7.krisefikser.dto.response.household;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response class representing a household near the current user's household.
+ * The distance is rounded up to whole kilometers, so the location of the household cannot
+ * be worked out from it. The name is what an emergency group invitation is sent to.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyHouseholdResponse {
+  private String name;
+  private int distanceKm;
+}
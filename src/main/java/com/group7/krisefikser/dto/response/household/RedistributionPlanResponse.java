@@ -0,0 +1,20 @@
+package com.group7.krisefikser.dto.response.household;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO class for a plan that balances shared supplies in an emergency group.
+ * It contains the number of days the whole group can sustain itself on calories and
+ * water, and the transfers that give every household the same number of days.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RedistributionPlanResponse {
+  private double calorieDays;
+  private double waterDays;
+  private List<SupplyTransferResponse> transfers;
+}
@@ -0,0 +1,21 @@
+package com.group7.krisefikser.dto.response.household;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the safety status of a household or emergency group member.
+ * Safe and updatedAt are null for a member who has not reported a status for the area.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SafetyStatusResponse {
+  private Long userId;
+  private String name;
+  private Long householdId;
+  private Boolean safe;
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.group7.krisefikser.dto.response.household;
+
+import com.group7.krisefikser.enums.SupplyType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO class for a single transfer of supplies between two households
+ * in an emergency group.
+ * The amount is given in kcal for calories and in liters for water.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SupplyTransferResponse {
+  private SupplyType type;
+  private Long fromHouseholdId;
+  private String fromHouseholdName;
+  private Long toHouseholdId;
+  private String toHouseholdName;
+  private double amount;
+  private double distanceKm;
+}
@@ -0,0 +1,20 @@
+package com.group7.krisefikser.dto.response.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO class for a household in the emergency group that shares an item.
+ * It contains the total shared quantity of the item in the household and
+ * the distance from the requested position to the household.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearestSharedItemResponse {
+  private Long householdId;
+  private String householdName;
+  private double quantity;
+  private double distanceKm;
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 /**
  * Represents a dto response for an affected area with its geographical coordinates,
  * danger radius and notification message.
+ * The end date is null while the area is active.
  */
 @Data
 @AllArgsConstructor
@@ -22,4 +23,7 @@ public class AffectedAreaResponse {
   private int severityLevel;
   private String description;
   private String startDate;
+  private String polygon;
+  private String status;
+  private String endDate;
 }
@@ -0,0 +1,26 @@
+package com.group7.krisefikser.dto.response.location;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the changes to points of interest and affected areas since a sequence number.
+ * When reset is true the client's copy is too old to be updated, and the response holds
+ * every point of interest and affected area instead of only the changed ones. The client
+ * passes seq as since in its next request. When hasMore is true there are more changes to
+ * fetch right away.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangesResponse {
+  private long seq;
+  private boolean reset;
+  private boolean hasMore;
+  private List<PointOfInterestResponse> pointsOfInterest;
+  private List<AffectedAreaResponse> affectedAreas;
+  private List<Long> deletedPointOfInterestIds;
+  private List<Long> deletedAffectedAreaIds;
+}
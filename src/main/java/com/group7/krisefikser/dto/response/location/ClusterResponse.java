@@ -0,0 +1,23 @@
+package com.group7.krisefikser.dto.response.location;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO class for a cluster of map markers.
+ * The breakdown maps each category in the cluster, such as a point of interest type, to the
+ * number of markers of that category. The id is only set when the cluster holds a single
+ * marker, so the client can show it as the marker itself.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterResponse {
+  private Long id;
+  private double latitude;
+  private double longitude;
+  private int count;
+  private Map<String, Integer> breakdown;
+}
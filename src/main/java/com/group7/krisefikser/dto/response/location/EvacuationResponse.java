@@ -0,0 +1,19 @@
+package com.group7.krisefikser.dto.response.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object summarizing a batch of shelter assignments for an affected area.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EvacuationResponse {
+  private Long affectedAreaId;
+  private int householdsAssigned;
+  private int peopleAssigned;
+  private int householdsUnassigned;
+  private int sheltersUsed;
+}
@@ -0,0 +1,21 @@
+package com.group7.krisefikser.dto.response.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the position of a household or emergency group member pushed to a subscriber
+ * of the position stream.
+ * The coordinates are null when the member stopped sharing their position.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberPositionUpdateResponse {
+  private Long userId;
+  private String name;
+  private Double latitude;
+  private Double longitude;
+  private boolean householdMember;
+}
@@ -0,0 +1,17 @@
+package com.group7.krisefikser.dto.response.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO class for a point of interest found by a nearest-neighbour query.
+ * It adds the great-circle distance from the requested position to the point of interest.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearestPointOfInterestResponse {
+  private PointOfInterestResponse pointOfInterest;
+  private double distanceKm;
+}
@@ -0,0 +1,23 @@
+package com.group7.krisefikser.dto.response.location;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of importing points of interest.
+ * Imported is the number of points of interest added or updated, and rejected the number
+ * of rows that were skipped because they were invalid. Errors describes the first of them.
+ * When complete is false the file could not be read to the end, and only the rows before
+ * the error were imported.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PointOfInterestImportResponse {
+  private int imported;
+  private int rejected;
+  private boolean complete;
+  private List<String> errors;
+}
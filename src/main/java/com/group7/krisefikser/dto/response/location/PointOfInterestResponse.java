@@ -22,4 +22,6 @@ public class PointOfInterestResponse {
   private String closesAt;
   private String contactNumber;
   private String description;
+  private Integer capacity;
+  private int occupancy;
 }
@@ -0,0 +1,18 @@
+package com.group7.krisefikser.dto.response.location;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a position in a user's position history.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PositionHistoryPointResponse {
+  private LocalDateTime time;
+  private double latitude;
+  private double longitude;
+}
@@ -0,0 +1,18 @@
+package com.group7.krisefikser.dto.response.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for the number of people currently checked in at a shelter.
+ * The capacity is null if it is not known.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShelterOccupancyResponse {
+  private Long shelterId;
+  private Integer capacity;
+  private int checkedIn;
+}
@@ -0,0 +1,20 @@
+package com.group7.krisefikser.dto.response.other;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents an alert in the inbox of the current user.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertResponse {
+  private Long id;
+  private Long affectedAreaId;
+  private String affectedAreaName;
+  private String dangerLevel;
+  private String createdAt;
+  private boolean read;
+}
@@ -0,0 +1,19 @@
+package com.group7.krisefikser.dto.response.other;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents an incident pushed to a subscriber of the incident stream.
+ * For a resolved incident, only the ID of the affected area is set.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IncidentUpdateResponse {
+  private Long affectedAreaId;
+  private String name;
+  private String message;
+  private Integer severityLevel;
+}
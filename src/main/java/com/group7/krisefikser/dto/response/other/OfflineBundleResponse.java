@@ -0,0 +1,27 @@
+package com.group7.krisefikser.dto.response.other;
+
+import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
+import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
+import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the offline bundle, which holds what a client needs during a crisis in one
+ * download: the points of interest, the active affected areas, the general information by
+ * theme and the latest news headlines. The version changes whenever the content does.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OfflineBundleResponse {
+  private String version;
+  private List<PointOfInterestResponse> pointsOfInterest;
+  private List<AffectedAreaResponse> affectedAreas;
+  private Map<String, List<GeneralInfoResponse>> generalInfo;
+  private List<ShortenedNewsArticleResponse> news;
+}
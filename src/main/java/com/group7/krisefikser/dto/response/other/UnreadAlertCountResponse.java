@@ -0,0 +1,15 @@
+package com.group7.krisefikser.dto.response.other;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the number of unread alerts in the inbox of the current user.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UnreadAlertCountResponse {
+  private int unreadCount;
+}
@@ -0,0 +1,19 @@
+package com.group7.krisefikser.dto.response.other;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class represents the danger zone of one classified position.
+ * The area ID is the affected area that gives the zone, and is null when the position is not
+ * in any danger zone.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZoneClassificationResponse {
+  private DangerLevel level;
+  private Long areaId;
+}
@@ -0,0 +1,40 @@
+package com.group7.krisefikser.enums;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Enum representing the lifecycle of an affected area.
+ * An area is active until it is resolved, and resolved areas are later moved to the archive.
+ * Each status has a corresponding string representation.
+ */
+@Getter
+public enum AffectedAreaStatus {
+  ACTIVE("active"),
+  RESOLVED("resolved");
+
+  private final String status;
+
+  /**
+   * Constructor for AffectedAreaStatus enum.
+   *
+   * @param status The string representation of the status.
+   */
+  AffectedAreaStatus(String status) {
+    this.status = status;
+  }
+
+  /**
+   * Method to convert a string to an AffectedAreaStatus enum.
+   *
+   * @param status The string representation of the status.
+   * @return The corresponding AffectedAreaStatus enum.
+   * @throws IllegalArgumentException if the string does not match any status
+   */
+  public static AffectedAreaStatus fromString(String status) {
+    return Arrays.stream(AffectedAreaStatus.values())
+            .filter(areaStatus -> areaStatus.getStatus().equals(status))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Invalid status: " + status));
+  }
+}
@@ -0,0 +1,12 @@
+package com.group7.krisefikser.enums;
+
+/**
+ * Enum representing the danger zone of an affected area a position lies in.
+ * The zones are ordered from no danger to the high danger zone at the center of the area.
+ */
+public enum DangerLevel {
+  NONE,
+  LOW,
+  MEDIUM,
+  HIGH
+}
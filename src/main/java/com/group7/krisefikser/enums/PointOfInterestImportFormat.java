@@ -0,0 +1,39 @@
+package com.group7.krisefikser.enums;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Enum representing the file formats points of interest can be imported from.
+ * Each format has a corresponding string representation.
+ */
+@Getter
+public enum PointOfInterestImportFormat {
+  GEOJSON("geojson"),
+  CSV("csv");
+
+  private final String format;
+
+  /**
+   * Constructor for PointOfInterestImportFormat enum.
+   *
+   * @param format The string representation of the import format.
+   */
+  PointOfInterestImportFormat(String format) {
+    this.format = format;
+  }
+
+  /**
+   * Method to convert a string to a PointOfInterestImportFormat enum.
+   *
+   * @param format The string representation of the import format.
+   * @return The corresponding PointOfInterestImportFormat enum.
+   * @throws IllegalArgumentException if the string does not match any import format
+   */
+  public static PointOfInterestImportFormat fromString(String format) {
+    return Arrays.stream(PointOfInterestImportFormat.values())
+            .filter(importFormat -> importFormat.getFormat().equalsIgnoreCase(format))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Invalid import format: " + format));
+  }
+}
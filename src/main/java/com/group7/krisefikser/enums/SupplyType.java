@@ -0,0 +1,11 @@
+package com.group7.krisefikser.enums;
+
+/**
+ * Enum representing the kinds of supplies that are balanced between
+ * the households of an emergency group.
+ * Calories are measured in kcal and water in liters.
+ */
+public enum SupplyType {
+  CALORIES,
+  WATER
+}
@@ -0,0 +1,39 @@
+package com.group7.krisefikser.enums;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Enum representing the kinds of data whose changes are recorded in the change log.
+ * Each type has a corresponding string representation.
+ */
+@Getter
+public enum SyncEntityType {
+  POINT_OF_INTEREST("point_of_interest"),
+  AFFECTED_AREA("affected_area");
+
+  private final String type;
+
+  /**
+   * Constructor for SyncEntityType enum.
+   *
+   * @param type The string representation of the entity type.
+   */
+  SyncEntityType(String type) {
+    this.type = type;
+  }
+
+  /**
+   * Method to convert a string to a SyncEntityType enum.
+   *
+   * @param type The string representation of the entity type.
+   * @return The corresponding SyncEntityType enum.
+   * @throws IllegalArgumentException if the string does not match any entity type
+   */
+  public static SyncEntityType fromString(String type) {
+    return Arrays.stream(SyncEntityType.values())
+            .filter(entityType -> entityType.getType().equals(type))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Invalid entity type: " + type));
+  }
+}
@@ -0,0 +1,17 @@
+package com.group7.krisefikser.event;
+
+import com.group7.krisefikser.model.location.AffectedArea;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when an affected area is added, updated, resolved or deleted.
+ * The affected area is null when it has been resolved or deleted, since both take it out of
+ * the active areas.
+ */
+@Data
+@AllArgsConstructor
+public class AffectedAreaChangedEvent {
+  private long affectedAreaId;
+  private AffectedArea affectedArea;
+}
@@ -0,0 +1,29 @@
+package com.group7.krisefikser.event;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when a user sharing their position enters, leaves or moves between danger
+ * zones of affected areas.
+ * The area IDs are null and the levels NONE when the user was or is outside all zones.
+ */
+@Data
+@AllArgsConstructor
+public class DangerZoneTransitionEvent {
+  private long userId;
+  private Long previousAreaId;
+  private DangerLevel previousLevel;
+  private Long areaId;
+  private DangerLevel level;
+
+  /**
+   * Checks whether the user is inside a danger zone after the transition.
+   *
+   * @return true if the user entered a zone, false if the user left all zones
+   */
+  public boolean isEntry() {
+    return areaId != null;
+  }
+}
@@ -0,0 +1,13 @@
+package com.group7.krisefikser.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when a general information entry is added, updated or deleted.
+ */
+@Data
+@AllArgsConstructor
+public class GeneralInfoChangedEvent {
+  private Long generalInfoId;
+}
@@ -0,0 +1,16 @@
+package com.group7.krisefikser.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when a household is created or its emergency group membership changes.
+ * In-memory indexes that depend on household locations or groups listen for this event
+ * to invalidate their cached state.
+ */
+@Data
+@AllArgsConstructor
+public class HouseholdChangedEvent {
+  private long householdId;
+  private Long emergencyGroupId;
+}
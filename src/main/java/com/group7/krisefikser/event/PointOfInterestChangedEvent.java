@@ -0,0 +1,16 @@
+package com.group7.krisefikser.event;
+
+import com.group7.krisefikser.model.location.PointOfInterest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when a point of interest is added, updated or deleted.
+ * The point of interest is null when it has been deleted.
+ */
+@Data
+@AllArgsConstructor
+public class PointOfInterestChangedEvent {
+  private long pointOfInterestId;
+  private PointOfInterest pointOfInterest;
+}
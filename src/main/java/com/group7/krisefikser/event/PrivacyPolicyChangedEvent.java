@@ -0,0 +1,13 @@
+package com.group7.krisefikser.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when the registered or unregistered privacy policy is updated.
+ */
+@Data
+@AllArgsConstructor
+public class PrivacyPolicyChangedEvent {
+  private boolean registered;
+}
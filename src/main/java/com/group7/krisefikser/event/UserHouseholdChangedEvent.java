@@ -0,0 +1,15 @@
+package com.group7.krisefikser.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when a user joins or leaves a household, or a user is created or deleted.
+ * The household ID is null when the user no longer belongs to a household.
+ */
+@Data
+@AllArgsConstructor
+public class UserHouseholdChangedEvent {
+  private long userId;
+  private Long householdId;
+}
@@ -0,0 +1,16 @@
+package com.group7.krisefikser.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Event published when a user shares a new position or stops sharing their position.
+ * The coordinates are null when the user stopped sharing.
+ */
+@Data
+@AllArgsConstructor
+public class UserPositionChangedEvent {
+  private long userId;
+  private Double latitude;
+  private Double longitude;
+}
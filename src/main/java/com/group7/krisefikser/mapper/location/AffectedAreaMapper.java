@@ -53,6 +53,9 @@ public interface AffectedAreaMapper {
   @Mapping(target = "severityLevel", source = "severityLevel")
   @Mapping(target = "description", source = "description")
   @Mapping(target = "startDate", source = "startDate")
+  @Mapping(target = "polygon", source = "polygon")
+  @Mapping(target = "status", source = "status")
+  @Mapping(target = "endDate", source = "endDate")
   AffectedAreaResponse affectedAreaToResponse(AffectedArea affectedArea);
 
   /**
@@ -70,5 +73,8 @@ public interface AffectedAreaMapper {
   @Mapping(target = "severityLevel", source = "severityLevel")
   @Mapping(target = "description", source = "description")
   @Mapping(target = "startDate", source = "startDate", qualifiedByName = "stringToDateTime")
+  @Mapping(target = "polygon", source = "polygon")
+  @Mapping(target = "status", ignore = true)
+  @Mapping(target = "endDate", ignore = true)
   AffectedArea requestToAffectedArea(AffectedAreaRequest affectedAreaRequest);
 }
@@ -0,0 +1,24 @@
+package com.group7.krisefikser.model.household;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the members and the shared, non-expired supplies of a household.
+ * This class is used when planning how supplies should be redistributed
+ * between the households of an emergency group.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HouseholdSupply {
+  private Long householdId;
+  private String householdName;
+  private double latitude;
+  private double longitude;
+  private int userCount;
+  private int nonUserCount;
+  private double calories;
+  private double liters;
+}
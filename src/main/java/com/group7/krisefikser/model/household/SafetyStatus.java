@@ -0,0 +1,19 @@
+package com.group7.krisefikser.model.household;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents whether a user has reported themselves safe during an affected area incident.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SafetyStatus {
+  private Long userId;
+  private Long affectedAreaId;
+  private boolean safe;
+  private LocalDateTime updatedAt;
+}
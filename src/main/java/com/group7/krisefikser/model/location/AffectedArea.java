@@ -1,5 +1,6 @@
 package com.group7.krisefikser.model.location;
 
+import com.group7.krisefikser.enums.AffectedAreaStatus;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 /**
  * Represents an affected area with its geographical coordinates, danger radius
  * levels, and notification message.
+ * An area is active until it is resolved, at which point it gets an end date.
  */
 @Data
 @AllArgsConstructor
@@ -23,4 +25,7 @@ public class AffectedArea {
   private int severityLevel;
   private String description;
   private LocalDateTime startDate;
+  private String polygon;
+  private AffectedAreaStatus status;
+  private LocalDateTime endDate;
 }
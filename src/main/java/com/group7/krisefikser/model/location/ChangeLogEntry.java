@@ -0,0 +1,22 @@
+package com.group7.krisefikser.model.location;
+
+import com.group7.krisefikser.enums.SyncEntityType;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a change to a point of interest or affected area, in the order the changes
+ * were made.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeLogEntry {
+  private long seq;
+  private SyncEntityType entityType;
+  private long entityId;
+  private boolean deleted;
+  private LocalDateTime changedAt;
+}
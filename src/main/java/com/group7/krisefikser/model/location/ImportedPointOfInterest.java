@@ -0,0 +1,18 @@
+package com.group7.krisefikser.model.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a point of interest read from an external registry, together with the ID it
+ * has in that registry. Importing the same external ID again updates the point of interest
+ * instead of adding a new one.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportedPointOfInterest {
+  private String externalId;
+  private PointOfInterest pointOfInterest;
+}
@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 /**
  * This class represents a point of interest (POI) with its attributes.
  * It contains the id, latitude, longitude, and type of the POI.
+ * Shelters also have a capacity, or null if unknown, and the number of people assigned to
+ * them by evacuations.
  * It uses Lombok annotations to generate boilerplate code like getters, setters,
  * and constructors.
  */
@@ -24,4 +26,6 @@ public class PointOfInterest {
   private LocalTime closesAt;
   private String contactNumber;
   private String description;
+  private Integer capacity;
+  private int occupancy;
 }
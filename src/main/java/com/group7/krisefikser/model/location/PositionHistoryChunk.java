@@ -0,0 +1,24 @@
+package com.group7.krisefikser.model.location;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a stored stretch of a user's position history.
+ * The points are a track encoded with delta-encoded coordinates, sampled at most once per
+ * resolution interval.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PositionHistoryChunk {
+  private Long id;
+  private Long userId;
+  private LocalDateTime startTime;
+  private LocalDateTime endTime;
+  private int resolutionSeconds;
+  private int pointCount;
+  private String points;
+}
@@ -0,0 +1,21 @@
+package com.group7.krisefikser.model.location;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the shelter a household was assigned to when an affected area was evacuated.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShelterAssignment {
+  private Long householdId;
+  private Long shelterId;
+  private Long affectedAreaId;
+  private int people;
+  private double distanceKm;
+  private LocalDateTime assignedAt;
+}
@@ -0,0 +1,17 @@
+package com.group7.krisefikser.model.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the number of people checked in at a shelter, together with its capacity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShelterOccupancy {
+  private Long shelterId;
+  private Integer capacity;
+  private int checkedIn;
+}
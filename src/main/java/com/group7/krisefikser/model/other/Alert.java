@@ -0,0 +1,24 @@
+package com.group7.krisefikser.model.other;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents an alert in a user's inbox, telling the user that their household or shared
+ * position is inside a danger zone of an affected area.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Alert {
+  private Long id;
+  private Long userId;
+  private Long affectedAreaId;
+  private String affectedAreaName;
+  private DangerLevel dangerLevel;
+  private LocalDateTime createdAt;
+  private boolean read;
+}
@@ -0,0 +1,48 @@
+package com.group7.krisefikser.model.other;
+
+/**
+ * Represents content that is serialized once and served as is, such as cached articles
+ * and the offline bundle. The content is kept both as JSON and as gzipped JSON, together
+ * with a version that is used as its ETag.
+ */
+public final class SerializedContent {
+  private final String version;
+  private final byte[] json;
+  private final byte[] gzipped;
+
+  /**
+   * Creates content from its serialized forms.
+   *
+   * @param version the version of the content
+   * @param json    the content as JSON
+   * @param gzipped the content as gzipped JSON
+   */
+  public SerializedContent(String version, byte[] json, byte[] gzipped) {
+    this.version = version;
+    this.json = json;
+    this.gzipped = gzipped;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the content as JSON, for clients that do not accept gzip. The array is shared
+   * and must not be modified.
+   *
+   * @return the JSON bytes
+   */
+  public byte[] getJson() {
+    return json;
+  }
+
+  /**
+   * Returns the content as gzipped JSON. The array is shared and must not be modified.
+   *
+   * @return the gzipped JSON bytes
+   */
+  public byte[] getGzipped() {
+    return gzipped;
+  }
+}
@@ -1,8 +1,10 @@
 package com.group7.krisefikser.repository.article;
 
 import com.group7.krisefikser.enums.Theme;
+import com.group7.krisefikser.event.GeneralInfoChangedEvent;
 import com.group7.krisefikser.model.article.GeneralInfo;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -15,15 +17,19 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class GeneralInfoRepository {
   private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * Constructor for GeneralInfoRepository.
    * Initializes the JdbcTemplate for database operations.
    *
-   * @param jdbcTemplate the JdbcTemplate to be used for database operations
+   * @param jdbcTemplate   the JdbcTemplate to be used for database operations
+   * @param eventPublisher the publisher used to announce changes to general information
    */
-  public GeneralInfoRepository(JdbcTemplate jdbcTemplate) {
+  public GeneralInfoRepository(JdbcTemplate jdbcTemplate,
+                               ApplicationEventPublisher eventPublisher) {
     this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -58,6 +64,7 @@ public class GeneralInfoRepository {
         info.getTitle(), info.getContent());
     Long id = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
     info.setId(id);
+    eventPublisher.publishEvent(new GeneralInfoChangedEvent(id));
     return info;
   }
 
@@ -75,6 +82,7 @@ public class GeneralInfoRepository {
     jdbcTemplate.update(sql, info.getTheme().name(),
         info.getTitle(), info.getContent(), id);
     info.setId(id);
+    eventPublisher.publishEvent(new GeneralInfoChangedEvent(id));
     return info;
   }
 
@@ -88,6 +96,7 @@ public class GeneralInfoRepository {
   public void deleteGeneralInfo(Long id) {
     String sql = "DELETE FROM general_info WHERE id = ?";
     jdbcTemplate.update(sql, id);
+    eventPublisher.publishEvent(new GeneralInfoChangedEvent(id));
   }
 
   /**
@@ -1,6 +1,8 @@
 package com.group7.krisefikser.repository.article;
 
+import com.group7.krisefikser.event.PrivacyPolicyChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Repository;
 public class PrivacyPolicyRepository {
 
   private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * Retrieves the registered privacy policy from the database.
@@ -41,6 +44,7 @@ public class PrivacyPolicyRepository {
   public void updateRegisteredPrivacyPolicy(String registered) {
     String sql = "UPDATE privacy_policy SET registered = ?";
     jdbcTemplate.update(sql, registered);
+    eventPublisher.publishEvent(new PrivacyPolicyChangedEvent(true));
   }
 
   /**
@@ -51,5 +55,6 @@ public class PrivacyPolicyRepository {
   public void updateUnregisteredPrivacyPolicy(String unregistered) {
     String sql = "UPDATE privacy_policy SET unregistered = ?";
     jdbcTemplate.update(sql, unregistered);
+    eventPublisher.publishEvent(new PrivacyPolicyChangedEvent(false));
   }
 }
@@ -2,16 +2,21 @@ package com.group7.krisefikser.repository.household;
 
 import com.group7.krisefikser.dto.response.household.HouseholdMemberResponse;
 import com.group7.krisefikser.dto.response.household.NonUserMemberResponse;
+import com.group7.krisefikser.event.HouseholdChangedEvent;
 import com.group7.krisefikser.model.household.Household;
+import com.group7.krisefikser.model.household.HouseholdSupply;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
@@ -28,6 +33,16 @@ import org.springframework.stereotype.Repository;
 @RequiredArgsConstructor
 public class HouseholdRepository {
   private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Receives the location of a household.
+   */
+  @FunctionalInterface
+  public interface LocationHandler {
+    void accept(long householdId, String name, double latitude, double longitude,
+                Long emergencyGroupId);
+  }
 
   /**
    * Creates a new household in the database.
@@ -51,7 +66,9 @@ public class HouseholdRepository {
       ps.setDouble(3, latitude);
       return ps;
     }, keyHolder);
-    return keyHolder.getKey().longValue();
+    long householdId = keyHolder.getKey().longValue();
+    eventPublisher.publishEvent(new HouseholdChangedEvent(householdId, null));
+    return householdId;
   }
 
   /**
@@ -87,6 +104,7 @@ public class HouseholdRepository {
 
     Number householdId = householdInsert.executeAndReturnKey(params);
     household.setId(householdId.longValue());
+    eventPublisher.publishEvent(new HouseholdChangedEvent(householdId.longValue(), null));
 
     return household;
   }
@@ -143,6 +161,52 @@ public class HouseholdRepository {
   public void addHouseholdToGroup(long householdId, long groupId) {
     String sql = "UPDATE households SET emergency_group_id = ? WHERE id = ?";
     jdbcTemplate.update(sql, groupId, householdId);
+    eventPublisher.publishEvent(new HouseholdChangedEvent(householdId, groupId));
+  }
+
+  /**
+   * Retrieves all households that belong to an emergency group.
+   *
+   * @param emergencyGroupId the ID of the emergency group
+   * @return a list of the households in the group
+   */
+  public List<Household> getHouseholdsByEmergencyGroupId(long emergencyGroupId) {
+    String sql = "SELECT * FROM households WHERE emergency_group_id = ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToHousehold(rs), emergencyGroupId);
+  }
+
+  /**
+   * Retrieves the member counts and shared, non-expired supplies of every household in
+   * an emergency group in a single query.
+   * Water is counted as drinks measured in liters, as in the readiness calculation.
+   *
+   * @param emergencyGroupId the ID of the emergency group
+   * @return a list of HouseholdSupply objects, one per household in the group
+   */
+  public List<HouseholdSupply> getHouseholdSuppliesByEmergencyGroupId(long emergencyGroupId) {
+    String sql = "SELECT h.id, h.name, h.latitude, h.longitude, "
+            + "(SELECT COUNT(*) FROM users u WHERE u.household_id = h.id) AS user_count, "
+            + "(SELECT COUNT(*) FROM non_user_members n WHERE n.household_id = h.id) "
+            + "AS non_user_count, "
+            + "COALESCE(s.calories, 0) AS calories, COALESCE(s.liters, 0) AS liters "
+            + "FROM households h LEFT JOIN ("
+            + "SELECT si.household_id, SUM(si.quantity * i.calories) AS calories, "
+            + "SUM(CASE WHEN LOWER(i.unit) = 'l' AND i.type = 'drink' "
+            + "THEN si.quantity ELSE 0 END) AS liters "
+            + "FROM storage_items si JOIN items i ON si.item_id = i.id "
+            + "WHERE si.is_shared = TRUE AND si.expiration_date > ? "
+            + "GROUP BY si.household_id) s ON s.household_id = h.id "
+            + "WHERE h.emergency_group_id = ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> new HouseholdSupply(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude"),
+            rs.getInt("user_count"),
+            rs.getInt("non_user_count"),
+            rs.getDouble("calories"),
+            rs.getDouble("liters")
+    ), Timestamp.valueOf(LocalDateTime.now()), emergencyGroupId);
   }
 
   /**
@@ -193,4 +257,33 @@ public class HouseholdRepository {
       return null;
     }
   }
+
+  /**
+   * Streams the location and emergency group of every household.
+   *
+   * @param handler receives every household
+   */
+  public void forEachHouseholdLocation(LocationHandler handler) {
+    queryLocations("SELECT id, name, latitude, longitude, emergency_group_id "
+            + "FROM households", handler);
+  }
+
+  /**
+   * Reads the location and emergency group of one household.
+   *
+   * @param householdId the ID of the household
+   * @param handler     receives the household, and is not called if it does not exist
+   */
+  public void findHouseholdLocation(long householdId, LocationHandler handler) {
+    queryLocations("SELECT id, name, latitude, longitude, emergency_group_id "
+            + "FROM households WHERE id = ?", handler, householdId);
+  }
+
+  private void queryLocations(String sql, LocationHandler handler, Object... args) {
+    jdbcTemplate.query(sql, rs -> {
+      long emergencyGroupId = rs.getLong(5);
+      handler.accept(rs.getLong(1), rs.getString(2), rs.getDouble(3), rs.getDouble(4),
+              rs.wasNull() ? null : emergencyGroupId);
+    }, args);
+  }
 }
@@ -0,0 +1,50 @@
+package com.group7.krisefikser.repository.household;
+
+import com.group7.krisefikser.model.household.SafetyStatus;
+import java.sql.Timestamp;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class for the safety statuses users report during an affected area incident.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SafetyStatusRepository {
+  static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Fetches every safety status reported for an affected area.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @return the safety statuses of the area
+   */
+  public List<SafetyStatus> getSafetyStatusesByAffectedArea(long affectedAreaId) {
+    String sql = "SELECT user_id, affected_area_id, safe, updated_at FROM safety_statuses "
+            + "WHERE affected_area_id = ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> new SafetyStatus(rs.getLong(1),
+            rs.getLong(2), rs.getBoolean(3), rs.getTimestamp(4).toLocalDateTime()),
+            affectedAreaId);
+  }
+
+  /**
+   * Inserts safety statuses, replacing earlier statuses of the same users and areas.
+   *
+   * @param safetyStatuses the safety statuses to write
+   */
+  public void upsertSafetyStatuses(List<SafetyStatus> safetyStatuses) {
+    String sql = "INSERT INTO safety_statuses (user_id, affected_area_id, safe, updated_at) "
+            + "VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE safe = VALUES(safe), updated_at = VALUES(updated_at)";
+    jdbcTemplate.batchUpdate(sql, safetyStatuses, BATCH_SIZE, (ps, safetyStatus) -> {
+      ps.setLong(1, safetyStatus.getUserId());
+      ps.setLong(2, safetyStatus.getAffectedAreaId());
+      ps.setBoolean(3, safetyStatus.isSafe());
+      ps.setTimestamp(4, Timestamp.valueOf(safetyStatus.getUpdatedAt()));
+    });
+  }
+}
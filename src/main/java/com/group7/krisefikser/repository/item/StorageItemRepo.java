@@ -6,7 +6,9 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -90,6 +92,26 @@ public class StorageItemRepo {
     return jdbcTemplate.query(sql, storageItemRowMapper, groupId, itemId);
   }
 
+  /**
+   * This method sums the shared quantity of an item per household in a group.
+   *
+   * @param groupId The ID of the group
+   * @param itemId  The ID of the item
+   * @return A map from household ID to the total shared quantity of the item
+   */
+  public Map<Long, Double> getSharedQuantitiesInGroupByItemId(long groupId, long itemId) {
+    String sql = "SELECT si.household_id, SUM(si.quantity) AS total_quantity "
+            + "FROM storage_items si "
+            + "JOIN households h ON si.household_id = h.id "
+            + "WHERE h.emergency_group_id = ? AND si.is_shared = TRUE AND si.item_id = ? "
+            + "GROUP BY si.household_id";
+    Map<Long, Double> quantities = new HashMap<>();
+    jdbcTemplate.query(sql, rs -> {
+      quantities.put(rs.getLong("household_id"), rs.getDouble("total_quantity"));
+    }, groupId, itemId);
+    return quantities;
+  }
+
   /**
    * This method retrieves a storage item by its ID.
    *
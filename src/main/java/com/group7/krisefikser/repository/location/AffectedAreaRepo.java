@@ -1,10 +1,22 @@
 package com.group7.krisefikser.repository.location;
 
+import com.group7.krisefikser.enums.AffectedAreaStatus;
+import com.group7.krisefikser.enums.SyncEntityType;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
 import com.group7.krisefikser.model.location.AffectedArea;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -12,42 +24,95 @@ import org.springframework.stereotype.Repository;
 
 /**
  * Repository class for accessing affected area data from the database.
+ * Only active affected areas are read, updated and returned. Resolved areas stay in the
+ * affected_areas table until they are moved to affected_areas_archive, so the table the
+ * notification checks and map queries read stays small as incidents accumulate.
  */
 @Repository
 public class AffectedAreaRepo {
   private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ChangeLogRepository changeLogRepository;
+  private static final String ACTIVE = AffectedAreaStatus.ACTIVE.getStatus();
+  private static final String ARCHIVED_COLUMNS = "id, name, longitude, latitude, "
+          + "high_danger_radius_km, medium_danger_radius_km, low_danger_radius_km, "
+          + "severity_level, description, start_time, end_time, polygon";
 
   /**
    * Constructor for AffectedAreaRepo.
    *
-   * @param jdbcTemplate the JdbcTemplate to be used for database operations
+   * @param jdbcTemplate   the JdbcTemplate to be used for database operations
+   * @param eventPublisher      the publisher used to announce changes to affected areas
+   * @param changeLogRepository the repository every change is recorded in for delta sync
    */
   @Autowired
-  public AffectedAreaRepo(JdbcTemplate jdbcTemplate) {
+  public AffectedAreaRepo(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                          ChangeLogRepository changeLogRepository) {
     this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+    this.changeLogRepository = changeLogRepository;
   }
 
   /**
-   * Fetches all affected areas from the database and maps them to AffectedArea objects.
+   * Fetches all active affected areas from the database and maps them to AffectedArea
+   * objects.
    *
    * @return a list of AffectedArea objects
    */
   public List<AffectedArea> getAllAffectedAreas() {
-    String sql = "SELECT * FROM affected_areas";
-    return jdbcTemplate.query(sql, (rs, rowNum) -> {
-      AffectedArea area = new AffectedArea();
-      area.setId(rs.getLong("id"));
-      area.setName(rs.getString("name"));
-      area.setLongitude(rs.getDouble("longitude"));
-      area.setLatitude(rs.getDouble("latitude"));
-      area.setHighDangerRadiusKm(rs.getDouble("high_danger_radius_km"));
-      area.setMediumDangerRadiusKm(rs.getDouble("medium_danger_radius_km"));
-      area.setLowDangerRadiusKm(rs.getDouble("low_danger_radius_km"));
-      area.setSeverityLevel(rs.getInt("severity_level"));
-      area.setDescription(rs.getString("description"));
-      area.setStartDate(rs.getTimestamp("start_time").toLocalDateTime());
-      return area;
-    });
+    String sql = "SELECT * FROM affected_areas WHERE status = ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToAffectedArea(rs), ACTIVE);
+  }
+
+  /**
+   * Fetches a single active affected area by its ID.
+   *
+   * @param id the ID of the affected area
+   * @return the affected area, or empty if it does not exist or is no longer active
+   */
+  public Optional<AffectedArea> getAffectedAreaById(long id) {
+    String sql = "SELECT * FROM affected_areas WHERE id = ? AND status = ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToAffectedArea(rs), id, ACTIVE)
+            .stream()
+            .findFirst();
+  }
+
+  /**
+   * Fetches the active affected areas with the given IDs. IDs of areas that do not exist or
+   * are no longer active are ignored.
+   *
+   * @param ids the IDs of the affected areas
+   * @return the active affected areas
+   */
+  public List<AffectedArea> getAffectedAreasByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+    String sql = "SELECT * FROM affected_areas WHERE id IN (" + placeholders + ") "
+            + "AND status = ?";
+    List<Object> args = new ArrayList<>(ids);
+    args.add(ACTIVE);
+    return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToAffectedArea(rs), args.toArray());
+  }
+
+  private AffectedArea mapRowToAffectedArea(ResultSet rs) throws SQLException {
+    AffectedArea area = new AffectedArea();
+    area.setId(rs.getLong("id"));
+    area.setName(rs.getString("name"));
+    area.setLongitude(rs.getDouble("longitude"));
+    area.setLatitude(rs.getDouble("latitude"));
+    area.setHighDangerRadiusKm(rs.getDouble("high_danger_radius_km"));
+    area.setMediumDangerRadiusKm(rs.getDouble("medium_danger_radius_km"));
+    area.setLowDangerRadiusKm(rs.getDouble("low_danger_radius_km"));
+    area.setSeverityLevel(rs.getInt("severity_level"));
+    area.setDescription(rs.getString("description"));
+    area.setStartDate(rs.getTimestamp("start_time").toLocalDateTime());
+    area.setPolygon(rs.getString("polygon"));
+    area.setStatus(AffectedAreaStatus.fromString(rs.getString("status")));
+    Timestamp endTime = rs.getTimestamp("end_time");
+    area.setEndDate(endTime != null ? endTime.toLocalDateTime() : null);
+    return area;
   }
 
   /**
@@ -58,7 +123,7 @@ public class AffectedAreaRepo {
   public void addAffectedArea(AffectedArea area) {
     String sql = "INSERT INTO affected_areas (name, longitude, latitude, high_danger_radius_km, "
         + "medium_danger_radius_km, low_danger_radius_km, severity_level, description, "
-        + "start_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        + "start_time, polygon) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     KeyHolder keyHolder = new GeneratedKeyHolder();
     jdbcTemplate.update(connection -> {
       PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
@@ -71,9 +136,13 @@ public class AffectedAreaRepo {
       ps.setInt(7, area.getSeverityLevel());
       ps.setString(8, area.getDescription());
       ps.setTimestamp(9, java.sql.Timestamp.valueOf(area.getStartDate()));
+      ps.setString(10, area.getPolygon());
       return ps;
     }, keyHolder);
     area.setId(keyHolder.getKey().longValue());
+    area.setStatus(AffectedAreaStatus.ACTIVE);
+    changeLogRepository.recordChange(SyncEntityType.AFFECTED_AREA, area.getId(), false);
+    eventPublisher.publishEvent(new AffectedAreaChangedEvent(area.getId(), area));
   }
 
   /**
@@ -83,11 +152,17 @@ public class AffectedAreaRepo {
    */
   public int deleteAffectedArea(long id) {
     String sql = "DELETE FROM affected_areas WHERE id = ?";
-    return jdbcTemplate.update(sql, id);
+    int rowsAffected = jdbcTemplate.update(sql, id);
+    if (rowsAffected > 0) {
+      changeLogRepository.recordChange(SyncEntityType.AFFECTED_AREA, id, true);
+      eventPublisher.publishEvent(new AffectedAreaChangedEvent(id, null));
+    }
+    return rowsAffected;
   }
 
   /**
-   * Updates an existing affected area in the database.
+   * Updates an existing active affected area in the database. Resolved areas are not
+   * changed.
    *
    * @param area the AffectedArea object with updated values
    */
@@ -95,8 +170,8 @@ public class AffectedAreaRepo {
     String sql = "UPDATE affected_areas SET name = ?, longitude = ?, latitude = ?, "
             + "high_danger_radius_km = ?, medium_danger_radius_km = ?, "
             + "low_danger_radius_km = ?, severity_level = ?, description = ?, "
-            + "start_time = ? WHERE id = ?";
-    return jdbcTemplate.update(sql,
+            + "start_time = ?, polygon = ? WHERE id = ? AND status = ?";
+    int rowsAffected = jdbcTemplate.update(sql,
             area.getName(),
             area.getLongitude(),
             area.getLatitude(),
@@ -106,6 +181,73 @@ public class AffectedAreaRepo {
             area.getSeverityLevel(),
             area.getDescription(),
             java.sql.Timestamp.valueOf(area.getStartDate()),
-            area.getId());
+            area.getPolygon(),
+            area.getId(),
+            ACTIVE);
+    if (rowsAffected > 0) {
+      area.setStatus(AffectedAreaStatus.ACTIVE);
+      changeLogRepository.recordChange(SyncEntityType.AFFECTED_AREA, area.getId(), false);
+      eventPublisher.publishEvent(new AffectedAreaChangedEvent(area.getId(), area));
+    }
+    return rowsAffected;
+  }
+
+  /**
+   * Resolves an active affected area. The area is no longer returned as active, so it is
+   * recorded as deleted for delta sync and announced as removed.
+   *
+   * @param id      the ID of the affected area
+   * @param endDate the time the area was resolved
+   * @return the number of rows affected, 0 if there is no active area with the ID
+   */
+  public int resolveAffectedArea(long id, LocalDateTime endDate) {
+    String sql = "UPDATE affected_areas SET status = ?, end_time = ? "
+            + "WHERE id = ? AND status = ?";
+    int rowsAffected = jdbcTemplate.update(sql, AffectedAreaStatus.RESOLVED.getStatus(),
+            Timestamp.valueOf(endDate), id, ACTIVE);
+    if (rowsAffected > 0) {
+      changeLogRepository.recordChange(SyncEntityType.AFFECTED_AREA, id, true);
+      eventPublisher.publishEvent(new AffectedAreaChangedEvent(id, null));
+    }
+    return rowsAffected;
+  }
+
+  /**
+   * Fetches the IDs of a batch of the affected areas resolved before a point in time,
+   * oldest first.
+   *
+   * @param resolvedBefore the point in time
+   * @param limit          the maximum number of IDs to fetch
+   * @return the IDs of the areas
+   */
+  public List<Long> getResolvedAffectedAreaIds(LocalDateTime resolvedBefore, int limit) {
+    return jdbcTemplate.queryForList("SELECT id FROM affected_areas "
+                    + "WHERE status = ? AND end_time < ? ORDER BY end_time LIMIT ?", Long.class,
+            AffectedAreaStatus.RESOLVED.getStatus(), Timestamp.valueOf(resolvedBefore), limit);
+  }
+
+  /**
+   * Moves resolved affected areas to the archive. The alerts, safety statuses and shelter
+   * assignments of the areas are deleted with them, so the shelter assignments should be
+   * released first. Areas that are not resolved are not moved.
+   *
+   * @param ids the IDs of the areas
+   * @return the number of areas moved
+   */
+  public int archiveResolvedAffectedAreas(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+    String resolved = AffectedAreaStatus.RESOLVED.getStatus();
+    List<Object> args = new ArrayList<>();
+    args.add(Timestamp.valueOf(LocalDateTime.now()));
+    args.addAll(ids);
+    args.add(resolved);
+    jdbcTemplate.update("INSERT INTO affected_areas_archive (" + ARCHIVED_COLUMNS
+            + ", archived_at) SELECT " + ARCHIVED_COLUMNS + ", ? FROM affected_areas "
+            + "WHERE id IN (" + placeholders + ") AND status = ?", args.toArray());
+    return jdbcTemplate.update("DELETE FROM affected_areas WHERE id IN (" + placeholders
+            + ") AND status = ?", args.subList(1, args.size()).toArray());
   }
 }
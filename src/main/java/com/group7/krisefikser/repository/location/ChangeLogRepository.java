@@ -0,0 +1,139 @@
+package com.group7.krisefikser.repository.location;
+
+import com.group7.krisefikser.enums.SyncEntityType;
+import com.group7.krisefikser.model.location.ChangeLogEntry;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class for the change log of points of interest and affected areas.
+ * Every change gets the next sequence number, so a client can ask for the changes made after
+ * the last one it has seen. Compaction removes entries a client no longer needs: entries
+ * replaced by a later change to the same entity, and old deletions. The highest sequence
+ * number of a removed deletion is kept as the compacted sequence; a client that has not
+ * synced since before it may have missed a deletion and must start over.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeLogRepository {
+  static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Records a change to a point of interest or affected area.
+   *
+   * @param entityType the type of the changed entity
+   * @param entityId   the ID of the changed entity
+   * @param deleted    whether the entity was deleted
+   */
+  public void recordChange(SyncEntityType entityType, long entityId, boolean deleted) {
+    String sql = "INSERT INTO change_log (entity_type, entity_id, deleted, changed_at) "
+            + "VALUES (?, ?, ?, ?)";
+    jdbcTemplate.update(sql, entityType.getType(), entityId, deleted,
+            Timestamp.valueOf(LocalDateTime.now()));
+  }
+
+  /**
+   * Records changes to several points of interest or affected areas in batches.
+   *
+   * @param entityType the type of the changed entities
+   * @param entityIds  the IDs of the changed entities
+   * @param deleted    whether the entities were deleted
+   */
+  public void recordChanges(SyncEntityType entityType, Collection<Long> entityIds,
+                            boolean deleted) {
+    String sql = "INSERT INTO change_log (entity_type, entity_id, deleted, changed_at) "
+            + "VALUES (?, ?, ?, ?)";
+    Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(sql, entityIds, BATCH_SIZE, (ps, entityId) -> {
+      ps.setString(1, entityType.getType());
+      ps.setLong(2, entityId);
+      ps.setBoolean(3, deleted);
+      ps.setTimestamp(4, changedAt);
+    });
+  }
+
+  /**
+   * Fetches the changes made after a sequence number, oldest first.
+   *
+   * @param since the sequence number of the last change already seen
+   * @param limit the maximum number of changes to fetch
+   * @return the changes
+   */
+  public List<ChangeLogEntry> getChangesSince(long since, int limit) {
+    String sql = "SELECT seq, entity_type, entity_id, deleted, changed_at FROM change_log "
+            + "WHERE seq > ? ORDER BY seq LIMIT ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> new ChangeLogEntry(rs.getLong(1),
+            SyncEntityType.fromString(rs.getString(2)), rs.getLong(3), rs.getBoolean(4),
+            rs.getTimestamp(5).toLocalDateTime()), since, limit);
+  }
+
+  /**
+   * Fetches the sequence number below which every change was recorded before a point in
+   * time.
+   *
+   * @param before the point in time
+   * @return the highest sequence number with no later-recorded change below it, or 0 if
+   *         the log is empty
+   */
+  public long getSettledSeq(LocalDateTime before) {
+    Long firstUnsettled = jdbcTemplate.queryForObject(
+            "SELECT MIN(seq) FROM change_log WHERE changed_at > ?", Long.class,
+            Timestamp.valueOf(before));
+    if (firstUnsettled != null) {
+      return firstUnsettled - 1;
+    }
+    Long latest = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM change_log", Long.class);
+    return latest == null ? 0 : latest;
+  }
+
+  /**
+   * Fetches the highest sequence number of a deletion removed by compaction.
+   *
+   * @return the compacted sequence number
+   */
+  public long getCompactedSeq() {
+    return jdbcTemplate.queryForObject(
+            "SELECT compacted_seq FROM change_log_compaction WHERE id = 1", Long.class);
+  }
+
+  /**
+   * Removes the changes that were replaced by a later change to the same entity.
+   *
+   * @return the number of removed changes
+   */
+  public int deleteSupersededChanges() {
+    List<Long> superseded = jdbcTemplate.queryForList("SELECT seq FROM change_log c "
+            + "WHERE EXISTS (SELECT 1 FROM change_log n WHERE n.entity_type = c.entity_type "
+            + "AND n.entity_id = c.entity_id AND n.seq > c.seq)", Long.class);
+    jdbcTemplate.batchUpdate("DELETE FROM change_log WHERE seq = ?", superseded, BATCH_SIZE,
+            (ps, seq) -> ps.setLong(1, seq));
+    return superseded.size();
+  }
+
+  /**
+   * Removes the deletions recorded before a point in time and raises the compacted sequence
+   * number to the highest of them.
+   *
+   * @param before the point in time
+   * @return the number of removed deletions
+   */
+  public int deleteDeletionsBefore(LocalDateTime before) {
+    Long compacted = jdbcTemplate.queryForObject(
+            "SELECT MAX(seq) FROM change_log WHERE deleted = TRUE AND changed_at < ?",
+            Long.class, Timestamp.valueOf(before));
+    if (compacted == null) {
+      return 0;
+    }
+    jdbcTemplate.update("UPDATE change_log_compaction SET compacted_seq = ? "
+            + "WHERE id = 1 AND compacted_seq < ?", compacted, compacted);
+    return jdbcTemplate.update("DELETE FROM change_log WHERE deleted = TRUE AND seq <= ?",
+            compacted);
+  }
+}
@@ -1,14 +1,21 @@
 package com.group7.krisefikser.repository.location;
 
 import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.enums.SyncEntityType;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.model.location.ImportedPointOfInterest;
 import com.group7.krisefikser.model.location.PointOfInterest;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -22,18 +29,27 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class PointOfInterestRepo {
   private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ChangeLogRepository changeLogRepository;
+  static final int BATCH_SIZE = 1000;
   private static final String OPENS_AT_COLUMN_NAME = "opens_at";
   private static final String CLOSES_AT_COLUMN_NAME = "closes_at";
 
   /**
    * Constructor for PointOfInterestRepo.
    *
-   * @param jdbcTemplate The JdbcTemplate used to interact with the database.
+   * @param jdbcTemplate   The JdbcTemplate used to interact with the database.
+   * @param eventPublisher The publisher used to announce changes to points of interest.
+   * @param changeLogRepository The repository every change is recorded in for delta sync.
    */
 
   @Autowired
-  public PointOfInterestRepo(JdbcTemplate jdbcTemplate) {
+  public PointOfInterestRepo(JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             ChangeLogRepository changeLogRepository) {
     this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+    this.changeLogRepository = changeLogRepository;
   }
 
   /**
@@ -68,6 +84,37 @@ public class PointOfInterestRepo {
             mapRowToPointOfInterest(rs), typeValues);
   }
 
+  /**
+   * This method retrieves the points of interest with the given IDs.
+   * IDs of points of interest that do not exist are ignored.
+   *
+   * @param ids The IDs of the points of interest to retrieve.
+   * @return A list of the PointOfInterest objects that exist.
+   */
+  public List<PointOfInterest> getPointsOfInterestByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+    String sql = "SELECT * FROM points_of_interest WHERE id IN (" + placeholders + ")";
+
+    return jdbcTemplate.query(sql, (rs, rowNum) ->
+            mapRowToPointOfInterest(rs), ids.toArray());
+  }
+
+  /**
+   * This method announces points of interest whose rows were changed outside this
+   * repository, such as the occupancy of shelters. The points are read again, so the
+   * announced values are the ones in the database.
+   *
+   * @param ids The IDs of the changed points of interest.
+   */
+  public void publishChanges(Collection<Long> ids) {
+    for (PointOfInterest point : getPointsOfInterestByIds(ids)) {
+      eventPublisher.publishEvent(new PointOfInterestChangedEvent(point.getId(), point));
+    }
+  }
+
   private PointOfInterest mapRowToPointOfInterest(ResultSet rs) throws SQLException {
     return new PointOfInterest(
             rs.getLong("id"),
@@ -79,20 +126,23 @@ public class PointOfInterestRepo {
             rs.getTime(CLOSES_AT_COLUMN_NAME) != null
                     ? rs.getTime(CLOSES_AT_COLUMN_NAME).toLocalTime() : null,
             rs.getString("contact_number"),
-            rs.getString("description")
+            rs.getString("description"),
+            rs.getObject("capacity", Integer.class),
+            rs.getInt("occupancy")
     );
   }
 
   /**
    * This method adds a new point of interest to the database.
    * It takes a PointOfInterest object as input and modifies the parameter to
-   * include the id of the newly added point of interest.
+   * include the id and occupancy of the newly added point of interest.
    *
    * @param pointOfInterest The PointOfInterest object to add to the database.
    */
   public void addPointOfInterest(PointOfInterest pointOfInterest) {
     String sql = "INSERT INTO points_of_interest (latitude, longitude, type, "
-            + "opens_at, closes_at, contact_number, description) VALUES (?, ?, ?, ?, ?, ?, ?)";
+            + "opens_at, closes_at, contact_number, description, capacity) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
     KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -105,12 +155,16 @@ public class PointOfInterestRepo {
       ps.setObject(5, pointOfInterest.getClosesAt());
       ps.setString(6, pointOfInterest.getContactNumber());
       ps.setString(7, pointOfInterest.getDescription());
+      ps.setObject(8, pointOfInterest.getCapacity());
       return ps;
     }, keyHolder);
 
     Number newId = keyHolder.getKey();
     if (newId != null) {
       pointOfInterest.setId(newId.longValue());
+      changeLogRepository.recordChange(SyncEntityType.POINT_OF_INTEREST, newId.longValue(),
+              false);
+      announceStored(pointOfInterest);
     }
   }
 
@@ -122,18 +176,26 @@ public class PointOfInterestRepo {
    */
   public int deletePointOfInterest(long id) {
     String sql = "DELETE FROM points_of_interest WHERE id = ?";
-    return jdbcTemplate.update(sql, id);
+    int rowsAffected = jdbcTemplate.update(sql, id);
+    if (rowsAffected > 0) {
+      changeLogRepository.recordChange(SyncEntityType.POINT_OF_INTEREST, id, true);
+      eventPublisher.publishEvent(new PointOfInterestChangedEvent(id, null));
+    }
+    return rowsAffected;
   }
 
   /**
    * This method updates an existing point of interest in the database.
    * It takes a PointOfInterest object as input and returns the number of rows affected.
+   * The occupancy is owned by evacuations and is not changed. Instead, the parameter is
+   * modified to hold the occupancy in the database, and the stored point is announced.
    */
   public int updatePointOfInterest(PointOfInterest pointOfInterest) {
     String sql = "UPDATE points_of_interest SET latitude = ?, longitude = ?, type = ?, "
-            + "opens_at = ?, closes_at = ?, contact_number = ?, description = ? WHERE id = ?";
+            + "opens_at = ?, closes_at = ?, contact_number = ?, description = ?, capacity = ? "
+            + "WHERE id = ?";
 
-    return jdbcTemplate.update(sql,
+    int rowsAffected = jdbcTemplate.update(sql,
             pointOfInterest.getLatitude(),
             pointOfInterest.getLongitude(),
             pointOfInterest.getType().getType(),
@@ -141,6 +203,72 @@ public class PointOfInterestRepo {
             pointOfInterest.getClosesAt(),
             pointOfInterest.getContactNumber(),
             pointOfInterest.getDescription(),
+            pointOfInterest.getCapacity(),
             pointOfInterest.getId());
+    if (rowsAffected > 0) {
+      changeLogRepository.recordChange(SyncEntityType.POINT_OF_INTEREST,
+              pointOfInterest.getId(), false);
+      announceStored(pointOfInterest);
+    }
+    return rowsAffected;
+  }
+
+  private void announceStored(PointOfInterest pointOfInterest) {
+    for (PointOfInterest stored : getPointsOfInterestByIds(List.of(pointOfInterest.getId()))) {
+      pointOfInterest.setOccupancy(stored.getOccupancy());
+      eventPublisher.publishEvent(new PointOfInterestChangedEvent(stored.getId(), stored));
+    }
+  }
+
+  /**
+   * This method adds or updates points of interest imported from an external registry.
+   * A point of interest whose external ID is already in the database is updated, and the
+   * others are added. The occupancy and check-ins of updated shelters are not changed.
+   * The points are written in batches, and each of them is recorded as a change.
+   *
+   * @param imported The imported points of interest.
+   * @return The number of distinct external IDs that were added or updated.
+   */
+  public int upsertPointsOfInterest(List<ImportedPointOfInterest> imported) {
+    if (imported.isEmpty()) {
+      return 0;
+    }
+    String sql = "INSERT INTO points_of_interest (external_id, latitude, longitude, type, "
+            + "opens_at, closes_at, contact_number, description, capacity) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE latitude = VALUES(latitude), "
+            + "longitude = VALUES(longitude), type = VALUES(type), "
+            + "opens_at = VALUES(opens_at), closes_at = VALUES(closes_at), "
+            + "contact_number = VALUES(contact_number), description = VALUES(description), "
+            + "capacity = VALUES(capacity)";
+
+    jdbcTemplate.batchUpdate(sql, imported, BATCH_SIZE, (ps, row) -> {
+      PointOfInterest point = row.getPointOfInterest();
+      ps.setString(1, row.getExternalId());
+      ps.setDouble(2, point.getLatitude());
+      ps.setDouble(3, point.getLongitude());
+      ps.setString(4, point.getType().getType());
+      ps.setObject(5, point.getOpensAt());
+      ps.setObject(6, point.getClosesAt());
+      ps.setString(7, point.getContactNumber());
+      ps.setString(8, point.getDescription());
+      ps.setObject(9, point.getCapacity());
+    });
+
+    Set<String> externalIds = new LinkedHashSet<>();
+    for (ImportedPointOfInterest row : imported) {
+      externalIds.add(row.getExternalId());
+    }
+    String placeholders = String.join(",", Collections.nCopies(externalIds.size(), "?"));
+    List<PointOfInterest> written = jdbcTemplate.query(
+            "SELECT * FROM points_of_interest WHERE external_id IN (" + placeholders + ")",
+            (rs, rowNum) -> mapRowToPointOfInterest(rs), externalIds.toArray());
+
+    changeLogRepository.recordChanges(SyncEntityType.POINT_OF_INTEREST,
+            written.stream().map(PointOfInterest::getId).toList(), false);
+    for (PointOfInterest point : written) {
+      eventPublisher.publishEvent(new PointOfInterestChangedEvent(point.getId(), point));
+    }
+    return written.size();
   }
 }
@@ -0,0 +1,107 @@
+package com.group7.krisefikser.repository.location;
+
+import com.group7.krisefikser.model.location.PositionHistoryChunk;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class for the stored position history of users.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PositionHistoryRepository {
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Inserts history chunks in batches.
+   *
+   * @param chunks the chunks to insert
+   */
+  public void insertChunks(List<PositionHistoryChunk> chunks) {
+    String sql = "INSERT INTO position_history (user_id, start_time, end_time, "
+            + "resolution_seconds, point_count, points) VALUES (?, ?, ?, ?, ?, ?)";
+    jdbcTemplate.batchUpdate(sql, chunks, BATCH_SIZE, (ps, chunk) -> {
+      ps.setLong(1, chunk.getUserId());
+      ps.setTimestamp(2, Timestamp.valueOf(chunk.getStartTime()));
+      ps.setTimestamp(3, Timestamp.valueOf(chunk.getEndTime()));
+      ps.setInt(4, chunk.getResolutionSeconds());
+      ps.setInt(5, chunk.getPointCount());
+      ps.setString(6, chunk.getPoints());
+    });
+  }
+
+  /**
+   * Retrieves the chunks of a user that overlap a time range, in time order.
+   *
+   * @param userId the ID of the user
+   * @param from   the start of the range
+   * @param to     the end of the range
+   * @return the overlapping chunks
+   */
+  public List<PositionHistoryChunk> getChunks(long userId, LocalDateTime from,
+                                              LocalDateTime to) {
+    String sql = "SELECT * FROM position_history "
+            + "WHERE user_id = ? AND end_time >= ? AND start_time <= ? "
+            + "ORDER BY start_time";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToChunk(rs), userId,
+            Timestamp.valueOf(from), Timestamp.valueOf(to));
+  }
+
+  /**
+   * Retrieves the chunks at a resolution that end before a time, ordered by user and time.
+   *
+   * @param resolutionSeconds the resolution of the chunks
+   * @param before            the time the chunks must end before
+   * @param limit             the maximum number of chunks to return
+   * @return the chunks
+   */
+  public List<PositionHistoryChunk> getChunksEndingBefore(int resolutionSeconds,
+                                                          LocalDateTime before, int limit) {
+    String sql = "SELECT * FROM position_history "
+            + "WHERE resolution_seconds = ? AND end_time < ? "
+            + "ORDER BY user_id, start_time LIMIT ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToChunk(rs), resolutionSeconds,
+            Timestamp.valueOf(before), limit);
+  }
+
+  /**
+   * Deletes chunks by ID in batches.
+   *
+   * @param ids the IDs of the chunks
+   */
+  public void deleteChunks(List<Long> ids) {
+    jdbcTemplate.batchUpdate("DELETE FROM position_history WHERE id = ?", ids, BATCH_SIZE,
+            (ps, id) -> ps.setLong(1, id));
+  }
+
+  /**
+   * Deletes the chunks that end before a time.
+   *
+   * @param before the time the chunks must end before
+   * @return the number of deleted chunks
+   */
+  public int deleteChunksEndingBefore(LocalDateTime before) {
+    return jdbcTemplate.update("DELETE FROM position_history WHERE end_time < ?",
+            Timestamp.valueOf(before));
+  }
+
+  private PositionHistoryChunk mapRowToChunk(ResultSet rs) throws SQLException {
+    return new PositionHistoryChunk(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getTimestamp("start_time").toLocalDateTime(),
+            rs.getTimestamp("end_time").toLocalDateTime(),
+            rs.getInt("resolution_seconds"),
+            rs.getInt("point_count"),
+            rs.getString("points")
+    );
+  }
+}
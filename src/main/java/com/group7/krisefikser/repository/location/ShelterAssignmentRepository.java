@@ -0,0 +1,146 @@
+package com.group7.krisefikser.repository.location;
+
+import com.group7.krisefikser.model.location.ShelterAssignment;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class for the shelters households are assigned to when an affected area is
+ * evacuated, and for the occupancy of the shelters.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShelterAssignmentRepository {
+  static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Receives a household to evacuate together with its location and size.
+   */
+  @FunctionalInterface
+  public interface HouseholdHandler {
+    void accept(long householdId, double latitude, double longitude, int people);
+  }
+
+  /**
+   * Streams the households inside a bounding box that have not been assigned a shelter yet,
+   * using the index on the household location. The size of a household counts its users and
+   * its members that are not animals, and is at least one.
+   *
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @param handler      receives every household with its location and size
+   */
+  public void forEachUnassignedHouseholdInBox(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude,
+                                              HouseholdHandler handler) {
+    String sql = "SELECT households.id, households.latitude, households.longitude, "
+            + "(SELECT COUNT(*) FROM users WHERE users.household_id = households.id) "
+            + "+ (SELECT COUNT(*) FROM non_user_members "
+            + "WHERE non_user_members.household_id = households.id "
+            + "AND non_user_members.type <> 'animal') "
+            + "FROM households "
+            + "WHERE households.latitude BETWEEN ? AND ? "
+            + "AND households.longitude BETWEEN ? AND ? "
+            + "AND NOT EXISTS (SELECT 1 FROM shelter_assignments "
+            + "WHERE shelter_assignments.household_id = households.id)";
+    jdbcTemplate.query(sql, rs -> {
+      handler.accept(rs.getLong(1), rs.getDouble(2), rs.getDouble(3),
+              Math.max(1, rs.getInt(4)));
+    }, minLatitude, maxLatitude, minLongitude, maxLongitude);
+  }
+
+  /**
+   * Writes shelter assignments in batches.
+   *
+   * @param assignments the assignments to write
+   */
+  public void insertAssignments(List<ShelterAssignment> assignments) {
+    String sql = "INSERT INTO shelter_assignments (household_id, shelter_id, affected_area_id, "
+            + "people, distance_km, assigned_at) VALUES (?, ?, ?, ?, ?, ?)";
+    jdbcTemplate.batchUpdate(sql, assignments, BATCH_SIZE, (ps, assignment) -> {
+      ps.setLong(1, assignment.getHouseholdId());
+      ps.setLong(2, assignment.getShelterId());
+      ps.setLong(3, assignment.getAffectedAreaId());
+      ps.setInt(4, assignment.getPeople());
+      ps.setDouble(5, assignment.getDistanceKm());
+      ps.setTimestamp(6, Timestamp.valueOf(assignment.getAssignedAt()));
+    });
+  }
+
+  /**
+   * Adds assigned people to the occupancy of shelters in batches. A shelter is only updated
+   * if the people still fit within its capacity, so assignments made concurrently can not
+   * overfill it.
+   *
+   * @param people the number of people to add, by shelter ID
+   * @throws IllegalStateException if a shelter no longer has room for the people, in which
+   *                               case the surrounding transaction should be rolled back
+   */
+  public void addOccupancy(Map<Long, Integer> people) {
+    String sql = "UPDATE points_of_interest SET occupancy = occupancy + ? "
+            + "WHERE id = ? AND occupancy + ? <= capacity";
+    int[][] counts = jdbcTemplate.batchUpdate(sql, new ArrayList<>(people.entrySet()),
+            BATCH_SIZE, (ps, shelter) -> {
+              ps.setInt(1, shelter.getValue());
+              ps.setLong(2, shelter.getKey());
+              ps.setInt(3, shelter.getValue());
+            });
+    for (int[] batch : counts) {
+      for (int count : batch) {
+        if (count == 0) {
+          throw new IllegalStateException("A shelter no longer has room for the assigned "
+                  + "households");
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes the shelter assignments of affected areas and subtracts the assigned people
+   * from the occupancy of the shelters. This must be done before the areas are deleted or
+   * archived, since that deletes their assignments without changing the occupancy. The
+   * assignments are locked when they are read, so they can not change before they are
+   * deleted.
+   *
+   * @param affectedAreaIds the IDs of the affected areas
+   * @return the IDs of the shelters whose occupancy was changed
+   */
+  public Set<Long> releaseAssignments(Collection<Long> affectedAreaIds) {
+    if (affectedAreaIds.isEmpty()) {
+      return Set.of();
+    }
+    String placeholders = String.join(",", Collections.nCopies(affectedAreaIds.size(), "?"));
+    Map<Long, Integer> people = new HashMap<>();
+    String select = "SELECT shelter_id, people FROM shelter_assignments "
+            + "WHERE affected_area_id IN (" + placeholders + ") FOR UPDATE";
+    jdbcTemplate.query(select, rs -> {
+      people.merge(rs.getLong(1), rs.getInt(2), Integer::sum);
+    }, affectedAreaIds.toArray());
+    if (people.isEmpty()) {
+      return Set.of();
+    }
+    String sql = "UPDATE points_of_interest SET occupancy = GREATEST(occupancy - ?, 0) "
+            + "WHERE id = ?";
+    jdbcTemplate.batchUpdate(sql, new ArrayList<>(people.entrySet()), BATCH_SIZE,
+            (ps, shelter) -> {
+              ps.setInt(1, shelter.getValue());
+              ps.setLong(2, shelter.getKey());
+            });
+    jdbcTemplate.update("DELETE FROM shelter_assignments WHERE affected_area_id IN ("
+            + placeholders + ")", affectedAreaIds.toArray());
+    return people.keySet();
+  }
+}
@@ -0,0 +1,66 @@
+package com.group7.krisefikser.repository.location;
+
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.model.location.ShelterOccupancy;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class for the number of people checked in at shelters, and for the checkpoint
+ * that records which generation of the check-in journal has been written to the database.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShelterCheckInRepository {
+  static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Fetches the number of people checked in at a shelter.
+   *
+   * @param shelterId the ID of the shelter
+   * @return the occupancy, or empty if there is no shelter with the ID
+   */
+  public Optional<ShelterOccupancy> findShelterOccupancy(long shelterId) {
+    String sql = "SELECT id, capacity, checked_in FROM points_of_interest "
+            + "WHERE id = ? AND type = ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> new ShelterOccupancy(rs.getLong(1),
+                    rs.getObject(2, Integer.class), rs.getInt(3)),
+            shelterId, PointOfInterestType.SHELTER.getType()).stream().findFirst();
+  }
+
+  /**
+   * Fetches the last generation of the check-in journal written to the database.
+   *
+   * @return the generation
+   */
+  public long getCheckpoint() {
+    Long generation = jdbcTemplate.queryForObject(
+            "SELECT generation FROM shelter_check_in_checkpoint WHERE id = 1", Long.class);
+    return generation == null ? 0 : generation;
+  }
+
+  /**
+   * Adds check-ins to the shelters in batches and records the journal generation they came
+   * from. Should be called in a transaction, so the check-ins and the checkpoint are written
+   * together.
+   *
+   * @param deltas     the change in the number of checked in people, by shelter ID
+   * @param generation the generation of the journal the check-ins were recorded in
+   */
+  public void applyCheckIns(Map<Long, Integer> deltas, long generation) {
+    String sql = "UPDATE points_of_interest SET checked_in = checked_in + ? WHERE id = ?";
+    jdbcTemplate.batchUpdate(sql, new ArrayList<>(deltas.entrySet()), BATCH_SIZE,
+            (ps, delta) -> {
+              ps.setInt(1, delta.getValue());
+              ps.setLong(2, delta.getKey());
+            });
+    jdbcTemplate.update("UPDATE shelter_check_in_checkpoint SET generation = ? WHERE id = 1",
+            generation);
+  }
+}
@@ -1,6 +1,7 @@
 package com.group7.krisefikser.repository.location;
 
 import com.group7.krisefikser.model.location.UserPosition;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -8,34 +9,30 @@ import org.springframework.stereotype.Repository;
 
 /**
  * Repository class for managing user positions in the database.
- * Provides methods to update, add, delete, and check user positions.
+ * Provides methods to write, delete, and retrieve user positions.
  */
 @Repository
 @RequiredArgsConstructor
 public class UserPositionRepository {
+  private static final int BATCH_SIZE = 500;
 
   private final JdbcTemplate jdbcTemplate;
 
   /**
-   * Updates the user's position in the database.
+   * Inserts or updates the positions of several users in batches.
+   * The unique key on the user id makes a user's row be updated when it already exists, so
+   * each position is written with a single statement.
    *
-   * @param userPosition The UserPosition object containing the updated position details.
+   * @param userPositions The positions to write, at most one per user.
    */
-  public void updateUserPosition(UserPosition userPosition) {
-    String sql = "UPDATE user_position SET latitude = ?, longitude = ? WHERE user_id = ?";
-    jdbcTemplate.update(
-        sql, userPosition.getLatitude(), userPosition.getLongitude(), userPosition.getUserId());
-  }
-
-  /**
-   * Adds a new user position to the database.
-   *
-   * @param userPosition The UserPosition object containing the position details.
-   */
-  public void addUserPosition(UserPosition userPosition) {
-    String sql = "INSERT INTO user_position (latitude, longitude, user_id) VALUES (?, ?, ?)";
-    jdbcTemplate.update(
-        sql, userPosition.getLatitude(), userPosition.getLongitude(), userPosition.getUserId());
+  public void upsertUserPositions(List<UserPosition> userPositions) {
+    String sql = "INSERT INTO user_position (user_id, latitude, longitude) VALUES (?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE latitude = VALUES(latitude), longitude = VALUES(longitude)";
+    jdbcTemplate.batchUpdate(sql, userPositions, BATCH_SIZE, (ps, userPosition) -> {
+      ps.setLong(1, userPosition.getUserId());
+      ps.setDouble(2, userPosition.getLatitude());
+      ps.setDouble(3, userPosition.getLongitude());
+    });
   }
 
   /**
@@ -49,23 +46,19 @@ public class UserPositionRepository {
   }
 
   /**
-   * Checks if the user is sharing their position.
+   * Retrieves the positions of all users that are sharing their position.
    *
-   * @param userId The ID of the user to check.
-   * @return true if the user is sharing their position, false otherwise.
+   * @return A list of UserPosition objects, one per sharing user.
    */
-  public boolean isSharingPosition(Long userId) {
-    String sql =
-        "SELECT CASE "
-            + "WHEN EXISTS ( "
-            + "SELECT 1 FROM user_position WHERE user_id = ? "
-            + ") THEN 'true' "
-            + "ELSE 'false' "
-            + "END AS finnes";
-    return jdbcTemplate.queryForObject(
-        sql,
-        new Object[] {userId},
-        Boolean.class);
+  public List<UserPosition> getAllUserPositions() {
+    String sql = "SELECT user_id, latitude, longitude FROM user_position";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> {
+      UserPosition userPosition = new UserPosition();
+      userPosition.setUserId(rs.getLong("user_id"));
+      userPosition.setLatitude(rs.getDouble("latitude"));
+      userPosition.setLongitude(rs.getDouble("longitude"));
+      return userPosition;
+    });
   }
 
   /**
@@ -0,0 +1,172 @@
+package com.group7.krisefikser.repository.other;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.model.other.Alert;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class for the alert inbox of users, and for finding the users an affected area
+ * should alert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AlertRepository {
+  static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Receives a candidate recipient of an alert together with a location of the user.
+   */
+  @FunctionalInterface
+  public interface CandidateHandler {
+    void accept(long userId, double latitude, double longitude);
+  }
+
+  /**
+   * Streams the members of every household whose location is inside a bounding box, using
+   * the index on the household location.
+   *
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @param handler      receives every member with the location of their household
+   */
+  public void forEachHouseholdMemberInBox(double minLatitude, double minLongitude,
+                                          double maxLatitude, double maxLongitude,
+                                          CandidateHandler handler) {
+    String sql = "SELECT users.id, households.latitude, households.longitude FROM households "
+            + "JOIN users ON users.household_id = households.id "
+            + "WHERE households.latitude BETWEEN ? AND ? "
+            + "AND households.longitude BETWEEN ? AND ?";
+    jdbcTemplate.query(sql, rs -> {
+      handler.accept(rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+    }, minLatitude, maxLatitude, minLongitude, maxLongitude);
+  }
+
+  /**
+   * Streams the shared user positions inside a bounding box, using the index on the
+   * position.
+   *
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @param handler      receives every user with their shared position
+   */
+  public void forEachSharedPositionInBox(double minLatitude, double minLongitude,
+                                         double maxLatitude, double maxLongitude,
+                                         CandidateHandler handler) {
+    String sql = "SELECT user_id, latitude, longitude FROM user_position "
+            + "WHERE latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?";
+    jdbcTemplate.query(sql, rs -> {
+      handler.accept(rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+    }, minLatitude, maxLatitude, minLongitude, maxLongitude);
+  }
+
+  /**
+   * Writes the alerts of an affected area in batches. A user who already has an alert for
+   * the area keeps it, and it is only marked as unread again when the danger level changed.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @param recipients     the danger level of every user to alert, by user ID
+   * @param createdAt      the time of the alerts
+   */
+  public void upsertAlerts(long affectedAreaId, Map<Long, DangerLevel> recipients,
+                           LocalDateTime createdAt) {
+    String sql = "INSERT INTO alerts (user_id, affected_area_id, danger_level, created_at, "
+            + "is_read) VALUES (?, ?, ?, ?, FALSE) ON DUPLICATE KEY UPDATE "
+            + "is_read = CASE WHEN danger_level = VALUES(danger_level) "
+            + "THEN is_read ELSE FALSE END, "
+            + "created_at = CASE WHEN danger_level = VALUES(danger_level) "
+            + "THEN created_at ELSE VALUES(created_at) END, "
+            + "danger_level = VALUES(danger_level)";
+    Timestamp timestamp = Timestamp.valueOf(createdAt);
+    jdbcTemplate.batchUpdate(sql, new ArrayList<>(recipients.entrySet()), BATCH_SIZE,
+            (ps, recipient) -> {
+              ps.setLong(1, recipient.getKey());
+              ps.setLong(2, affectedAreaId);
+              ps.setString(3, recipient.getValue().name());
+              ps.setTimestamp(4, timestamp);
+            });
+  }
+
+  /**
+   * Fetches the IDs of the users who have an alert for an affected area.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @return the IDs of the alerted users
+   */
+  public List<Long> getAlertedUserIds(long affectedAreaId) {
+    String sql = "SELECT user_id FROM alerts WHERE affected_area_id = ?";
+    return jdbcTemplate.queryForList(sql, Long.class, affectedAreaId);
+  }
+
+  /**
+   * Deletes the alerts of an affected area for the given users in batches.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @param userIds        the IDs of the users whose alert should be deleted
+   */
+  public void deleteAlerts(long affectedAreaId, Collection<Long> userIds) {
+    String sql = "DELETE FROM alerts WHERE affected_area_id = ? AND user_id = ?";
+    jdbcTemplate.batchUpdate(sql, new ArrayList<>(userIds), BATCH_SIZE, (ps, userId) -> {
+      ps.setLong(1, affectedAreaId);
+      ps.setLong(2, userId);
+    });
+  }
+
+  /**
+   * Fetches the most recent alerts of a user.
+   *
+   * @param userId the ID of the user
+   * @param limit  the maximum number of alerts to return
+   * @return the alerts, newest first
+   */
+  public List<Alert> getAlertsByUserId(long userId, int limit) {
+    String sql = "SELECT alerts.*, affected_areas.name FROM alerts "
+            + "JOIN affected_areas ON alerts.affected_area_id = affected_areas.id "
+            + "WHERE alerts.user_id = ? ORDER BY alerts.created_at DESC, alerts.id DESC LIMIT ?";
+    return jdbcTemplate.query(sql, (rs, rowNum) -> new Alert(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getLong("affected_area_id"),
+            rs.getString("name"),
+            DangerLevel.valueOf(rs.getString("danger_level")),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getBoolean("is_read")
+    ), userId, limit);
+  }
+
+  /**
+   * Counts the unread alerts of a user, using the index on user and read state.
+   *
+   * @param userId the ID of the user
+   * @return the number of unread alerts
+   */
+  public int countUnreadAlerts(long userId) {
+    String sql = "SELECT COUNT(*) FROM alerts WHERE user_id = ? AND is_read = FALSE";
+    Integer count = jdbcTemplate.queryForObject(sql, Integer.class, userId);
+    return count != null ? count : 0;
+  }
+
+  /**
+   * Marks all alerts of a user as read.
+   *
+   * @param userId the ID of the user
+   * @return the number of alerts that were unread
+   */
+  public int markAllAsRead(long userId) {
+    String sql = "UPDATE alerts SET is_read = TRUE WHERE user_id = ? AND is_read = FALSE";
+    return jdbcTemplate.update(sql, userId);
+  }
+}
@@ -1,6 +1,7 @@
 package com.group7.krisefikser.repository.user;
 
 import com.group7.krisefikser.enums.Role;
+import com.group7.krisefikser.event.UserHouseholdChangedEvent;
 import com.group7.krisefikser.model.user.User;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -8,6 +9,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -23,16 +25,27 @@ public class UserRepository {
   private static final Logger logger = Logger.getLogger(UserRepository.class.getName());
 
   private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Receives a user that belongs to a household.
+   */
+  @FunctionalInterface
+  public interface MemberHandler {
+    void accept(long userId, String name, long householdId, Long emergencyGroupId);
+  }
 
   /**
    * Constructor for UserRepository.
    * This constructor initializes the JdbcTemplate used for database operations.
    *
-   * @param jdbcTemplate the JdbcTemplate to be used for database operations
+   * @param jdbcTemplate   the JdbcTemplate to be used for database operations
+   * @param eventPublisher the publisher used to announce household membership changes
    */
   @Autowired
-  public UserRepository(JdbcTemplate jdbcTemplate) {
+  public UserRepository(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
     this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -109,7 +122,10 @@ public class UserRepository {
     try {
       jdbcTemplate.update(query, user.getEmail(), user.getName(),
               user.getHouseholdId(), user.getPassword(), user.getRole().toString());
-      return findByEmail(user.getEmail());
+      Optional<User> saved = findByEmail(user.getEmail());
+      saved.ifPresent(created -> eventPublisher.publishEvent(
+              new UserHouseholdChangedEvent(created.getId(), created.getHouseholdId())));
+      return saved;
     } catch (Exception e) {
       logger.info("Failed to save user: " + e.getMessage());
       return Optional.empty();
@@ -172,6 +188,24 @@ public class UserRepository {
   public void updateUserHousehold(Long userId, Long householdId) {
     jdbcTemplate.update("DELETE FROM join_household_requests WHERE user_id = ?", userId);
     jdbcTemplate.update("UPDATE users SET household_id = ? WHERE id = ?", householdId, userId);
+    eventPublisher.publishEvent(new UserHouseholdChangedEvent(userId, householdId));
+  }
+
+  /**
+   * Streams every user that belongs to a household, with the emergency group of the
+   * household.
+   *
+   * @param handler receives every household member
+   */
+  public void forEachHouseholdMember(MemberHandler handler) {
+    String sql = "SELECT users.id, users.name, users.household_id, "
+            + "households.emergency_group_id FROM users "
+            + "JOIN households ON users.household_id = households.id";
+    jdbcTemplate.query(sql, rs -> {
+      long emergencyGroupId = rs.getLong(4);
+      handler.accept(rs.getLong(1), rs.getString(2), rs.getLong(3),
+              rs.wasNull() ? null : emergencyGroupId);
+    });
   }
 
   /**
@@ -215,6 +249,7 @@ public class UserRepository {
   public void deleteById(Long id) {
     jdbcTemplate.update("DELETE FROM join_household_requests WHERE user_id = ?", id);
     jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+    eventPublisher.publishEvent(new UserHouseholdChangedEvent(id, null));
   }
 
   /**
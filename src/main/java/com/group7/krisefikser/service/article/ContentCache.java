@@ -0,0 +1,155 @@
+package com.group7.krisefikser.service.article;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group7.krisefikser.event.GeneralInfoChangedEvent;
+import com.group7.krisefikser.event.PrivacyPolicyChangedEvent;
+import com.group7.krisefikser.model.other.SerializedContent;
+import com.group7.krisefikser.utils.ContentUtils;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache of the public article content, kept as JSON and gzipped JSON.
+ * A request for cached content costs a map lookup, and the content is loaded and
+ * serialized only on the first request after it changed. Entries are keyed by endpoint
+ * and, for general information, by theme. Changes to general information and the privacy
+ * policies are announced by their repositories and remove the affected entries after the
+ * transaction commits. News articles are not changed through the application, so their
+ * entries are given a maximum age instead.
+ * Requests for the same missing entry share one load. An entry loaded while it was being
+ * invalidated is returned to its caller but not stored, so a load that read the old
+ * content cannot outlive the invalidation.
+ */
+@Service
+public class ContentCache {
+  public static final String GENERAL_INFO = "general-info";
+  public static final String NEWS = "news";
+  public static final String PRIVACY_POLICY = "privacy-policy";
+  public static final String REGISTERED = "registered";
+  public static final String UNREGISTERED = "unregistered";
+
+  private final ObjectMapper objectMapper;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Constructor for ContentCache.
+   *
+   * @param objectMapper the mapper used to serialize the content
+   */
+  @Autowired
+  public ContentCache(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Builds the key of an entry from its endpoint and the parts that select the content.
+   *
+   * @param endpoint the endpoint the content is served by
+   * @param parts    the parts, such as a theme
+   * @return the key
+   */
+  public static String key(String endpoint, Object... parts) {
+    StringBuilder key = new StringBuilder(endpoint);
+    for (Object part : parts) {
+      key.append('/').append(part);
+    }
+    return key.toString();
+  }
+
+  /**
+   * Returns the cached content for a key, loading it if it is missing.
+   *
+   * @param key    the key of the content
+   * @param loader the loader of the content, called on a miss
+   * @return the content
+   */
+  public SerializedContent get(String key, Supplier<?> loader) {
+    return get(key, null, loader);
+  }
+
+  /**
+   * Returns the cached content for a key, loading it if it is missing or older than the
+   * maximum age.
+   *
+   * @param key    the key of the content
+   * @param maxAge the maximum age of the content, or null if it never expires
+   * @param loader the loader of the content, called on a miss
+   * @return the content
+   */
+  public SerializedContent get(String key, Duration maxAge, Supplier<?> loader) {
+    Entry entry = entries.get(key);
+    long now = System.nanoTime();
+    if (entry != null && entry.isFresh(now)) {
+      return entry.content;
+    }
+    SerializedContent[] loaded = new SerializedContent[1];
+    entries.compute(key, (k, current) -> {
+      if (current != null && current.isFresh(System.nanoTime())) {
+        loaded[0] = current.content;
+        return current;
+      }
+      long loadedGeneration = generation.get();
+      loaded[0] = serialize(loader.get());
+      if (generation.get() != loadedGeneration) {
+        return null;
+      }
+      long expiresAt = maxAge == null ? Long.MAX_VALUE : System.nanoTime() + maxAge.toNanos();
+      return new Entry(loaded[0], expiresAt);
+    });
+    return loaded[0];
+  }
+
+  /**
+   * Removes the entry for a key and every entry below it, such as the themes of an
+   * endpoint.
+   *
+   * @param key the key
+   */
+  public void invalidate(String key) {
+    generation.incrementAndGet();
+    String prefix = key + "/";
+    entries.keySet().removeIf(k -> k.equals(key) || k.startsWith(prefix));
+  }
+
+  /**
+   * Removes the cached general information after it changed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGeneralInfoChanged(GeneralInfoChangedEvent event) {
+    invalidate(GENERAL_INFO);
+  }
+
+  /**
+   * Removes the cached privacy policy after it changed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPrivacyPolicyChanged(PrivacyPolicyChangedEvent event) {
+    invalidate(key(PRIVACY_POLICY, event.isRegistered() ? REGISTERED : UNREGISTERED));
+  }
+
+  private SerializedContent serialize(Object value) {
+    try {
+      return ContentUtils.fromJson(objectMapper.writeValueAsBytes(value));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize cached content", e);
+    }
+  }
+
+  private record Entry(SerializedContent content, long expiresAt) {
+    private boolean isFresh(long now) {
+      return expiresAt - now > 0;
+    }
+  }
+}
@@ -5,6 +5,7 @@ import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
 import com.group7.krisefikser.enums.Theme;
 import com.group7.krisefikser.mapper.article.GeneralInfoMapper;
 import com.group7.krisefikser.model.article.GeneralInfo;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.repository.article.GeneralInfoRepository;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -21,12 +22,23 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class GeneralInfoService {
   private final GeneralInfoRepository generalInfoRepo;
+  private final ContentCache contentCache;
 
   public List<GeneralInfoResponse> getAllGeneralInfo() {
     return GeneralInfoMapper
         .INSTANCE.generalInfoToResponseList(generalInfoRepo.getAllGeneralInfo());
   }
 
+  /**
+   * Retrieves all general information as cached JSON.
+   * The content is loaded from the database only after general information changed.
+   *
+   * @return the general information as JSON and gzipped JSON
+   */
+  public SerializedContent getAllGeneralInfoContent() {
+    return contentCache.get(ContentCache.GENERAL_INFO, this::getAllGeneralInfo);
+  }
+
   /**
    * Retrieves general information by theme.
    * This method filters the general information
@@ -40,6 +52,18 @@ public class GeneralInfoService {
         .INSTANCE.generalInfoToResponseList(generalInfoRepo.getGeneralInfoByTheme(theme));
   }
 
+  /**
+   * Retrieves general information by theme as cached JSON.
+   * The content is loaded from the database only after general information changed.
+   *
+   * @param theme the theme to filter the general information
+   * @return the general information of the theme as JSON and gzipped JSON
+   */
+  public SerializedContent getGeneralInfoByThemeContent(Theme theme) {
+    return contentCache.get(ContentCache.key(ContentCache.GENERAL_INFO, theme),
+        () -> getGeneralInfoByTheme(theme));
+  }
+
   /**
    * Adds a new general information entry to the repository.
    * This method converts the GeneralInfoRequest
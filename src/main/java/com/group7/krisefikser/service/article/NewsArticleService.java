@@ -4,7 +4,9 @@ import com.group7.krisefikser.dto.response.article.NewsArticleResponse;
 import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
 import com.group7.krisefikser.mapper.article.NewsArticleMapper;
 import com.group7.krisefikser.model.article.NewsArticle;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.repository.article.NewsArticleRepository;
+import java.time.Duration;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,7 +19,10 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class NewsArticleService {
+  static final Duration NEWS_MAX_AGE = Duration.ofMinutes(1);
+
   private final NewsArticleRepository newsArticleRepo;
+  private final ContentCache contentCache;
 
   /**
    * Retrieves all news articles from the repository.
@@ -32,6 +37,17 @@ public class NewsArticleService {
         .toList();
   }
 
+  /**
+   * Retrieves all news articles as cached JSON.
+   * News articles are added outside the application, so the cached list is loaded again
+   * when it is older than {@link #NEWS_MAX_AGE}.
+   *
+   * @return the news articles as JSON and gzipped JSON
+   */
+  public SerializedContent getAllNewsArticlesContent() {
+    return contentCache.get(ContentCache.NEWS, NEWS_MAX_AGE, this::getAllNewsArticles);
+  }
+
   /**
    * Retrieves a news article by its ID.
    * This method fetches the article from the repository
@@ -4,6 +4,7 @@ import com.group7.krisefikser.dto.request.article.UpdateRegisteredPrivacyPolicyR
 import com.group7.krisefikser.dto.request.article.UpdateUnregisteredPrivacyPolicyRequest;
 import com.group7.krisefikser.dto.response.article.GetRegisteredPrivacyPolicyResponse;
 import com.group7.krisefikser.dto.response.article.GetUnregisteredPrivacyPolicyResponse;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.repository.article.PrivacyPolicyRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class PrivacyPolicyService {
 
   private final PrivacyPolicyRepository privacyPolicyRepository;
+  private final ContentCache contentCache;
 
   /**
    * Retrieves the registered privacy policy.
@@ -28,6 +30,17 @@ public class PrivacyPolicyService {
     return response;
   }
 
+  /**
+   * Retrieves the registered privacy policy as cached JSON.
+   *
+   * @return The registered privacy policy as JSON and gzipped JSON.
+   */
+  public SerializedContent getRegisteredPrivacyPolicyContent() {
+    return contentCache.get(
+        ContentCache.key(ContentCache.PRIVACY_POLICY, ContentCache.REGISTERED),
+        this::getRegisteredPrivacyPolicy);
+  }
+
   /**
    * Retrieves the unregistered privacy policy.
    *
@@ -39,6 +52,17 @@ public class PrivacyPolicyService {
     return response;
   }
 
+  /**
+   * Retrieves the unregistered privacy policy as cached JSON.
+   *
+   * @return The unregistered privacy policy as JSON and gzipped JSON.
+   */
+  public SerializedContent getUnregisteredPrivacyPolicyContent() {
+    return contentCache.get(
+        ContentCache.key(ContentCache.PRIVACY_POLICY, ContentCache.UNREGISTERED),
+        this::getUnregisteredPrivacyPolicy);
+  }
+
   /**
    * Updates the registered privacy policy.
    *
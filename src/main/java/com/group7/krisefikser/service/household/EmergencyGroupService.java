@@ -4,6 +4,8 @@ package com.group7.krisefikser.service.household;
 import com.group7.krisefikser.dto.request.household.EmergencyGroupRequest;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupInvitationResponse;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupResponse;
+import com.group7.krisefikser.dto.response.household.NearbyHouseholdResponse;
+import com.group7.krisefikser.dto.response.household.RedistributionPlanResponse;
 import com.group7.krisefikser.mapper.household.EmergencyGroupMapper;
 import com.group7.krisefikser.model.household.EmergencyGroup;
 import com.group7.krisefikser.model.household.EmergencyGroupInvitation;
@@ -12,6 +14,7 @@ import com.group7.krisefikser.repository.household.EmergencyGroupInvitationsRepo
 import com.group7.krisefikser.repository.household.EmergencyGroupRepo;
 import com.group7.krisefikser.repository.household.HouseholdRepository;
 import com.group7.krisefikser.repository.user.UserRepository;
+import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import lombok.RequiredArgsConstructor;
@@ -29,10 +32,15 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class EmergencyGroupService {
+  static final double MAX_NEARBY_RADIUS_KM = 20;
+  static final int MAX_NEARBY_HOUSEHOLDS = 50;
+
   private final EmergencyGroupRepo emergencyGroupRepo;
   private final EmergencyGroupInvitationsRepo emergencyGroupInvitationsRepo;
   private final UserRepository userRepository;
   private final HouseholdRepository householdRepository;
+  private final HouseholdLocationIndex householdLocationIndex;
+  private final RedistributionPlanner redistributionPlanner = new RedistributionPlanner();
 
   /**
    * Retrieves the EmergencyGroup object with the specified ID from the repository.
@@ -189,4 +197,67 @@ public class EmergencyGroupService {
     }
     return emergencyGroupId;
   }
+
+  /**
+   * Plans how shared food and water should be moved between the households of an
+   * emergency group so that every household can last equally long.
+   *
+   * @param emergencyGroupId the ID of the emergency group
+   * @return the redistribution plan for the group
+   */
+  public RedistributionPlanResponse getRedistributionPlan(Long emergencyGroupId) {
+    return redistributionPlanner.plan(
+            householdRepository.getHouseholdSuppliesByEmergencyGroupId(emergencyGroupId));
+  }
+
+  /**
+   * Finds households near the current user's household that are not in its emergency group,
+   * so the user can pick neighbours to invite. Households are chosen and ordered by their
+   * rounded distance and then by name, which does not reveal which of two households at the
+   * same rounded distance is closer.
+   *
+   * @param radiusKm the radius to search, in kilometers
+   * @param limit    the maximum number of households to return
+   * @return the nearby households
+   * @throws IllegalArgumentException if the radius or limit is out of range, or the
+   *                                  household has no location
+   * @throws NoSuchElementException   if the user or household is not found
+   */
+  public List<NearbyHouseholdResponse> findNearbyHouseholds(double radiusKm, int limit) {
+    if (!(radiusKm > 0) || radiusKm > MAX_NEARBY_RADIUS_KM) {
+      throw new IllegalArgumentException("The radius must be between 0 and "
+              + MAX_NEARBY_RADIUS_KM + " km.");
+    }
+    if (limit < 1 || limit > MAX_NEARBY_HOUSEHOLDS) {
+      throw new IllegalArgumentException("The limit must be between 1 and "
+              + MAX_NEARBY_HOUSEHOLDS + ".");
+    }
+    long householdId = getHouseholdIdForCurrentUser();
+    Household household = householdRepository.getHouseholdById(householdId)
+            .orElseThrow(() -> new NoSuchElementException("Household not found."));
+    if (household.getLatitude() == 0 && household.getLongitude() == 0) {
+      throw new IllegalArgumentException("Your household has no location.");
+    }
+    Long emergencyGroupId = householdRepository.getEmergencyIdByHouseholdId(householdId);
+
+    return householdLocationIndex.findNearby(household.getLatitude(),
+                    household.getLongitude(), radiusKm, limit,
+                    neighbour -> neighbour.getHouseholdId() != householdId
+                            && (emergencyGroupId == null
+                            || !emergencyGroupId.equals(neighbour.getEmergencyGroupId())),
+                    Comparator.comparingInt((HouseholdLocationIndex.Neighbour neighbour) ->
+                                    roundDistanceKm(neighbour.getDistanceKm()))
+                            .thenComparing(HouseholdLocationIndex.Neighbour::getName))
+            .stream()
+            .map(neighbour -> new NearbyHouseholdResponse(neighbour.getName(),
+                    roundDistanceKm(neighbour.getDistanceKm())))
+            .toList();
+  }
+
+  /**
+   * Rounds a distance up to whole kilometers, and at least 1 km.
+   */
+  private static int roundDistanceKm(double distanceKm) {
+    return (int) Math.max(1, Math.ceil(distanceKm));
+  }
 }
@@ -0,0 +1,161 @@
+package com.group7.krisefikser.service.household;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.group7.krisefikser.event.HouseholdChangedEvent;
+import com.group7.krisefikser.model.household.Household;
+import com.group7.krisefikser.repository.household.HouseholdRepository;
+import com.group7.krisefikser.spatial.KdTree;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntPredicate;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory spatial index of the households in each emergency group.
+ * A snapshot with a KD-tree over the household locations is built the first time a group is
+ * queried and cached until a household in the group changes, so nearest-household lookups
+ * do not need to compute distances for every member in the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class GroupHouseholdIndex {
+  private static final Logger logger = Logger.getLogger(GroupHouseholdIndex.class.getName());
+
+  private final HouseholdRepository householdRepository;
+
+  private final Cache<Long, GroupSnapshot> snapshots = CacheBuilder.newBuilder()
+          .maximumSize(10_000)
+          .expireAfterAccess(Duration.ofHours(1))
+          .build();
+
+  /**
+   * Returns the snapshot of an emergency group, building it if it is not cached.
+   *
+   * @param emergencyGroupId the ID of the emergency group
+   * @return the snapshot of the households in the group
+   */
+  public GroupSnapshot getSnapshot(long emergencyGroupId) {
+    try {
+      return snapshots.get(emergencyGroupId, () -> buildSnapshot(emergencyGroupId));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Could not index households in group "
+              + emergencyGroupId, e.getCause());
+    }
+  }
+
+  private GroupSnapshot buildSnapshot(long emergencyGroupId) {
+    List<Household> households = householdRepository
+            .getHouseholdsByEmergencyGroupId(emergencyGroupId);
+    int n = households.size();
+    long[] ids = new long[n];
+    String[] names = new String[n];
+    double[] latitudes = new double[n];
+    double[] longitudes = new double[n];
+    for (int i = 0; i < n; i++) {
+      Household household = households.get(i);
+      ids[i] = household.getId();
+      names[i] = household.getName();
+      latitudes[i] = household.getLatitude();
+      longitudes[i] = household.getLongitude();
+    }
+    logger.fine("Indexed " + n + " households for emergency group " + emergencyGroupId);
+    return new GroupSnapshot(ids, names, KdTree.build(latitudes, longitudes));
+  }
+
+  /**
+   * Invalidates the snapshots affected by a household change.
+   * Besides the household's new group, any cached group that contains the household is
+   * dropped, since the household may have moved between groups.
+   *
+   * @param event the household change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onHouseholdChanged(HouseholdChangedEvent event) {
+    if (event.getEmergencyGroupId() != null) {
+      snapshots.invalidate(event.getEmergencyGroupId());
+    }
+    snapshots.asMap().entrySet()
+            .removeIf(entry -> entry.getValue().indexOf(event.getHouseholdId()) >= 0);
+  }
+
+  /**
+   * Immutable view of the households in an emergency group at one point in time.
+   */
+  public static final class GroupSnapshot {
+    private final long[] householdIds;
+    private final String[] householdNames;
+    private final KdTree tree;
+    private final Map<Long, Integer> positions;
+
+    GroupSnapshot(long[] householdIds, String[] householdNames, KdTree tree) {
+      this.householdIds = householdIds;
+      this.householdNames = householdNames;
+      this.tree = tree;
+      this.positions = new HashMap<>(householdIds.length * 2);
+      for (int i = 0; i < householdIds.length; i++) {
+        positions.put(householdIds[i], i);
+      }
+    }
+
+    /**
+     * Returns the number of households in the group.
+     *
+     * @return the number of households
+     */
+    public int size() {
+      return householdIds.length;
+    }
+
+    /**
+     * Returns the position of a household in the snapshot.
+     *
+     * @param householdId the ID of the household
+     * @return the position, or -1 if the household is not in the group
+     */
+    public int indexOf(long householdId) {
+      Integer position = positions.get(householdId);
+      return position == null ? -1 : position;
+    }
+
+    /**
+     * Returns the ID of the household at a position.
+     *
+     * @param index the position in the snapshot
+     * @return the household ID
+     */
+    public long householdId(int index) {
+      return householdIds[index];
+    }
+
+    /**
+     * Returns the name of the household at a position.
+     *
+     * @param index the position in the snapshot
+     * @return the household name
+     */
+    public String householdName(int index) {
+      return householdNames[index];
+    }
+
+    /**
+     * Finds the households nearest to a position.
+     *
+     * @param latitude  the latitude of the position
+     * @param longitude the longitude of the position
+     * @param k         the maximum number of households to return
+     * @param filter    a predicate on snapshot positions selecting eligible households
+     * @return the nearest households ordered by distance
+     */
+    public KdTree.Neighbors nearest(double latitude, double longitude, int k,
+                                    IntPredicate filter) {
+      return tree.nearest(latitude, longitude, k, filter);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.group7.krisefikser.service.household;
+
+import com.group7.krisefikser.event.HouseholdChangedEvent;
+import com.group7.krisefikser.repository.household.HouseholdRepository;
+import com.group7.krisefikser.spatial.GeohashIndex;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory geohash index of the locations of all households, used to find neighbours to
+ * form an emergency group with.
+ * The index is loaded from the database on first use and afterwards kept up to date from
+ * {@link HouseholdChangedEvent}s, by reading the changed household again, so a new household,
+ * a new location or a new group is searchable as soon as it is committed. Households still
+ * at the placeholder location 0, 0 they are created with have no real location and are left
+ * out.
+ */
+@Component
+@RequiredArgsConstructor
+public class HouseholdLocationIndex {
+  private static final Logger logger = Logger.getLogger(HouseholdLocationIndex.class.getName());
+
+  private final HouseholdRepository householdRepository;
+  private final GeohashIndex<Neighbour> households = new GeohashIndex<>();
+  private volatile boolean loaded;
+
+  /**
+   * Finds the households within a distance of a position, in the given order. The order is
+   * also used to choose which households are left out when there are more than the limit.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @param radiusKm  the radius in kilometers
+   * @param limit     the maximum number of households to return
+   * @param filter    a predicate selecting eligible households
+   * @param order     the order of the households, such as nearest first
+   * @return the households, with their distance from the position
+   */
+  public List<Neighbour> findNearby(double latitude, double longitude, double radiusKm,
+                                    int limit, Predicate<Neighbour> filter,
+                                    Comparator<Neighbour> order) {
+    ensureLoaded();
+    List<Neighbour> result = new ArrayList<>();
+    households.queryRadius(latitude, longitude, radiusKm, (household, distance) -> {
+      if (filter.test(household)) {
+        result.add(household.at(distance));
+      }
+    });
+    result.sort(order);
+    return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+  }
+
+  /**
+   * Reads a household again after it was created or changed.
+   * Changes that arrive before the index has been loaded are ignored, since loading reads
+   * the committed state of the database.
+   *
+   * @param event the household change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onHouseholdChanged(HouseholdChangedEvent event) {
+    if (!loaded) {
+      return;
+    }
+    households.remove(event.getHouseholdId());
+    householdRepository.findHouseholdLocation(event.getHouseholdId(), this::put);
+  }
+
+  private void put(long householdId, String name, double latitude, double longitude,
+                   Long emergencyGroupId) {
+    if (latitude != 0 || longitude != 0) {
+      households.put(householdId, latitude, longitude,
+              new Neighbour(householdId, name, emergencyGroupId, 0));
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      householdRepository.forEachHouseholdLocation(this::put);
+      loaded = true;
+      logger.info("Indexed " + households.size() + " household locations");
+    }
+  }
+
+  /**
+   * A household found near a position.
+   */
+  public static final class Neighbour {
+    private final long householdId;
+    private final String name;
+    private final Long emergencyGroupId;
+    private final double distanceKm;
+
+    private Neighbour(long householdId, String name, Long emergencyGroupId,
+                      double distanceKm) {
+      this.householdId = householdId;
+      this.name = name;
+      this.emergencyGroupId = emergencyGroupId;
+      this.distanceKm = distanceKm;
+    }
+
+    private Neighbour at(double distanceKm) {
+      return new Neighbour(householdId, name, emergencyGroupId, distanceKm);
+    }
+
+    public long getHouseholdId() {
+      return householdId;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Long getEmergencyGroupId() {
+      return emergencyGroupId;
+    }
+
+    public double getDistanceKm() {
+      return distanceKm;
+    }
+  }
+}
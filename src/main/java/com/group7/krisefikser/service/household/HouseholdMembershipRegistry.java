@@ -0,0 +1,249 @@
+package com.group7.krisefikser.service.household;
+
+import com.group7.krisefikser.event.HouseholdChangedEvent;
+import com.group7.krisefikser.event.UserHouseholdChangedEvent;
+import com.group7.krisefikser.repository.user.UserRepository;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory registry of which users belong to which household and emergency group.
+ * The registry answers who may see a user's position or safety status, which is everyone in
+ * the same household and, if the household is in an emergency group, everyone in the group.
+ * It is loaded with one query on first use and dropped whenever a user changes household or
+ * a household changes group, so membership changes are rare compared to the lookups.
+ */
+@Component
+@RequiredArgsConstructor
+public class HouseholdMembershipRegistry {
+  private static final Logger logger =
+          Logger.getLogger(HouseholdMembershipRegistry.class.getName());
+
+  private final UserRepository userRepository;
+  private final AtomicLong generation = new AtomicLong();
+  private volatile Snapshot snapshot;
+
+  /**
+   * Receives a user who may see another user's position.
+   */
+  @FunctionalInterface
+  public interface PeerHandler {
+    void accept(long userId, boolean sameHousehold);
+  }
+
+  /**
+   * Receives a member of a household or emergency group.
+   */
+  @FunctionalInterface
+  public interface MemberHandler {
+    void accept(long userId, String name, long householdId);
+  }
+
+  /**
+   * Returns the name of a household member.
+   *
+   * @param userId the ID of the user
+   * @return the name, or null if the user does not belong to a household
+   */
+  public String nameOf(long userId) {
+    Member member = snapshot().members.get(userId);
+    return member == null ? null : member.name;
+  }
+
+  /**
+   * Visits every other user in the household or emergency group of a user.
+   *
+   * @param userId  the ID of the user
+   * @param handler receives every peer and whether the peer is in the same household
+   */
+  public void forEachPeer(long userId, PeerHandler handler) {
+    Snapshot current = snapshot();
+    Member member = current.members.get(userId);
+    if (member == null) {
+      return;
+    }
+    long[] peers = member.emergencyGroupId != null
+            ? current.usersByGroup.get(member.emergencyGroupId)
+            : current.usersByHousehold.get(member.householdId);
+    for (long peer : peers) {
+      if (peer != userId) {
+        handler.accept(peer, current.members.get(peer).householdId == member.householdId);
+      }
+    }
+  }
+
+  /**
+   * Returns the household of a user.
+   *
+   * @param userId the ID of the user
+   * @return the ID of the household, or null if the user does not belong to a household
+   */
+  public Long householdIdOf(long userId) {
+    Member member = snapshot().members.get(userId);
+    return member == null ? null : member.householdId;
+  }
+
+  /**
+   * Visits every user in the household of a user, including the user.
+   *
+   * @param userId  the ID of the user
+   * @param handler receives every member of the household
+   */
+  public void forEachHouseholdMember(long userId, MemberHandler handler) {
+    Snapshot current = snapshot();
+    Member member = current.members.get(userId);
+    if (member != null) {
+      visit(current, current.usersByHousehold.get(member.householdId), handler);
+    }
+  }
+
+  /**
+   * Visits every user in the emergency group of a user, including the user. A user whose
+   * household is not in an emergency group only has the household.
+   *
+   * @param userId  the ID of the user
+   * @param handler receives every member of the emergency group
+   */
+  public void forEachGroupMember(long userId, MemberHandler handler) {
+    Snapshot current = snapshot();
+    Member member = current.members.get(userId);
+    if (member != null) {
+      visit(current, member.emergencyGroupId != null
+              ? current.usersByGroup.get(member.emergencyGroupId)
+              : current.usersByHousehold.get(member.householdId), handler);
+    }
+  }
+
+  private static void visit(Snapshot snapshot, long[] userIds, MemberHandler handler) {
+    for (long userId : userIds) {
+      Member member = snapshot.members.get(userId);
+      handler.accept(userId, member.name, member.householdId);
+    }
+  }
+
+  /**
+   * Checks whether two users are in the same household or emergency group.
+   *
+   * @param userId  the ID of one user
+   * @param otherId the ID of the other user
+   * @return true if the users are different and may see each other's positions
+   */
+  public boolean isPeer(long userId, long otherId) {
+    Snapshot current = snapshot();
+    Member member = current.members.get(userId);
+    Member other = current.members.get(otherId);
+    if (member == null || other == null || userId == otherId) {
+      return false;
+    }
+    return member.householdId == other.householdId
+            || (member.emergencyGroupId != null
+            && member.emergencyGroupId.equals(other.emergencyGroupId));
+  }
+
+  /**
+   * Drops the registry after a user changed household.
+   *
+   * @param event the membership change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserHouseholdChanged(UserHouseholdChangedEvent event) {
+    invalidate();
+  }
+
+  /**
+   * Drops the registry after a household changed emergency group.
+   *
+   * @param event the household change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onHouseholdChanged(HouseholdChangedEvent event) {
+    invalidate();
+  }
+
+  private void invalidate() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  /**
+   * Returns the current snapshot, loading it if needed. A snapshot whose load overlapped an
+   * invalidation is used for the call that loaded it but not kept.
+   */
+  private Snapshot snapshot() {
+    Snapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot != null) {
+        return snapshot;
+      }
+      long loadedGeneration = generation.get();
+      Snapshot loaded = load();
+      if (generation.get() == loadedGeneration) {
+        snapshot = loaded;
+      }
+      return loaded;
+    }
+  }
+
+  private Snapshot load() {
+    Map<Long, Member> members = new HashMap<>();
+    Map<Long, Integer> householdSizes = new HashMap<>();
+    Map<Long, Integer> groupSizes = new HashMap<>();
+    userRepository.forEachHouseholdMember((userId, name, householdId, emergencyGroupId) -> {
+      members.put(userId, new Member(name, householdId, emergencyGroupId));
+      householdSizes.merge(householdId, 1, Integer::sum);
+      if (emergencyGroupId != null) {
+        groupSizes.merge(emergencyGroupId, 1, Integer::sum);
+      }
+    });
+    Map<Long, long[]> usersByHousehold = new HashMap<>();
+    householdSizes.forEach((id, size) -> usersByHousehold.put(id, new long[size]));
+    Map<Long, long[]> usersByGroup = new HashMap<>();
+    groupSizes.forEach((id, size) -> usersByGroup.put(id, new long[size]));
+    Map<Long, Integer> householdFill = new HashMap<>();
+    Map<Long, Integer> groupFill = new HashMap<>();
+    members.forEach((userId, member) -> {
+      usersByHousehold.get(member.householdId)[
+              householdFill.merge(member.householdId, 1, Integer::sum) - 1] = userId;
+      if (member.emergencyGroupId != null) {
+        usersByGroup.get(member.emergencyGroupId)[
+                groupFill.merge(member.emergencyGroupId, 1, Integer::sum) - 1] = userId;
+      }
+    });
+    logger.info("Loaded " + members.size() + " household members in "
+            + usersByHousehold.size() + " households");
+    return new Snapshot(members, usersByHousehold, usersByGroup);
+  }
+
+  private static final class Member {
+    private final String name;
+    private final long householdId;
+    private final Long emergencyGroupId;
+
+    private Member(String name, long householdId, Long emergencyGroupId) {
+      this.name = name;
+      this.householdId = householdId;
+      this.emergencyGroupId = emergencyGroupId;
+    }
+  }
+
+  private static final class Snapshot {
+    private final Map<Long, Member> members;
+    private final Map<Long, long[]> usersByHousehold;
+    private final Map<Long, long[]> usersByGroup;
+
+    private Snapshot(Map<Long, Member> members, Map<Long, long[]> usersByHousehold,
+                     Map<Long, long[]> usersByGroup) {
+      this.members = members;
+      this.usersByHousehold = usersByHousehold;
+      this.usersByGroup = usersByGroup;
+    }
+  }
+}
@@ -38,6 +38,10 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class HouseholdService {
+  static final double NON_USER_FACTOR = 0.75;
+  static final double DAILY_CALORIES_PER_PERSON = 2000;
+  static final double DAILY_LITERS_PER_USER = 2.0;
+
   private final JoinHouseholdRequestRepo joinRequestRepo;
   private final UserRepository userRepository;
   private final HouseholdRepository householdRepository;
@@ -262,11 +266,10 @@ public class HouseholdService {
     }
 
     int people = users.size();
-    double nonUserFactor = 0.75;
-    double totalPeople = people + others.size() * nonUserFactor;
+    double totalPeople = people + others.size() * NON_USER_FACTOR;
 
-    double dailyCalories = totalPeople * 2000;
-    double dailyLiters = people * 2.0;
+    double dailyCalories = totalPeople * DAILY_CALORIES_PER_PERSON;
+    double dailyLiters = people * DAILY_LITERS_PER_USER;
 
     double calorieDays = totalCalories / dailyCalories;
     double waterDays = totalLiters / dailyLiters;
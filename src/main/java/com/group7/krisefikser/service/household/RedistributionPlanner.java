@@ -0,0 +1,177 @@
+package com.group7.krisefikser.service.household;
+
+import com.group7.krisefikser.dto.response.household.RedistributionPlanResponse;
+import com.group7.krisefikser.dto.response.household.SupplyTransferResponse;
+import com.group7.krisefikser.enums.SupplyType;
+import com.group7.krisefikser.model.household.HouseholdSupply;
+import com.group7.krisefikser.spatial.KdTree;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plans transfers of shared supplies between the households of an emergency group.
+ * For each supply type the group's total stock is divided by its total daily need, and every
+ * household is brought to that same number of days. Households above the target are donors,
+ * households below are receivers.
+ * Receivers are served largest deficit first from the nearest donor that still has a surplus,
+ * found through a KD-tree over the donors, until their remaining deficit is below the minimum
+ * transfer for the supply type. Among the few nearest donors, one that can cover the
+ * whole remaining deficit is preferred when it is not much further away, which keeps the
+ * number of transfers low. Every transfer exhausts a donor or satisfies a receiver, so a plan
+ * never has more than donors + receivers - 1 transfers per supply type.
+ */
+public class RedistributionPlanner {
+  static final double MIN_TRANSFER_CALORIES = 500;
+  static final double MIN_TRANSFER_LITERS = 0.5;
+  private static final int CANDIDATE_DONORS = 8;
+  private static final double WHOLE_TRANSFER_DETOUR_FACTOR = 1.5;
+  private static final long INDEX_MASK = (1L << 20) - 1;
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Creates a redistribution plan for the given households.
+   *
+   * @param households the households of the group with their members and shared supplies
+   * @return the plan with the group's days of supply and the transfers to make
+   */
+  public RedistributionPlanResponse plan(List<HouseholdSupply> households) {
+    int n = households.size();
+    if (n > INDEX_MASK) {
+      throw new IllegalArgumentException("Too many households to plan for: " + n);
+    }
+    double[] calories = new double[n];
+    double[] calorieNeeds = new double[n];
+    double[] liters = new double[n];
+    double[] waterNeeds = new double[n];
+    for (int i = 0; i < n; i++) {
+      HouseholdSupply household = households.get(i);
+      calories[i] = household.getCalories();
+      calorieNeeds[i] = (household.getUserCount()
+              + household.getNonUserCount() * HouseholdService.NON_USER_FACTOR)
+              * HouseholdService.DAILY_CALORIES_PER_PERSON;
+      liters[i] = household.getLiters();
+      waterNeeds[i] = household.getUserCount() * HouseholdService.DAILY_LITERS_PER_USER;
+    }
+
+    List<SupplyTransferResponse> transfers = new ArrayList<>();
+    double calorieDays = balance(households, SupplyType.CALORIES, calories, calorieNeeds,
+            MIN_TRANSFER_CALORIES, transfers);
+    double waterDays = balance(households, SupplyType.WATER, liters, waterNeeds,
+            MIN_TRANSFER_LITERS, transfers);
+    return new RedistributionPlanResponse(calorieDays, waterDays, transfers);
+  }
+
+  /**
+   * Plans the transfers for one supply type and adds them to the given list.
+   *
+   * @return the number of days the group can sustain itself on this supply
+   */
+  private double balance(List<HouseholdSupply> households, SupplyType type, double[] stock,
+                         double[] dailyNeed, double minTransfer,
+                         List<SupplyTransferResponse> transfers) {
+    double totalStock = 0;
+    double totalNeed = 0;
+    for (int i = 0; i < stock.length; i++) {
+      totalStock += stock[i];
+      totalNeed += dailyNeed[i];
+    }
+    if (totalNeed <= 0) {
+      return 0;
+    }
+    double days = totalStock / totalNeed;
+
+    int[] donors = new int[stock.length];
+    int[] receivers = new int[stock.length];
+    int donorCount = 0;
+    int receiverCount = 0;
+    double[] balances = new double[stock.length];
+    for (int i = 0; i < stock.length; i++) {
+      balances[i] = stock[i] - dailyNeed[i] * days;
+      if (balances[i] > EPSILON) {
+        donors[donorCount++] = i;
+      } else if (balances[i] <= -minTransfer) {
+        receivers[receiverCount++] = i;
+      }
+    }
+    if (donorCount == 0 || receiverCount == 0) {
+      return days;
+    }
+
+    double[] donorLatitudes = new double[donorCount];
+    double[] donorLongitudes = new double[donorCount];
+    double[] surplus = new double[donorCount];
+    for (int d = 0; d < donorCount; d++) {
+      HouseholdSupply donor = households.get(donors[d]);
+      donorLatitudes[d] = donor.getLatitude();
+      donorLongitudes[d] = donor.getLongitude();
+      surplus[d] = balances[donors[d]];
+    }
+    KdTree donorTree = KdTree.build(donorLatitudes, donorLongitudes);
+
+    sortByDeficit(receivers, receiverCount, balances);
+    for (int r = 0; r < receiverCount; r++) {
+      HouseholdSupply receiver = households.get(receivers[r]);
+      double deficit = -balances[receivers[r]];
+      while (deficit >= minTransfer) {
+        KdTree.Neighbors candidates = donorTree.nearest(receiver.getLatitude(),
+                receiver.getLongitude(), CANDIDATE_DONORS, d -> surplus[d] > EPSILON);
+        if (candidates.size() == 0) {
+          break;
+        }
+        int pick = pickCandidate(candidates, surplus, deficit);
+        int donorIndex = candidates.index(pick);
+        double amount = Math.min(surplus[donorIndex], deficit);
+        surplus[donorIndex] -= amount;
+        deficit -= amount;
+
+        HouseholdSupply donor = households.get(donors[donorIndex]);
+        transfers.add(new SupplyTransferResponse(
+                type,
+                donor.getHouseholdId(),
+                donor.getHouseholdName(),
+                receiver.getHouseholdId(),
+                receiver.getHouseholdName(),
+                amount,
+                candidates.distanceKm(pick)
+        ));
+      }
+    }
+    return days;
+  }
+
+  /**
+   * Picks the nearest candidate that can cover the whole deficit if it is within the allowed
+   * detour of the nearest candidate, and otherwise the nearest candidate.
+   */
+  private static int pickCandidate(KdTree.Neighbors candidates, double[] surplus,
+                                   double deficit) {
+    double maxDistance = candidates.distanceKm(0) * WHOLE_TRANSFER_DETOUR_FACTOR;
+    for (int c = 0; c < candidates.size(); c++) {
+      if (candidates.distanceKm(c) > maxDistance) {
+        break;
+      }
+      if (surplus[candidates.index(c)] >= deficit) {
+        return c;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Sorts the receivers by decreasing deficit.
+   * The deficit replaces the low 20 bits of its IEEE 754 representation with the receiver
+   * index, so a single primitive sort orders them; the lost precision is irrelevant here.
+   */
+  private static void sortByDeficit(int[] receivers, int count, double[] balances) {
+    long[] packed = new long[count];
+    for (int r = 0; r < count; r++) {
+      long deficitBits = Double.doubleToLongBits(-balances[receivers[r]]);
+      packed[r] = (deficitBits & ~INDEX_MASK) | receivers[r];
+    }
+    Arrays.sort(packed);
+    for (int r = 0; r < count; r++) {
+      receivers[r] = (int) (packed[count - 1 - r] & INDEX_MASK);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.group7.krisefikser.service.household;
+
+import com.group7.krisefikser.dto.response.household.SafetyStatusResponse;
+import com.group7.krisefikser.model.household.SafetyStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for the safety statuses users report during affected area incidents.
+ * Statuses are read from and written to the {@link SafetyStatusStore}, and household and
+ * emergency group members are looked up in the {@link HouseholdMembershipRegistry}, so
+ * neither reporting nor reading a status uses the database once both are loaded.
+ */
+@Service
+@RequiredArgsConstructor
+public class SafetyStatusService {
+
+  private final SafetyStatusStore safetyStatusStore;
+  private final HouseholdMembershipRegistry membershipRegistry;
+
+  /**
+   * Reports whether the current user is safe during an affected area incident.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @param safe           whether the user is safe
+   * @return the reported status
+   */
+  public SafetyStatusResponse reportStatus(long affectedAreaId, boolean safe) {
+    long userId = currentUserId();
+    SafetyStatus safetyStatus = safetyStatusStore.record(affectedAreaId, userId, safe);
+    return new SafetyStatusResponse(userId, membershipRegistry.nameOf(userId),
+            membershipRegistry.householdIdOf(userId),
+            safetyStatus.isSafe(), safetyStatus.getUpdatedAt());
+  }
+
+  /**
+   * Retrieves the safety statuses of the members of the current user's household,
+   * including the user.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @return the status of every household member
+   */
+  public List<SafetyStatusResponse> getHouseholdStatuses(long affectedAreaId) {
+    Map<Long, SafetyStatus> statuses = safetyStatusStore.getStatuses(affectedAreaId);
+    List<SafetyStatusResponse> responses = new ArrayList<>();
+    membershipRegistry.forEachHouseholdMember(currentUserId(), (userId, name, householdId) ->
+            responses.add(toResponse(userId, name, householdId, statuses.get(userId))));
+    return responses;
+  }
+
+  /**
+   * Retrieves the safety statuses of the members of the current user's emergency group,
+   * including the user. A user whose household is not in a group gets their household.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @return the status of every group member
+   */
+  public List<SafetyStatusResponse> getGroupStatuses(long affectedAreaId) {
+    Map<Long, SafetyStatus> statuses = safetyStatusStore.getStatuses(affectedAreaId);
+    List<SafetyStatusResponse> responses = new ArrayList<>();
+    membershipRegistry.forEachGroupMember(currentUserId(), (userId, name, householdId) ->
+            responses.add(toResponse(userId, name, householdId, statuses.get(userId))));
+    return responses;
+  }
+
+  private static SafetyStatusResponse toResponse(long userId, String name, long householdId,
+                                                 SafetyStatus safetyStatus) {
+    return safetyStatus == null
+            ? new SafetyStatusResponse(userId, name, householdId, null, null)
+            : new SafetyStatusResponse(userId, name, householdId, safetyStatus.isSafe(),
+            safetyStatus.getUpdatedAt());
+  }
+
+  private static long currentUserId() {
+    return Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getName());
+  }
+}
@@ -0,0 +1,223 @@
+package com.group7.krisefikser.service.household;
+
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.household.SafetyStatus;
+import com.group7.krisefikser.repository.household.SafetyStatusRepository;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory store of the safety statuses users report during affected area incidents,
+ * written behind to the database.
+ * Every affected area has a concurrent map from user ID to the latest status. Reporting a
+ * status replaces the user's entry and marks it as dirty without taking a lock or a database
+ * connection, so the burst of reports when an incident starts only costs the background
+ * flush, which writes the dirty statuses every {@value #FLUSH_INTERVAL_MILLIS} ms as one
+ * batched upsert on a single connection. The statuses of an area are loaded from the
+ * database on first use, which is also when the area is checked to exist. The remaining
+ * dirty statuses are flushed on shutdown.
+ */
+@Component
+public class SafetyStatusStore {
+  static final long FLUSH_INTERVAL_MILLIS = 2000;
+  private static final Logger logger = Logger.getLogger(SafetyStatusStore.class.getName());
+
+  private final SafetyStatusRepository safetyStatusRepository;
+  private final AffectedAreaRepo affectedAreaRepo;
+  private final Map<Long, Map<Long, SafetyStatus>> areas = new ConcurrentHashMap<>();
+  private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+  private final Object flushLock = new Object();
+  private final LongAdder received = new LongAdder();
+  private final LongAdder written = new LongAdder();
+  private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("safety-status-flush").factory());
+
+  /**
+   * Constructor for SafetyStatusStore.
+   *
+   * @param safetyStatusRepository the repository the statuses are loaded from and written to
+   * @param affectedAreaRepo       the repository used to check that an affected area exists
+   */
+  @Autowired
+  public SafetyStatusStore(SafetyStatusRepository safetyStatusRepository,
+                           AffectedAreaRepo affectedAreaRepo) {
+    this.safetyStatusRepository = safetyStatusRepository;
+    this.affectedAreaRepo = affectedAreaRepo;
+    flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Records the safety status of a user for an affected area.
+   * The status is visible to readers immediately and written to the database by the next
+   * flush.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @param userId         the ID of the user
+   * @param safe           whether the user is safe
+   * @return the recorded status
+   * @throws ResourceNotFoundException if there is no affected area with the ID
+   */
+  public SafetyStatus record(long affectedAreaId, long userId, boolean safe) {
+    SafetyStatus safetyStatus =
+            new SafetyStatus(userId, affectedAreaId, safe, LocalDateTime.now());
+    statuses(affectedAreaId).put(userId, safetyStatus);
+    dirty.add(key(affectedAreaId, userId));
+    received.increment();
+    return safetyStatus;
+  }
+
+  /**
+   * Returns the safety statuses reported for an affected area.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @return a live view of the statuses, by user ID
+   * @throws ResourceNotFoundException if there is no affected area with the ID
+   */
+  public Map<Long, SafetyStatus> getStatuses(long affectedAreaId) {
+    return statuses(affectedAreaId);
+  }
+
+  /**
+   * Forgets the statuses of an affected area that was resolved or deleted, since statuses
+   * are only reported while an area is active. The database deletes its rows along with the
+   * area, or when a resolved area is archived.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAffectedAreaChanged(AffectedAreaChangedEvent event) {
+    if (event.getAffectedArea() != null) {
+      return;
+    }
+    synchronized (flushLock) {
+      Map<Long, SafetyStatus> statuses = areas.remove(event.getAffectedAreaId());
+      if (statuses != null) {
+        statuses.keySet().forEach(userId ->
+                dirty.remove(key(event.getAffectedAreaId(), userId)));
+      }
+    }
+  }
+
+  /**
+   * Writes the statuses recorded since the last flush to the database.
+   * If the batch fails, the statuses are written one by one so a single bad row, such as
+   * the status of a user deleted in the meantime, does not hold back the others. Rows that
+   * violate a constraint are dropped. If a row fails for another reason, such as the
+   * database being unavailable, it and the rows after it are kept for the next flush.
+   *
+   * @return the number of statuses written
+   */
+  public int flush() {
+    synchronized (flushLock) {
+      if (dirty.isEmpty()) {
+        return 0;
+      }
+      List<SafetyStatus> batch = new ArrayList<>();
+      for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+        long key = it.next();
+        it.remove();
+        Map<Long, SafetyStatus> statuses = areas.get(key >>> 32);
+        SafetyStatus safetyStatus = statuses == null ? null : statuses.get(key & 0xffffffffL);
+        if (safetyStatus != null) {
+          batch.add(safetyStatus);
+        }
+      }
+      int count = batch.size();
+      try {
+        safetyStatusRepository.upsertSafetyStatuses(batch);
+      } catch (DataAccessException e) {
+        logger.log(Level.WARNING, "Batched safety status flush failed, writing rows one by one",
+                e);
+        count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+          SafetyStatus safetyStatus = batch.get(i);
+          try {
+            safetyStatusRepository.upsertSafetyStatuses(List.of(safetyStatus));
+            count++;
+          } catch (DataIntegrityViolationException rowFailure) {
+            logger.warning("Dropping safety status of user " + safetyStatus.getUserId() + ": "
+                    + rowFailure.getMessage());
+            Map<Long, SafetyStatus> statuses = areas.get(safetyStatus.getAffectedAreaId());
+            if (statuses != null) {
+              statuses.remove(safetyStatus.getUserId(), safetyStatus);
+            }
+          } catch (DataAccessException rowFailure) {
+            logger.warning("Could not write safety statuses, retrying " + (batch.size() - i)
+                    + " of them on the next flush: " + rowFailure.getMessage());
+            for (SafetyStatus remaining : batch.subList(i, batch.size())) {
+              dirty.add(key(remaining.getAffectedAreaId(), remaining.getUserId()));
+            }
+            break;
+          }
+        }
+      }
+      written.add(count);
+      logger.fine(() -> "Flushed " + batch.size() + " safety statuses, " + written.sum()
+              + " written for " + received.sum() + " received");
+      return count;
+    }
+  }
+
+  /**
+   * Flushes the remaining statuses and stops the background flush.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  private Map<Long, SafetyStatus> statuses(long affectedAreaId) {
+    Map<Long, SafetyStatus> statuses = areas.get(affectedAreaId);
+    if (statuses != null) {
+      return statuses;
+    }
+    return areas.computeIfAbsent(affectedAreaId, this::load);
+  }
+
+  private Map<Long, SafetyStatus> load(long affectedAreaId) {
+    if (affectedAreaRepo.getAffectedAreaById(affectedAreaId).isEmpty()) {
+      throw new ResourceNotFoundException("Affected area not found");
+    }
+    Map<Long, SafetyStatus> statuses = new ConcurrentHashMap<>();
+    for (SafetyStatus safetyStatus
+            : safetyStatusRepository.getSafetyStatusesByAffectedArea(affectedAreaId)) {
+      statuses.put(safetyStatus.getUserId(), safetyStatus);
+    }
+    logger.info("Loaded " + statuses.size() + " safety statuses for affected area "
+            + affectedAreaId);
+    return statuses;
+  }
+
+  /**
+   * Packs an affected area ID and a user ID into one key. Both are 32-bit ID columns.
+   */
+  private static long key(long affectedAreaId, long userId) {
+    return affectedAreaId << 32 | userId;
+  }
+}
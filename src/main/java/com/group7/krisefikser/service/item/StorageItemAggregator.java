@@ -0,0 +1,277 @@
+package com.group7.krisefikser.service.item;
+
+import com.group7.krisefikser.model.item.StorageItem;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates storage items by item ID in a single pass.
+ * Totals and earliest expiration dates are accumulated in an int-keyed open-addressing
+ * table backed by primitive arrays, so no intermediate lists or boxed keys are created.
+ * Inputs above the parallel threshold are split across the common fork/join pool and the
+ * partial tables are merged afterwards.
+ */
+public class StorageItemAggregator {
+  static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+  private static final int MIN_CHUNK_SIZE = 8_192;
+
+  private final int parallelThreshold;
+
+  /**
+   * Creates an aggregator that switches to fork/join at the default threshold.
+   */
+  public StorageItemAggregator() {
+    this(DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Creates an aggregator with a custom parallel threshold.
+   *
+   * @param parallelThreshold the input size from which the work is split with fork/join
+   */
+  public StorageItemAggregator(int parallelThreshold) {
+    if (parallelThreshold < 1) {
+      throw new IllegalArgumentException("Parallel threshold must be positive");
+    }
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * Aggregates the given storage items by item ID.
+   *
+   * @param storageItems the storage items to aggregate
+   * @return the aggregated totals, ordered by item ID
+   */
+  public Result aggregate(List<StorageItem> storageItems) {
+    List<StorageItem> items = storageItems instanceof RandomAccess
+            ? storageItems : new ArrayList<>(storageItems);
+
+    AccumulatorTable table;
+    if (items.size() >= parallelThreshold) {
+      table = ForkJoinPool.commonPool().invoke(new AggregationTask(items, 0, items.size()));
+    } else {
+      table = AccumulatorTable.accumulate(items, 0, items.size());
+    }
+    return table.toResult();
+  }
+
+  /**
+   * The aggregated values, stored column-wise and ordered by item ID.
+   */
+  public static final class Result {
+    private final int[] itemIds;
+    private final double[] totalQuantities;
+    private final LocalDateTime[] earliestExpirationDates;
+
+    private Result(int[] itemIds, double[] totalQuantities,
+                   LocalDateTime[] earliestExpirationDates) {
+      this.itemIds = itemIds;
+      this.totalQuantities = totalQuantities;
+      this.earliestExpirationDates = earliestExpirationDates;
+    }
+
+    /**
+     * Returns the number of distinct item IDs.
+     *
+     * @return the number of aggregated rows
+     */
+    public int size() {
+      return itemIds.length;
+    }
+
+    /**
+     * Returns the item ID of a row.
+     *
+     * @param row the row index
+     * @return the item ID
+     */
+    public int itemId(int row) {
+      return itemIds[row];
+    }
+
+    /**
+     * Returns the summed quantity of a row.
+     *
+     * @param row the row index
+     * @return the total quantity
+     */
+    public double totalQuantity(int row) {
+      return totalQuantities[row];
+    }
+
+    /**
+     * Returns the earliest expiration date of a row.
+     *
+     * @param row the row index
+     * @return the earliest expiration date, or null if no item in the row had one
+     */
+    public LocalDateTime earliestExpirationDate(int row) {
+      return earliestExpirationDates[row];
+    }
+  }
+
+  /**
+   * Fork/join task that splits the input range until it is small enough to aggregate
+   * directly, then merges the partial tables.
+   */
+  private final class AggregationTask extends RecursiveTask<AccumulatorTable> {
+    private final transient List<StorageItem> items;
+    private final int from;
+    private final int to;
+
+    private AggregationTask(List<StorageItem> items, int from, int to) {
+      this.items = items;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected AccumulatorTable compute() {
+      int length = to - from;
+      if (length <= Math.max(MIN_CHUNK_SIZE, parallelThreshold / 4)) {
+        return AccumulatorTable.accumulate(items, from, to);
+      }
+      int mid = from + length / 2;
+      AggregationTask left = new AggregationTask(items, from, mid);
+      left.fork();
+      AccumulatorTable right = new AggregationTask(items, mid, to).compute();
+      AccumulatorTable merged = left.join();
+      merged.mergeFrom(right);
+      return merged;
+    }
+  }
+
+  /**
+   * Open-addressing hash table keyed by item ID with linear probing.
+   * The earliest expiration date is tracked as an (epoch day, nano of day) pair,
+   * together with the date instance it came from so that no new dates are created.
+   */
+  static final class AccumulatorTable {
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] keys;
+    private double[] sums;
+    private long[] minDays;
+    private long[] minNanos;
+    private LocalDateTime[] minDates;
+    private int size;
+    private int mask;
+
+    AccumulatorTable(int expectedKeys) {
+      int capacity = Integer.highestOneBit(Math.max(INITIAL_CAPACITY, expectedKeys * 2) - 1) << 1;
+      allocate(capacity);
+    }
+
+    static AccumulatorTable accumulate(List<StorageItem> items, int from, int to) {
+      // Distinct item IDs are usually far fewer than rows; start small and grow on demand.
+      AccumulatorTable table = new AccumulatorTable(Math.min(to - from, 256));
+      for (int i = from; i < to; i++) {
+        StorageItem item = items.get(i);
+        LocalDateTime date = item.getExpirationDate();
+        if (date == null) {
+          table.add(item.getItemId(), item.getQuantity(), Long.MAX_VALUE, Long.MAX_VALUE, null);
+        } else {
+          table.add(item.getItemId(), item.getQuantity(),
+                  date.toLocalDate().toEpochDay(), date.toLocalTime().toNanoOfDay(), date);
+        }
+      }
+      return table;
+    }
+
+    private void allocate(int capacity) {
+      keys = new int[capacity];
+      Arrays.fill(keys, EMPTY);
+      sums = new double[capacity];
+      minDays = new long[capacity];
+      minNanos = new long[capacity];
+      minDates = new LocalDateTime[capacity];
+      mask = capacity - 1;
+    }
+
+    private static int hash(int key) {
+      int h = key * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+
+    void add(int key, double quantity, long day, long nano, LocalDateTime date) {
+      int slot = hash(key) & mask;
+      while (true) {
+        int existing = keys[slot];
+        if (existing == key) {
+          sums[slot] += quantity;
+          if (day < minDays[slot] || (day == minDays[slot] && nano < minNanos[slot])) {
+            minDays[slot] = day;
+            minNanos[slot] = nano;
+            minDates[slot] = date;
+          }
+          return;
+        }
+        if (existing == EMPTY) {
+          keys[slot] = key;
+          sums[slot] = quantity;
+          minDays[slot] = day;
+          minNanos[slot] = nano;
+          minDates[slot] = date;
+          if (++size * 2 > keys.length) {
+            grow();
+          }
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    private void grow() {
+      int[] oldKeys = keys;
+      double[] oldSums = sums;
+      long[] oldDays = minDays;
+      long[] oldNanos = minNanos;
+      LocalDateTime[] oldDates = minDates;
+      allocate(oldKeys.length * 2);
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != EMPTY) {
+          add(oldKeys[i], oldSums[i], oldDays[i], oldNanos[i], oldDates[i]);
+        }
+      }
+    }
+
+    void mergeFrom(AccumulatorTable other) {
+      for (int i = 0; i < other.keys.length; i++) {
+        if (other.keys[i] != EMPTY) {
+          add(other.keys[i], other.sums[i], other.minDays[i], other.minNanos[i],
+                  other.minDates[i]);
+        }
+      }
+    }
+
+    Result toResult() {
+      // Pack occupied slots as (itemId, slot) pairs so a single primitive sort orders them.
+      long[] packed = new long[size];
+      int n = 0;
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] != EMPTY) {
+          packed[n++] = ((long) keys[i] << 32) | i;
+        }
+      }
+      Arrays.sort(packed);
+
+      int[] itemIds = new int[n];
+      double[] totals = new double[n];
+      LocalDateTime[] earliest = new LocalDateTime[n];
+      for (int row = 0; row < n; row++) {
+        int slot = (int) (packed[row] & 0xFFFFFFFFL);
+        itemIds[row] = keys[slot];
+        totals[row] = sums[slot];
+        earliest[row] = minDates[slot];
+      }
+      return new Result(itemIds, totals, earliest);
+    }
+  }
+}
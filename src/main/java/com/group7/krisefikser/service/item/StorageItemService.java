@@ -7,6 +7,7 @@ import com.group7.krisefikser.dto.request.item.StorageItemRequest;
 import com.group7.krisefikser.dto.request.item.StorageItemSortRequest;
 import com.group7.krisefikser.dto.response.item.AggregatedStorageItemResponse;
 import com.group7.krisefikser.dto.response.item.ItemResponse;
+import com.group7.krisefikser.dto.response.item.NearestSharedItemResponse;
 import com.group7.krisefikser.dto.response.item.StorageItemGroupResponse;
 import com.group7.krisefikser.dto.response.item.StorageItemResponse;
 import com.group7.krisefikser.enums.ItemType;
@@ -16,8 +17,9 @@ import com.group7.krisefikser.model.item.StorageItem;
 import com.group7.krisefikser.repository.household.HouseholdRepository;
 import com.group7.krisefikser.repository.item.ItemRepo;
 import com.group7.krisefikser.repository.item.StorageItemRepo;
+import com.group7.krisefikser.service.household.GroupHouseholdIndex;
 import com.group7.krisefikser.service.household.HouseholdService;
-import java.time.LocalDateTime;
+import com.group7.krisefikser.spatial.KdTree;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -25,7 +27,6 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,6 +44,8 @@ public class StorageItemService {
   private final HouseholdService householdService;
   private final HouseholdRepository householdRepository;
   private final ItemService itemService;
+  private final GroupHouseholdIndex groupHouseholdIndex;
+  private final StorageItemAggregator storageItemAggregator = new StorageItemAggregator();
   private static final Logger logger = Logger.getLogger(StorageItemService.class.getName());
 
 
@@ -114,6 +117,52 @@ public class StorageItemService {
             .toList();
   }
 
+  /**
+   * Finds the households in the current user's emergency group that share an item and
+   * are closest to a position.
+   * The shared quantities are summed per household in the database, while the distance
+   * ordering is answered by the in-memory spatial index of the group's households.
+   *
+   * @param itemId    The ID of the item to look for.
+   * @param latitude  The latitude of the position to search from.
+   * @param longitude The longitude of the position to search from.
+   * @param k         The maximum number of households to return.
+   * @return The nearest sharing households, ordered by increasing distance.
+   */
+  public List<NearestSharedItemResponse> getNearestSharedStorageItemsInGroupByItemId(
+          int itemId, double latitude, double longitude, int k) {
+    if (k <= 0) {
+      throw new IllegalArgumentException("k must be positive");
+    }
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    Long groupId = householdService.getGroupIdForCurrentUser();
+
+    Map<Long, Double> quantities = storageItemRepo
+            .getSharedQuantitiesInGroupByItemId(groupId, itemId);
+    if (quantities.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    GroupHouseholdIndex.GroupSnapshot snapshot = groupHouseholdIndex.getSnapshot(groupId);
+    KdTree.Neighbors neighbors = snapshot.nearest(latitude, longitude, k,
+            index -> quantities.containsKey(snapshot.householdId(index)));
+
+    List<NearestSharedItemResponse> responses = new ArrayList<>(neighbors.size());
+    for (int i = 0; i < neighbors.size(); i++) {
+      int index = neighbors.index(i);
+      long householdId = snapshot.householdId(index);
+      responses.add(new NearestSharedItemResponse(
+              householdId,
+              snapshot.householdName(index),
+              quantities.get(householdId),
+              neighbors.distanceKm(i)
+      ));
+    }
+    return responses;
+  }
+
 
   /**
    * Adds a new storage item to the repository after validating it.
@@ -382,6 +431,7 @@ public class StorageItemService {
 
   /**
    * Aggregates storage items by item ID and creates a list of aggregated responses.
+   * Totals are computed in one pass by {@link StorageItemAggregator}.
    *
    * @param storageItems  The list of all storage items
    * @param sortBy        The field to sort by (e.g., "quantity", "expirationDate", "name")
@@ -392,26 +442,13 @@ public class StorageItemService {
           List<StorageItem> storageItems,
           String sortBy,
           String sortDirection) {
-    Map<Integer, List<StorageItem>> groupedByItemId = storageItems.stream()
-            .collect(Collectors.groupingBy(StorageItem::getItemId));
+    StorageItemAggregator.Result totals = storageItemAggregator.aggregate(storageItems);
 
     // Create aggregated responses
-    List<AggregatedStorageItemResponse> result = new ArrayList<>();
-
-    for (Map.Entry<Integer, List<StorageItem>> entry : groupedByItemId.entrySet()) {
-      int itemId = entry.getKey();
-      List<StorageItem> items = entry.getValue();
-
-      // Calculate total quantity
-      double totalQuantity = items.stream()
-              .mapToDouble(StorageItem::getQuantity)
-              .sum();
+    List<AggregatedStorageItemResponse> result = new ArrayList<>(totals.size());
 
-      // Find earliest expiration date
-      LocalDateTime earliestDate = items.stream()
-              .map(StorageItem::getExpirationDate)
-              .min(LocalDateTime::compareTo)
-              .orElse(null);
+    for (int row = 0; row < totals.size(); row++) {
+      int itemId = totals.itemId(row);
 
       // Get item details
       Item item = null;
@@ -428,8 +465,8 @@ public class StorageItemService {
       AggregatedStorageItemResponse aggregated = new AggregatedStorageItemResponse(
               itemId,
               itemResponse,
-              totalQuantity,
-              earliestDate
+              totals.totalQuantity(row),
+              totals.earliestExpirationDate(row)
       );
 
       result.add(aggregated);
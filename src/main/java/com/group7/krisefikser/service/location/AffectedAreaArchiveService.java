@@ -0,0 +1,110 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service that moves resolved affected areas out of the affected_areas table, so the table
+ * read by notification checks and map queries only grows with the incidents in progress.
+ * A background thread runs every {@value #ARCHIVE_INTERVAL_MINUTES} minutes and moves the
+ * areas resolved more than {@value #RETENTION_DAYS} days ago to the archive, in batches of
+ * {@value #BATCH_SIZE} that are each written in their own transaction. Until then, users
+ * still see the alerts of a resolved incident, which are deleted with the area. Shelter
+ * assignments left on the areas, such as those of an evacuation that finished while the
+ * area was resolved, are released in the same transaction.
+ */
+@Service
+public class AffectedAreaArchiveService {
+  static final long ARCHIVE_INTERVAL_MINUTES = 60;
+  static final long RETENTION_DAYS = 7;
+  static final int BATCH_SIZE = 500;
+  private static final Logger logger =
+          Logger.getLogger(AffectedAreaArchiveService.class.getName());
+
+  private final AffectedAreaRepo affectedAreaRepo;
+  private final ShelterAssignmentRepository shelterAssignmentRepository;
+  private final PointOfInterestRepo pointOfInterestRepo;
+  private final TransactionTemplate transactionTemplate;
+  private final ScheduledExecutorService archiver = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("affected-area-archive").factory());
+
+  /**
+   * Constructor for AffectedAreaArchiveService.
+   *
+   * @param affectedAreaRepo            the repository the resolved areas are moved by
+   * @param shelterAssignmentRepository the repository the shelter assignments are
+   *                                    released by
+   * @param pointOfInterestRepo         the repository released shelters are announced by
+   * @param transactionManager          the transaction manager used to move each batch
+   */
+  @Autowired
+  public AffectedAreaArchiveService(AffectedAreaRepo affectedAreaRepo,
+                                    ShelterAssignmentRepository shelterAssignmentRepository,
+                                    PointOfInterestRepo pointOfInterestRepo,
+                                    PlatformTransactionManager transactionManager) {
+    this.affectedAreaRepo = affectedAreaRepo;
+    this.shelterAssignmentRepository = shelterAssignmentRepository;
+    this.pointOfInterestRepo = pointOfInterestRepo;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    archiver.scheduleWithFixedDelay(this::archiveSafely, ARCHIVE_INTERVAL_MINUTES,
+            ARCHIVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Moves every affected area resolved more than {@value #RETENTION_DAYS} days ago to the
+   * archive. A failed batch is rolled back on its own, and the batches before it stay
+   * archived.
+   *
+   * @return the number of archived areas
+   */
+  public int archive() {
+    LocalDateTime resolvedBefore = LocalDateTime.now().minusDays(RETENTION_DAYS);
+    int archived = 0;
+    int moved;
+    do {
+      Integer batch = transactionTemplate.execute(status -> archiveBatch(resolvedBefore));
+      moved = batch == null ? 0 : batch;
+      archived += moved;
+    } while (moved == BATCH_SIZE);
+    if (archived > 0) {
+      logger.info("Archived " + archived + " resolved affected areas");
+    }
+    return archived;
+  }
+
+  /**
+   * Stops the background archiving.
+   */
+  @PreDestroy
+  public void shutdown() {
+    archiver.shutdownNow();
+  }
+
+  private int archiveBatch(LocalDateTime resolvedBefore) {
+    List<Long> ids = affectedAreaRepo.getResolvedAffectedAreaIds(resolvedBefore, BATCH_SIZE);
+    pointOfInterestRepo.publishChanges(shelterAssignmentRepository.releaseAssignments(ids));
+    return affectedAreaRepo.archiveResolvedAffectedAreas(ids);
+  }
+
+  private void archiveSafely() {
+    try {
+      archive();
+    } catch (DataAccessException e) {
+      logger.log(Level.WARNING, "Could not archive resolved affected areas", e);
+    }
+  }
+}
@@ -0,0 +1,565 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.spatial.ClusterPyramid;
+import com.group7.krisefikser.spatial.Polygon;
+import com.group7.krisefikser.spatial.RTree;
+import com.group7.krisefikser.utils.GeoUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory index of all affected areas.
+ * The index is loaded from the database on first use and afterwards kept up to date
+ * incrementally from {@link AffectedAreaChangedEvent}s. Area centers are kept in a cluster
+ * pyramid with the severity level as category, so map clusters are answered without reading
+ * the affected_areas table.
+ * For containment queries the danger zones are kept in an immutable snapshot that is
+ * rebuilt and swapped in atomically on every change. An area is either a circle around its
+ * center, or a polygon whose inside is the high danger zone and whose danger radii are
+ * buffers around its boundary. The snapshot holds an R-tree over the bounding boxes of the
+ * outermost zones, the unit vector of every circle center with the squared chord length of
+ * every danger radius, and a prepared {@link Polygon} for every polygon area, so a query
+ * only tests the few areas whose box contains it and needs no trigonometry per area.
+ * Batches of positions are classified in one pass: the positions are sorted by latitude into
+ * parallel coordinate arrays, and every area scans only the contiguous run of positions
+ * inside its latitude band, with a branch-free distance loop for circles.
+ */
+@Component
+public class AffectedAreaIndex {
+  /**
+   * The zone {@link #locate} returns for a position outside all danger zones.
+   */
+  public static final long NO_ZONE = 0;
+  static final int CLUSTER_MAX_ZOOM = 16;
+  static final int SEVERITY_LEVELS = 3;
+  private static final double LATITUDE_KEY_SCALE = 1e6;
+  private static final Logger logger = Logger.getLogger(AffectedAreaIndex.class.getName());
+
+  private final AffectedAreaRepo affectedAreaRepo;
+  private final ClusterPyramid clusters = new ClusterPyramid(CLUSTER_MAX_ZOOM, SEVERITY_LEVELS);
+  private final Map<Long, AffectedArea> areasById = new HashMap<>();
+  private volatile Zones zones = Zones.EMPTY;
+  private volatile boolean loaded;
+
+  /**
+   * Constructor for AffectedAreaIndex.
+   *
+   * @param affectedAreaRepo The repository the index is loaded from.
+   */
+  @Autowired
+  public AffectedAreaIndex(AffectedAreaRepo affectedAreaRepo) {
+    this.affectedAreaRepo = affectedAreaRepo;
+  }
+
+  /**
+   * Finds the clusters of affected areas inside a bounding box at a zoom level.
+   * The category of a cluster is the severity level of its areas minus one.
+   *
+   * @param zoom         the map zoom level
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @return the clusters inside the box
+   */
+  public List<ClusterPyramid.Cluster> findClusters(int zoom, double minLatitude,
+                                                   double minLongitude, double maxLatitude,
+                                                   double maxLongitude) {
+    ensureLoaded();
+    List<ClusterPyramid.Cluster> result = new ArrayList<>();
+    clusters.query(zoom, minLatitude, minLongitude, maxLatitude, maxLongitude, null,
+            result::add);
+    return result;
+  }
+
+  /**
+   * Finds the affected areas whose medium danger zone contains a position.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @return the affected areas, in no particular order
+   */
+  public List<AffectedArea> findAreasInMediumDangerZone(double latitude, double longitude) {
+    ensureLoaded();
+    Zones snapshot = zones;
+    double[] position = new double[3];
+    GeoUtils.toUnitVector(latitude, longitude, position);
+    List<AffectedArea> result = new ArrayList<>();
+    snapshot.tree.query(latitude, longitude, i -> {
+      if (snapshot.level(i, latitude, longitude, position) >= 2) {
+        result.add(snapshot.areas[i]);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Classifies a batch of positions against the danger zones of all affected areas.
+   * Each position gets the most dangerous zone it lies in; when several areas give the same
+   * zone, the area with the highest severity level is reported.
+   *
+   * @param latitudes  the latitudes of the positions
+   * @param longitudes the longitudes of the positions, in the same order
+   * @return the zone and area of every position, in the order of the input
+   */
+  public ZoneClassification classify(double[] latitudes, double[] longitudes) {
+    if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("Latitudes and longitudes differ in length");
+    }
+    ensureLoaded();
+    Zones snapshot = zones;
+    int n = latitudes.length;
+
+    long[] order = new long[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = ((long) latitudeKey(latitudes[i]) << 32) | i;
+    }
+    Arrays.sort(order);
+    int[] keys = new int[n];
+    double[] sortedLatitudes = new double[n];
+    double[] sortedLongitudes = new double[n];
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    double[] zs = new double[n];
+    double[] vector = new double[3];
+    for (int j = 0; j < n; j++) {
+      int i = (int) order[j];
+      keys[j] = (int) (order[j] >>> 32);
+      sortedLatitudes[j] = latitudes[i];
+      sortedLongitudes[j] = longitudes[i];
+      GeoUtils.toUnitVector(latitudes[i], longitudes[i], vector);
+      xs[j] = vector[0];
+      ys[j] = vector[1];
+      zs[j] = vector[2];
+    }
+
+    byte[] sortedLevels = new byte[n];
+    int[] sortedAreas = new int[n];
+    for (int a = 0; a < snapshot.size; a++) {
+      int from = firstAtLeast(keys, latitudeKey(snapshot.minLatitudes[a]));
+      int to = firstAtLeast(keys, latitudeKey(snapshot.maxLatitudes[a]) + 1);
+      int severity = snapshot.areas[a].getSeverityLevel();
+      if (snapshot.polygons[a] != null) {
+        for (int j = from; j < to; j++) {
+          if (snapshot.containsInBox(a, sortedLatitudes[j], sortedLongitudes[j])) {
+            int level = snapshot.polygonLevel(a, sortedLatitudes[j], sortedLongitudes[j]);
+            keepHighest(sortedLevels, sortedAreas, j, level, a, severity, snapshot);
+          }
+        }
+        continue;
+      }
+      double cx = snapshot.centers[a * 3];
+      double cy = snapshot.centers[a * 3 + 1];
+      double cz = snapshot.centers[a * 3 + 2];
+      double high = snapshot.highChordsSquared[a];
+      double medium = snapshot.mediumChordsSquared[a];
+      double low = snapshot.lowChordsSquared[a];
+      for (int j = from; j < to; j++) {
+        double dx = xs[j] - cx;
+        double dy = ys[j] - cy;
+        double dz = zs[j] - cz;
+        double distanceSquared = dx * dx + dy * dy + dz * dz;
+        int level = distanceSquared <= high ? 3
+                : distanceSquared <= medium ? 2
+                : distanceSquared <= low ? 1 : 0;
+        keepHighest(sortedLevels, sortedAreas, j, level, a, severity, snapshot);
+      }
+    }
+
+    byte[] levels = new byte[n];
+    long[] areaIds = new long[n];
+    for (int j = 0; j < n; j++) {
+      int i = (int) order[j];
+      levels[i] = sortedLevels[j];
+      areaIds[i] = sortedLevels[j] > 0 ? snapshot.areas[sortedAreas[j]].getId() : -1;
+    }
+    return new ZoneClassification(levels, areaIds);
+  }
+
+  /**
+   * Finds the most dangerous zone that contains a single position, picking areas the same
+   * way as {@link #classify}. Only the areas whose box contains the position are tested, and
+   * the zone is returned packed into a long, so a lookup allocates next to nothing and can
+   * be made on every shared position.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @return the zone, read with {@link #levelOf} and {@link #areaIdOf}, or {@link #NO_ZONE}
+   */
+  public long locate(double latitude, double longitude) {
+    ensureLoaded();
+    Zones snapshot = zones;
+    double[] position = new double[3];
+    GeoUtils.toUnitVector(latitude, longitude, position);
+    byte[] level = new byte[1];
+    int[] area = new int[1];
+    snapshot.tree.query(latitude, longitude, i -> keepHighest(level, area, 0,
+            snapshot.level(i, latitude, longitude, position), i,
+            snapshot.areas[i].getSeverityLevel(), snapshot));
+    return level[0] > 0 ? snapshot.areas[area[0]].getId() << 2 | level[0] : NO_ZONE;
+  }
+
+  /**
+   * Returns the danger level of a zone returned by {@link #locate}.
+   *
+   * @param zone the zone
+   * @return the danger level, NONE for {@link #NO_ZONE}
+   */
+  public static DangerLevel levelOf(long zone) {
+    return DangerLevel.values()[(int) (zone & 3)];
+  }
+
+  /**
+   * Returns the affected area of a zone returned by {@link #locate}.
+   *
+   * @param zone the zone
+   * @return the ID of the affected area, or null for {@link #NO_ZONE}
+   */
+  public static Long areaIdOf(long zone) {
+    return zone != NO_ZONE ? zone >>> 2 : null;
+  }
+
+  /**
+   * Prepares the danger zones of a single affected area, so positions can be classified
+   * against an area without going through the index.
+   *
+   * @param area the affected area
+   * @return the danger zones of the area
+   */
+  public static Footprint footprintOf(AffectedArea area) {
+    return new Footprint(Zones.of(List.of(area)));
+  }
+
+  /**
+   * Applies a change to an affected area to the index.
+   * Changes that arrive before the index has been loaded are ignored, since loading reads
+   * the committed state of the database.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onAffectedAreaChanged(AffectedAreaChangedEvent event) {
+    if (!loaded) {
+      return;
+    }
+    apply(event.getAffectedAreaId(), event.getAffectedArea());
+    zones = Zones.of(areasById.values());
+  }
+
+  private void apply(long id, AffectedArea area) {
+    if (area == null || area.getLatitude() == null || area.getLongitude() == null) {
+      areasById.remove(id);
+      clusters.remove(id);
+      return;
+    }
+    areasById.put(id, area);
+    int category = Math.max(1, Math.min(SEVERITY_LEVELS, area.getSeverityLevel())) - 1;
+    clusters.put(id, area.getLatitude(), area.getLongitude(), category);
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      List<AffectedArea> areas = affectedAreaRepo.getAllAffectedAreas();
+      for (AffectedArea area : areas) {
+        apply(area.getId(), area);
+      }
+      zones = Zones.of(areasById.values());
+      loaded = true;
+      logger.info("Indexed " + areas.size() + " affected areas");
+    }
+  }
+
+  /**
+   * Records a zone for a sorted position if it is more dangerous than the zone recorded so
+   * far, or equally dangerous but from an area with a higher severity level.
+   */
+  private static void keepHighest(byte[] levels, int[] areas, int j, int level, int area,
+                                  int severity, Zones snapshot) {
+    if (level > levels[j] || (level > 0 && level == levels[j]
+            && severity > snapshot.areas[areas[j]].getSeverityLevel())) {
+      levels[j] = (byte) level;
+      areas[j] = area;
+    }
+  }
+
+  private static int latitudeKey(double latitude) {
+    double clamped = Math.max(-90, Math.min(90, latitude));
+    return (int) Math.floor((clamped + 90) * LATITUDE_KEY_SCALE);
+  }
+
+  /**
+   * Returns the index of the first key that is at least the given key.
+   */
+  private static int firstAtLeast(int[] keys, int key) {
+    int low = 0;
+    int high = keys.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle] < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static double radius(Double radiusKm) {
+    return radiusKm != null ? radiusKm : 0;
+  }
+
+  private static double outerRadius(AffectedArea area) {
+    return Math.max(radius(area.getHighDangerRadiusKm()),
+            Math.max(radius(area.getMediumDangerRadiusKm()),
+                    radius(area.getLowDangerRadiusKm())));
+  }
+
+  /**
+   * The danger zones of a batch of classified positions.
+   */
+  public static final class ZoneClassification {
+    private final byte[] levels;
+    private final long[] areaIds;
+
+    private ZoneClassification(byte[] levels, long[] areaIds) {
+      this.levels = levels;
+      this.areaIds = areaIds;
+    }
+
+    public int size() {
+      return levels.length;
+    }
+
+    public DangerLevel getLevel(int index) {
+      return DangerLevel.values()[levels[index]];
+    }
+
+    /**
+     * Returns the ID of the affected area that gives the zone of a position.
+     *
+     * @param index the index of the position in the input
+     * @return the ID of the affected area, or null if the position is in no danger zone
+     */
+    public Long getAreaId(int index) {
+      return levels[index] > 0 ? areaIds[index] : null;
+    }
+  }
+
+  /**
+   * The danger zones of one affected area, with the bounding box of its outermost zone.
+   * A box with a minimum longitude greater than its maximum longitude crosses the
+   * antimeridian.
+   */
+  public static final class Footprint {
+    private final Zones zones;
+
+    private Footprint(Zones zones) {
+      this.zones = zones;
+    }
+
+    public double getMinLatitude() {
+      return zones.minLatitudes[0];
+    }
+
+    public double getMaxLatitude() {
+      return zones.maxLatitudes[0];
+    }
+
+    public double getMinLongitude() {
+      return zones.minLongitudes[0];
+    }
+
+    public double getMaxLongitude() {
+      return zones.maxLongitudes[0];
+    }
+
+    /**
+     * Returns the most dangerous zone of the area that contains a position.
+     *
+     * @param latitude  the latitude of the position
+     * @param longitude the longitude of the position
+     * @return the danger level, or NONE if the position is outside all zones
+     */
+    public DangerLevel levelAt(double latitude, double longitude) {
+      double[] position = new double[3];
+      GeoUtils.toUnitVector(latitude, longitude, position);
+      return DangerLevel.values()[zones.level(0, latitude, longitude, position)];
+    }
+  }
+
+  /**
+   * Immutable snapshot of the danger zones of all affected areas, stored as parallel arrays
+   * sorted by the southern edge of each area's bounding box, with an R-tree over the boxes.
+   * A box with a minimum longitude greater than its maximum longitude crosses the
+   * antimeridian.
+   */
+  private static final class Zones {
+    private static final Zones EMPTY = of(List.of());
+
+    private final int size;
+    private final AffectedArea[] areas;
+    private final double[] minLatitudes;
+    private final double[] maxLatitudes;
+    private final double[] minLongitudes;
+    private final double[] maxLongitudes;
+    private final double[] centers;
+    private final double[] highChordsSquared;
+    private final double[] mediumChordsSquared;
+    private final double[] lowChordsSquared;
+    private final Polygon[] polygons;
+    private final RTree tree;
+
+    private Zones(AffectedArea[] areas, Polygon[] polygons) {
+      this.size = areas.length;
+      this.areas = areas;
+      this.polygons = polygons;
+      this.minLatitudes = new double[size];
+      this.maxLatitudes = new double[size];
+      this.minLongitudes = new double[size];
+      this.maxLongitudes = new double[size];
+      this.centers = new double[size * 3];
+      this.highChordsSquared = new double[size];
+      this.mediumChordsSquared = new double[size];
+      this.lowChordsSquared = new double[size];
+      double[] center = new double[3];
+      for (int i = 0; i < size; i++) {
+        AffectedArea area = areas[i];
+        double outer = outerRadius(area);
+        Polygon polygon = polygons[i];
+        double latitudeSpan = outer / GeoUtils.KM_PER_DEGREE_LATITUDE;
+        minLatitudes[i] = (polygon != null ? polygon.getMinLatitude() : area.getLatitude())
+                - latitudeSpan;
+        maxLatitudes[i] = (polygon != null ? polygon.getMaxLatitude() : area.getLatitude())
+                + latitudeSpan;
+        double west = polygon != null ? polygon.getMinLongitude() : area.getLongitude();
+        double east = polygon != null ? polygon.getMaxLongitude() : area.getLongitude();
+        double longitudeSpan = (minLatitudes[i] <= -90 || maxLatitudes[i] >= 90) ? 360
+                : GeoUtils.kmToLongitudeDegrees(outer,
+                Math.max(Math.abs(minLatitudes[i]), Math.abs(maxLatitudes[i])));
+        if (east - west + 2 * longitudeSpan >= 360) {
+          minLongitudes[i] = -180;
+          maxLongitudes[i] = 180;
+        } else {
+          minLongitudes[i] = wrapLongitude(west - longitudeSpan);
+          maxLongitudes[i] = wrapLongitude(east + longitudeSpan);
+        }
+        GeoUtils.toUnitVector(area.getLatitude(), area.getLongitude(), center);
+        System.arraycopy(center, 0, centers, i * 3, 3);
+        highChordsSquared[i] = square(GeoUtils.kmToChord(radius(area.getHighDangerRadiusKm())));
+        mediumChordsSquared[i] = square(GeoUtils.kmToChord(
+                radius(area.getMediumDangerRadiusKm())));
+        lowChordsSquared[i] = square(GeoUtils.kmToChord(radius(area.getLowDangerRadiusKm())));
+      }
+      this.tree = RTree.build(minLatitudes, minLongitudes, maxLatitudes, maxLongitudes);
+    }
+
+    private static Zones of(Collection<AffectedArea> areas) {
+      int n = areas.size();
+      AffectedArea[] unsorted = areas.toArray(new AffectedArea[0]);
+      Polygon[] unsortedPolygons = new Polygon[n];
+      double[] southernEdges = new double[n];
+      Integer[] order = new Integer[n];
+      for (int i = 0; i < n; i++) {
+        AffectedArea area = unsorted[i];
+        unsortedPolygons[i] = polygonOf(area);
+        southernEdges[i] = (unsortedPolygons[i] != null
+                ? unsortedPolygons[i].getMinLatitude() : area.getLatitude())
+                - outerRadius(area) / GeoUtils.KM_PER_DEGREE_LATITUDE;
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparingDouble(i -> southernEdges[i]));
+      AffectedArea[] sorted = new AffectedArea[n];
+      Polygon[] polygons = new Polygon[n];
+      for (int j = 0; j < n; j++) {
+        sorted[j] = unsorted[order[j]];
+        polygons[j] = unsortedPolygons[order[j]];
+      }
+      return new Zones(sorted, polygons);
+    }
+
+    /**
+     * Prepares the polygon of an area, or returns null if the area is a circle. An area with
+     * a polygon that cannot be decoded falls back to its circle.
+     */
+    private static Polygon polygonOf(AffectedArea area) {
+      if (area.getPolygon() == null || area.getPolygon().isEmpty()) {
+        return null;
+      }
+      try {
+        return Polygon.decode(area.getPolygon());
+      } catch (IllegalArgumentException e) {
+        logger.warning("Invalid polygon for affected area " + area.getId() + ": "
+                + e.getMessage());
+        return null;
+      }
+    }
+
+    /**
+     * Returns the danger zone of a position in an area, from 3 for the high danger zone to
+     * 0 for outside all zones.
+     */
+    private int level(int i, double latitude, double longitude, double[] position) {
+      if (!containsInBox(i, latitude, longitude)) {
+        return 0;
+      }
+      if (polygons[i] != null) {
+        return polygonLevel(i, latitude, longitude);
+      }
+      double dx = centers[i * 3] - position[0];
+      double dy = centers[i * 3 + 1] - position[1];
+      double dz = centers[i * 3 + 2] - position[2];
+      double distanceSquared = dx * dx + dy * dy + dz * dz;
+      return distanceSquared <= highChordsSquared[i] ? 3
+              : distanceSquared <= mediumChordsSquared[i] ? 2
+              : distanceSquared <= lowChordsSquared[i] ? 1 : 0;
+    }
+
+    private int polygonLevel(int i, double latitude, double longitude) {
+      Polygon polygon = polygons[i];
+      if (polygon.contains(latitude, longitude)) {
+        return 3;
+      }
+      AffectedArea area = areas[i];
+      double distance = polygon.distanceToBoundaryKm(latitude, longitude, outerRadius(area));
+      return distance <= radius(area.getHighDangerRadiusKm()) ? 3
+              : distance <= radius(area.getMediumDangerRadiusKm()) ? 2
+              : distance <= radius(area.getLowDangerRadiusKm()) ? 1 : 0;
+    }
+
+    private boolean containsInBox(int i, double latitude, double longitude) {
+      if (latitude < minLatitudes[i] || latitude > maxLatitudes[i]) {
+        return false;
+      }
+      return minLongitudes[i] <= maxLongitudes[i]
+              ? longitude >= minLongitudes[i] && longitude <= maxLongitudes[i]
+              : longitude >= minLongitudes[i] || longitude <= maxLongitudes[i];
+    }
+
+    private static double wrapLongitude(double longitude) {
+      return longitude > 180 ? longitude - 360 : longitude < -180 ? longitude + 360 : longitude;
+    }
+
+    private static double square(double value) {
+      return value * value;
+    }
+  }
+}
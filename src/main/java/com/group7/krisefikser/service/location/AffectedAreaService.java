@@ -1,11 +1,20 @@
 package com.group7.krisefikser.service.location;
 
 import com.group7.krisefikser.dto.request.location.AffectedAreaRequest;
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
 import com.group7.krisefikser.mapper.location.AffectedAreaMapper;
 import com.group7.krisefikser.model.location.AffectedArea;
 import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import com.group7.krisefikser.spatial.Polygon;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,13 +29,16 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class AffectedAreaService {
   private final AffectedAreaRepo affectedAreaRepo;
+  private final AffectedAreaIndex affectedAreaIndex;
+  private final ShelterAssignmentRepository shelterAssignmentRepository;
+  private final PointOfInterestRepo pointOfInterestRepo;
 
   /**
-   * Retrieves all affected areas from the repository and maps them to AffectedAreaResponse
-   * objects.
+   * Retrieves all active affected areas from the repository and maps them to
+   * AffectedAreaResponse objects. Resolved areas are not included.
    *
    * @return a list of AffectedAreaResponse objects containing details of all
-   *         affected areas.
+   *         active affected areas.
    */
   public List<AffectedAreaResponse> getAllAffectedAreas() {
     return affectedAreaRepo.getAllAffectedAreas()
@@ -35,6 +47,55 @@ public class AffectedAreaService {
             .toList();
   }
 
+  /**
+   * Retrieves the affected areas that have started.
+   *
+   * @return a list of AffectedAreaResponse objects for the active affected areas
+   */
+  public List<AffectedAreaResponse> getActiveAffectedAreas() {
+    LocalDateTime now = LocalDateTime.now();
+    return affectedAreaRepo.getAllAffectedAreas()
+            .stream()
+            .filter(area -> !area.getStartDate().isAfter(now))
+            .map(AffectedAreaMapper.INSTANCE::affectedAreaToResponse)
+            .toList();
+  }
+
+  /**
+   * Retrieves the map clusters of affected areas in a viewport.
+   * The clusters are precomputed per zoom level, so the size of the result depends on the
+   * viewport and zoom level rather than on the number of affected areas.
+   *
+   * @param request the zoom level and bounding box of the viewport
+   * @return the clusters in the viewport, with a breakdown by severity level
+   */
+  public List<ClusterResponse> getAffectedAreaClusters(ClusterRequest request) {
+    if (request.getMinLatitude() > request.getMaxLatitude()) {
+      throw new IllegalArgumentException("Minimum latitude is above maximum latitude");
+    }
+    return affectedAreaIndex.findClusters(request.getZoom(), request.getMinLatitude(),
+                    request.getMinLongitude(), request.getMaxLatitude(),
+                    request.getMaxLongitude())
+            .stream()
+            .map(cluster -> {
+              Map<String, Integer> breakdown = new LinkedHashMap<>();
+              for (int level = 1; level <= AffectedAreaIndex.SEVERITY_LEVELS; level++) {
+                int count = cluster.getCategoryCount(level - 1);
+                if (count > 0) {
+                  breakdown.put(String.valueOf(level), count);
+                }
+              }
+              return new ClusterResponse(
+                      cluster.getCount() == 1 ? cluster.getPointId() : null,
+                      cluster.getLatitude(),
+                      cluster.getLongitude(),
+                      cluster.getCount(),
+                      breakdown
+              );
+            })
+            .toList();
+  }
+
   /**
    * Adds a new affected area to the repository.
    *
@@ -45,6 +106,7 @@ public class AffectedAreaService {
   @Transactional
   public AffectedAreaResponse addAffectedArea(AffectedAreaRequest affectedAreaRequest) {
     AffectedArea area = AffectedAreaMapper.INSTANCE.requestToAffectedArea(affectedAreaRequest);
+    validatePolygon(area);
     affectedAreaRepo.addAffectedArea(area);
 
     if (area.getId() != null) {
@@ -55,12 +117,14 @@ public class AffectedAreaService {
   }
 
   /**
-   * Deletes an affected area from the repository.
+   * Deletes an affected area from the repository. The households evacuated from the area
+   * are released from their shelters first.
    *
    * @param id the ID of the affected area to be deleted.
    */
   @Transactional
   public void deleteAffectedArea(long id) {
+    releaseShelters(id);
     int rowsAffected = affectedAreaRepo.deleteAffectedArea(id);
 
     if (rowsAffected == 0) {
@@ -82,6 +146,7 @@ public class AffectedAreaService {
   public AffectedAreaResponse updateAffectedArea(long id, AffectedAreaRequest affectedAreaRequest) {
     AffectedArea area = AffectedAreaMapper.INSTANCE.requestToAffectedArea(affectedAreaRequest);
     area.setId(id);
+    validatePolygon(area);
     int rowsAffected = affectedAreaRepo.updateAffectedArea(area);
 
     if (rowsAffected == 0) {
@@ -89,4 +154,50 @@ public class AffectedAreaService {
     }
     return AffectedAreaMapper.INSTANCE.affectedAreaToResponse(area);
   }
+
+  /**
+   * Resolves an active affected area, which ends the incident. The area is no longer
+   * returned or used for notifications, and is archived later. The households evacuated
+   * from the area are released from their shelters.
+   *
+   * @param id the ID of the affected area to be resolved.
+   * @throws ResourceNotFoundException if there is no active affected area with the ID
+   */
+  @Transactional
+  public void resolveAffectedArea(long id) {
+    int rowsAffected = affectedAreaRepo.resolveAffectedArea(id, LocalDateTime.now());
+
+    if (rowsAffected == 0) {
+      throw new ResourceNotFoundException("Active affected area not found");
+    }
+    releaseShelters(id);
+  }
+
+  /**
+   * Releases the households evacuated from an affected area from their shelters, and
+   * announces the shelters whose occupancy changed.
+   *
+   * @param id the ID of the affected area
+   */
+  private void releaseShelters(long id) {
+    pointOfInterestRepo.publishChanges(
+            shelterAssignmentRepository.releaseAssignments(List.of(id)));
+  }
+
+  /**
+   * Checks that the polygon of an affected area, if it has one, can be decoded into rings of
+   * at least three valid vertices.
+   *
+   * @param area the affected area to check
+   */
+  private void validatePolygon(AffectedArea area) {
+    if (area.getPolygon() == null) {
+      return;
+    }
+    try {
+      Polygon.decode(area.getPolygon());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid polygon: " + e.getMessage(), e);
+    }
+  }
 }
@@ -0,0 +1,169 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.response.location.ChangesResponse;
+import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
+import com.group7.krisefikser.enums.SyncEntityType;
+import com.group7.krisefikser.mapper.location.AffectedAreaMapper;
+import com.group7.krisefikser.model.location.ChangeLogEntry;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.ChangeLogRepository;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service that lets clients keep a copy of the points of interest and affected areas up to
+ * date by fetching only what changed since their last sync.
+ * A client without a copy, or whose copy is older than the compacted part of the change log,
+ * gets a snapshot of everything instead. Changes recorded in the last
+ * {@value #SETTLE_SECONDS} seconds are returned, but the sequence number handed back does not
+ * move past them, since a change with a lower sequence number may still be committing; they
+ * are sent again in the next sync. A background thread compacts the change log every
+ * {@value #COMPACTION_INTERVAL_MINUTES} minutes.
+ * Shelter occupancy and check-ins are not part of the change log, since they change far
+ * more often than the points themselves and have their own endpoint.
+ */
+@Service
+public class ChangeSyncService {
+  static final int MAX_CHANGES = 1000;
+  static final long SETTLE_SECONDS = 10;
+  static final long COMPACTION_INTERVAL_MINUTES = 60;
+  static final long DELETION_RETENTION_DAYS = 30;
+  private static final Logger logger = Logger.getLogger(ChangeSyncService.class.getName());
+
+  private final ChangeLogRepository changeLogRepository;
+  private final PointOfInterestRepo pointOfInterestRepo;
+  private final AffectedAreaRepo affectedAreaRepo;
+  private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("change-log-compaction").factory());
+
+  /**
+   * Constructor for ChangeSyncService.
+   *
+   * @param changeLogRepository the repository holding the change log
+   * @param pointOfInterestRepo the repository the changed points of interest are read from
+   * @param affectedAreaRepo    the repository the changed affected areas are read from
+   */
+  @Autowired
+  public ChangeSyncService(ChangeLogRepository changeLogRepository,
+                           PointOfInterestRepo pointOfInterestRepo,
+                           AffectedAreaRepo affectedAreaRepo) {
+    this.changeLogRepository = changeLogRepository;
+    this.pointOfInterestRepo = pointOfInterestRepo;
+    this.affectedAreaRepo = affectedAreaRepo;
+    compactor.scheduleWithFixedDelay(this::compact, COMPACTION_INTERVAL_MINUTES,
+            COMPACTION_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Retrieves the changes to points of interest and affected areas since a sequence number.
+   * At most {@value #MAX_CHANGES} changes are returned at a time.
+   *
+   * @param since the sequence number returned by the client's last sync, or null if the
+   *              client has no copy
+   * @return the changed and deleted points of interest and affected areas, or a snapshot
+   *         of all of them if the client has to start over
+   * @throws IllegalArgumentException if since is negative
+   */
+  public ChangesResponse getChanges(Long since) {
+    if (since != null && since < 0) {
+      throw new IllegalArgumentException("Since must not be negative");
+    }
+    LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(SETTLE_SECONDS);
+    if (since == null || since < changeLogRepository.getCompactedSeq()) {
+      return snapshot(settledBefore);
+    }
+
+    List<ChangeLogEntry> entries = changeLogRepository.getChangesSince(since, MAX_CHANGES + 1);
+    boolean hasMore = entries.size() > MAX_CHANGES;
+    if (hasMore) {
+      entries = entries.subList(0, MAX_CHANGES);
+    }
+    long seq = since;
+    boolean settled = true;
+    Set<Long> pointIds = new LinkedHashSet<>();
+    Set<Long> deletedPointIds = new LinkedHashSet<>();
+    Set<Long> areaIds = new LinkedHashSet<>();
+    Set<Long> deletedAreaIds = new LinkedHashSet<>();
+    for (ChangeLogEntry entry : entries) {
+      if (settled && !entry.getChangedAt().isAfter(settledBefore)) {
+        seq = entry.getSeq();
+      } else {
+        settled = false;
+      }
+      boolean isPoint = entry.getEntityType() == SyncEntityType.POINT_OF_INTEREST;
+      Set<Long> upserted = isPoint ? pointIds : areaIds;
+      Set<Long> deleted = isPoint ? deletedPointIds : deletedAreaIds;
+      if (entry.isDeleted()) {
+        upserted.remove(entry.getEntityId());
+        deleted.add(entry.getEntityId());
+      } else {
+        deleted.remove(entry.getEntityId());
+        upserted.add(entry.getEntityId());
+      }
+    }
+
+    List<PointOfInterestResponse> points = pointOfInterestRepo.getPointsOfInterestByIds(pointIds)
+            .stream()
+            .map(PointOfInterestService::toResponse)
+            .toList();
+    List<AffectedAreaResponse> areas = affectedAreaRepo.getAffectedAreasByIds(areaIds).stream()
+            .map(AffectedAreaMapper.INSTANCE::affectedAreaToResponse)
+            .toList();
+    return new ChangesResponse(seq, false, hasMore && settled, points, areas,
+            new ArrayList<>(deletedPointIds), new ArrayList<>(deletedAreaIds));
+  }
+
+  /**
+   * Removes the change log entries no client needs: changes replaced by a later change to
+   * the same entity, and deletions older than {@value #DELETION_RETENTION_DAYS} days.
+   * Clients that last synced before a removed deletion get a snapshot on their next sync.
+   */
+  public void compact() {
+    try {
+      int superseded = changeLogRepository.deleteSupersededChanges();
+      int deletions = changeLogRepository.deleteDeletionsBefore(
+              LocalDateTime.now().minusDays(DELETION_RETENTION_DAYS));
+      logger.info("Compacted change log, removed " + superseded + " superseded changes and "
+              + deletions + " old deletions");
+    } catch (DataAccessException e) {
+      logger.log(Level.WARNING, "Could not compact the change log", e);
+    }
+  }
+
+  /**
+   * Stops the background compaction.
+   */
+  @PreDestroy
+  public void shutdown() {
+    compactor.shutdownNow();
+  }
+
+  /**
+   * Returns every point of interest and affected area. The sequence number is read first,
+   * so changes made while the snapshot is read are sent again in the next sync.
+   */
+  private ChangesResponse snapshot(LocalDateTime settledBefore) {
+    long seq = changeLogRepository.getSettledSeq(settledBefore);
+    List<PointOfInterestResponse> points = pointOfInterestRepo.getAllPointsOfInterest().stream()
+            .map(PointOfInterestService::toResponse)
+            .toList();
+    List<AffectedAreaResponse> areas = affectedAreaRepo.getAllAffectedAreas().stream()
+            .map(AffectedAreaMapper.INSTANCE::affectedAreaToResponse)
+            .toList();
+    return new ChangesResponse(seq, true, false, points, areas, List.of(), List.of());
+  }
+}
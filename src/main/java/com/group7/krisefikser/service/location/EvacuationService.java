@@ -0,0 +1,213 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.dto.response.location.EvacuationResponse;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.model.location.ShelterAssignment;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import com.group7.krisefikser.spatial.KdTree;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service that assigns the households in the high danger zone of an affected area to
+ * shelters.
+ * Households are read from the bounding box of the area, which the index on the household
+ * location answers without scanning the table, and classified against the danger zones of
+ * the area in memory. Shelters with a known capacity and free room, outside the medium and
+ * high danger zones of the area, are put in a KD-tree. Assignment is greedy over the closest
+ * household and shelter pairs: every household waits in a priority queue with the distance
+ * to its nearest shelter with room for it, and the closest pair is assigned first. A
+ * household whose shelter filled up in the meantime looks up its nearest shelter again,
+ * which can only be further away, so every household gets the nearest shelter that still
+ * has room when its turn comes. Households that are already assigned keep their shelter, so
+ * the job can be run again as shelters are added. The shelters that were assigned to are
+ * announced as changed, so indexes of the shelters see their new occupancy.
+ */
+@Service
+@RequiredArgsConstructor
+public class EvacuationService {
+  private static final Logger logger = Logger.getLogger(EvacuationService.class.getName());
+
+  private final AffectedAreaRepo affectedAreaRepo;
+  private final PointOfInterestRepo pointOfInterestRepo;
+  private final ShelterAssignmentRepository shelterAssignmentRepository;
+
+  /**
+   * Assigns the unassigned households in the high danger zone of an affected area to the
+   * nearest shelters with room for them, and adds them to the occupancy of the shelters.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @return a summary of the assignments
+   * @throws ResourceNotFoundException if the affected area does not exist
+   * @throws IllegalStateException     if a shelter was filled or a household was assigned by
+   *                                   an evacuation running at the same time, in which case
+   *                                   nothing is assigned
+   */
+  @Transactional
+  public EvacuationResponse assignShelters(long affectedAreaId) {
+    long start = System.nanoTime();
+    AffectedArea area = affectedAreaRepo.getAffectedAreaById(affectedAreaId)
+            .orElseThrow(() -> new ResourceNotFoundException("Affected area not found"));
+    AffectedAreaIndex.Footprint footprint = AffectedAreaIndex.footprintOf(area);
+
+    Households households = new Households();
+    ShelterAssignmentRepository.HouseholdHandler collector =
+        (householdId, latitude, longitude, people) -> {
+          if (footprint.levelAt(latitude, longitude) == DangerLevel.HIGH) {
+            households.add(householdId, latitude, longitude, people);
+          }
+        };
+    double minLongitude = footprint.getMinLongitude();
+    double maxLongitude = footprint.getMaxLongitude();
+    if (minLongitude <= maxLongitude) {
+      shelterAssignmentRepository.forEachUnassignedHouseholdInBox(footprint.getMinLatitude(),
+              minLongitude, footprint.getMaxLatitude(), maxLongitude, collector);
+    } else {
+      shelterAssignmentRepository.forEachUnassignedHouseholdInBox(footprint.getMinLatitude(),
+              minLongitude, footprint.getMaxLatitude(), 180, collector);
+      shelterAssignmentRepository.forEachUnassignedHouseholdInBox(footprint.getMinLatitude(),
+              -180, footprint.getMaxLatitude(), maxLongitude, collector);
+    }
+
+    List<PointOfInterest> shelters = new ArrayList<>();
+    for (PointOfInterest shelter : pointOfInterestRepo.getPointsOfInterestByTypes(
+            List.of(PointOfInterestType.SHELTER))) {
+      if (shelter.getCapacity() != null && shelter.getCapacity() > shelter.getOccupancy()
+              && footprint.levelAt(shelter.getLatitude(), shelter.getLongitude())
+                      .compareTo(DangerLevel.MEDIUM) < 0) {
+        shelters.add(shelter);
+      }
+    }
+
+    List<ShelterAssignment> assignments = assign(affectedAreaId, households, shelters);
+    Map<Long, Integer> occupancy = new HashMap<>();
+    int people = 0;
+    for (ShelterAssignment assignment : assignments) {
+      occupancy.merge(assignment.getShelterId(), assignment.getPeople(), Integer::sum);
+      people += assignment.getPeople();
+    }
+    try {
+      shelterAssignmentRepository.insertAssignments(assignments);
+    } catch (DuplicateKeyException e) {
+      throw new IllegalStateException("A household was assigned a shelter by another "
+              + "evacuation", e);
+    }
+    shelterAssignmentRepository.addOccupancy(occupancy);
+    pointOfInterestRepo.publishChanges(occupancy.keySet());
+
+    logger.info("Assigned " + assignments.size() + " of " + households.size
+            + " households in affected area " + affectedAreaId + " to " + occupancy.size()
+            + " shelters in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    return new EvacuationResponse(affectedAreaId, assignments.size(), people,
+            households.size - assignments.size(), occupancy.size());
+  }
+
+  private List<ShelterAssignment> assign(long affectedAreaId, Households households,
+                                         List<PointOfInterest> shelters) {
+    List<ShelterAssignment> assignments = new ArrayList<>();
+    if (households.size == 0 || shelters.isEmpty()) {
+      return assignments;
+    }
+    double[] latitudes = new double[shelters.size()];
+    double[] longitudes = new double[shelters.size()];
+    int[] room = new int[shelters.size()];
+    for (int i = 0; i < shelters.size(); i++) {
+      PointOfInterest shelter = shelters.get(i);
+      latitudes[i] = shelter.getLatitude();
+      longitudes[i] = shelter.getLongitude();
+      room[i] = shelter.getCapacity() - shelter.getOccupancy();
+    }
+    KdTree tree = KdTree.build(latitudes, longitudes);
+
+    PriorityQueue<Candidate> queue = new PriorityQueue<>(households.size);
+    for (int i = 0; i < households.size; i++) {
+      offerNearest(queue, tree, room, households, i);
+    }
+    LocalDateTime now = LocalDateTime.now();
+    while (!queue.isEmpty()) {
+      Candidate candidate = queue.poll();
+      int people = households.people[candidate.household];
+      if (room[candidate.shelter] < people) {
+        offerNearest(queue, tree, room, households, candidate.household);
+        continue;
+      }
+      room[candidate.shelter] -= people;
+      assignments.add(new ShelterAssignment(households.ids[candidate.household],
+              shelters.get(candidate.shelter).getId(), affectedAreaId, people,
+              candidate.distanceKm, now));
+    }
+    return assignments;
+  }
+
+  private static void offerNearest(PriorityQueue<Candidate> queue, KdTree tree, int[] room,
+                                   Households households, int household) {
+    int people = households.people[household];
+    KdTree.Neighbors nearest = tree.nearest(households.latitudes[household],
+            households.longitudes[household], 1, shelter -> room[shelter] >= people);
+    if (nearest.size() > 0) {
+      queue.add(new Candidate(household, nearest.index(0), nearest.distanceKm(0)));
+    }
+  }
+
+  /**
+   * A household waiting for a shelter, with its nearest shelter with room when it was last
+   * looked up.
+   */
+  private static final class Candidate implements Comparable<Candidate> {
+    private final int household;
+    private final int shelter;
+    private final double distanceKm;
+
+    private Candidate(int household, int shelter, double distanceKm) {
+      this.household = household;
+      this.shelter = shelter;
+      this.distanceKm = distanceKm;
+    }
+
+    @Override
+    public int compareTo(Candidate other) {
+      return Double.compare(distanceKm, other.distanceKm);
+    }
+  }
+
+  /**
+   * The households to evacuate, stored as growable parallel arrays.
+   */
+  private static final class Households {
+    private long[] ids = new long[64];
+    private double[] latitudes = new double[64];
+    private double[] longitudes = new double[64];
+    private int[] people = new int[64];
+    private int size;
+
+    private void add(long id, double latitude, double longitude, int people) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        latitudes = Arrays.copyOf(latitudes, size * 2);
+        longitudes = Arrays.copyOf(longitudes, size * 2);
+        this.people = Arrays.copyOf(this.people, size * 2);
+      }
+      ids[size] = id;
+      latitudes[size] = latitude;
+      longitudes[size] = longitude;
+      this.people[size] = people;
+      size++;
+    }
+  }
+}
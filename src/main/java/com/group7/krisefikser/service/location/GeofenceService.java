@@ -0,0 +1,62 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.event.DangerZoneTransitionEvent;
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that tells when users sharing their position enter or leave danger zones.
+ * Every shared position is located in the affected area index, which only tests the areas
+ * whose bounding box contains it, and compared with the last zone of the user. Only users
+ * inside a zone are remembered, so a position outside all zones of a user who was outside
+ * before costs one lookup and one map read. A change of zone, including a move to another
+ * area or level, is published as a {@link DangerZoneTransitionEvent}.
+ */
+@Service
+@RequiredArgsConstructor
+public class GeofenceService {
+  private final AffectedAreaIndex affectedAreaIndex;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<Long, Long> zonesByUser = new ConcurrentHashMap<>();
+
+  /**
+   * Evaluates a shared position, or forgets the zone of a user who stopped sharing.
+   *
+   * @param event the position change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserPositionChanged(UserPositionChangedEvent event) {
+    if (event.getLatitude() == null || event.getLongitude() == null) {
+      zonesByUser.remove(event.getUserId());
+      return;
+    }
+    update(event.getUserId(), event.getLatitude(), event.getLongitude());
+  }
+
+  /**
+   * Locates a position of a user and publishes an event if the user changed zone.
+   *
+   * @param userId    the ID of the user
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @return true if the user changed zone
+   */
+  public boolean update(long userId, double latitude, double longitude) {
+    long zone = affectedAreaIndex.locate(latitude, longitude);
+    Long previous = zone == AffectedAreaIndex.NO_ZONE
+            ? zonesByUser.remove(userId) : zonesByUser.put(userId, zone);
+    long previousZone = previous != null ? previous : AffectedAreaIndex.NO_ZONE;
+    if (previousZone == zone) {
+      return false;
+    }
+    eventPublisher.publishEvent(new DangerZoneTransitionEvent(userId,
+            AffectedAreaIndex.areaIdOf(previousZone), AffectedAreaIndex.levelOf(previousZone),
+            AffectedAreaIndex.areaIdOf(zone), AffectedAreaIndex.levelOf(zone)));
+    return true;
+  }
+}
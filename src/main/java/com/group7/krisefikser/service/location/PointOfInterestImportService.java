@@ -0,0 +1,306 @@
+package com.group7.krisefikser.service.location;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group7.krisefikser.dto.response.location.PointOfInterestImportResponse;
+import com.group7.krisefikser.enums.PointOfInterestImportFormat;
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.model.location.ImportedPointOfInterest;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.utils.CsvRecordReader;
+import com.group7.krisefikser.utils.GeoJsonPointReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service that imports points of interest from the files of external registries.
+ * The file is read one row at a time, as GeoJSON point features or CSV records with a header
+ * row, and valid rows are written in chunks of {@value #CHUNK_SIZE}, each in its own
+ * transaction. Memory use therefore does not depend on the size of the file. Rows are
+ * matched on their external ID, so importing a newer version of a registry updates the
+ * points of interest it imported before. Invalid rows are skipped and reported, and the
+ * import stops at the first error in the structure of the file; the chunks written before
+ * that are kept.
+ */
+@Service
+public class PointOfInterestImportService {
+  static final int CHUNK_SIZE = 1000;
+  static final int MAX_ERRORS = 100;
+  static final int MAX_RECORD_LENGTH = 64 * 1024;
+  static final int MAX_EXTERNAL_ID_LENGTH = 64;
+  static final int MAX_CONTACT_NUMBER_LENGTH = 50;
+  private static final String EXTERNAL_ID = GeoJsonPointReader.EXTERNAL_ID;
+  private static final String LATITUDE = GeoJsonPointReader.LATITUDE;
+  private static final String LONGITUDE = GeoJsonPointReader.LONGITUDE;
+  private static final String TYPE = "type";
+  private static final String OPENS_AT = "opens_at";
+  private static final String CLOSES_AT = "closes_at";
+  private static final String CONTACT_NUMBER = "contact_number";
+  private static final String DESCRIPTION = "description";
+  private static final String CAPACITY = "capacity";
+  private static final List<String> REQUIRED_COLUMNS = List.of(EXTERNAL_ID, TYPE, LATITUDE,
+          LONGITUDE);
+  private static final Logger logger =
+          Logger.getLogger(PointOfInterestImportService.class.getName());
+
+  private final PointOfInterestRepo pointOfInterestRepo;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Constructor for PointOfInterestImportService.
+   *
+   * @param pointOfInterestRepo the repository the points of interest are written to
+   * @param transactionManager  the transaction manager used to write each chunk
+   * @param objectMapper        the mapper used to parse GeoJSON
+   */
+  @Autowired
+  public PointOfInterestImportService(PointOfInterestRepo pointOfInterestRepo,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper) {
+    this.pointOfInterestRepo = pointOfInterestRepo;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Imports points of interest from a file.
+   * Each row needs external_id, type, latitude and longitude, and may have opens_at,
+   * closes_at, contact_number, description and capacity. In GeoJSON the coordinates come
+   * from the point geometry, and the feature ID is used when the properties have no
+   * external_id.
+   *
+   * @param in     the stream the file is read from
+   * @param format the format of the file, geojson or csv
+   * @return the number of imported and rejected rows
+   * @throws IllegalArgumentException if the format is unknown or a CSV header lacks a
+   *                                  required column
+   */
+  public PointOfInterestImportResponse importPointsOfInterest(InputStream in, String format) {
+    PointOfInterestImportFormat importFormat = PointOfInterestImportFormat.fromString(format);
+    ImportRun run = new ImportRun();
+    try {
+      if (importFormat == PointOfInterestImportFormat.GEOJSON) {
+        try (GeoJsonPointReader reader = new GeoJsonPointReader(objectMapper, in)) {
+          run.importRows(reader::readFeature);
+        }
+      } else {
+        try (CsvRecordReader reader = new CsvRecordReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), MAX_RECORD_LENGTH)) {
+          run.importRows(csvRows(reader));
+        }
+      }
+    } catch (IOException e) {
+      run.complete = false;
+      run.errors.add("Stopped at row " + run.row + ": " + e.getMessage());
+    }
+    run.flush();
+    logger.info("Imported " + run.imported + " points of interest from "
+            + importFormat.getFormat() + ", " + run.rejected + " rows rejected"
+            + (run.complete ? "" : ", import stopped early"));
+    return new PointOfInterestImportResponse(run.imported, run.rejected, run.complete,
+            run.errors);
+  }
+
+  /**
+   * Reads the header of a CSV file and returns the following records as rows.
+   */
+  private static RowSource csvRows(CsvRecordReader reader) throws IOException {
+    List<String> header = reader.readRecord();
+    if (header == null) {
+      throw new IllegalArgumentException("The CSV file is empty");
+    }
+    List<String> columns = header.stream()
+            .map(column -> column.trim().toLowerCase(Locale.ROOT))
+            .toList();
+    for (String column : REQUIRED_COLUMNS) {
+      if (!columns.contains(column)) {
+        throw new IllegalArgumentException("The CSV header has no " + column + " column");
+      }
+    }
+    return () -> {
+      List<String> values;
+      do {
+        values = reader.readRecord();
+      } while (values != null && values.stream().allMatch(String::isBlank));
+      if (values == null) {
+        return null;
+      }
+      if (values.size() != columns.size()) {
+        throw new IllegalArgumentException("Expected " + columns.size() + " fields but found "
+                + values.size());
+      }
+      Map<String, String> fields = new HashMap<>();
+      for (int i = 0; i < columns.size(); i++) {
+        fields.put(columns.get(i), values.get(i));
+      }
+      return fields;
+    };
+  }
+
+  private static ImportedPointOfInterest toImported(Map<String, String> fields) {
+    String externalId = value(fields, EXTERNAL_ID);
+    if (externalId == null) {
+      throw new IllegalArgumentException("External ID is required");
+    }
+    if (externalId.length() > MAX_EXTERNAL_ID_LENGTH) {
+      throw new IllegalArgumentException("External ID is longer than "
+              + MAX_EXTERNAL_ID_LENGTH + " characters");
+    }
+    String type = value(fields, TYPE);
+    if (type == null) {
+      throw new IllegalArgumentException("Type is required");
+    }
+    String contactNumber = value(fields, CONTACT_NUMBER);
+    if (contactNumber != null && contactNumber.length() > MAX_CONTACT_NUMBER_LENGTH) {
+      throw new IllegalArgumentException("Contact number is longer than "
+              + MAX_CONTACT_NUMBER_LENGTH + " characters");
+    }
+    Integer capacity = parseCapacity(value(fields, CAPACITY));
+
+    PointOfInterest point = new PointOfInterest(
+            null,
+            parseCoordinate(fields, LATITUDE, 90),
+            parseCoordinate(fields, LONGITUDE, 180),
+            PointOfInterestType.fromString(type),
+            parseTime(fields, OPENS_AT),
+            parseTime(fields, CLOSES_AT),
+            contactNumber,
+            value(fields, DESCRIPTION),
+            capacity,
+            0
+    );
+    return new ImportedPointOfInterest(externalId, point);
+  }
+
+  private static String value(Map<String, String> fields, String name) {
+    String value = fields.get(name);
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    return value.trim();
+  }
+
+  private static double parseCoordinate(Map<String, String> fields, String name, double max) {
+    String value = value(fields, name);
+    if (value == null) {
+      throw new IllegalArgumentException("The " + name + " is required");
+    }
+    double coordinate;
+    try {
+      coordinate = Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+    }
+    if (!(coordinate >= -max && coordinate <= max)) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + value);
+    }
+    return coordinate;
+  }
+
+  private static LocalTime parseTime(Map<String, String> fields, String name) {
+    String value = value(fields, name);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return LocalTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+    }
+  }
+
+  private static Integer parseCapacity(String value) {
+    if (value == null) {
+      return null;
+    }
+    int capacity;
+    try {
+      capacity = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid capacity: " + value, e);
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative");
+    }
+    return capacity;
+  }
+
+  /**
+   * A source of rows, each as a map from column name to value.
+   */
+  private interface RowSource {
+    /**
+     * Reads the next row.
+     *
+     * @return the row, or null after the last row
+     * @throws IOException              if the file cannot be read further
+     * @throws IllegalArgumentException if the row is invalid but the next one can be read
+     */
+    Map<String, String> next() throws IOException;
+  }
+
+  /**
+   * The state of one import: the chunk being collected and the counts so far.
+   */
+  private final class ImportRun {
+    private final List<ImportedPointOfInterest> chunk = new ArrayList<>(CHUNK_SIZE);
+    private final List<String> errors = new ArrayList<>();
+    private long row;
+    private int imported;
+    private int rejected;
+    private boolean complete = true;
+
+    private void importRows(RowSource rows) throws IOException {
+      while (true) {
+        Map<String, String> fields;
+        row++;
+        try {
+          fields = rows.next();
+          if (fields == null) {
+            row--;
+            return;
+          }
+          chunk.add(toImported(fields));
+        } catch (IllegalArgumentException e) {
+          reject(e.getMessage());
+          continue;
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          flush();
+        }
+      }
+    }
+
+    private void reject(String message) {
+      rejected++;
+      if (errors.size() < MAX_ERRORS) {
+        errors.add("Row " + row + ": " + message);
+      }
+    }
+
+    private void flush() {
+      if (chunk.isEmpty()) {
+        return;
+      }
+      Integer written = transactionTemplate.execute(status ->
+              pointOfInterestRepo.upsertPointsOfInterest(List.copyOf(chunk)));
+      imported += written == null ? 0 : written;
+      chunk.clear();
+    }
+  }
+}
@@ -0,0 +1,335 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.spatial.ClusterPyramid;
+import com.group7.krisefikser.spatial.DailyIntervalIndex;
+import com.group7.krisefikser.spatial.GridIndex;
+import com.group7.krisefikser.spatial.KdTree;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory spatial index of all points of interest, with one grid per type.
+ * The index is loaded from the database on first use and afterwards kept up to date
+ * incrementally from {@link PointOfInterestChangedEvent}s, so map queries are answered
+ * without reading the points_of_interest table.
+ * Nearest-neighbour queries use an immutable KD-tree per type. A change drops the tree of
+ * the affected types, and the next query rebuilds it, so a burst of changes costs one
+ * rebuild while concurrent readers share the published tree without locking.
+ * Opening hours are kept in a minute-of-day interval index per type, which answers "open at"
+ * queries on its own and filters the results of the spatial queries.
+ * Map clusters come from a cluster pyramid with the type as category, which is updated
+ * together with the grids.
+ */
+@Component
+public class PointOfInterestIndex {
+  static final double CELL_DEGREES = 0.05;
+  static final int CLUSTER_MAX_ZOOM = 16;
+  private static final Logger logger = Logger.getLogger(PointOfInterestIndex.class.getName());
+
+  private final PointOfInterestRepo pointOfInterestRepo;
+  private final Map<PointOfInterestType, GridIndex<PointOfInterest>> grids =
+          new EnumMap<>(PointOfInterestType.class);
+  private final Map<PointOfInterestType, DailyIntervalIndex<PointOfInterest>> openingHours =
+          new EnumMap<>(PointOfInterestType.class);
+  private final Map<Long, PointOfInterestType> typesById = new HashMap<>();
+  private final Map<PointOfInterestType, Map<Long, PointOfInterest>> pointsByType =
+          new EnumMap<>(PointOfInterestType.class);
+  private final Map<PointOfInterestType, TypeTree> trees =
+          new ConcurrentHashMap<>();
+  private final ClusterPyramid clusters =
+          new ClusterPyramid(CLUSTER_MAX_ZOOM, PointOfInterestType.values().length);
+  private volatile boolean loaded;
+
+  /**
+   * Constructor for PointOfInterestIndex.
+   *
+   * @param pointOfInterestRepo The repository the index is loaded from.
+   */
+  @Autowired
+  public PointOfInterestIndex(PointOfInterestRepo pointOfInterestRepo) {
+    this.pointOfInterestRepo = pointOfInterestRepo;
+    for (PointOfInterestType type : PointOfInterestType.values()) {
+      grids.put(type, new GridIndex<>(CELL_DEGREES));
+      openingHours.put(type, new DailyIntervalIndex<>());
+      pointsByType.put(type, new HashMap<>());
+    }
+  }
+
+  /**
+   * Finds the points of interest of the given types inside a bounding box that are open at
+   * the given time.
+   *
+   * @param types        the types to include
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @param openAt       the time the points must be open at, or null for any time
+   * @return the points of interest inside the box
+   */
+  public List<PointOfInterest> findInBox(Collection<PointOfInterestType> types,
+                                         double minLatitude, double minLongitude,
+                                         double maxLatitude, double maxLongitude,
+                                         LocalTime openAt) {
+    ensureLoaded();
+    List<PointOfInterest> result = new ArrayList<>();
+    for (PointOfInterestType type : types) {
+      DailyIntervalIndex<PointOfInterest> hours = openingHours.get(type);
+      grids.get(type).queryBox(minLatitude, minLongitude, maxLatitude, maxLongitude,
+              point -> {
+                if (isOpen(hours, point, openAt)) {
+                  result.add(point);
+                }
+              });
+    }
+    return result;
+  }
+
+  /**
+   * Finds the points of interest of the given types that are open at the given time.
+   *
+   * @param types  the types to include
+   * @param openAt the time the points must be open at
+   * @return the open points of interest
+   */
+  public List<PointOfInterest> findOpenAt(Collection<PointOfInterestType> types,
+                                          LocalTime openAt) {
+    ensureLoaded();
+    int minute = DailyIntervalIndex.minuteOfDay(openAt);
+    List<PointOfInterest> result = new ArrayList<>();
+    for (PointOfInterestType type : types) {
+      openingHours.get(type).queryAt(minute, result::add);
+    }
+    return result;
+  }
+
+  /**
+   * Finds the points of interest of the given types within a distance of a position that
+   * are open at the given time.
+   *
+   * @param types     the types to include
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @param radiusKm  the radius in kilometers
+   * @param openAt    the time the points must be open at, or null for any time
+   * @return the points of interest within the radius, ordered by increasing distance
+   */
+  public List<PointOfInterest> findWithinRadius(Collection<PointOfInterestType> types,
+                                                double latitude, double longitude,
+                                                double radiusKm, LocalTime openAt) {
+    ensureLoaded();
+    List<Hit> hits = new ArrayList<>();
+    for (PointOfInterestType type : types) {
+      DailyIntervalIndex<PointOfInterest> hours = openingHours.get(type);
+      grids.get(type).queryRadius(latitude, longitude, radiusKm, (point, distance) -> {
+        if (isOpen(hours, point, openAt)) {
+          hits.add(new Hit(point, distance));
+        }
+      });
+    }
+    hits.sort(Comparator.comparingDouble(hit -> hit.distanceKm));
+    List<PointOfInterest> result = new ArrayList<>(hits.size());
+    for (Hit hit : hits) {
+      result.add(hit.point);
+    }
+    return result;
+  }
+
+  /**
+   * Finds the clusters of points of interest of the given types inside a bounding box at a
+   * zoom level. The category of a cluster is the ordinal of the point of interest type.
+   *
+   * @param types        the types to include
+   * @param zoom         the map zoom level
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @return the clusters inside the box
+   */
+  public List<ClusterPyramid.Cluster> findClusters(Collection<PointOfInterestType> types,
+                                                   int zoom, double minLatitude,
+                                                   double minLongitude, double maxLatitude,
+                                                   double maxLongitude) {
+    ensureLoaded();
+    boolean[] included = new boolean[PointOfInterestType.values().length];
+    for (PointOfInterestType type : types) {
+      included[type.ordinal()] = true;
+    }
+    List<ClusterPyramid.Cluster> result = new ArrayList<>();
+    clusters.query(zoom, minLatitude, minLongitude, maxLatitude, maxLongitude, included,
+            result::add);
+    return result;
+  }
+
+  /**
+   * Applies a change to a point of interest to the index.
+   * Changes that arrive before the index has been loaded are ignored, since loading reads
+   * the committed state of the database.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onPointOfInterestChanged(PointOfInterestChangedEvent event) {
+    if (!loaded) {
+      return;
+    }
+    apply(event.getPointOfInterestId(), event.getPointOfInterest());
+  }
+
+  /**
+   * Finds the points of interest of the given types closest to a position.
+   *
+   * @param types     the types to include
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @param k         the maximum number of points to return
+   * @return the nearest points with their distances, ordered by increasing distance
+   */
+  public List<NearestPoint> findNearest(Collection<PointOfInterestType> types,
+                                        double latitude, double longitude, int k) {
+    ensureLoaded();
+    List<NearestPoint> result = new ArrayList<>();
+    for (PointOfInterestType type : types) {
+      TypeTree tree = getTree(type);
+      KdTree.Neighbors neighbors = tree.tree.nearest(latitude, longitude, k, null);
+      for (int i = 0; i < neighbors.size(); i++) {
+        result.add(new NearestPoint(tree.points[neighbors.index(i)], neighbors.distanceKm(i)));
+      }
+    }
+    if (types.size() > 1) {
+      result.sort(Comparator.comparingDouble(NearestPoint::getDistanceKm));
+      if (result.size() > k) {
+        return new ArrayList<>(result.subList(0, k));
+      }
+    }
+    return result;
+  }
+
+  private static boolean isOpen(DailyIntervalIndex<PointOfInterest> hours,
+                                PointOfInterest point, LocalTime openAt) {
+    return openAt == null
+            || hours.isAvailableAt(point.getId(), DailyIntervalIndex.minuteOfDay(openAt));
+  }
+
+  private TypeTree getTree(PointOfInterestType type) {
+    TypeTree tree = trees.get(type);
+    if (tree != null) {
+      return tree;
+    }
+    synchronized (this) {
+      tree = trees.get(type);
+      if (tree == null) {
+        PointOfInterest[] points = pointsByType.get(type).values()
+                .toArray(new PointOfInterest[0]);
+        double[] latitudes = new double[points.length];
+        double[] longitudes = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+          latitudes[i] = points[i].getLatitude();
+          longitudes[i] = points[i].getLongitude();
+        }
+        tree = new TypeTree(points, KdTree.build(latitudes, longitudes));
+        trees.put(type, tree);
+      }
+      return tree;
+    }
+  }
+
+  private void apply(long id, PointOfInterest point) {
+    PointOfInterestType previousType = typesById.remove(id);
+    if (previousType != null) {
+      grids.get(previousType).remove(id);
+      pointsByType.get(previousType).remove(id);
+      openingHours.get(previousType).remove(id);
+      clusters.remove(id);
+      trees.remove(previousType);
+    }
+    if (point != null && point.getType() != null) {
+      grids.get(point.getType()).put(id, point.getLatitude(), point.getLongitude(), point);
+      pointsByType.get(point.getType()).put(id, point);
+      openingHours.get(point.getType()).put(id, point.getOpensAt(), point.getClosesAt(), point);
+      clusters.put(id, point.getLatitude(), point.getLongitude(), point.getType().ordinal());
+      typesById.put(id, point.getType());
+      trees.remove(point.getType());
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      List<PointOfInterest> points = pointOfInterestRepo.getAllPointsOfInterest();
+      for (PointOfInterest point : points) {
+        apply(point.getId(), point);
+      }
+      loaded = true;
+      logger.info("Indexed " + points.size() + " points of interest");
+    }
+  }
+
+  private static final class Hit {
+    private final PointOfInterest point;
+    private final double distanceKm;
+
+    private Hit(PointOfInterest point, double distanceKm) {
+      this.point = point;
+      this.distanceKm = distanceKm;
+    }
+  }
+
+  /**
+   * A point of interest found by a nearest-neighbour query, with its distance.
+   */
+  public static final class NearestPoint {
+    private final PointOfInterest pointOfInterest;
+    private final double distanceKm;
+
+    /**
+     * Creates a nearest point.
+     *
+     * @param pointOfInterest the point of interest
+     * @param distanceKm      its distance from the queried position, in kilometers
+     */
+    public NearestPoint(PointOfInterest pointOfInterest, double distanceKm) {
+      this.pointOfInterest = pointOfInterest;
+      this.distanceKm = distanceKm;
+    }
+
+    public PointOfInterest getPointOfInterest() {
+      return pointOfInterest;
+    }
+
+    public double getDistanceKm() {
+      return distanceKm;
+    }
+  }
+
+  private static final class TypeTree {
+    private final PointOfInterest[] points;
+    private final KdTree tree;
+
+    private TypeTree(PointOfInterest[] points, KdTree tree) {
+      this.points = points;
+      this.tree = tree;
+    }
+  }
+}
@@ -1,14 +1,20 @@
 package com.group7.krisefikser.service.location;
 
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.request.location.GetPointsOfInterestRequest;
 import com.group7.krisefikser.dto.request.location.PointOfInterestRequest;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.dto.response.location.NearestPointOfInterestResponse;
 import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
 import com.group7.krisefikser.enums.PointOfInterestType;
 import com.group7.krisefikser.model.location.PointOfInterest;
 import com.group7.krisefikser.repository.location.PointOfInterestRepo;
 import com.group7.krisefikser.utils.JwtUtils;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,13 +27,28 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class PointOfInterestService {
+  static final int MAX_NEAREST = 100;
   private final PointOfInterestRepo pointOfInterestRepo;
   private final JwtUtils jwtUtils;
+  private final PointOfInterestIndex pointOfInterestIndex;
+
+  /**
+   * Method to get every point of interest, regardless of type.
+   *
+   * @return List of all points of interest
+   */
+  public List<PointOfInterestResponse> getAllPointsOfInterest() {
+    return pointOfInterestRepo.getAllPointsOfInterest().stream()
+            .map(PointOfInterestService::toResponse)
+            .toList();
+  }
 
   /**
    * Method to get all points of interest.
    * This method will interact with the repository to fetch all points of
    * interest from the database.
+   * When the request contains a bounding box, a radius or an opening time, the points are
+   * instead looked up in the in-memory index, so only the matching points are read.
    *
    * @return List of all points of interest
    */
@@ -41,20 +62,178 @@ public class PointOfInterestService {
       throw new IllegalArgumentException("Invalid point of interest type provided", e);
     }
 
-    return pointOfInterestRepo.getPointsOfInterestByTypes(types)
+    if (types.isEmpty()) {
+      return List.of();
+    }
+
+    LocalTime openAt = resolveOpeningTime(request);
+    List<PointOfInterest> points;
+    if (request.hasRadius()) {
+      validateRadius(request);
+      points = pointOfInterestIndex.findWithinRadius(types, request.getLatitude(),
+              request.getLongitude(), request.getRadiusKm(), openAt);
+    } else if (request.hasBoundingBox()) {
+      validateBoundingBox(request);
+      points = pointOfInterestIndex.findInBox(types, request.getMinLatitude(),
+              request.getMinLongitude(), request.getMaxLatitude(), request.getMaxLongitude(),
+              openAt);
+    } else if (openAt != null) {
+      points = pointOfInterestIndex.findOpenAt(types, openAt);
+    } else {
+      points = pointOfInterestRepo.getPointsOfInterestByTypes(types);
+    }
+
+    return points.stream()
+            .map(PointOfInterestService::toResponse)
+            .toList();
+
+  }
+
+  /**
+   * Method to find the points of interest closest to a position.
+   * The points are looked up in the in-memory spatial index.
+   *
+   * @param types     List of strings representing the point of interest types to include
+   * @param latitude  The latitude of the position
+   * @param longitude The longitude of the position
+   * @param k         The maximum number of points of interest to return
+   * @return The nearest points of interest with their distances, ordered by distance
+   */
+  public List<NearestPointOfInterestResponse> getNearestPointsOfInterest(
+          List<String> types, double latitude, double longitude, int k) {
+    List<PointOfInterestType> pointTypes;
+    try {
+      pointTypes = mapStringsToPointOfInterestTypes(types);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid point of interest type provided", e);
+    }
+    if (pointTypes.isEmpty()) {
+      throw new IllegalArgumentException("At least one point of interest type is required");
+    }
+    if (k < 1 || k > MAX_NEAREST) {
+      throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST);
+    }
+    validateCoordinates(latitude, longitude);
+
+    return pointOfInterestIndex.findNearest(pointTypes.stream().distinct().toList(),
+                    latitude, longitude, k)
             .stream()
-            .map(point -> new PointOfInterestResponse(
-                    point.getId(),
-                    point.getLatitude(),
-                    point.getLongitude(),
-                    point.getType().name(),
-                    point.getOpensAt() != null ? point.getOpensAt().toString() : null,
-                    point.getClosesAt() != null ? point.getClosesAt().toString() : null,
-                    point.getContactNumber(),
-                    point.getDescription()
+            .map(nearest -> new NearestPointOfInterestResponse(
+                    toResponse(nearest.getPointOfInterest()),
+                    nearest.getDistanceKm()
             ))
             .toList();
+  }
+
+  /**
+   * Method to get the map clusters of points of interest in a viewport.
+   * The clusters are precomputed per zoom level, so the size of the result depends on the
+   * viewport and zoom level rather than on the number of points of interest.
+   *
+   * @param request The zoom level and bounding box of the viewport
+   * @param types   List of strings representing the point of interest types to include
+   * @return The clusters in the viewport, with a breakdown by point of interest type
+   */
+  public List<ClusterResponse> getPointOfInterestClusters(ClusterRequest request,
+                                                          List<String> types) {
+    List<PointOfInterestType> pointTypes;
+    try {
+      pointTypes = mapStringsToPointOfInterestTypes(types);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid point of interest type provided", e);
+    }
+    if (pointTypes.isEmpty()) {
+      return List.of();
+    }
+    if (request.getMinLatitude() > request.getMaxLatitude()) {
+      throw new IllegalArgumentException("Minimum latitude is above maximum latitude");
+    }
 
+    PointOfInterestType[] allTypes = PointOfInterestType.values();
+    return pointOfInterestIndex.findClusters(pointTypes, request.getZoom(),
+                    request.getMinLatitude(), request.getMinLongitude(),
+                    request.getMaxLatitude(), request.getMaxLongitude())
+            .stream()
+            .map(cluster -> {
+              Map<String, Integer> breakdown = new LinkedHashMap<>();
+              for (PointOfInterestType type : allTypes) {
+                int count = cluster.getCategoryCount(type.ordinal());
+                if (count > 0) {
+                  breakdown.put(type.name(), count);
+                }
+              }
+              return new ClusterResponse(
+                      cluster.getCount() == 1 ? cluster.getPointId() : null,
+                      cluster.getLatitude(),
+                      cluster.getLongitude(),
+                      cluster.getCount(),
+                      breakdown
+              );
+            })
+            .toList();
+  }
+
+  /**
+   * Resolves the time of day the points of interest must be open at.
+   * An explicit openAt takes precedence over openNow.
+   *
+   * @return the time of day, or null if the request does not filter on opening hours
+   */
+  private LocalTime resolveOpeningTime(GetPointsOfInterestRequest request) {
+    if (request.getOpenAt() != null) {
+      try {
+        return LocalTime.parse(request.getOpenAt());
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("Invalid time provided for openAt", e);
+      }
+    }
+    if (Boolean.TRUE.equals(request.getOpenNow())) {
+      return LocalTime.now();
+    }
+    return null;
+  }
+
+  private void validateRadius(GetPointsOfInterestRequest request) {
+    if (request.getLatitude() == null || request.getLongitude() == null) {
+      throw new IllegalArgumentException("Latitude and longitude are required with a radius");
+    }
+    validateCoordinates(request.getLatitude(), request.getLongitude());
+    if (!(request.getRadiusKm() > 0)) {
+      throw new IllegalArgumentException("Radius must be positive");
+    }
+  }
+
+  private void validateBoundingBox(GetPointsOfInterestRequest request) {
+    if (request.getMinLatitude() == null || request.getMinLongitude() == null
+            || request.getMaxLatitude() == null || request.getMaxLongitude() == null) {
+      throw new IllegalArgumentException("A bounding box needs all four coordinates");
+    }
+    validateCoordinates(request.getMinLatitude(), request.getMinLongitude());
+    validateCoordinates(request.getMaxLatitude(), request.getMaxLongitude());
+    if (request.getMinLatitude() > request.getMaxLatitude()) {
+      throw new IllegalArgumentException("Minimum latitude is above maximum latitude");
+    }
+  }
+
+  private void validateCoordinates(double latitude, double longitude) {
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+  }
+
+  static PointOfInterestResponse toResponse(PointOfInterest point) {
+    return new PointOfInterestResponse(
+            point.getId(),
+            point.getLatitude(),
+            point.getLongitude(),
+            point.getType().name(),
+            point.getOpensAt() != null ? point.getOpensAt().toString() : null,
+            point.getClosesAt() != null ? point.getClosesAt().toString() : null,
+            point.getContactNumber(),
+            point.getDescription(),
+            point.getCapacity(),
+            point.getOccupancy()
+    );
   }
 
   /**
@@ -96,7 +275,9 @@ public class PointOfInterestService {
                     ? LocalTime.parse(pointOfInterestRequest.getClosesAt())
                     : null,
             pointOfInterestRequest.getContactNumber(),
-            pointOfInterestRequest.getDescription()
+            pointOfInterestRequest.getDescription(),
+            pointOfInterestRequest.getCapacity(),
+            0
     );
 
     pointOfInterestRepo.addPointOfInterest(point);
@@ -104,16 +285,7 @@ public class PointOfInterestService {
     if (point.getId() == null) {
       throw new IllegalStateException("Failed to add point of interest");
     }
-    return new PointOfInterestResponse(
-            point.getId(),
-            point.getLatitude(),
-            point.getLongitude(),
-            point.getType().name(),
-            point.getOpensAt() != null ? point.getOpensAt().toString() : null,
-            point.getClosesAt() != null ? point.getClosesAt().toString() : null,
-            point.getContactNumber(),
-            point.getDescription()
-    );
+    return toResponse(point);
   }
 
   /**
@@ -157,7 +329,9 @@ public class PointOfInterestService {
                     ? LocalTime.parse(pointOfInterestRequest.getClosesAt())
                     : null,
             pointOfInterestRequest.getContactNumber(),
-            pointOfInterestRequest.getDescription()
+            pointOfInterestRequest.getDescription(),
+            pointOfInterestRequest.getCapacity(),
+            0
     );
 
     int rowsAffected = pointOfInterestRepo.updatePointOfInterest(point);
@@ -169,15 +343,6 @@ public class PointOfInterestService {
       throw new IllegalStateException("Multiple rows affected when updating point of interest");
     }
 
-    return new PointOfInterestResponse(
-            point.getId(),
-            point.getLatitude(),
-            point.getLongitude(),
-            point.getType().name(),
-            point.getOpensAt() != null ? point.getOpensAt().toString() : null,
-            point.getClosesAt() != null ? point.getClosesAt().toString() : null,
-            point.getContactNumber(),
-            point.getDescription()
-    );
+    return toResponse(point);
   }
 }
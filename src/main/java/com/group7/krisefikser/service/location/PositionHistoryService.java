@@ -0,0 +1,439 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.dto.response.location.PositionHistoryPointResponse;
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.location.PositionHistoryChunk;
+import com.group7.krisefikser.repository.location.PositionHistoryRepository;
+import com.group7.krisefikser.service.household.HouseholdMembershipRegistry;
+import com.group7.krisefikser.spatial.Track;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that keeps a trail of where each user has been, so household and emergency group
+ * members can see where someone was last seen after they stopped sharing.
+ * The last hour of a user's positions is kept at full resolution in a ring buffer in memory,
+ * where positions less than a few seconds apart replace each other. Positions that leave the
+ * hour are downsampled to one per five minutes and written as one chunk per user and clock
+ * hour, with delta-encoded coordinates. Chunks older than a day are compacted into one chunk
+ * per user and day with one position per hour, and chunks older than the retention period
+ * are deleted. Memory per user and storage per user and day are therefore bounded however
+ * often positions are shared. Chunks that could not be written because the database was
+ * unavailable are kept in memory, up to {@value #MAX_UNSTORED_CHUNKS} of them, and written
+ * with the next chunks.
+ */
+@Service
+public class PositionHistoryService {
+  static final long RECENT_SECONDS = TimeUnit.HOURS.toSeconds(1);
+  static final long MIN_SPACING_SECONDS = 5;
+  static final int RING_CAPACITY = (int) (RECENT_SECONDS / MIN_SPACING_SECONDS);
+  static final int HOURLY_RESOLUTION_SECONDS = 300;
+  static final int DAILY_RESOLUTION_SECONDS = 3600;
+  static final long COMPACT_AFTER_SECONDS = TimeUnit.DAYS.toSeconds(1);
+  static final long RETENTION_DAYS = 30;
+  static final long FLUSH_INTERVAL_SECONDS = 300;
+  static final int COMPACTION_BATCH_SIZE = 5000;
+  static final int MAX_UNSTORED_CHUNKS = 100_000;
+  private static final Logger logger = Logger.getLogger(PositionHistoryService.class.getName());
+
+  private final PositionHistoryRepository positionHistoryRepository;
+  private final HouseholdMembershipRegistry membershipRegistry;
+  private final Map<Long, Trail> trails = new ConcurrentHashMap<>();
+  private final List<PositionHistoryChunk> unstored = new ArrayList<>();
+  private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("position-history-flush").factory());
+
+  /**
+   * Constructor for PositionHistoryService.
+   *
+   * @param positionHistoryRepository the repository the history chunks are stored in
+   * @param membershipRegistry        the registry deciding who may see a user's history
+   */
+  @Autowired
+  public PositionHistoryService(PositionHistoryRepository positionHistoryRepository,
+                                HouseholdMembershipRegistry membershipRegistry) {
+    this.positionHistoryRepository = positionHistoryRepository;
+    this.membershipRegistry = membershipRegistry;
+    flusher.scheduleWithFixedDelay(this::runMaintenance, FLUSH_INTERVAL_SECONDS,
+            FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Appends a shared position to the history of the user.
+   *
+   * @param event the position change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserPositionChanged(UserPositionChangedEvent event) {
+    if (event.getLatitude() != null && event.getLongitude() != null) {
+      record(event.getUserId(), Instant.now().getEpochSecond(), event.getLatitude(),
+              event.getLongitude());
+    }
+  }
+
+  /**
+   * Appends a position to the history of a user.
+   * A position within a few seconds of the previous one replaces it, and a position older
+   * than the previous one is ignored.
+   *
+   * @param userId    the ID of the user
+   * @param time      the time of the position in epoch seconds
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   */
+  public void record(long userId, long time, double latitude, double longitude) {
+    List<PositionHistoryChunk> full = new ArrayList<>(1);
+    trails.compute(userId, (id, trail) -> {
+      Trail current = trail != null ? trail : new Trail(userId);
+      current.add(time, latitude, longitude, full);
+      return current;
+    });
+    if (!full.isEmpty()) {
+      store(full);
+    }
+  }
+
+  /**
+   * Returns the history of a user in a time range.
+   *
+   * @param viewerId the ID of the user asking
+   * @param userId   the ID of the user whose history is returned
+   * @param from     the start of the range
+   * @param to       the end of the range
+   * @return the positions in the range, ordered by time
+   * @throws IllegalArgumentException  if the range is reversed or longer than the retention
+   * @throws ResourceNotFoundException if the viewer may not see the user's positions
+   */
+  public List<PositionHistoryPointResponse> getHistory(long viewerId, long userId,
+                                                       LocalDateTime from, LocalDateTime to) {
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException("The start of the range is after its end");
+    }
+    if (Duration.between(from, to).toDays() > RETENTION_DAYS) {
+      throw new IllegalArgumentException("The range can be at most " + RETENTION_DAYS
+              + " days");
+    }
+    if (viewerId != userId && !membershipRegistry.isPeer(viewerId, userId)) {
+      throw new ResourceNotFoundException("No position history for user " + userId);
+    }
+    long fromSeconds = toEpochSecond(from);
+    long toSeconds = toEpochSecond(to);
+
+    List<Track> tracks = new ArrayList<>();
+    for (PositionHistoryChunk chunk : positionHistoryRepository.getChunks(userId, from, to)) {
+      tracks.add(Track.decode(chunk.getPoints()).between(fromSeconds, toSeconds));
+    }
+    synchronized (unstored) {
+      for (PositionHistoryChunk chunk : unstored) {
+        if (chunk.getUserId() == userId) {
+          tracks.add(Track.decode(chunk.getPoints()).between(fromSeconds, toSeconds));
+        }
+      }
+    }
+    Trail trail = trails.get(userId);
+    if (trail != null) {
+      tracks.add(trail.snapshot().between(fromSeconds, toSeconds));
+    }
+    Track track = Track.concat(tracks);
+
+    List<PositionHistoryPointResponse> points = new ArrayList<>(track.size());
+    for (int i = 0; i < track.size(); i++) {
+      // An interrupted compaction can leave the same point in two chunks.
+      if (i > 0 && track.getTime(i) == track.getTime(i - 1)) {
+        continue;
+      }
+      points.add(new PositionHistoryPointResponse(toLocalDateTime(track.getTime(i)),
+              track.getLatitude(i), track.getLongitude(i)));
+    }
+    return points;
+  }
+
+  /**
+   * Moves the positions that left the recent window out of memory. Chunks are written when
+   * a clock hour is complete, or when a user has shared nothing for a whole window.
+   *
+   * @param now the current time in epoch seconds
+   * @return the number of chunks written
+   */
+  public int flush(long now) {
+    List<PositionHistoryChunk> chunks = new ArrayList<>();
+    for (Trail trail : trails.values()) {
+      synchronized (trail) {
+        trail.evictBefore(now - RECENT_SECONDS, chunks);
+        if (trail.isRingEmpty()) {
+          trail.emitPending(chunks);
+        }
+      }
+      trails.computeIfPresent(trail.userId, (id, current) -> current.isEmpty() ? null : current);
+    }
+    return store(chunks);
+  }
+
+  /**
+   * Compacts day-old chunks to hourly positions and deletes chunks past the retention.
+   *
+   * @param now the current time in epoch seconds
+   * @return the number of chunks replaced by compaction
+   */
+  public int compact(long now) {
+    List<PositionHistoryChunk> old = positionHistoryRepository.getChunksEndingBefore(
+            HOURLY_RESOLUTION_SECONDS, toLocalDateTime(now - COMPACT_AFTER_SECONDS),
+            COMPACTION_BATCH_SIZE);
+    Map<String, List<Track>> byUserAndDay = new LinkedHashMap<>();
+    Map<String, Long> users = new LinkedHashMap<>();
+    for (PositionHistoryChunk chunk : old) {
+      LocalDate day = chunk.getStartTime().toLocalDate();
+      String key = chunk.getUserId() + "/" + day;
+      byUserAndDay.computeIfAbsent(key, k -> new ArrayList<>())
+              .add(Track.decode(chunk.getPoints()));
+      users.put(key, chunk.getUserId());
+    }
+    List<PositionHistoryChunk> compacted = new ArrayList<>();
+    byUserAndDay.forEach((key, tracks) -> {
+      Track daily = Track.concat(tracks).downsample(DAILY_RESOLUTION_SECONDS);
+      if (daily.size() > 0) {
+        compacted.add(toChunk(users.get(key), daily, DAILY_RESOLUTION_SECONDS));
+      }
+    });
+    if (!compacted.isEmpty()) {
+      positionHistoryRepository.insertChunks(compacted);
+    }
+    if (!old.isEmpty()) {
+      positionHistoryRepository.deleteChunks(old.stream().map(PositionHistoryChunk::getId)
+              .toList());
+    }
+    int expired = positionHistoryRepository.deleteChunksEndingBefore(
+            toLocalDateTime(now - TimeUnit.DAYS.toSeconds(RETENTION_DAYS)));
+    logger.fine(() -> "Compacted " + old.size() + " history chunks into " + compacted.size()
+            + ", deleted " + expired + " expired chunks");
+    return old.size();
+  }
+
+  /**
+   * Writes all positions held in memory and stops the background maintenance.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdownNow();
+    List<PositionHistoryChunk> chunks = new ArrayList<>();
+    for (Trail trail : trails.values()) {
+      synchronized (trail) {
+        trail.evictBefore(Long.MAX_VALUE, chunks);
+        trail.emitPending(chunks);
+      }
+    }
+    trails.clear();
+    store(chunks);
+  }
+
+  private void runMaintenance() {
+    long now = Instant.now().getEpochSecond();
+    try {
+      flush(now);
+      compact(now);
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Position history maintenance failed", e);
+    }
+  }
+
+  /**
+   * Inserts chunks together with the chunks left over by earlier failures, falling back to
+   * one at a time so the chunks of a deleted user do not hold back the others. Chunks that
+   * violate a constraint are dropped. If a chunk fails for another reason, such as the
+   * database being unavailable, it and the chunks after it are kept for the next call.
+   */
+  private int store(List<PositionHistoryChunk> chunks) {
+    List<PositionHistoryChunk> pending;
+    synchronized (unstored) {
+      pending = new ArrayList<>(unstored);
+      unstored.clear();
+    }
+    pending.addAll(chunks);
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    try {
+      positionHistoryRepository.insertChunks(pending);
+      return pending.size();
+    } catch (DataAccessException e) {
+      logger.log(Level.WARNING, "Batched history insert failed, writing chunks one by one", e);
+      int stored = 0;
+      for (int i = 0; i < pending.size(); i++) {
+        PositionHistoryChunk chunk = pending.get(i);
+        try {
+          positionHistoryRepository.insertChunks(List.of(chunk));
+          stored++;
+        } catch (DataIntegrityViolationException chunkFailure) {
+          logger.warning("Dropping position history of user " + chunk.getUserId() + ": "
+                  + chunkFailure.getMessage());
+        } catch (DataAccessException chunkFailure) {
+          keepUnstored(pending.subList(i, pending.size()));
+          logger.warning("Could not write position history, retrying " + (pending.size() - i)
+                  + " chunks later: " + chunkFailure.getMessage());
+          break;
+        }
+      }
+      return stored;
+    }
+  }
+
+  /**
+   * Keeps chunks for the next write, dropping the oldest of them if too many are waiting.
+   */
+  private void keepUnstored(List<PositionHistoryChunk> chunks) {
+    synchronized (unstored) {
+      unstored.addAll(0, chunks);
+      int excess = unstored.size() - MAX_UNSTORED_CHUNKS;
+      if (excess > 0) {
+        unstored.subList(0, excess).clear();
+        logger.warning("Dropping " + excess + " unwritten position history chunks");
+      }
+    }
+  }
+
+  private static PositionHistoryChunk toChunk(long userId, Track track, int resolutionSeconds) {
+    return new PositionHistoryChunk(null, userId, toLocalDateTime(track.getTime(0)),
+            toLocalDateTime(track.getTime(track.size() - 1)), resolutionSeconds, track.size(),
+            track.encode());
+  }
+
+  private static LocalDateTime toLocalDateTime(long epochSecond) {
+    return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+  }
+
+  private static long toEpochSecond(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+  }
+
+  /**
+   * The in-memory part of a user's history: a ring buffer with the recent positions, and the
+   * downsampled positions of the current clock hour that have left the ring.
+   */
+  private static final class Trail {
+    private static final int PENDING_CAPACITY =
+            DAILY_RESOLUTION_SECONDS / HOURLY_RESOLUTION_SECONDS;
+
+    private final long userId;
+    private final long[] times = new long[RING_CAPACITY];
+    private final double[] latitudes = new double[RING_CAPACITY];
+    private final double[] longitudes = new double[RING_CAPACITY];
+    private int head;
+    private int size;
+    private final long[] pendingTimes = new long[PENDING_CAPACITY];
+    private final double[] pendingLatitudes = new double[PENDING_CAPACITY];
+    private final double[] pendingLongitudes = new double[PENDING_CAPACITY];
+    private int pendingSize;
+
+    private Trail(long userId) {
+      this.userId = userId;
+    }
+
+    private synchronized void add(long time, double latitude, double longitude,
+                                  List<PositionHistoryChunk> chunks) {
+      if (size > 0) {
+        int last = (head + size - 1) % RING_CAPACITY;
+        if (time < times[last]) {
+          return;
+        }
+        if (time - times[last] < MIN_SPACING_SECONDS) {
+          times[last] = time;
+          latitudes[last] = latitude;
+          longitudes[last] = longitude;
+          return;
+        }
+      }
+      if (size == RING_CAPACITY) {
+        evictOldest(chunks);
+      }
+      int slot = (head + size) % RING_CAPACITY;
+      times[slot] = time;
+      latitudes[slot] = latitude;
+      longitudes[slot] = longitude;
+      size++;
+    }
+
+    private void evictBefore(long cutoff, List<PositionHistoryChunk> chunks) {
+      while (size > 0 && times[head] < cutoff) {
+        evictOldest(chunks);
+      }
+    }
+
+    /**
+     * Moves the oldest ring position to the pending positions, keeping the last position of
+     * each five minute interval and writing the pending positions when the hour changes.
+     */
+    private void evictOldest(List<PositionHistoryChunk> chunks) {
+      long time = times[head];
+      if (pendingSize > 0 && Math.floorDiv(time, DAILY_RESOLUTION_SECONDS)
+              != Math.floorDiv(pendingTimes[0], DAILY_RESOLUTION_SECONDS)) {
+        emitPending(chunks);
+      }
+      if (pendingSize == 0 || Math.floorDiv(time, HOURLY_RESOLUTION_SECONDS)
+              != Math.floorDiv(pendingTimes[pendingSize - 1], HOURLY_RESOLUTION_SECONDS)) {
+        pendingSize++;
+      }
+      pendingTimes[pendingSize - 1] = time;
+      pendingLatitudes[pendingSize - 1] = latitudes[head];
+      pendingLongitudes[pendingSize - 1] = longitudes[head];
+      head = (head + 1) % RING_CAPACITY;
+      size--;
+    }
+
+    private void emitPending(List<PositionHistoryChunk> chunks) {
+      if (pendingSize == 0) {
+        return;
+      }
+      chunks.add(toChunk(userId, pending(), HOURLY_RESOLUTION_SECONDS));
+      pendingSize = 0;
+    }
+
+    private Track pending() {
+      return Track.of(Arrays.copyOf(pendingTimes, pendingSize),
+              Arrays.copyOf(pendingLatitudes, pendingSize),
+              Arrays.copyOf(pendingLongitudes, pendingSize));
+    }
+
+    private synchronized Track snapshot() {
+      long[] snapshotTimes = new long[size];
+      double[] snapshotLatitudes = new double[size];
+      double[] snapshotLongitudes = new double[size];
+      for (int i = 0; i < size; i++) {
+        int slot = (head + i) % RING_CAPACITY;
+        snapshotTimes[i] = times[slot];
+        snapshotLatitudes[i] = latitudes[slot];
+        snapshotLongitudes[i] = longitudes[slot];
+      }
+      return Track.concat(List.of(pending(), Track.of(snapshotTimes, snapshotLatitudes,
+              snapshotLongitudes)));
+    }
+
+    private boolean isRingEmpty() {
+      return size == 0;
+    }
+
+    private synchronized boolean isEmpty() {
+      return size == 0 && pendingSize == 0;
+    }
+  }
+}
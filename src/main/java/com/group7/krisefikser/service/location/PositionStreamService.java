@@ -0,0 +1,284 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.dto.response.location.MemberPositionUpdateResponse;
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import com.group7.krisefikser.model.location.UserPosition;
+import com.group7.krisefikser.service.household.HouseholdMembershipRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service that pushes the positions of household and emergency group members to clients
+ * over Server-Sent Events.
+ * A subscriber first receives the current positions of everyone in its household and
+ * emergency group, and afterwards an event whenever one of them shares a new position or
+ * stops sharing. Changes are routed with the in-memory membership registry and position
+ * store, so no query runs per update.
+ * Pending events of a subscriber are kept per member, and a newer position of a member
+ * replaces one that was not sent yet. A slow client therefore skips intermediate positions
+ * instead of building up a backlog, and never holds more than one event per member.
+ */
+@Service
+public class PositionStreamService {
+  static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  static final long HEARTBEAT_SECONDS = 20;
+  static final int MAX_SUBSCRIBERS = 50_000;
+  private static final long SNAPSHOT_KEY = -1;
+  private static final long HEARTBEAT_KEY = -2;
+  private static final Logger logger = Logger.getLogger(PositionStreamService.class.getName());
+
+  private final HouseholdMembershipRegistry membershipRegistry;
+  private final UserPositionStore userPositionStore;
+  private final Map<Long, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+  private final AtomicInteger subscriberCount = new AtomicInteger();
+  private final AtomicLong nextId = new AtomicLong();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("position-stream-heartbeat").factory());
+
+  /**
+   * Constructor for PositionStreamService.
+   *
+   * @param membershipRegistry the registry of household and emergency group members
+   * @param userPositionStore  the store of the latest shared positions
+   */
+  @Autowired
+  public PositionStreamService(HouseholdMembershipRegistry membershipRegistry,
+                               UserPositionStore userPositionStore) {
+    this.membershipRegistry = membershipRegistry;
+    this.userPositionStore = userPositionStore;
+    heartbeats.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS,
+            TimeUnit.SECONDS);
+  }
+
+  /**
+   * Subscribes a user to the positions of their household and emergency group members.
+   * The first event, named "positions", holds the members currently sharing their position.
+   * Later events are named "position" for a new position and "stopped" for a member who
+   * stopped sharing.
+   *
+   * @param userId the ID of the subscribing user
+   * @return the emitter of the subscription
+   * @throws IllegalStateException if the server has no room for more subscribers
+   */
+  public SseEmitter subscribe(long userId) {
+    if (subscriberCount.incrementAndGet() > MAX_SUBSCRIBERS) {
+      subscriberCount.decrementAndGet();
+      throw new IllegalStateException("Too many position stream subscribers");
+    }
+    SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+    Subscriber subscriber = new Subscriber(nextId.incrementAndGet(), userId, emitter);
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(() -> unsubscribe(subscriber));
+    emitter.onError(e -> unsubscribe(subscriber));
+    subscribersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet())
+            .add(subscriber);
+
+    List<MemberPositionUpdateResponse> positions = new ArrayList<>();
+    membershipRegistry.forEachPeer(userId, (peerId, sameHousehold) -> {
+      UserPosition position = userPositionStore.get(peerId);
+      if (position != null) {
+        positions.add(new MemberPositionUpdateResponse(peerId,
+                membershipRegistry.nameOf(peerId), position.getLatitude(),
+                position.getLongitude(), sameHousehold));
+      }
+    });
+    synchronized (subscriber.pending) {
+      Map<Long, SseEmitter.SseEventBuilder> queued = new LinkedHashMap<>(subscriber.pending);
+      subscriber.pending.clear();
+      subscriber.pending.put(SNAPSHOT_KEY,
+              SseEmitter.event().name("positions").data(positions));
+      subscriber.pending.putAll(queued);
+    }
+    subscriber.started = true;
+    startDrain(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Returns the number of open subscriptions.
+   *
+   * @return the number of subscribers
+   */
+  public int getSubscriberCount() {
+    return subscriberCount.get();
+  }
+
+  /**
+   * Pushes a position change to the subscribed members of the user's household and
+   * emergency group.
+   *
+   * @param event the position change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserPositionChanged(UserPositionChangedEvent event) {
+    if (subscribersByUser.isEmpty()) {
+      return;
+    }
+    long userId = event.getUserId();
+    boolean stopped = event.getLatitude() == null || event.getLongitude() == null;
+    String name = membershipRegistry.nameOf(userId);
+    membershipRegistry.forEachPeer(userId, (peerId, sameHousehold) -> {
+      Set<Subscriber> subscribers = subscribersByUser.get(peerId);
+      if (subscribers == null) {
+        return;
+      }
+      MemberPositionUpdateResponse update = new MemberPositionUpdateResponse(userId, name,
+              event.getLatitude(), event.getLongitude(), sameHousehold);
+      for (Subscriber subscriber : subscribers) {
+        offer(subscriber, userId, SseEmitter.event()
+                .name(stopped ? "stopped" : "position").data(update));
+      }
+    });
+  }
+
+  /**
+   * Closes all subscriptions and stops the sender and heartbeat threads.
+   */
+  @PreDestroy
+  public void shutdown() {
+    heartbeats.shutdownNow();
+    for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+      for (Subscriber subscriber : subscribers) {
+        close(subscriber);
+      }
+    }
+    senders.shutdown();
+  }
+
+  private void sendHeartbeats() {
+    for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+      for (Subscriber subscriber : subscribers) {
+        offer(subscriber, HEARTBEAT_KEY, SseEmitter.event().comment("heartbeat"));
+      }
+    }
+  }
+
+  /**
+   * Queues an event for a subscriber, replacing any unsent event with the same key, and
+   * starts a drain if none is running. Events queued while the initial snapshot is built
+   * are held back until it is queued in front of them.
+   */
+  private void offer(Subscriber subscriber, long key, SseEmitter.SseEventBuilder event) {
+    if (subscriber.closed) {
+      return;
+    }
+    synchronized (subscriber.pending) {
+      subscriber.pending.remove(key);
+      subscriber.pending.put(key, event);
+    }
+    if (subscriber.started) {
+      startDrain(subscriber);
+    }
+  }
+
+  private void startDrain(Subscriber subscriber) {
+    if (subscriber.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  /**
+   * Writes the pending events of a subscriber in the order they were last replaced. Only one
+   * drain runs per subscriber at a time, and a drain that finds new events after releasing
+   * the flag takes it again, so no event is left behind.
+   */
+  private void drain(Subscriber subscriber) {
+    do {
+      SseEmitter.SseEventBuilder event;
+      while ((event = subscriber.poll()) != null) {
+        try {
+          subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+          close(subscriber);
+          return;
+        }
+      }
+      subscriber.draining.set(false);
+    } while (subscriber.hasPending() && subscriber.draining.compareAndSet(false, true));
+  }
+
+  private void close(Subscriber subscriber) {
+    if (unsubscribe(subscriber)) {
+      try {
+        subscriber.emitter.complete();
+      } catch (IllegalStateException e) {
+        logger.fine("Position stream subscriber " + subscriber.id + " already closed");
+      }
+    }
+  }
+
+  /**
+   * Removes a subscriber from the registry.
+   *
+   * @return true if the subscriber was still registered
+   */
+  private boolean unsubscribe(Subscriber subscriber) {
+    synchronized (subscriber.pending) {
+      if (subscriber.closed) {
+        return false;
+      }
+      subscriber.closed = true;
+      subscriber.pending.clear();
+    }
+    subscribersByUser.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+      subscribers.remove(subscriber);
+      return subscribers.isEmpty() ? null : subscribers;
+    });
+    subscriberCount.decrementAndGet();
+    return true;
+  }
+
+  private static final class Subscriber {
+    private final long id;
+    private final long userId;
+    private final SseEmitter emitter;
+    private final Map<Long, SseEmitter.SseEventBuilder> pending = new LinkedHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    private Subscriber(long id, long userId, SseEmitter emitter) {
+      this.id = id;
+      this.userId = userId;
+      this.emitter = emitter;
+    }
+
+    private SseEmitter.SseEventBuilder poll() {
+      synchronized (pending) {
+        Iterator<SseEmitter.SseEventBuilder> it = pending.values().iterator();
+        if (!it.hasNext()) {
+          return null;
+        }
+        SseEmitter.SseEventBuilder event = it.next();
+        it.remove();
+        return event;
+      }
+    }
+
+    private boolean hasPending() {
+      synchronized (pending) {
+        return !pending.isEmpty();
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.group7.krisefikser.service.location;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only file of the shelter check-ins that have not been written to the database yet.
+ * The file starts with a header holding its generation, followed by fixed-size records of a
+ * shelter ID and a change in the number of checked in people. Every append is forced to disk
+ * before it returns. Once the check-ins are in the database, together with the generation
+ * they came from, the file is rotated: it is truncated and restarted with the next
+ * generation. A journal whose generation the database already has was written before a
+ * crash that happened after the database write, and must not be replayed.
+ * A record cut short by a crash is ignored when the file is read.
+ */
+final class ShelterCheckInJournal implements Closeable {
+  private static final int MAGIC = 0x4b464349;
+  private static final int HEADER_BYTES = 12;
+  private static final int RECORD_BYTES = 12;
+
+  private final FileChannel channel;
+  private final long generation;
+  private final Map<Long, Integer> recorded;
+
+  private ShelterCheckInJournal(FileChannel channel, long generation,
+                                Map<Long, Integer> recorded) {
+    this.channel = channel;
+    this.generation = generation;
+    this.recorded = recorded;
+  }
+
+  /**
+   * Opens a journal, creating it if it does not exist, and reads the check-ins it holds.
+   *
+   * @param path the path of the journal file
+   * @return the journal
+   * @throws IOException if the file can not be read, or is not a check-in journal
+   */
+  static ShelterCheckInJournal open(Path path) throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (channel.size() < HEADER_BYTES) {
+        return new ShelterCheckInJournal(channel, 0, Map.of());
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // Read the whole file.
+      }
+      buffer.flip();
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("Not a shelter check-in journal: " + path);
+      }
+      long generation = buffer.getLong();
+      Map<Long, Integer> recorded = new HashMap<>();
+      while (buffer.remaining() >= RECORD_BYTES) {
+        recorded.merge(buffer.getLong(), buffer.getInt(), Integer::sum);
+      }
+      return new ShelterCheckInJournal(channel, generation, recorded);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the generation of the journal as it was opened.
+   *
+   * @return the generation, or 0 for a new journal
+   */
+  long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the check-ins the journal held when it was opened, summed per shelter.
+   *
+   * @return the change in the number of checked in people, by shelter ID
+   */
+  Map<Long, Integer> getRecorded() {
+    return recorded;
+  }
+
+  /**
+   * Appends check-ins to the journal and forces them to disk.
+   *
+   * @param deltas the change in the number of checked in people, by shelter ID
+   * @throws IOException if the check-ins could not be written
+   */
+  void append(Map<Long, Integer> deltas) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(deltas.size() * RECORD_BYTES);
+    for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+      buffer.putLong(delta.getKey()).putInt(delta.getValue());
+    }
+    buffer.flip();
+    channel.position(channel.size());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+  }
+
+  /**
+   * Empties the journal and restarts it with a new generation.
+   *
+   * @param generation the generation of the check-ins written from now on
+   * @throws IOException if the journal could not be rewritten
+   */
+  void rotate(long generation) throws IOException {
+    channel.truncate(0);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putLong(generation);
+    header.flip();
+    channel.position(0);
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    channel.force(true);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
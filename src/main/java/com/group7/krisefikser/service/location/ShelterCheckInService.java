@@ -0,0 +1,349 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.dto.response.location.ShelterOccupancyResponse;
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.model.location.ShelterOccupancy;
+import com.group7.krisefikser.repository.location.ShelterCheckInRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service that counts the people checking in and out of shelters.
+ * Every shelter has a pair of {@link LongAdder}s in memory: the number of people checked
+ * in, read by the API, and the change not yet written to the journal. A check-in only adds
+ * to both, so concurrent check-ins at the same shelter do not contend on a lock or a
+ * database row. Check-outs of a shelter take turns on its counters, so two of them can not
+ * both pass the check that enough people are checked in; check-ins running at the same time
+ * only add to the count, which keeps the check safe. A background thread drains the changes
+ * every {@value #SYNC_INTERVAL_MILLIS} ms into the check-in journal on disk, and every
+ * {@value #FLUSH_INTERVAL_MILLIS} ms writes the journaled changes to the database as one
+ * batch of deltas, after which the journal is rotated. A check-in is durable once it is in
+ * the journal, so a crash loses at most the check-ins of the last sync interval; the
+ * journal is replayed into the database the next time the service is used. The counters are
+ * loaded from the database per shelter on first use. When no journal file is configured,
+ * check-ins are only written by the flush.
+ */
+@Service
+public class ShelterCheckInService {
+  static final long SYNC_INTERVAL_MILLIS = 100;
+  static final long FLUSH_INTERVAL_MILLIS = 2000;
+  static final int MAX_PEOPLE_PER_REQUEST = 1000;
+  private static final Logger logger = Logger.getLogger(ShelterCheckInService.class.getName());
+
+  private final ShelterCheckInRepository shelterCheckInRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Path journalPath;
+  private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+  private final Object journalLock = new Object();
+  private final Map<Long, Integer> unjournaled = new HashMap<>();
+  private final Map<Long, Integer> unflushed = new HashMap<>();
+  private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("shelter-check-in-flush").factory());
+  private ShelterCheckInJournal journal;
+  private long generation;
+  private volatile boolean loaded;
+
+  /**
+   * Constructor for ShelterCheckInService.
+   *
+   * @param shelterCheckInRepository the repository the check-ins are written to
+   * @param transactionManager       the transaction manager used to write check-ins together
+   *                                 with their journal generation
+   * @param journalPath              the path of the check-in journal, or blank to run
+   *                                 without one
+   */
+  @Autowired
+  public ShelterCheckInService(ShelterCheckInRepository shelterCheckInRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.shelter-check-in.journal:}") String journalPath) {
+    this.shelterCheckInRepository = shelterCheckInRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.journalPath = journalPath == null || journalPath.isBlank() ? null : Path.of(journalPath);
+    flusher.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+    flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks people in at a shelter.
+   *
+   * @param shelterId the ID of the shelter
+   * @param people    the number of people checking in
+   * @return the occupancy of the shelter after the check-in
+   * @throws ResourceNotFoundException if there is no shelter with the ID
+   * @throws IllegalArgumentException  if the number of people is out of range
+   */
+  public ShelterOccupancyResponse checkIn(long shelterId, int people) {
+    validatePeople(people);
+    Counter counter = counter(shelterId);
+    counter.checkedIn.add(people);
+    counter.unjournaled.add(people);
+    return toResponse(shelterId, counter);
+  }
+
+  /**
+   * Checks people out of a shelter.
+   *
+   * @param shelterId the ID of the shelter
+   * @param people    the number of people checking out
+   * @return the occupancy of the shelter after the check-out
+   * @throws ResourceNotFoundException if there is no shelter with the ID
+   * @throws IllegalArgumentException  if the number of people is out of range
+   * @throws IllegalStateException     if fewer people are checked in
+   */
+  public ShelterOccupancyResponse checkOut(long shelterId, int people) {
+    validatePeople(people);
+    Counter counter = counter(shelterId);
+    synchronized (counter) {
+      long checkedIn = counter.checkedIn.sum();
+      if (checkedIn < people) {
+        throw new IllegalStateException("Only " + checkedIn + " people are checked in");
+      }
+      counter.checkedIn.add(-people);
+      counter.unjournaled.add(-people);
+    }
+    return toResponse(shelterId, counter);
+  }
+
+  /**
+   * Returns the number of people checked in at a shelter.
+   *
+   * @param shelterId the ID of the shelter
+   * @return the occupancy of the shelter
+   * @throws ResourceNotFoundException if there is no shelter with the ID
+   */
+  public ShelterOccupancyResponse getOccupancy(long shelterId) {
+    return toResponse(shelterId, counter(shelterId));
+  }
+
+  /**
+   * Keeps the capacity of loaded shelters up to date, and forgets shelters that were
+   * deleted or are no longer shelters.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPointOfInterestChanged(PointOfInterestChangedEvent event) {
+    Counter counter = counters.get(event.getPointOfInterestId());
+    if (counter == null) {
+      return;
+    }
+    PointOfInterest point = event.getPointOfInterest();
+    if (point == null || point.getType() != PointOfInterestType.SHELTER) {
+      counters.remove(event.getPointOfInterestId());
+    } else {
+      counter.capacity = point.getCapacity();
+    }
+  }
+
+  /**
+   * Writes the check-ins recorded since the last sync to the journal.
+   */
+  void sync() {
+    if (!loaded) {
+      return;
+    }
+    synchronized (journalLock) {
+      for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+        long delta = entry.getValue().unjournaled.sumThenReset();
+        if (delta != 0) {
+          unjournaled.merge(entry.getKey(), (int) delta, Integer::sum);
+        }
+      }
+      if (unjournaled.isEmpty()) {
+        return;
+      }
+      if (journal != null) {
+        try {
+          journal.append(unjournaled);
+        } catch (IOException e) {
+          logger.log(Level.SEVERE, "Could not write shelter check-ins to the journal", e);
+          return;
+        }
+      }
+      unjournaled.forEach((shelterId, delta) -> unflushed.merge(shelterId, delta,
+              Integer::sum));
+      unjournaled.clear();
+    }
+  }
+
+  /**
+   * Writes the journaled check-ins to the database as one batch and rotates the journal.
+   * If the write fails, the check-ins stay in the journal and are written by the next
+   * flush.
+   *
+   * @return the number of shelters written
+   */
+  public int flush() {
+    if (!loaded) {
+      return 0;
+    }
+    synchronized (journalLock) {
+      sync();
+      if (unflushed.isEmpty()) {
+        return 0;
+      }
+      try {
+        write(Map.copyOf(unflushed), generation);
+      } catch (DataAccessException e) {
+        logger.log(Level.WARNING, "Could not write shelter check-ins to the database", e);
+        return 0;
+      }
+      int count = unflushed.size();
+      unflushed.clear();
+      rotate(generation + 1);
+      logger.fine(() -> "Flushed check-ins of " + count + " shelters");
+      return count;
+    }
+  }
+
+  /**
+   * Writes the remaining check-ins and stops the background sync and flush.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (loaded) {
+      flush();
+    }
+    synchronized (journalLock) {
+      closeJournal();
+    }
+  }
+
+  private void write(Map<Long, Integer> deltas, long generation) {
+    transactionTemplate.executeWithoutResult(status ->
+            shelterCheckInRepository.applyCheckIns(deltas, generation));
+  }
+
+  /**
+   * Restarts the journal with the next generation. A journal that can not be rewritten is
+   * closed, since check-ins appended to it would be skipped on replay.
+   */
+  private void rotate(long nextGeneration) {
+    generation = nextGeneration;
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.rotate(nextGeneration);
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Could not rotate the shelter check-in journal, continuing "
+              + "without it", e);
+      closeJournal();
+    }
+  }
+
+  private void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      logger.warning("Could not close the shelter check-in journal: " + e.getMessage());
+    }
+    journal = null;
+  }
+
+  private Counter counter(long shelterId) {
+    ensureLoaded();
+    Counter counter = counters.get(shelterId);
+    if (counter != null) {
+      return counter;
+    }
+    return counters.computeIfAbsent(shelterId, id ->
+            shelterCheckInRepository.findShelterOccupancy(id).map(Counter::new)
+                    .orElseThrow(() -> new ResourceNotFoundException("Shelter not found")));
+  }
+
+  /**
+   * Opens the journal and writes check-ins left in it by a crash to the database, unless
+   * the database already has them.
+   */
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (journalLock) {
+      if (loaded) {
+        return;
+      }
+      long checkpoint = shelterCheckInRepository.getCheckpoint();
+      long journalGeneration = 0;
+      if (journalPath != null) {
+        try {
+          journal = ShelterCheckInJournal.open(journalPath);
+        } catch (IOException e) {
+          throw new IllegalStateException("Could not open the shelter check-in journal", e);
+        }
+        journalGeneration = journal.getGeneration();
+        Map<Long, Integer> recorded = journal.getRecorded();
+        if (journalGeneration > checkpoint && !recorded.isEmpty()) {
+          try {
+            write(recorded, journalGeneration);
+          } catch (RuntimeException e) {
+            closeJournal();
+            throw e;
+          }
+          logger.info("Replayed check-ins of " + recorded.size() + " shelters from the "
+                  + "journal");
+        }
+      }
+      rotate(Math.max(checkpoint, journalGeneration) + 1);
+      loaded = true;
+    }
+  }
+
+  private static void validatePeople(int people) {
+    if (people < 1 || people > MAX_PEOPLE_PER_REQUEST) {
+      throw new IllegalArgumentException("Number of people must be between 1 and "
+              + MAX_PEOPLE_PER_REQUEST);
+    }
+  }
+
+  private static ShelterOccupancyResponse toResponse(long shelterId, Counter counter) {
+    return new ShelterOccupancyResponse(shelterId, counter.capacity,
+            (int) counter.checkedIn.sum());
+  }
+
+  /**
+   * The check-in counters of one shelter.
+   */
+  private static final class Counter {
+    private final LongAdder checkedIn = new LongAdder();
+    private final LongAdder unjournaled = new LongAdder();
+    private volatile Integer capacity;
+
+    private Counter(ShelterOccupancy occupancy) {
+      checkedIn.add(occupancy.getCheckedIn());
+      capacity = occupancy.getCapacity();
+    }
+  }
+}
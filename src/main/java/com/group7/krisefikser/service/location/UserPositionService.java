@@ -3,12 +3,16 @@ package com.group7.krisefikser.service.location;
 import com.group7.krisefikser.dto.request.location.SharePositionRequest;
 import com.group7.krisefikser.dto.response.location.GroupMemberPositionResponse;
 import com.group7.krisefikser.dto.response.location.HouseholdMemberPositionResponse;
+import com.group7.krisefikser.dto.response.location.PositionHistoryPointResponse;
 import com.group7.krisefikser.mapper.location.UserPositionMapper;
 import com.group7.krisefikser.model.location.UserPosition;
 import com.group7.krisefikser.repository.location.UserPositionRepository;
+import java.time.LocalDateTime;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Service class for managing user positions.
@@ -19,11 +23,14 @@ import org.springframework.stereotype.Service;
 public class UserPositionService {
 
   private final UserPositionRepository userPositionRepository;
+  private final UserPositionStore userPositionStore;
+  private final PositionStreamService positionStreamService;
+  private final PositionHistoryService positionHistoryService;
 
   /**
    * Shares the user's position.
-   * If the user is already sharing a position, it updates the existing position.
-   * Otherwise, it adds a new position.
+   * The position replaces any earlier position of the user in the position store, which
+   * writes it to the database in the background.
    *
    * @param request The request containing the user's position details.
    */
@@ -33,13 +40,8 @@ public class UserPositionService {
     String userId = SecurityContextHolder.getContext().getAuthentication().getName();
     userPosition.setUserId(Long.parseLong(userId));
 
-    boolean isSharingPosition = userPositionRepository.isSharingPosition(userPosition.getUserId());
-
-    if (!isSharingPosition) {
-      userPositionRepository.addUserPosition(userPosition);
-    } else {
-      userPositionRepository.updateUserPosition(userPosition);
-    }
+    userPositionStore.record(userPosition.getUserId(), userPosition.getLatitude(),
+        userPosition.getLongitude());
   }
 
   /**
@@ -49,33 +51,35 @@ public class UserPositionService {
    */
   public boolean isSharingPosition() {
     String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-    return userPositionRepository.isSharingPosition(Long.parseLong(userId));
+    return userPositionStore.isSharing(Long.parseLong(userId));
   }
 
   /**
    * Retrieves the household positions of the user.
+   * The members are read from the database and their coordinates from the position store.
    *
    * @return An array of HouseholdMemberPositionResponse
    *        containing the positions of household members.
    */
   public HouseholdMemberPositionResponse[] getHouseholdPositions() {
     String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-    UserPosition[] userPositions = userPositionRepository
-        .getHouseholdPositions(Long.parseLong(userId));
+    UserPosition[] userPositions = userPositionStore.withLatestCoordinates(
+        userPositionRepository.getHouseholdPositions(Long.parseLong(userId)));
     return UserPositionMapper.INSTANCE.userPositionArrayToHouseholdMemberPositionResponseArray(
             userPositions);
   }
 
   /**
    * Retrieves the emergency group member positions of the user.
+   * The members are read from the database and their coordinates from the position store.
    *
    * @return An array of HouseholdMemberPositionResponse
    *        containing the positions of household members.
    */
   public GroupMemberPositionResponse[] getGroupPositions() {
     String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-    UserPosition[] userPositions = userPositionRepository
-        .getGroupPositions(Long.parseLong(userId));
+    UserPosition[] userPositions = userPositionStore.withLatestCoordinates(
+        userPositionRepository.getGroupPositions(Long.parseLong(userId)));
     return UserPositionMapper.INSTANCE.userPositionArrayToGroupMemberPositionResponseArray(
         userPositions);
   }
@@ -86,6 +90,33 @@ public class UserPositionService {
    */
   public void deleteUserPosition() {
     String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-    userPositionRepository.deleteUserPosition(Long.parseLong(userId));
+    userPositionStore.remove(Long.parseLong(userId));
+  }
+
+  /**
+   * Subscribes the user to live positions of their household and emergency group members.
+   *
+   * @return the emitter the position events are sent through
+   * @throws IllegalStateException if the server has no room for more subscribers
+   */
+  public SseEmitter subscribeToPositions() {
+    String userId = SecurityContextHolder.getContext().getAuthentication().getName();
+    return positionStreamService.subscribe(Long.parseLong(userId));
+  }
+
+  /**
+   * Retrieves the position history of the user or of a member of their household or
+   * emergency group.
+   *
+   * @param userId The ID of the user whose history is retrieved.
+   * @param from   The start of the time range.
+   * @param to     The end of the time range.
+   * @return The positions in the range, ordered by time.
+   */
+  public List<PositionHistoryPointResponse> getPositionHistory(Long userId,
+                                                               LocalDateTime from,
+                                                               LocalDateTime to) {
+    String viewerId = SecurityContextHolder.getContext().getAuthentication().getName();
+    return positionHistoryService.getHistory(Long.parseLong(viewerId), userId, from, to);
   }
 }
@@ -0,0 +1,233 @@
+package com.group7.krisefikser.service.location;
+
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import com.group7.krisefikser.model.location.UserPosition;
+import com.group7.krisefikser.repository.location.UserPositionRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory store of the latest shared position of every user, written behind to the
+ * database.
+ * A shared position replaces the user's entry in a map and marks the user as dirty, so any
+ * number of updates from the same user between two flushes cost one write. A background
+ * thread flushes the dirty users at a fixed interval as one batched upsert, and the
+ * remaining dirty users are flushed on shutdown. The latest positions are read from the map,
+ * which is loaded from the database on first use.
+ * Stopping to share is written through immediately, since a position the user withdrew must
+ * not linger in the database. The delete takes the same lock as a flush, so a flush in
+ * progress cannot write the position back after it was deleted.
+ * Every change is published as a {@link UserPositionChangedEvent} when it is recorded, not
+ * when it is flushed.
+ */
+@Component
+public class UserPositionStore {
+  static final long FLUSH_INTERVAL_MILLIS = 2000;
+  private static final Logger logger = Logger.getLogger(UserPositionStore.class.getName());
+
+  private final UserPositionRepository userPositionRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<Long, UserPosition> latest = new ConcurrentHashMap<>();
+  private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+  private final Object flushLock = new Object();
+  private final LongAdder received = new LongAdder();
+  private final LongAdder written = new LongAdder();
+  private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("user-position-flush").factory());
+  private volatile boolean loaded;
+
+  /**
+   * Constructor for UserPositionStore.
+   *
+   * @param userPositionRepository the repository the positions are loaded from and written to
+   * @param eventPublisher         the publisher used to announce position changes
+   */
+  @Autowired
+  public UserPositionStore(UserPositionRepository userPositionRepository,
+                           ApplicationEventPublisher eventPublisher) {
+    this.userPositionRepository = userPositionRepository;
+    this.eventPublisher = eventPublisher;
+    flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Records the latest position of a user.
+   * The position is visible to readers immediately and written to the database by the next
+   * flush.
+   *
+   * @param userId    the id of the user
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   */
+  public void record(long userId, double latitude, double longitude) {
+    ensureLoaded();
+    UserPosition userPosition = new UserPosition();
+    userPosition.setUserId(userId);
+    userPosition.setLatitude(latitude);
+    userPosition.setLongitude(longitude);
+    latest.put(userId, userPosition);
+    dirty.add(userId);
+    received.increment();
+    eventPublisher.publishEvent(new UserPositionChangedEvent(userId, latitude, longitude));
+  }
+
+  /**
+   * Returns the latest position of a user.
+   *
+   * @param userId the id of the user
+   * @return the position, or null if the user is not sharing their position
+   */
+  public UserPosition get(long userId) {
+    ensureLoaded();
+    return latest.get(userId);
+  }
+
+  /**
+   * Checks whether a user is sharing their position.
+   *
+   * @param userId the id of the user
+   * @return true if the store holds a position for the user
+   */
+  public boolean isSharing(long userId) {
+    ensureLoaded();
+    return latest.containsKey(userId);
+  }
+
+  /**
+   * Replaces the coordinates of the given positions with the latest recorded ones.
+   * Positions of users that stopped sharing are left out.
+   *
+   * @param userPositions positions read from the database
+   * @return the positions with their latest coordinates
+   */
+  public UserPosition[] withLatestCoordinates(UserPosition[] userPositions) {
+    ensureLoaded();
+    List<UserPosition> result = new ArrayList<>(userPositions.length);
+    for (UserPosition userPosition : userPositions) {
+      UserPosition current = latest.get(userPosition.getUserId());
+      if (current != null) {
+        userPosition.setLatitude(current.getLatitude());
+        userPosition.setLongitude(current.getLongitude());
+        result.add(userPosition);
+      }
+    }
+    return result.toArray(new UserPosition[0]);
+  }
+
+  /**
+   * Removes the position of a user from the store and the database.
+   *
+   * @param userId the id of the user
+   */
+  public void remove(long userId) {
+    ensureLoaded();
+    synchronized (flushLock) {
+      latest.remove(userId);
+      dirty.remove(userId);
+      userPositionRepository.deleteUserPosition(userId);
+    }
+    eventPublisher.publishEvent(new UserPositionChangedEvent(userId, null, null));
+  }
+
+  /**
+   * Writes the positions recorded since the last flush to the database.
+   * If the batch fails, the positions are written one by one so a single bad row, such as
+   * the position of a user deleted in the meantime, does not hold back the others. Rows that
+   * violate a constraint are dropped. If a row fails for another reason, such as the
+   * database being unavailable, it and the rows after it are kept for the next flush.
+   *
+   * @return the number of positions written
+   */
+  public int flush() {
+    synchronized (flushLock) {
+      if (dirty.isEmpty()) {
+        return 0;
+      }
+      List<UserPosition> batch = new ArrayList<>();
+      for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+        Long userId = it.next();
+        it.remove();
+        UserPosition userPosition = latest.get(userId);
+        if (userPosition != null) {
+          batch.add(userPosition);
+        }
+      }
+      int count = batch.size();
+      try {
+        userPositionRepository.upsertUserPositions(batch);
+      } catch (DataAccessException e) {
+        logger.log(Level.WARNING, "Batched position flush failed, writing rows one by one", e);
+        count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+          UserPosition userPosition = batch.get(i);
+          try {
+            userPositionRepository.upsertUserPositions(List.of(userPosition));
+            count++;
+          } catch (DataIntegrityViolationException rowFailure) {
+            logger.warning("Dropping position of user " + userPosition.getUserId() + ": "
+                    + rowFailure.getMessage());
+            latest.remove(userPosition.getUserId(), userPosition);
+          } catch (DataAccessException rowFailure) {
+            logger.warning("Could not write positions, retrying " + (batch.size() - i)
+                    + " of them on the next flush: " + rowFailure.getMessage());
+            for (UserPosition remaining : batch.subList(i, batch.size())) {
+              dirty.add(remaining.getUserId());
+            }
+            break;
+          }
+        }
+      }
+      written.add(count);
+      logger.fine(() -> "Flushed " + batch.size() + " positions, " + written.sum()
+              + " written for " + received.sum() + " received");
+      return count;
+    }
+  }
+
+  /**
+   * Flushes the remaining positions and stops the background flush.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (loaded) {
+      flush();
+    }
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          for (UserPosition userPosition : userPositionRepository.getAllUserPositions()) {
+            latest.put(userPosition.getUserId(), userPosition);
+          }
+          loaded = true;
+          logger.info("Loaded " + latest.size() + " shared positions");
+        }
+      }
+    }
+  }
+}
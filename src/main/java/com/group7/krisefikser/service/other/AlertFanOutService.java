@@ -0,0 +1,141 @@
+package com.group7.krisefikser.service.other;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.event.DangerZoneTransitionEvent;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.repository.other.AlertRepository;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
+import com.group7.krisefikser.service.location.UserPositionStore;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that alerts the users inside an affected area when the area is created or
+ * updated.
+ * The fan-out runs asynchronously after the change is committed, so it never delays the
+ * admin request. Candidates are read from the households and shared user positions inside
+ * the bounding box of the outermost danger zone, which the location indexes answer without
+ * scanning the tables, and classified against the danger zones of the area in memory. Shared
+ * positions are written behind by the {@link UserPositionStore}, so the store is flushed
+ * first and the scan sees the latest position of every user. A
+ * user gets one alert per area, with the most dangerous zone of their household and shared
+ * position, and the alerts are written in JDBC batches. When an area is updated, the alerts
+ * of users it no longer covers are withdrawn.
+ * Users who walk into a danger zone after the area was created are alerted one by one as
+ * their shared position enters it.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertFanOutService {
+  private static final Logger logger = Logger.getLogger(AlertFanOutService.class.getName());
+
+  private final AlertRepository alertRepository;
+  private final UserPositionStore userPositionStore;
+
+  /**
+   * Alerts the users inside an affected area that was created or updated.
+   * Deleted areas need no fan-out, since their alerts are removed with them.
+   *
+   * @param event the change event
+   */
+  @Async
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAffectedAreaChanged(AffectedAreaChangedEvent event) {
+    AffectedArea area = event.getAffectedArea();
+    if (area == null || area.getLatitude() == null || area.getLongitude() == null) {
+      return;
+    }
+    try {
+      fanOut(event.getAffectedAreaId(), area);
+    } catch (Exception e) {
+      logger.severe("Error alerting users of affected area " + event.getAffectedAreaId()
+              + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Alerts a user whose shared position entered a danger zone. A user already alerted for
+   * the area at the same level keeps the alert as it is.
+   *
+   * @param event the transition event
+   */
+  @Async
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDangerZoneTransition(DangerZoneTransitionEvent event) {
+    if (!event.isEntry()) {
+      return;
+    }
+    try {
+      alertRepository.upsertAlerts(event.getAreaId(),
+              Map.of(event.getUserId(), event.getLevel()), LocalDateTime.now());
+    } catch (Exception e) {
+      logger.severe("Error alerting user " + event.getUserId() + " of affected area "
+              + event.getAreaId() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Writes an alert for every user whose household or shared position is inside a danger
+   * zone of an affected area.
+   * Alerts of users who are no longer inside any zone, because the area was moved or shrunk
+   * or the user moved away, are deleted, so the inbox only lists areas the user is in.
+   *
+   * @param affectedAreaId the ID of the affected area
+   * @param area           the affected area
+   * @return the number of users alerted
+   */
+  public int fanOut(long affectedAreaId, AffectedArea area) {
+    long start = System.nanoTime();
+    userPositionStore.flush();
+    AffectedAreaIndex.Footprint footprint = AffectedAreaIndex.footprintOf(area);
+    Map<Long, DangerLevel> recipients = new HashMap<>();
+    AlertRepository.CandidateHandler classifier = (userId, latitude, longitude) -> {
+      DangerLevel level = footprint.levelAt(latitude, longitude);
+      if (level != DangerLevel.NONE) {
+        recipients.merge(userId, level, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+      }
+    };
+
+    double minLongitude = footprint.getMinLongitude();
+    double maxLongitude = footprint.getMaxLongitude();
+    if (minLongitude <= maxLongitude) {
+      scan(footprint.getMinLatitude(), minLongitude, footprint.getMaxLatitude(), maxLongitude,
+              classifier);
+    } else {
+      scan(footprint.getMinLatitude(), minLongitude, footprint.getMaxLatitude(), 180,
+              classifier);
+      scan(footprint.getMinLatitude(), -180, footprint.getMaxLatitude(), maxLongitude,
+              classifier);
+    }
+
+    if (!recipients.isEmpty()) {
+      alertRepository.upsertAlerts(affectedAreaId, recipients, LocalDateTime.now());
+    }
+    List<Long> stale = alertRepository.getAlertedUserIds(affectedAreaId).stream()
+            .filter(userId -> !recipients.containsKey(userId))
+            .toList();
+    if (!stale.isEmpty()) {
+      alertRepository.deleteAlerts(affectedAreaId, stale);
+    }
+    logger.info("Alerted " + recipients.size() + " users of affected area " + affectedAreaId
+            + " and withdrew " + stale.size() + " alerts in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+    return recipients.size();
+  }
+
+  private void scan(double minLatitude, double minLongitude, double maxLatitude,
+                    double maxLongitude, AlertRepository.CandidateHandler classifier) {
+    alertRepository.forEachHouseholdMemberInBox(minLatitude, minLongitude, maxLatitude,
+            maxLongitude, classifier);
+    alertRepository.forEachSharedPositionInBox(minLatitude, minLongitude, maxLatitude,
+            maxLongitude, classifier);
+  }
+}
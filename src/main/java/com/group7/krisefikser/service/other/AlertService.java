@@ -0,0 +1,60 @@
+package com.group7.krisefikser.service.other;
+
+import com.group7.krisefikser.dto.response.other.AlertResponse;
+import com.group7.krisefikser.dto.response.other.UnreadAlertCountResponse;
+import com.group7.krisefikser.repository.other.AlertRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for the alert inbox of the current user.
+ * The alerts are written by the {@link AlertFanOutService} when an affected area is created
+ * or updated.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertService {
+  static final int MAX_ALERTS = 50;
+
+  private final AlertRepository alertRepository;
+
+  /**
+   * Retrieves the most recent alerts of the current user.
+   *
+   * @return the alerts, newest first
+   */
+  public List<AlertResponse> getAlerts() {
+    return alertRepository.getAlertsByUserId(currentUserId(), MAX_ALERTS).stream()
+            .map(alert -> new AlertResponse(
+                    alert.getId(),
+                    alert.getAffectedAreaId(),
+                    alert.getAffectedAreaName(),
+                    alert.getDangerLevel().name(),
+                    alert.getCreatedAt().toString(),
+                    alert.isRead()
+            ))
+            .toList();
+  }
+
+  /**
+   * Counts the unread alerts of the current user.
+   *
+   * @return the number of unread alerts
+   */
+  public UnreadAlertCountResponse getUnreadCount() {
+    return new UnreadAlertCountResponse(alertRepository.countUnreadAlerts(currentUserId()));
+  }
+
+  /**
+   * Marks all alerts of the current user as read.
+   */
+  public void markAllAsRead() {
+    alertRepository.markAllAsRead(currentUserId());
+  }
+
+  private long currentUserId() {
+    return Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getName());
+  }
+}
@@ -0,0 +1,276 @@
+package com.group7.krisefikser.service.other;
+
+import com.group7.krisefikser.dto.response.other.IncidentUpdateResponse;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
+import com.group7.krisefikser.spatial.GridIndex;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service that pushes incident notifications to clients over Server-Sent Events.
+ * A subscriber registers its position and first receives the incidents whose medium danger
+ * zone contains it, the same incidents the polling endpoint returns. Afterwards a change to
+ * an affected area only reaches the subscribers inside the bounding box of the area's
+ * zones, which are looked up in a grid index of subscriber positions, and of those only the
+ * ones for which the incident appeared, changed or was resolved.
+ * Idle connections hold no thread. Events are queued in a small bounded buffer per
+ * connection and written by a virtual thread, so a slow client never blocks the change
+ * handler; a client whose buffer overflows is disconnected and reconnects to get a fresh
+ * snapshot. A comment is sent to every subscriber at a fixed interval to keep proxies from
+ * closing idle connections and to detect clients that went away.
+ */
+@Service
+public class IncidentStreamService {
+  static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  static final long HEARTBEAT_SECONDS = 20;
+  static final int BUFFER_SIZE = 16;
+  static final int MAX_SUBSCRIBERS = 50_000;
+  static final double CELL_DEGREES = 0.1;
+  private static final Logger logger = Logger.getLogger(IncidentStreamService.class.getName());
+
+  private final AffectedAreaIndex affectedAreaIndex;
+  private final GridIndex<Subscriber> subscribers = new GridIndex<>(CELL_DEGREES);
+  private final Map<Long, Subscriber> subscribersById = new ConcurrentHashMap<>();
+  private final Map<Long, Set<Subscriber>> subscribersByArea = new HashMap<>();
+  private final AtomicLong nextId = new AtomicLong();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("incident-stream-heartbeat").factory());
+
+  /**
+   * Constructor for IncidentStreamService.
+   *
+   * @param affectedAreaIndex the index the incidents are looked up in
+   */
+  @Autowired
+  public IncidentStreamService(AffectedAreaIndex affectedAreaIndex) {
+    this.affectedAreaIndex = affectedAreaIndex;
+    heartbeats.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS,
+            TimeUnit.SECONDS);
+  }
+
+  /**
+   * Subscribes a client at a position to incident updates.
+   * The first event, named "incidents", holds the current incidents at the position. Later
+   * events are named "incident" for an incident that appeared or changed and "resolved" for
+   * an incident that no longer covers the position.
+   *
+   * @param latitude  the latitude of the client
+   * @param longitude the longitude of the client
+   * @return the emitter of the subscription
+   * @throws IllegalArgumentException if the coordinates are invalid
+   * @throws IllegalStateException    if the server has no room for more subscribers
+   */
+  public SseEmitter subscribe(double latitude, double longitude) {
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    if (subscribersById.size() >= MAX_SUBSCRIBERS) {
+      throw new IllegalStateException("Too many incident stream subscribers");
+    }
+    SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+    Subscriber subscriber = new Subscriber(nextId.incrementAndGet(), latitude, longitude,
+            emitter);
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(() -> unsubscribe(subscriber));
+    emitter.onError(e -> unsubscribe(subscriber));
+
+    List<IncidentUpdateResponse> incidents = new ArrayList<>();
+    synchronized (this) {
+      for (AffectedArea area : affectedAreaIndex.findAreasInMediumDangerZone(latitude,
+              longitude)) {
+        subscriber.areaIds.add(area.getId());
+        subscribersByArea.computeIfAbsent(area.getId(), id -> new HashSet<>()).add(subscriber);
+        incidents.add(toResponse(area));
+      }
+      subscribersById.put(subscriber.id, subscriber);
+      subscribers.put(subscriber.id, latitude, longitude, subscriber);
+    }
+    enqueue(subscriber, SseEmitter.event().name("incidents").data(incidents));
+    return emitter;
+  }
+
+  /**
+   * Returns the number of open subscriptions.
+   *
+   * @return the number of subscribers
+   */
+  public int getSubscriberCount() {
+    return subscribersById.size();
+  }
+
+  /**
+   * Pushes a change to an affected area to the subscribers it concerns.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onAffectedAreaChanged(AffectedAreaChangedEvent event) {
+    long areaId = event.getAffectedAreaId();
+    AffectedArea area = event.getAffectedArea();
+    Set<Subscriber> previous = subscribersByArea.remove(areaId);
+    Set<Subscriber> current = new HashSet<>();
+
+    if (area != null && area.getLatitude() != null && area.getLongitude() != null) {
+      AffectedAreaIndex.Footprint footprint = AffectedAreaIndex.footprintOf(area);
+      IncidentUpdateResponse incident = toResponse(area);
+      subscribers.queryBox(footprint.getMinLatitude(), footprint.getMinLongitude(),
+              footprint.getMaxLatitude(), footprint.getMaxLongitude(), subscriber -> {
+                DangerLevel level = footprint.levelAt(subscriber.latitude, subscriber.longitude);
+                if (level.compareTo(DangerLevel.MEDIUM) >= 0) {
+                  current.add(subscriber);
+                  subscriber.areaIds.add(areaId);
+                  enqueue(subscriber, SseEmitter.event().name("incident").data(incident));
+                }
+              });
+    }
+    if (previous != null) {
+      IncidentUpdateResponse resolved = new IncidentUpdateResponse(areaId, null, null, null);
+      for (Subscriber subscriber : previous) {
+        if (!current.contains(subscriber)) {
+          subscriber.areaIds.remove(areaId);
+          enqueue(subscriber, SseEmitter.event().name("resolved").data(resolved));
+        }
+      }
+    }
+    if (!current.isEmpty()) {
+      subscribersByArea.put(areaId, current);
+    }
+  }
+
+  /**
+   * Closes all subscriptions and stops the sender and heartbeat threads.
+   */
+  @PreDestroy
+  public void shutdown() {
+    heartbeats.shutdownNow();
+    for (Subscriber subscriber : subscribersById.values()) {
+      close(subscriber);
+    }
+    senders.shutdown();
+  }
+
+  private void sendHeartbeats() {
+    for (Subscriber subscriber : subscribersById.values()) {
+      if (subscriber.queue.isEmpty()) {
+        enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+      }
+    }
+  }
+
+  private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+    if (subscriber.closed) {
+      return;
+    }
+    if (!subscriber.queue.offer(event)) {
+      logger.info("Disconnecting slow incident stream subscriber " + subscriber.id);
+      close(subscriber);
+      return;
+    }
+    if (subscriber.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  /**
+   * Writes the queued events of a subscriber. Only one drain runs per subscriber at a time,
+   * and a drain that finds new events after releasing the flag takes it again, so no event
+   * is left behind.
+   */
+  private void drain(Subscriber subscriber) {
+    do {
+      SseEmitter.SseEventBuilder event;
+      while ((event = subscriber.queue.poll()) != null) {
+        try {
+          subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+          close(subscriber);
+          return;
+        }
+      }
+      subscriber.draining.set(false);
+    } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+  }
+
+  private void close(Subscriber subscriber) {
+    if (unsubscribe(subscriber)) {
+      try {
+        subscriber.emitter.complete();
+      } catch (IllegalStateException e) {
+        logger.fine("Incident stream subscriber " + subscriber.id + " already closed");
+      }
+    }
+  }
+
+  /**
+   * Removes a subscriber from the indexes.
+   *
+   * @return true if the subscriber was still registered
+   */
+  private synchronized boolean unsubscribe(Subscriber subscriber) {
+    if (subscriber.closed) {
+      return false;
+    }
+    subscriber.closed = true;
+    subscriber.queue.clear();
+    subscribersById.remove(subscriber.id);
+    subscribers.remove(subscriber.id);
+    for (long areaId : subscriber.areaIds) {
+      Set<Subscriber> areaSubscribers = subscribersByArea.get(areaId);
+      if (areaSubscribers != null) {
+        areaSubscribers.remove(subscriber);
+        if (areaSubscribers.isEmpty()) {
+          subscribersByArea.remove(areaId);
+        }
+      }
+    }
+    return true;
+  }
+
+  private static IncidentUpdateResponse toResponse(AffectedArea area) {
+    return new IncidentUpdateResponse(area.getId(), area.getName(), area.getDescription(),
+            area.getSeverityLevel());
+  }
+
+  private static final class Subscriber {
+    private final long id;
+    private final double latitude;
+    private final double longitude;
+    private final SseEmitter emitter;
+    private final Set<Long> areaIds = new HashSet<>();
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue =
+            new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private Subscriber(long id, double latitude, double longitude, SseEmitter emitter) {
+      this.id = id;
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.emitter = emitter;
+    }
+  }
+}
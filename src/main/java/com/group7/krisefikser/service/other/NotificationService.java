@@ -1,8 +1,10 @@
 package com.group7.krisefikser.service.other;
 
-import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.request.other.NotificationRequest;
 import com.group7.krisefikser.dto.response.other.NotificationResponse;
-import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.dto.response.other.ZoneClassificationResponse;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -17,46 +19,50 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class NotificationService {
 
-  private final AffectedAreaService affectedAreaService;
-  private static final double EARTH_RADIUS_KM = 6371.0;
+  private final AffectedAreaIndex affectedAreaIndex;
 
   /**
    * Retrieves a list of incident notifications.
+   * The affected areas are looked up in the in-memory affected area index, so this method
+   * does not read the database.
    *
    * @return a list of NotificationResponse objects containing details of incidents.
    */
   public List<NotificationResponse> getIncidentsNotification(double lat, double lon) {
     List<NotificationResponse> incidents = new ArrayList<>();
-    for (AffectedAreaResponse area : affectedAreaService.getAllAffectedAreas()) {
-      if (calculateDistance(area.getLatitude(), area.getLongitude(), lat, lon)
-          <= area.getMediumDangerRadiusKm()) {
-        incidents.add(new NotificationResponse(area.getDescription()));
-      }
+    for (AffectedArea area : affectedAreaIndex.findAreasInMediumDangerZone(lat, lon)) {
+      incidents.add(new NotificationResponse(area.getDescription()));
     }
     return incidents;
   }
 
   /**
-   * Calculates the distance between two geographical points using the Haversine formula.
-   * This method is used to determine the distance between two points on the Earth's surface
-   * given their latitude and longitude.
+   * Classifies a batch of positions against the high, medium and low danger zones of all
+   * affected areas in one pass over the in-memory affected area index.
    *
-   * @param lat1 the latitude of the first point
-   * @param lon1 the longitude of the first point
-   * @param lat2 the latitude of the second point
-   * @param lon2 the longitude of the second point
-   * @return the distance in kilometers between the two points
+   * @param points the positions to classify
+   * @return the danger zone and affected area of every position, in the order of the input
    */
-  public static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-    double latDistance = Math.toRadians(lat2 - lat1);
-    double lonDistance = Math.toRadians(lon2 - lon1);
-
-    double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-
-    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  public List<ZoneClassificationResponse> classifyZones(List<NotificationRequest> points) {
+    double[] latitudes = new double[points.size()];
+    double[] longitudes = new double[points.size()];
+    for (int i = 0; i < points.size(); i++) {
+      NotificationRequest point = points.get(i);
+      if (point == null || point.getLatitude() < -90 || point.getLatitude() > 90
+          || point.getLongitude() < -180 || point.getLongitude() > 180) {
+        throw new IllegalArgumentException("Invalid coordinates at index " + i);
+      }
+      latitudes[i] = point.getLatitude();
+      longitudes[i] = point.getLongitude();
+    }
 
-    return EARTH_RADIUS_KM * c;
+    AffectedAreaIndex.ZoneClassification classification =
+        affectedAreaIndex.classify(latitudes, longitudes);
+    List<ZoneClassificationResponse> result = new ArrayList<>(classification.size());
+    for (int i = 0; i < classification.size(); i++) {
+      result.add(new ZoneClassificationResponse(classification.getLevel(i),
+          classification.getAreaId(i)));
+    }
+    return result;
   }
 }
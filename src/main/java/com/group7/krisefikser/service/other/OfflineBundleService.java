@@ -0,0 +1,191 @@
+package com.group7.krisefikser.service.other;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
+import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
+import com.group7.krisefikser.dto.response.other.OfflineBundleResponse;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.event.GeneralInfoChangedEvent;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.model.other.SerializedContent;
+import com.group7.krisefikser.service.article.GeneralInfoService;
+import com.group7.krisefikser.service.article.NewsArticleService;
+import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.service.location.PointOfInterestService;
+import com.group7.krisefikser.utils.ContentUtils;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that builds the offline bundle and keeps it in memory as gzipped JSON.
+ * The bundle is built on first use. After that, a change to a point of interest, an
+ * affected area or general information schedules a rebuild on a background thread, and
+ * changes made within {@value #REBUILD_DELAY_MILLIS} ms of each other share one rebuild.
+ * News articles are not changed through the application, so the bundle is also rebuilt
+ * every {@value #REFRESH_INTERVAL_MINUTES} minutes. Requests get the latest built bundle
+ * and never wait for a rebuild, and a failed rebuild keeps the previous bundle.
+ * The version is derived from the content, so it stays the same across rebuilds and
+ * restarts as long as nothing changed, and clients can cache each version indefinitely.
+ */
+@Service
+public class OfflineBundleService {
+  static final long REBUILD_DELAY_MILLIS = 1000;
+  static final long REFRESH_INTERVAL_MINUTES = 5;
+  static final int MAX_HEADLINES = 20;
+  private static final Logger logger = Logger.getLogger(OfflineBundleService.class.getName());
+
+  private final PointOfInterestService pointOfInterestService;
+  private final AffectedAreaService affectedAreaService;
+  private final GeneralInfoService generalInfoService;
+  private final NewsArticleService newsArticleService;
+  private final ObjectMapper objectMapper;
+  private final AtomicBoolean rebuildPending = new AtomicBoolean();
+  private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().daemon().name("offline-bundle-build").factory());
+  private volatile SerializedContent bundle;
+
+  /**
+   * Constructor for OfflineBundleService.
+   *
+   * @param pointOfInterestService the service the points of interest are read from
+   * @param affectedAreaService    the service the active affected areas are read from
+   * @param generalInfoService     the service the general information is read from
+   * @param newsArticleService     the service the news headlines are read from
+   * @param objectMapper           the mapper used to serialize the bundle
+   */
+  @Autowired
+  public OfflineBundleService(PointOfInterestService pointOfInterestService,
+                              AffectedAreaService affectedAreaService,
+                              GeneralInfoService generalInfoService,
+                              NewsArticleService newsArticleService,
+                              ObjectMapper objectMapper) {
+    this.pointOfInterestService = pointOfInterestService;
+    this.affectedAreaService = affectedAreaService;
+    this.generalInfoService = generalInfoService;
+    this.newsArticleService = newsArticleService;
+    this.objectMapper = objectMapper;
+    builder.scheduleWithFixedDelay(this::refresh, REFRESH_INTERVAL_MINUTES,
+            REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Returns the latest offline bundle, building it if this is the first request.
+   *
+   * @return the bundle
+   */
+  public SerializedContent getBundle() {
+    SerializedContent current = bundle;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (bundle == null) {
+        bundle = build();
+      }
+      return bundle;
+    }
+  }
+
+  /**
+   * Schedules a rebuild after a point of interest changed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPointOfInterestChanged(PointOfInterestChangedEvent event) {
+    scheduleRebuild();
+  }
+
+  /**
+   * Schedules a rebuild after an affected area changed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAffectedAreaChanged(AffectedAreaChangedEvent event) {
+    scheduleRebuild();
+  }
+
+  /**
+   * Schedules a rebuild after general information changed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGeneralInfoChanged(GeneralInfoChangedEvent event) {
+    scheduleRebuild();
+  }
+
+  /**
+   * Builds the bundle again and replaces the current one, unless the build fails.
+   */
+  void rebuild() {
+    rebuildPending.set(false);
+    try {
+      SerializedContent built = build();
+      synchronized (this) {
+        bundle = built;
+      }
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Could not rebuild the offline bundle, keeping version "
+              + (bundle == null ? "none" : bundle.getVersion()), e);
+    }
+  }
+
+  /**
+   * Stops the background rebuilds.
+   */
+  @PreDestroy
+  public void shutdown() {
+    builder.shutdownNow();
+  }
+
+  private void scheduleRebuild() {
+    if (rebuildPending.compareAndSet(false, true)) {
+      builder.schedule(this::rebuild, REBUILD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void refresh() {
+    if (bundle != null) {
+      rebuild();
+    }
+  }
+
+  private SerializedContent build() {
+    Map<String, List<GeneralInfoResponse>> generalInfo = generalInfoService.getAllGeneralInfo()
+            .stream()
+            .collect(Collectors.groupingBy(GeneralInfoResponse::getTheme, TreeMap::new,
+                    Collectors.toList()));
+    List<ShortenedNewsArticleResponse> news = newsArticleService.getAllNewsArticles().stream()
+            .limit(MAX_HEADLINES)
+            .toList();
+    OfflineBundleResponse content = new OfflineBundleResponse(null,
+            pointOfInterestService.getAllPointsOfInterest(),
+            affectedAreaService.getActiveAffectedAreas(), generalInfo, news);
+    try {
+      content.setVersion(ContentUtils.versionOf(objectMapper.writeValueAsBytes(content)));
+      byte[] json = objectMapper.writeValueAsBytes(content);
+      SerializedContent built = new SerializedContent(content.getVersion(), json,
+              ContentUtils.gzip(json));
+      logger.info("Built offline bundle version " + built.getVersion() + ", "
+              + built.getGzipped().length + " bytes gzipped");
+      return built;
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize the offline bundle", e);
+    }
+  }
+}
@@ -0,0 +1,335 @@
+package com.group7.krisefikser.spatial;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Precomputed clusters of points for every map zoom level.
+ * Each zoom level divides the Web Mercator square into cells of {@link #CELL_PIXELS} screen
+ * pixels, so a cell at one level is split into four cells at the next level. Every cell keeps
+ * the number of points, the sum of their coordinates and the sum of their IDs per category,
+ * which gives the count, centroid and category breakdown of a cluster, and the ID of its
+ * only point when it holds one. Adding or removing a point updates one cell per level, so
+ * the pyramid never has to be rebuilt, and a query returns at most one cluster per cell in
+ * the viewport whatever the number of points.
+ * Cells are immutable and replaced on every change, so queries read without locking while
+ * writers are serialized.
+ */
+public final class ClusterPyramid {
+  public static final int CELL_PIXELS = 64;
+  private static final int TILE_PIXELS = 256;
+  private static final double MAX_LATITUDE = 85.05112878;
+
+  private final int maxZoom;
+  private final int categories;
+  private final Map<Long, Cell>[] levels;
+  private final Map<Long, Point> points = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an empty pyramid.
+   *
+   * @param maxZoom    the deepest zoom level to precompute, from 0 to 20
+   * @param categories the number of categories points can belong to
+   */
+  @SuppressWarnings("unchecked")
+  public ClusterPyramid(int maxZoom, int categories) {
+    if (maxZoom < 0 || maxZoom > 20) {
+      throw new IllegalArgumentException("Max zoom must be between 0 and 20");
+    }
+    if (categories < 1) {
+      throw new IllegalArgumentException("At least one category is required");
+    }
+    this.maxZoom = maxZoom;
+    this.categories = categories;
+    this.levels = new Map[maxZoom + 1];
+    for (int zoom = 0; zoom <= maxZoom; zoom++) {
+      levels[zoom] = new ConcurrentHashMap<>();
+    }
+  }
+
+  /**
+   * Returns the deepest precomputed zoom level.
+   *
+   * @return the max zoom level
+   */
+  public int getMaxZoom() {
+    return maxZoom;
+  }
+
+  /**
+   * Returns the number of points in the pyramid.
+   *
+   * @return the number of points
+   */
+  public int size() {
+    return points.size();
+  }
+
+  /**
+   * Adds a point, replacing any point previously added under the same ID.
+   *
+   * @param id        the ID of the point
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @param category  the category of the point, from 0 to categories - 1
+   */
+  public synchronized void put(long id, double latitude, double longitude, int category) {
+    if (category < 0 || category >= categories) {
+      throw new IllegalArgumentException("Category out of range: " + category);
+    }
+    remove(id);
+    Point point = new Point(latitude, longitude, category, mercatorX(longitude),
+            mercatorY(latitude));
+    points.put(id, point);
+    for (int zoom = 0; zoom <= maxZoom; zoom++) {
+      long key = cellKey(zoom, point.x, point.y);
+      Cell current = levels[zoom].get(key);
+      levels[zoom].put(key, (current != null ? current : new Cell(categories))
+              .with(point, id, 1));
+    }
+  }
+
+  /**
+   * Removes the point with the given ID.
+   *
+   * @param id the ID of the point
+   * @return true if a point was removed
+   */
+  public synchronized boolean remove(long id) {
+    Point point = points.remove(id);
+    if (point == null) {
+      return false;
+    }
+    for (int zoom = 0; zoom <= maxZoom; zoom++) {
+      long key = cellKey(zoom, point.x, point.y);
+      Cell updated = levels[zoom].get(key).with(point, id, -1);
+      if (updated.total == 0) {
+        levels[zoom].remove(key);
+      } else {
+        levels[zoom].put(key, updated);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Removes all points.
+   */
+  public synchronized void clear() {
+    points.clear();
+    for (Map<Long, Cell> level : levels) {
+      level.clear();
+    }
+  }
+
+  /**
+   * Visits the clusters of a zoom level that lie inside a bounding box.
+   * Zoom levels deeper than the max zoom are answered from the max zoom level. A box with a
+   * minimum longitude greater than its maximum longitude crosses the antimeridian.
+   *
+   * @param zoom               the map zoom level
+   * @param minLatitude        the southern edge of the box
+   * @param minLongitude       the western edge of the box
+   * @param maxLatitude        the northern edge of the box
+   * @param maxLongitude       the eastern edge of the box
+   * @param includedCategories the categories to count, or null for all categories
+   * @param visitor            receives every cluster with at least one point in the
+   *                           included categories
+   */
+  public void query(int zoom, double minLatitude, double minLongitude, double maxLatitude,
+                    double maxLongitude, boolean[] includedCategories,
+                    Consumer<Cluster> visitor) {
+    if (zoom < 0) {
+      throw new IllegalArgumentException("Zoom must not be negative");
+    }
+    if (minLongitude > maxLongitude) {
+      query(zoom, minLatitude, minLongitude, maxLatitude, 180, includedCategories, visitor);
+      query(zoom, minLatitude, -180, maxLatitude, maxLongitude, includedCategories, visitor);
+      return;
+    }
+    int level = Math.min(zoom, maxZoom);
+    long cellsPerSide = cellsPerSide(level);
+    int minColumn = cellIndex(mercatorX(minLongitude), cellsPerSide);
+    int maxColumn = cellIndex(mercatorX(maxLongitude), cellsPerSide);
+    int minRow = cellIndex(mercatorY(maxLatitude), cellsPerSide);
+    int maxRow = cellIndex(mercatorY(minLatitude), cellsPerSide);
+    long cellsInBox = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+
+    Map<Long, Cell> cells = levels[level];
+    if (cellsInBox > cells.size()) {
+      for (Map.Entry<Long, Cell> cell : cells.entrySet()) {
+        long key = cell.getKey();
+        long row = key / cellsPerSide;
+        long column = key % cellsPerSide;
+        if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+          emit(cell.getValue(), includedCategories, visitor);
+        }
+      }
+      return;
+    }
+    for (long row = minRow; row <= maxRow; row++) {
+      for (long column = minColumn; column <= maxColumn; column++) {
+        Cell cell = cells.get(row * cellsPerSide + column);
+        if (cell != null) {
+          emit(cell, includedCategories, visitor);
+        }
+      }
+    }
+  }
+
+  private void emit(Cell cell, boolean[] includedCategories, Consumer<Cluster> visitor) {
+    int count = 0;
+    double sumLatitude = 0;
+    double sumLongitude = 0;
+    long sumIds = 0;
+    int[] counts = new int[categories];
+    for (int c = 0; c < categories; c++) {
+      if (includedCategories == null || includedCategories[c]) {
+        counts[c] = cell.counts[c];
+        count += cell.counts[c];
+        sumLatitude += cell.sumLatitudes[c];
+        sumLongitude += cell.sumLongitudes[c];
+        sumIds += cell.sumIds[c];
+      }
+    }
+    if (count > 0) {
+      visitor.accept(new Cluster(count, sumLatitude / count, sumLongitude / count,
+              counts, count == 1 ? sumIds : -1));
+    }
+  }
+
+  private static double mercatorX(double longitude) {
+    return (longitude + 180) / 360;
+  }
+
+  private static double mercatorY(double latitude) {
+    double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+    double sin = Math.sin(Math.toRadians(clamped));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  private static long cellsPerSide(int zoom) {
+    return ((long) TILE_PIXELS / CELL_PIXELS) << zoom;
+  }
+
+  private static int cellIndex(double mercator, long cellsPerSide) {
+    long index = (long) Math.floor(mercator * cellsPerSide);
+    return (int) Math.max(0, Math.min(cellsPerSide - 1, index));
+  }
+
+  private static long cellKey(int zoom, double x, double y) {
+    long cellsPerSide = cellsPerSide(zoom);
+    return cellIndex(y, cellsPerSide) * cellsPerSide + cellIndex(x, cellsPerSide);
+  }
+
+  /**
+   * A cluster of points in one cell of a zoom level.
+   */
+  public static final class Cluster {
+    private final int count;
+    private final double latitude;
+    private final double longitude;
+    private final int[] categoryCounts;
+    private final long pointId;
+
+    private Cluster(int count, double latitude, double longitude, int[] categoryCounts,
+                    long pointId) {
+      this.count = count;
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.categoryCounts = categoryCounts;
+      this.pointId = pointId;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public double getLatitude() {
+      return latitude;
+    }
+
+    public double getLongitude() {
+      return longitude;
+    }
+
+    /**
+     * Returns the number of points of a category in the cluster.
+     *
+     * @param category the category
+     * @return the number of points of the category
+     */
+    public int getCategoryCount(int category) {
+      return categoryCounts[category];
+    }
+
+    /**
+     * Returns the ID of the only point in the cluster.
+     *
+     * @return the ID of the point, or -1 if the cluster holds more than one point
+     */
+    public long getPointId() {
+      return pointId;
+    }
+  }
+
+  private static final class Point {
+    private final double latitude;
+    private final double longitude;
+    private final int category;
+    private final double x;
+    private final double y;
+
+    private Point(double latitude, double longitude, int category, double x, double y) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.category = category;
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  private static final class Cell {
+    private final int total;
+    private final int[] counts;
+    private final double[] sumLatitudes;
+    private final double[] sumLongitudes;
+    private final long[] sumIds;
+
+    private Cell(int categories) {
+      this(0, new int[categories], new double[categories], new double[categories],
+              new long[categories]);
+    }
+
+    private Cell(int total, int[] counts, double[] sumLatitudes, double[] sumLongitudes,
+                 long[] sumIds) {
+      this.total = total;
+      this.counts = counts;
+      this.sumLatitudes = sumLatitudes;
+      this.sumLongitudes = sumLongitudes;
+      this.sumIds = sumIds;
+    }
+
+    /**
+     * Returns a copy of the cell with a point added (sign 1) or removed (sign -1).
+     */
+    private Cell with(Point point, long id, int sign) {
+      int c = point.category;
+      int[] newCounts = counts.clone();
+      double[] newLatitudes = sumLatitudes.clone();
+      double[] newLongitudes = sumLongitudes.clone();
+      long[] newIds = sumIds.clone();
+      newCounts[c] += sign;
+      newIds[c] += sign * id;
+      if (newCounts[c] == 0) {
+        newLatitudes[c] = 0;
+        newLongitudes[c] = 0;
+      } else {
+        newLatitudes[c] += sign * point.latitude;
+        newLongitudes[c] += sign * point.longitude;
+      }
+      return new Cell(total + sign, newCounts, newLatitudes, newLongitudes, newIds);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.group7.krisefikser.spatial;
+
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Index of values that are available during a daily time interval, such as opening hours.
+ * Intervals are stored in minutes of the day. A closing time at or before the opening time
+ * is taken to be on the next day, so an interval from 22:00 to 02:00 covers the two hours on
+ * each side of midnight, and equal times or a missing time mean the whole day.
+ * The day is split into fixed slots, and every interval is registered in each slot it
+ * overlaps, so a lookup for a minute only reads the values of one slot and the values that
+ * are available all day. Reads do not lock, while writers are serialized.
+ *
+ * @param <T> the type of the indexed values
+ */
+public final class DailyIntervalIndex<T> {
+  public static final int MINUTES_PER_DAY = 24 * 60;
+  static final int SLOT_MINUTES = 15;
+  private static final int SLOTS = MINUTES_PER_DAY / SLOT_MINUTES;
+
+  private final Map<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+  private final Map<Long, Entry<T>> wholeDay = new ConcurrentHashMap<>();
+  private final Map<Long, Entry<T>>[] slots;
+
+  /**
+   * Creates an empty index.
+   */
+  @SuppressWarnings("unchecked")
+  public DailyIntervalIndex() {
+    slots = new Map[SLOTS];
+    for (int i = 0; i < SLOTS; i++) {
+      slots[i] = new ConcurrentHashMap<>();
+    }
+  }
+
+  /**
+   * Converts a time of day to the minute of the day, ignoring seconds.
+   *
+   * @param time the time of day
+   * @return the minute of the day, from 0 to 1439
+   */
+  public static int minuteOfDay(LocalTime time) {
+    return time.getHour() * 60 + time.getMinute();
+  }
+
+  /**
+   * Returns the number of indexed values.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Adds a value, replacing any value previously indexed under the same ID.
+   *
+   * @param id       the ID of the value
+   * @param opensAt  the start of the interval, or null if the value is available all day
+   * @param closesAt the end of the interval, exclusive, or null if the value is available
+   *                 all day
+   * @param value    the value to index
+   */
+  public synchronized void put(long id, LocalTime opensAt, LocalTime closesAt, T value) {
+    remove(id);
+    Entry<T> entry;
+    if (opensAt == null || closesAt == null) {
+      entry = new Entry<>(0, MINUTES_PER_DAY, value);
+    } else {
+      int start = minuteOfDay(opensAt);
+      int end = minuteOfDay(closesAt);
+      if (end <= start) {
+        end += MINUTES_PER_DAY;
+      }
+      entry = new Entry<>(start, end, value);
+    }
+    entries.put(id, entry);
+    if (entry.isWholeDay()) {
+      wholeDay.put(id, entry);
+      return;
+    }
+    for (int slot = entry.start / SLOT_MINUTES; slot <= (entry.end - 1) / SLOT_MINUTES; slot++) {
+      slots[slot % SLOTS].put(id, entry);
+    }
+  }
+
+  /**
+   * Removes the value with the given ID.
+   *
+   * @param id the ID of the value
+   * @return true if a value was removed
+   */
+  public synchronized boolean remove(long id) {
+    Entry<T> entry = entries.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    if (entry.isWholeDay()) {
+      wholeDay.remove(id);
+      return true;
+    }
+    for (int slot = entry.start / SLOT_MINUTES; slot <= (entry.end - 1) / SLOT_MINUTES; slot++) {
+      slots[slot % SLOTS].remove(id);
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the value with the given ID is available at a minute of the day.
+   *
+   * @param id          the ID of the value
+   * @param minuteOfDay the minute of the day, from 0 to 1439
+   * @return true if the value is indexed and available at that minute
+   */
+  public boolean isAvailableAt(long id, int minuteOfDay) {
+    Entry<T> entry = entries.get(id);
+    return entry != null && entry.covers(minuteOfDay);
+  }
+
+  /**
+   * Visits every value that is available at a minute of the day.
+   *
+   * @param minuteOfDay the minute of the day, from 0 to 1439
+   * @param visitor     receives every available value
+   */
+  public void queryAt(int minuteOfDay, Consumer<T> visitor) {
+    if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+      throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+    }
+    for (Entry<T> entry : wholeDay.values()) {
+      visitor.accept(entry.value);
+    }
+    for (Entry<T> entry : slots[minuteOfDay / SLOT_MINUTES].values()) {
+      if (entry.covers(minuteOfDay)) {
+        visitor.accept(entry.value);
+      }
+    }
+  }
+
+  private static final class Entry<T> {
+    private final int start;
+    private final int end;
+    private final T value;
+
+    private Entry(int start, int end, T value) {
+      this.start = start;
+      this.end = end;
+      this.value = value;
+    }
+
+    private boolean isWholeDay() {
+      return end - start >= MINUTES_PER_DAY;
+    }
+
+    private boolean covers(int minuteOfDay) {
+      if (isWholeDay()) {
+        return true;
+      }
+      return minuteOfDay >= start
+              ? minuteOfDay < end
+              : minuteOfDay + MINUTES_PER_DAY < end;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Index over values identified by a long ID, ordered by the geohash of their position.
+ * Positions are keyed by a 40 bit geohash, with longitude and latitude bits interleaved as in
+ * the text form, so every geohash prefix covers a contiguous range of keys and a cell of any
+ * size is read with one range scan of a sorted map. A radius query picks the finest prefix
+ * whose cells are at least as large as the radius and scans the cell of the position and its
+ * eight neighbours, so its cost follows the number of values near the position and does not
+ * depend on how many are indexed elsewhere. Like {@link GridIndex}, each key holds an
+ * immutable array of entries that is replaced on every change, so queries read without
+ * locking while writers are serialized.
+ *
+ * @param <T> the type of the indexed values
+ */
+public final class GeohashIndex<T> {
+  static final int BITS_PER_AXIS = 20;
+  private static final long CELLS_PER_AXIS = 1L << BITS_PER_AXIS;
+
+  private final NavigableMap<Long, Entry<T>[]> cells = new ConcurrentSkipListMap<>();
+  private final Map<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the number of indexed values.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Adds a value, replacing any value previously indexed under the same ID.
+   *
+   * @param id        the ID of the value
+   * @param latitude  the latitude of the value
+   * @param longitude the longitude of the value
+   * @param value     the value to index
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void put(long id, double latitude, double longitude, T value) {
+    remove(id);
+    Entry<T> entry = new Entry<>(latitude, longitude, value);
+    long key = encode(latitude, longitude);
+    Entry<T>[] current = cells.getOrDefault(key, new Entry[0]);
+    Entry<T>[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = entry;
+    cells.put(key, updated);
+    entries.put(id, entry);
+  }
+
+  /**
+   * Removes the value with the given ID.
+   *
+   * @param id the ID of the value
+   * @return true if a value was removed
+   */
+  public synchronized boolean remove(long id) {
+    Entry<T> entry = entries.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    long key = encode(entry.latitude, entry.longitude);
+    Entry<T>[] current = cells.get(key);
+    if (current.length == 1) {
+      cells.remove(key);
+      return true;
+    }
+    Entry<T>[] updated = Arrays.copyOf(current, current.length - 1);
+    for (int i = 0, j = 0; i < current.length; i++) {
+      if (current[i] != entry) {
+        updated[j++] = current[i];
+      }
+    }
+    cells.put(key, updated);
+    return true;
+  }
+
+  /**
+   * Removes all values.
+   */
+  public synchronized void clear() {
+    cells.clear();
+    entries.clear();
+  }
+
+  /**
+   * Visits every value within a great-circle distance of a position.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @param radiusKm  the radius in kilometers
+   * @param visitor   receives every value within the radius together with its distance
+   */
+  public void queryRadius(double latitude, double longitude, double radiusKm,
+                          ObjDoubleConsumer<T> visitor) {
+    int bits = prefixBits(latitude, radiusKm);
+    long cellsAtPrefix = 1L << bits;
+    int shift = BITS_PER_AXIS - bits;
+    long row = latitudeIndex(latitude) >>> shift;
+    long column = longitudeIndex(longitude) >>> shift;
+
+    long[] prefixes = new long[9];
+    int count = 0;
+    for (long r = Math.max(0, row - 1); r <= Math.min(cellsAtPrefix - 1, row + 1); r++) {
+      for (long c = column - 1; c <= column + 1; c++) {
+        long prefix = interleave(Math.floorMod(c, cellsAtPrefix), r);
+        boolean seen = false;
+        for (int i = 0; i < count && !seen; i++) {
+          seen = prefixes[i] == prefix;
+        }
+        if (!seen) {
+          prefixes[count++] = prefix;
+        }
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      long from = prefixes[i] << (2 * shift);
+      long to = (prefixes[i] + 1) << (2 * shift);
+      for (Entry<T>[] cell : cells.subMap(from, true, to, false).values()) {
+        for (Entry<T> entry : cell) {
+          double distance = GeoUtils.haversineKm(latitude, longitude,
+                  entry.latitude, entry.longitude);
+          if (distance <= radiusKm) {
+            visitor.accept(entry.value, distance);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the 40 bit geohash of a position.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @return the geohash, with the first longitude bit as the most significant bit
+   */
+  static long encode(double latitude, double longitude) {
+    return interleave(longitudeIndex(longitude), latitudeIndex(latitude));
+  }
+
+  /**
+   * Returns the number of bits per axis of the finest cells that are at least as high and
+   * as wide as the radius everywhere in its latitude band.
+   */
+  private static int prefixBits(double latitude, double radiusKm) {
+    double latitudeSpan = radiusKm / GeoUtils.KM_PER_DEGREE_LATITUDE;
+    double widestLatitude = Math.min(90, Math.abs(latitude) + latitudeSpan);
+    double longitudeSpan = GeoUtils.kmToLongitudeDegrees(radiusKm, widestLatitude);
+    int bits = BITS_PER_AXIS;
+    while (bits > 0 && (180.0 / (1L << bits) < latitudeSpan
+            || 360.0 / (1L << bits) < longitudeSpan)) {
+      bits--;
+    }
+    return bits;
+  }
+
+  private static long latitudeIndex(double latitude) {
+    long index = (long) Math.floor((latitude + 90) / 180 * CELLS_PER_AXIS);
+    return Math.max(0, Math.min(CELLS_PER_AXIS - 1, index));
+  }
+
+  private static long longitudeIndex(double longitude) {
+    long index = (long) Math.floor((longitude + 180) / 360 * CELLS_PER_AXIS);
+    return Math.max(0, Math.min(CELLS_PER_AXIS - 1, index));
+  }
+
+  /**
+   * Interleaves the bits of a column and a row, column bits first.
+   */
+  private static long interleave(long column, long row) {
+    return spread(column) << 1 | spread(row);
+  }
+
+  /**
+   * Moves the low 32 bits of a value to the even bit positions.
+   */
+  private static long spread(long value) {
+    long x = value & 0xFFFFFFFFL;
+    x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+    x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+    x = (x | x << 4) & 0x0F0F0F0F0F0F0F0FL;
+    x = (x | x << 2) & 0x3333333333333333L;
+    return (x | x << 1) & 0x5555555555555555L;
+  }
+
+  private static final class Entry<T> {
+    private final double latitude;
+    private final double longitude;
+    private final T value;
+
+    private Entry(double latitude, double longitude, T value) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Uniform latitude/longitude grid over values identified by a long ID.
+ * Each cell holds an immutable array of entries that is replaced on every change, so queries
+ * read without locking while writers are serialized. A query only visits the cells that
+ * overlap the searched area, or only the occupied cells when there are fewer of those, so
+ * its cost follows the number of results rather than the size of the index.
+ *
+ * @param <T> the type of the indexed values
+ */
+public final class GridIndex<T> {
+  private static final Entry<?>[] NO_ENTRIES = new Entry<?>[0];
+
+  private final double cellDegrees;
+  private final int columns;
+  private final int rows;
+  private final Map<Long, Entry<T>[]> cells = new ConcurrentHashMap<>();
+  private final Map<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an empty grid.
+   *
+   * @param cellDegrees the width and height of a cell, in degrees
+   */
+  public GridIndex(double cellDegrees) {
+    if (!(cellDegrees > 0) || cellDegrees > 90) {
+      throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees");
+    }
+    this.cellDegrees = cellDegrees;
+    this.columns = (int) Math.ceil(360 / cellDegrees);
+    this.rows = (int) Math.ceil(180 / cellDegrees);
+  }
+
+  /**
+   * Returns the number of indexed values.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Adds a value, replacing any value previously indexed under the same ID.
+   *
+   * @param id        the ID of the value
+   * @param latitude  the latitude of the value
+   * @param longitude the longitude of the value
+   * @param value     the value to index
+   */
+  public synchronized void put(long id, double latitude, double longitude, T value) {
+    remove(id);
+    Entry<T> entry = new Entry<>(latitude, longitude, value);
+    long key = cellKey(row(latitude), column(longitude));
+    Entry<T>[] current = cells.getOrDefault(key, emptyEntries());
+    Entry<T>[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = entry;
+    cells.put(key, updated);
+    entries.put(id, entry);
+  }
+
+  /**
+   * Removes the value with the given ID.
+   *
+   * @param id the ID of the value
+   * @return true if a value was removed
+   */
+  public synchronized boolean remove(long id) {
+    Entry<T> entry = entries.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    long key = cellKey(row(entry.latitude), column(entry.longitude));
+    Entry<T>[] current = cells.get(key);
+    if (current.length == 1) {
+      cells.remove(key);
+      return true;
+    }
+    Entry<T>[] updated = Arrays.copyOf(current, current.length - 1);
+    for (int i = 0, j = 0; i < current.length; i++) {
+      if (current[i] != entry) {
+        updated[j++] = current[i];
+      }
+    }
+    cells.put(key, updated);
+    return true;
+  }
+
+  /**
+   * Removes all values.
+   */
+  public synchronized void clear() {
+    cells.clear();
+    entries.clear();
+  }
+
+  /**
+   * Visits every value inside a bounding box.
+   * A box with a minimum longitude greater than its maximum longitude crosses the
+   * antimeridian.
+   *
+   * @param minLatitude  the southern edge of the box
+   * @param minLongitude the western edge of the box
+   * @param maxLatitude  the northern edge of the box
+   * @param maxLongitude the eastern edge of the box
+   * @param visitor      receives every value inside the box
+   */
+  public void queryBox(double minLatitude, double minLongitude, double maxLatitude,
+                       double maxLongitude, Consumer<T> visitor) {
+    if (minLongitude > maxLongitude) {
+      queryBox(minLatitude, minLongitude, maxLatitude, 180, visitor);
+      queryBox(minLatitude, -180, maxLatitude, maxLongitude, visitor);
+      return;
+    }
+    visitCells(minLatitude, minLongitude, maxLatitude, maxLongitude, entry -> {
+      if (entry.latitude >= minLatitude && entry.latitude <= maxLatitude
+              && entry.longitude >= minLongitude && entry.longitude <= maxLongitude) {
+        visitor.accept(entry.value);
+      }
+    });
+  }
+
+  /**
+   * Visits every value within a great-circle distance of a position.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @param radiusKm  the radius in kilometers
+   * @param visitor   receives every value within the radius together with its distance
+   */
+  public void queryRadius(double latitude, double longitude, double radiusKm,
+                          ObjDoubleConsumer<T> visitor) {
+    double latitudeSpan = radiusKm / GeoUtils.KM_PER_DEGREE_LATITUDE;
+    double minLatitude = Math.max(-90, latitude - latitudeSpan);
+    double maxLatitude = Math.min(90, latitude + latitudeSpan);
+    double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+    double longitudeSpan = (minLatitude <= -90 || maxLatitude >= 90)
+            ? 360 : GeoUtils.kmToLongitudeDegrees(radiusKm, widestLatitude);
+
+    Consumer<Entry<T>> filter = entry -> {
+      double distance = GeoUtils.haversineKm(latitude, longitude,
+              entry.latitude, entry.longitude);
+      if (distance <= radiusKm) {
+        visitor.accept(entry.value, distance);
+      }
+    };
+    if (longitudeSpan >= 180) {
+      visitCells(minLatitude, -180, maxLatitude, 180, filter);
+      return;
+    }
+    double minLongitude = longitude - longitudeSpan;
+    double maxLongitude = longitude + longitudeSpan;
+    if (minLongitude < -180) {
+      visitCells(minLatitude, minLongitude + 360, maxLatitude, 180, filter);
+      visitCells(minLatitude, -180, maxLatitude, maxLongitude, filter);
+    } else if (maxLongitude > 180) {
+      visitCells(minLatitude, minLongitude, maxLatitude, 180, filter);
+      visitCells(minLatitude, -180, maxLatitude, maxLongitude - 360, filter);
+    } else {
+      visitCells(minLatitude, minLongitude, maxLatitude, maxLongitude, filter);
+    }
+  }
+
+  private void visitCells(double minLatitude, double minLongitude, double maxLatitude,
+                          double maxLongitude, Consumer<Entry<T>> visitor) {
+    int minRow = row(minLatitude);
+    int maxRow = row(maxLatitude);
+    int minColumn = column(minLongitude);
+    int maxColumn = column(maxLongitude);
+    long cellsInBox = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+
+    if (cellsInBox > cells.size()) {
+      for (Map.Entry<Long, Entry<T>[]> cell : cells.entrySet()) {
+        long key = cell.getKey();
+        int row = (int) (key / columns);
+        int column = (int) (key % columns);
+        if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+          for (Entry<T> entry : cell.getValue()) {
+            visitor.accept(entry);
+          }
+        }
+      }
+      return;
+    }
+    for (int row = minRow; row <= maxRow; row++) {
+      for (int column = minColumn; column <= maxColumn; column++) {
+        Entry<T>[] cell = cells.get(cellKey(row, column));
+        if (cell != null) {
+          for (Entry<T> entry : cell) {
+            visitor.accept(entry);
+          }
+        }
+      }
+    }
+  }
+
+  private int row(double latitude) {
+    int row = (int) Math.floor((latitude + 90) / cellDegrees);
+    return Math.max(0, Math.min(rows - 1, row));
+  }
+
+  private int column(double longitude) {
+    int column = (int) Math.floor((longitude + 180) / cellDegrees);
+    return Math.max(0, Math.min(columns - 1, column));
+  }
+
+  private long cellKey(int row, int column) {
+    return (long) row * columns + column;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Entry<T>[] emptyEntries() {
+    return (Entry<T>[]) NO_ENTRIES;
+  }
+
+  private static final class Entry<T> {
+    private final double latitude;
+    private final double longitude;
+    private final T value;
+
+    private Entry(double latitude, double longitude, T value) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,336 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable three-dimensional KD-tree over geographical points.
+ * Coordinates are stored as unit vectors, so the Euclidean (chord) distance used while
+ * searching is monotonic in the great-circle distance and works across the antimeridian.
+ * The tree is stored implicitly in arrays: the node of a range is its middle element,
+ * which keeps it compact and lets concurrent readers share it without locking.
+ * Points are identified by their index in the arrays passed to {@link #build}.
+ */
+public final class KdTree {
+  private final int[] ids;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] zs;
+  private final byte[] axes;
+
+  private KdTree(int[] ids, double[] xs, double[] ys, double[] zs, byte[] axes) {
+    this.ids = ids;
+    this.xs = xs;
+    this.ys = ys;
+    this.zs = zs;
+    this.axes = axes;
+  }
+
+  /**
+   * Builds a tree over the given coordinates.
+   *
+   * @param latitudes  the latitudes of the points, in degrees
+   * @param longitudes the longitudes of the points, in degrees
+   * @return a tree whose results refer to indexes into the given arrays
+   */
+  public static KdTree build(double[] latitudes, double[] longitudes) {
+    if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("Latitude and longitude arrays must have equal length");
+    }
+    int n = latitudes.length;
+    double[][] coords = new double[3][n];
+    double[] vector = new double[3];
+    int[] perm = new int[n];
+    for (int i = 0; i < n; i++) {
+      GeoUtils.toUnitVector(latitudes[i], longitudes[i], vector);
+      coords[0][i] = vector[0];
+      coords[1][i] = vector[1];
+      coords[2][i] = vector[2];
+      perm[i] = i;
+    }
+    byte[] axes = new byte[n];
+    buildRange(perm, coords, axes, 0, n);
+
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    double[] zs = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = coords[0][perm[i]];
+      ys[i] = coords[1][perm[i]];
+      zs[i] = coords[2][perm[i]];
+    }
+    return new KdTree(perm, xs, ys, zs, axes);
+  }
+
+  private static void buildRange(int[] perm, double[][] coords, byte[] axes, int lo, int hi) {
+    if (hi - lo <= 1) {
+      return;
+    }
+    int axis = widestAxis(perm, coords, lo, hi);
+    int mid = (lo + hi) >>> 1;
+    select(perm, coords[axis], lo, hi - 1, mid);
+    axes[mid] = (byte) axis;
+    buildRange(perm, coords, axes, lo, mid);
+    buildRange(perm, coords, axes, mid + 1, hi);
+  }
+
+  private static int widestAxis(int[] perm, double[][] coords, int lo, int hi) {
+    int best = 0;
+    double bestSpread = -1;
+    for (int axis = 0; axis < 3; axis++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      double[] values = coords[axis];
+      for (int i = lo; i < hi; i++) {
+        double v = values[perm[i]];
+        if (v < min) {
+          min = v;
+        }
+        if (v > max) {
+          max = v;
+        }
+      }
+      if (max - min > bestSpread) {
+        bestSpread = max - min;
+        best = axis;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Quickselect: reorders perm[lo..hi] so that position k holds the element that would be
+   * there if the range was sorted by the given coordinate.
+   */
+  private static void select(int[] perm, double[] values, int lo, int hi, int k) {
+    while (hi > lo) {
+      double pivot = values[perm[(lo + hi) >>> 1]];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (values[perm[i]] < pivot) {
+          i++;
+        }
+        while (values[perm[j]] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int tmp = perm[i];
+          perm[i] = perm[j];
+          perm[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        hi = j;
+      } else if (k >= i) {
+        lo = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of points in the tree.
+   *
+   * @return the number of points
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Finds the k points closest to a position.
+   *
+   * @param lat    the latitude of the position
+   * @param lon    the longitude of the position
+   * @param k      the maximum number of points to return
+   * @param filter an optional predicate on point indexes; rejected points are skipped
+   * @return the nearest points ordered by increasing distance
+   */
+  public Neighbors nearest(double lat, double lon, int k, IntPredicate filter) {
+    return nearest(lat, lon, k, Double.POSITIVE_INFINITY, filter);
+  }
+
+  /**
+   * Finds the k points closest to a position, limited to a maximum distance.
+   *
+   * @param lat           the latitude of the position
+   * @param lon           the longitude of the position
+   * @param k             the maximum number of points to return
+   * @param maxDistanceKm the maximum great-circle distance of returned points
+   * @param filter        an optional predicate on point indexes; rejected points are skipped
+   * @return the nearest points ordered by increasing distance
+   */
+  public Neighbors nearest(double lat, double lon, int k, double maxDistanceKm,
+                           IntPredicate filter) {
+    if (k <= 0 || ids.length == 0) {
+      return new Neighbors(new int[0], new double[0]);
+    }
+    double[] q = new double[3];
+    GeoUtils.toUnitVector(lat, lon, q);
+    double limit = Double.isInfinite(maxDistanceKm)
+            ? Double.POSITIVE_INFINITY : square(GeoUtils.kmToChord(maxDistanceKm));
+    BoundedMaxHeap heap = new BoundedMaxHeap(Math.min(k, ids.length), limit);
+    search(0, ids.length, q[0], q[1], q[2], heap, filter);
+    return heap.toNeighbors();
+  }
+
+  private void search(int lo, int hi, double qx, double qy, double qz,
+                      BoundedMaxHeap heap, IntPredicate filter) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      double dx = qx - xs[mid];
+      double dy = qy - ys[mid];
+      double dz = qz - zs[mid];
+      double distance = dx * dx + dy * dy + dz * dz;
+      if (distance < heap.worst() && (filter == null || filter.test(ids[mid]))) {
+        heap.offer(ids[mid], distance);
+      }
+      if (hi - lo == 1) {
+        return;
+      }
+      double diff = switch (axes[mid]) {
+        case 0 -> dx;
+        case 1 -> dy;
+        default -> dz;
+      };
+      // Descend into the near side first, then revisit the far side only if it can still
+      // contain a closer point than the current k-th best.
+      if (diff < 0) {
+        search(lo, mid, qx, qy, qz, heap, filter);
+        if (diff * diff >= heap.worst()) {
+          return;
+        }
+        lo = mid + 1;
+      } else {
+        search(mid + 1, hi, qx, qy, qz, heap, filter);
+        if (diff * diff >= heap.worst()) {
+          return;
+        }
+        hi = mid;
+      }
+    }
+  }
+
+  private static double square(double value) {
+    return value * value;
+  }
+
+  /**
+   * The result of a nearest-neighbour query.
+   */
+  public static final class Neighbors {
+    private final int[] indexes;
+    private final double[] squaredChords;
+
+    private Neighbors(int[] indexes, double[] squaredChords) {
+      this.indexes = indexes;
+      this.squaredChords = squaredChords;
+    }
+
+    /**
+     * Returns the number of points found.
+     *
+     * @return the number of points
+     */
+    public int size() {
+      return indexes.length;
+    }
+
+    /**
+     * Returns the index of the i-th nearest point.
+     *
+     * @param i the rank, starting at 0 for the nearest point
+     * @return the index into the arrays the tree was built from
+     */
+    public int index(int i) {
+      return indexes[i];
+    }
+
+    /**
+     * Returns the great-circle distance to the i-th nearest point.
+     *
+     * @param i the rank, starting at 0 for the nearest point
+     * @return the distance in kilometers
+     */
+    public double distanceKm(int i) {
+      return GeoUtils.chordToKm(Math.sqrt(squaredChords[i]));
+    }
+  }
+
+  /**
+   * Fixed-capacity max-heap keeping the k smallest distances seen so far.
+   */
+  private static final class BoundedMaxHeap {
+    private final int[] indexes;
+    private final double[] distances;
+    private final double limit;
+    private int size;
+
+    BoundedMaxHeap(int capacity, double limit) {
+      this.indexes = new int[capacity];
+      this.distances = new double[capacity];
+      this.limit = limit;
+    }
+
+    double worst() {
+      return size < indexes.length ? limit : distances[0];
+    }
+
+    void offer(int index, double distance) {
+      if (size < indexes.length) {
+        int i = size++;
+        while (i > 0) {
+          int parent = (i - 1) >>> 1;
+          if (distances[parent] >= distance) {
+            break;
+          }
+          indexes[i] = indexes[parent];
+          distances[i] = distances[parent];
+          i = parent;
+        }
+        indexes[i] = index;
+        distances[i] = distance;
+      } else {
+        siftDown(index, distance, size);
+      }
+    }
+
+    private void siftDown(int index, double distance, int n) {
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= n) {
+          break;
+        }
+        if (child + 1 < n && distances[child + 1] > distances[child]) {
+          child++;
+        }
+        if (distances[child] <= distance) {
+          break;
+        }
+        indexes[i] = indexes[child];
+        distances[i] = distances[child];
+        i = child;
+      }
+      indexes[i] = index;
+      distances[i] = distance;
+    }
+
+    Neighbors toNeighbors() {
+      int n = size;
+      int[] sortedIndexes = new int[n];
+      double[] sortedDistances = new double[n];
+      // Repeatedly pop the maximum into the back of the result arrays.
+      for (int last = n - 1; last >= 0; last--) {
+        sortedIndexes[last] = indexes[0];
+        sortedDistances[last] = distances[0];
+        siftDown(indexes[last], distances[last], last);
+      }
+      return new Neighbors(sortedIndexes, sortedDistances);
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import java.util.List;
+
+/**
+ * Immutable polygon prepared for fast point-in-polygon and distance queries.
+ * Vertices are projected once to kilometres in a local equirectangular projection around
+ * the centre of the bounding box, which is accurate for polygons up to a few hundred
+ * kilometres across. The edges of all rings are stored as flat coordinate arrays and
+ * bucketed into horizontal bands of equal height, with every edge listed in each band it
+ * spans. A containment test casts a ray only against the edges of the band of the point,
+ * and a distance query only visits the bands within the search distance, so both touch a
+ * handful of edges whatever the size of the polygon.
+ * Rings follow the even-odd rule, so any ring inside another is a hole.
+ */
+public final class Polygon {
+  static final int EDGES_PER_BAND = 4;
+  private static final int MAX_BANDS = 1024;
+
+  private final double minLatitude;
+  private final double maxLatitude;
+  private final double minLongitude;
+  private final double maxLongitude;
+  private final double originLatitude;
+  private final double originLongitude;
+  private final double kmPerDegreeLongitude;
+  private final int edgeCount;
+  private final double[] startXs;
+  private final double[] startYs;
+  private final double[] endXs;
+  private final double[] endYs;
+  private final double minY;
+  private final double bandHeight;
+  private final int[] bandOffsets;
+  private final int[] bandEdges;
+
+  private Polygon(List<double[]> rings) {
+    double south = Double.POSITIVE_INFINITY;
+    double north = Double.NEGATIVE_INFINITY;
+    double west = Double.POSITIVE_INFINITY;
+    double east = Double.NEGATIVE_INFINITY;
+    int edges = 0;
+    for (double[] ring : rings) {
+      if (ring.length % 2 != 0 || ring.length < 6) {
+        throw new IllegalArgumentException("A polygon ring needs at least three vertices");
+      }
+      for (int i = 0; i < ring.length; i += 2) {
+        if (ring[i] < -90 || ring[i] > 90 || ring[i + 1] < -180 || ring[i + 1] > 180) {
+          throw new IllegalArgumentException("Polygon vertex out of range");
+        }
+        south = Math.min(south, ring[i]);
+        north = Math.max(north, ring[i]);
+        west = Math.min(west, ring[i + 1]);
+        east = Math.max(east, ring[i + 1]);
+      }
+      edges += ring.length / 2;
+    }
+    if (edges == 0) {
+      throw new IllegalArgumentException("A polygon needs at least one ring");
+    }
+    this.minLatitude = south;
+    this.maxLatitude = north;
+    this.minLongitude = west;
+    this.maxLongitude = east;
+    this.originLatitude = (south + north) / 2;
+    this.originLongitude = (west + east) / 2;
+    this.kmPerDegreeLongitude = GeoUtils.KM_PER_DEGREE_LATITUDE
+            * Math.cos(Math.toRadians(originLatitude));
+    this.edgeCount = edges;
+    this.startXs = new double[edges];
+    this.startYs = new double[edges];
+    this.endXs = new double[edges];
+    this.endYs = new double[edges];
+
+    int e = 0;
+    for (double[] ring : rings) {
+      int vertices = ring.length / 2;
+      for (int v = 0; v < vertices; v++) {
+        int next = (v + 1) % vertices;
+        startXs[e] = x(ring[v * 2 + 1]);
+        startYs[e] = y(ring[v * 2]);
+        endXs[e] = x(ring[next * 2 + 1]);
+        endYs[e] = y(ring[next * 2]);
+        e++;
+      }
+    }
+
+    this.minY = y(south);
+    double height = y(north) - minY;
+    int bands = (int) Math.max(1, Math.min(MAX_BANDS, edges / EDGES_PER_BAND));
+    this.bandHeight = height > 0 ? height / bands : 1;
+    this.bandOffsets = new int[bands + 1];
+    for (int i = 0; i < edges; i++) {
+      for (int band = band(Math.min(startYs[i], endYs[i]));
+           band <= band(Math.max(startYs[i], endYs[i])); band++) {
+        bandOffsets[band + 1]++;
+      }
+    }
+    for (int band = 0; band < bands; band++) {
+      bandOffsets[band + 1] += bandOffsets[band];
+    }
+    this.bandEdges = new int[bandOffsets[bands]];
+    int[] fill = bandOffsets.clone();
+    for (int i = 0; i < edges; i++) {
+      for (int band = band(Math.min(startYs[i], endYs[i]));
+           band <= band(Math.max(startYs[i], endYs[i])); band++) {
+        bandEdges[fill[band]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Creates a polygon from its rings.
+   *
+   * @param rings the rings, each as alternating latitudes and longitudes
+   * @return the polygon
+   * @throws IllegalArgumentException if a ring has fewer than three vertices or a vertex is
+   *                                  out of range
+   */
+  public static Polygon of(List<double[]> rings) {
+    return new Polygon(rings);
+  }
+
+  /**
+   * Creates a polygon from rings encoded with {@link PolylineCodec}.
+   *
+   * @param encoded the encoded rings
+   * @return the polygon
+   * @throws IllegalArgumentException if the encoding or the rings are invalid
+   */
+  public static Polygon decode(String encoded) {
+    return new Polygon(PolylineCodec.decode(encoded));
+  }
+
+  public double getMinLatitude() {
+    return minLatitude;
+  }
+
+  public double getMaxLatitude() {
+    return maxLatitude;
+  }
+
+  public double getMinLongitude() {
+    return minLongitude;
+  }
+
+  public double getMaxLongitude() {
+    return maxLongitude;
+  }
+
+  /**
+   * Returns the number of edges of all rings together.
+   *
+   * @return the number of edges
+   */
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Checks whether a position lies inside the polygon.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @return true if the position is inside the polygon and outside its holes
+   */
+  public boolean contains(double latitude, double longitude) {
+    if (latitude < minLatitude || latitude > maxLatitude
+            || longitude < minLongitude || longitude > maxLongitude) {
+      return false;
+    }
+    double px = x(longitude);
+    double py = y(latitude);
+    int band = band(py);
+    boolean inside = false;
+    for (int k = bandOffsets[band]; k < bandOffsets[band + 1]; k++) {
+      int i = bandEdges[k];
+      double y1 = startYs[i];
+      double y2 = endYs[i];
+      if ((y1 > py) != (y2 > py)
+              && px < startXs[i] + (py - y1) * (endXs[i] - startXs[i]) / (y2 - y1)) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Returns the distance from a position to the nearest edge of the polygon, if it is within
+   * a maximum distance.
+   *
+   * @param latitude      the latitude of the position
+   * @param longitude     the longitude of the position
+   * @param maxDistanceKm the maximum distance to search, in kilometres
+   * @return the distance in kilometres, or positive infinity if no edge is that close
+   */
+  public double distanceToBoundaryKm(double latitude, double longitude, double maxDistanceKm) {
+    double px = x(longitude);
+    double py = y(latitude);
+    double low = py - maxDistanceKm;
+    double high = py + maxDistanceKm;
+    int bands = bandOffsets.length - 1;
+    if (high < minY || low > minY + bands * bandHeight) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double best = maxDistanceKm * maxDistanceKm;
+    boolean found = false;
+    for (int band = band(low); band <= band(high); band++) {
+      for (int k = bandOffsets[band]; k < bandOffsets[band + 1]; k++) {
+        double distanceSquared = segmentDistanceSquared(bandEdges[k], px, py);
+        if (distanceSquared <= best) {
+          best = distanceSquared;
+          found = true;
+        }
+      }
+    }
+    return found ? Math.sqrt(best) : Double.POSITIVE_INFINITY;
+  }
+
+  private double segmentDistanceSquared(int i, double px, double py) {
+    double x1 = startXs[i];
+    double y1 = startYs[i];
+    double dx = endXs[i] - x1;
+    double dy = endYs[i] - y1;
+    double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared > 0 ? ((px - x1) * dx + (py - y1) * dy) / lengthSquared : 0;
+    t = Math.max(0, Math.min(1, t));
+    double ex = x1 + t * dx - px;
+    double ey = y1 + t * dy - py;
+    return ex * ex + ey * ey;
+  }
+
+  private int band(double y) {
+    int band = (int) ((y - minY) / bandHeight);
+    return Math.max(0, Math.min(bandOffsets.length - 2, band));
+  }
+
+  private double x(double longitude) {
+    double delta = longitude - originLongitude;
+    if (delta > 180) {
+      delta -= 360;
+    } else if (delta < -180) {
+      delta += 360;
+    }
+    return delta * kmPerDegreeLongitude;
+  }
+
+  private double y(double latitude) {
+    return (latitude - originLatitude) * GeoUtils.KM_PER_DEGREE_LATITUDE;
+  }
+}
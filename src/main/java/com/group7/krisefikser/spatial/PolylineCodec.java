@@ -0,0 +1,122 @@
+package com.group7.krisefikser.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes polygon rings with the encoded polyline algorithm.
+ * Coordinates are rounded to five decimals (about one metre) and stored as variable length
+ * deltas from the previous vertex, so a vertex usually takes four to eight characters.
+ * A polygon is a list of rings separated by {@link #RING_SEPARATOR}, a character the
+ * algorithm never emits. Rings are closed implicitly, so the first vertex is not repeated.
+ * A ring is stored as a flat array of alternating latitudes and longitudes.
+ */
+public final class PolylineCodec {
+  public static final char RING_SEPARATOR = ';';
+  static final double PRECISION = 1e5;
+
+  private PolylineCodec() {
+  }
+
+  /**
+   * Encodes polygon rings.
+   *
+   * @param rings the rings, each as alternating latitudes and longitudes
+   * @return the encoded rings
+   */
+  public static String encode(List<double[]> rings) {
+    StringBuilder builder = new StringBuilder();
+    for (double[] ring : rings) {
+      if (ring.length % 2 != 0) {
+        throw new IllegalArgumentException("A ring needs a longitude for every latitude");
+      }
+      if (builder.length() > 0) {
+        builder.append(RING_SEPARATOR);
+      }
+      long previousLatitude = 0;
+      long previousLongitude = 0;
+      for (int i = 0; i < ring.length; i += 2) {
+        long latitude = Math.round(ring[i] * PRECISION);
+        long longitude = Math.round(ring[i + 1] * PRECISION);
+        encodeValue(latitude - previousLatitude, builder);
+        encodeValue(longitude - previousLongitude, builder);
+        previousLatitude = latitude;
+        previousLongitude = longitude;
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Decodes polygon rings.
+   *
+   * @param encoded the encoded rings
+   * @return the rings, each as alternating latitudes and longitudes
+   * @throws IllegalArgumentException if the string is not a valid encoding
+   */
+  public static List<double[]> decode(String encoded) {
+    List<double[]> rings = new ArrayList<>();
+    int start = 0;
+    while (start <= encoded.length()) {
+      int end = encoded.indexOf(RING_SEPARATOR, start);
+      if (end < 0) {
+        end = encoded.length();
+      }
+      rings.add(decodeRing(encoded, start, end));
+      start = end + 1;
+    }
+    return rings;
+  }
+
+  private static double[] decodeRing(String encoded, int start, int end) {
+    double[] ring = new double[16];
+    int size = 0;
+    long latitude = 0;
+    long longitude = 0;
+    int[] position = {start};
+    while (position[0] < end) {
+      latitude += decodeValue(encoded, position, end);
+      longitude += decodeValue(encoded, position, end);
+      if (size + 2 > ring.length) {
+        ring = Arrays.copyOf(ring, ring.length * 2);
+      }
+      ring[size++] = latitude / PRECISION;
+      ring[size++] = longitude / PRECISION;
+    }
+    return Arrays.copyOf(ring, size);
+  }
+
+  /**
+   * Appends a signed value as a variable length run of printable characters.
+   */
+  static void encodeValue(long value, StringBuilder builder) {
+    long bits = value < 0 ? ~(value << 1) : value << 1;
+    while (bits >= 0x20) {
+      builder.append((char) ((0x20 | (bits & 0x1f)) + 63));
+      bits >>= 5;
+    }
+    builder.append((char) (bits + 63));
+  }
+
+  /**
+   * Reads a value written by {@link #encodeValue}, advancing the position past it.
+   */
+  static long decodeValue(String encoded, int[] position, int end) {
+    long bits = 0;
+    int shift = 0;
+    int chunk;
+    do {
+      if (position[0] >= end || shift > 60) {
+        throw new IllegalArgumentException("Truncated polyline encoding");
+      }
+      chunk = encoded.charAt(position[0]++) - 63;
+      if (chunk < 0 || chunk > 0x3f) {
+        throw new IllegalArgumentException("Invalid character in polyline encoding");
+      }
+      bits |= (long) (chunk & 0x1f) << shift;
+      shift += 5;
+    } while (chunk >= 0x20);
+    return (bits & 1) != 0 ? ~(bits >> 1) : bits >> 1;
+  }
+}
@@ -0,0 +1,161 @@
+package com.group7.krisefikser.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable R-tree over latitude/longitude bounding boxes, bulk loaded with the
+ * Sort-Tile-Recursive algorithm.
+ * Boxes are sorted into vertical slices by the longitude of their centre and each slice by
+ * latitude, and runs of {@link #NODE_CAPACITY} consecutive boxes become the leaves. Every
+ * upper level groups runs of consecutive nodes of the level below, so a node only needs the
+ * bounds of its children and the tree is stored as one flat bounds array per level. A point
+ * query descends only into nodes whose bounds contain the point.
+ * Boxes are identified by their index in the arrays passed to {@link #build}. A box with a
+ * minimum longitude greater than its maximum longitude crosses the antimeridian and is
+ * indexed as covering all longitudes.
+ */
+public final class RTree {
+  static final int NODE_CAPACITY = 8;
+  private static final RTree EMPTY = new RTree(new int[0], List.of());
+
+  private final int[] ids;
+  private final List<double[]> levels;
+
+  private RTree(int[] ids, List<double[]> levels) {
+    this.ids = ids;
+    this.levels = levels;
+  }
+
+  /**
+   * Builds a tree over the given boxes.
+   *
+   * @param minLatitudes  the southern edges of the boxes
+   * @param minLongitudes the western edges of the boxes
+   * @param maxLatitudes  the northern edges of the boxes
+   * @param maxLongitudes the eastern edges of the boxes
+   * @return a tree whose results refer to indexes into the given arrays
+   */
+  public static RTree build(double[] minLatitudes, double[] minLongitudes,
+                            double[] maxLatitudes, double[] maxLongitudes) {
+    int n = minLatitudes.length;
+    if (minLongitudes.length != n || maxLatitudes.length != n || maxLongitudes.length != n) {
+      throw new IllegalArgumentException("Bounding box arrays must have equal length");
+    }
+    if (n == 0) {
+      return EMPTY;
+    }
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    double[] west = new double[n];
+    double[] east = new double[n];
+    for (int i = 0; i < n; i++) {
+      boolean crossing = minLongitudes[i] > maxLongitudes[i];
+      west[i] = crossing ? -180 : minLongitudes[i];
+      east[i] = crossing ? 180 : maxLongitudes[i];
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(west[a] + east[a], west[b] + east[b]));
+    int leaves = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int sliceSize = (int) Math.ceil(Math.sqrt(leaves)) * NODE_CAPACITY;
+    for (int from = 0; from < n; from += sliceSize) {
+      Arrays.sort(order, from, Math.min(n, from + sliceSize), (a, b) -> Double.compare(
+              minLatitudes[a] + maxLatitudes[a], minLatitudes[b] + maxLatitudes[b]));
+    }
+
+    int[] ids = new int[n];
+    double[] entries = new double[n * 4];
+    for (int j = 0; j < n; j++) {
+      int i = order[j];
+      ids[j] = i;
+      entries[j * 4] = minLatitudes[i];
+      entries[j * 4 + 1] = west[i];
+      entries[j * 4 + 2] = maxLatitudes[i];
+      entries[j * 4 + 3] = east[i];
+    }
+    List<double[]> levels = new ArrayList<>();
+    levels.add(entries);
+    double[] level = entries;
+    while (level.length > 4) {
+      level = group(level);
+      levels.add(level);
+    }
+    return new RTree(ids, levels);
+  }
+
+  /**
+   * Returns the number of boxes in the tree.
+   *
+   * @return the number of boxes
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Visits every box that contains a position.
+   *
+   * @param latitude  the latitude of the position
+   * @param longitude the longitude of the position
+   * @param visitor   receives the index of every box containing the position
+   */
+  public void query(double latitude, double longitude, IntConsumer visitor) {
+    if (ids.length == 0) {
+      return;
+    }
+    visit(levels.size() - 1, 0, latitude, longitude, visitor);
+  }
+
+  private void visit(int depth, int node, double latitude, double longitude,
+                     IntConsumer visitor) {
+    double[] bounds = levels.get(depth);
+    if (!contains(bounds, node, latitude, longitude)) {
+      return;
+    }
+    if (depth == 0) {
+      visitor.accept(ids[node]);
+      return;
+    }
+    int first = node * NODE_CAPACITY;
+    int last = Math.min(first + NODE_CAPACITY, levels.get(depth - 1).length / 4);
+    for (int child = first; child < last; child++) {
+      visit(depth - 1, child, latitude, longitude, visitor);
+    }
+  }
+
+  private static boolean contains(double[] bounds, int node, double latitude,
+                                  double longitude) {
+    int offset = node * 4;
+    return latitude >= bounds[offset] && latitude <= bounds[offset + 2]
+            && longitude >= bounds[offset + 1] && longitude <= bounds[offset + 3];
+  }
+
+  /**
+   * Returns the bounds of the nodes that hold consecutive runs of the given nodes.
+   */
+  private static double[] group(double[] children) {
+    int count = children.length / 4;
+    int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    double[] bounds = new double[parents * 4];
+    for (int p = 0; p < parents; p++) {
+      double south = Double.POSITIVE_INFINITY;
+      double west = Double.POSITIVE_INFINITY;
+      double north = Double.NEGATIVE_INFINITY;
+      double east = Double.NEGATIVE_INFINITY;
+      for (int c = p * NODE_CAPACITY; c < Math.min(count, (p + 1) * NODE_CAPACITY); c++) {
+        south = Math.min(south, children[c * 4]);
+        west = Math.min(west, children[c * 4 + 1]);
+        north = Math.max(north, children[c * 4 + 2]);
+        east = Math.max(east, children[c * 4 + 3]);
+      }
+      bounds[p * 4] = south;
+      bounds[p * 4 + 1] = west;
+      bounds[p * 4 + 2] = north;
+      bounds[p * 4 + 3] = east;
+    }
+    return bounds;
+  }
+}
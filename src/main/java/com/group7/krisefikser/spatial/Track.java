@@ -0,0 +1,238 @@
+package com.group7.krisefikser.spatial;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable sequence of timestamped positions, ordered by time.
+ * Times are epoch seconds and coordinates are rounded to five decimals when encoded.
+ * The encoding stores every point as the difference in time, latitude and longitude from
+ * the previous point, written with the variable length characters of {@link PolylineCodec},
+ * so a point of a track sampled every few minutes usually takes six to ten characters.
+ */
+public final class Track {
+  private static final Track EMPTY = new Track(new long[0], new double[0], new double[0]);
+
+  private final long[] times;
+  private final double[] latitudes;
+  private final double[] longitudes;
+
+  private Track(long[] times, double[] latitudes, double[] longitudes) {
+    this.times = times;
+    this.latitudes = latitudes;
+    this.longitudes = longitudes;
+  }
+
+  /**
+   * Creates a track from parallel arrays, which are copied.
+   *
+   * @param times      the times of the points in epoch seconds, in ascending order
+   * @param latitudes  the latitudes of the points
+   * @param longitudes the longitudes of the points
+   * @return the track
+   * @throws IllegalArgumentException if the arrays differ in length or times decrease
+   */
+  public static Track of(long[] times, double[] latitudes, double[] longitudes) {
+    if (latitudes.length != times.length || longitudes.length != times.length) {
+      throw new IllegalArgumentException("Track arrays must have equal length");
+    }
+    for (int i = 1; i < times.length; i++) {
+      if (times[i] < times[i - 1]) {
+        throw new IllegalArgumentException("Track times must be in ascending order");
+      }
+    }
+    return new Track(times.clone(), latitudes.clone(), longitudes.clone());
+  }
+
+  /**
+   * Returns the empty track.
+   *
+   * @return a track without points
+   */
+  public static Track empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Joins tracks into one, ordering the points by time.
+   *
+   * @param tracks the tracks, usually already in time order
+   * @return a track with the points of all tracks
+   */
+  public static Track concat(List<Track> tracks) {
+    int n = 0;
+    for (Track track : tracks) {
+      n += track.size();
+    }
+    long[] times = new long[n];
+    double[] latitudes = new double[n];
+    double[] longitudes = new double[n];
+    int offset = 0;
+    boolean ordered = true;
+    for (Track track : tracks) {
+      if (offset > 0 && track.size() > 0 && track.times[0] < times[offset - 1]) {
+        ordered = false;
+      }
+      System.arraycopy(track.times, 0, times, offset, track.size());
+      System.arraycopy(track.latitudes, 0, latitudes, offset, track.size());
+      System.arraycopy(track.longitudes, 0, longitudes, offset, track.size());
+      offset += track.size();
+    }
+    if (ordered) {
+      return new Track(times, latitudes, longitudes);
+    }
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+    long[] sortedTimes = new long[n];
+    double[] sortedLatitudes = new double[n];
+    double[] sortedLongitudes = new double[n];
+    for (int i = 0; i < n; i++) {
+      sortedTimes[i] = times[order[i]];
+      sortedLatitudes[i] = latitudes[order[i]];
+      sortedLongitudes[i] = longitudes[order[i]];
+    }
+    return new Track(sortedTimes, sortedLatitudes, sortedLongitudes);
+  }
+
+  public int size() {
+    return times.length;
+  }
+
+  public long getTime(int index) {
+    return times[index];
+  }
+
+  public double getLatitude(int index) {
+    return latitudes[index];
+  }
+
+  public double getLongitude(int index) {
+    return longitudes[index];
+  }
+
+  /**
+   * Returns the points within a time range.
+   *
+   * @param from the first time to include, in epoch seconds
+   * @param to   the last time to include, in epoch seconds
+   * @return the points with a time between from and to, inclusive
+   */
+  public Track between(long from, long to) {
+    int start = lowerBound(from);
+    int end = to == Long.MAX_VALUE ? times.length : lowerBound(to + 1);
+    if (start == 0 && end == times.length) {
+      return this;
+    }
+    return new Track(Arrays.copyOfRange(times, start, end),
+            Arrays.copyOfRange(latitudes, start, end),
+            Arrays.copyOfRange(longitudes, start, end));
+  }
+
+  /**
+   * Keeps one point per interval, the last point of each, since the latest position in an
+   * interval is where the user was last seen in it. Intervals are aligned to the epoch.
+   *
+   * @param intervalSeconds the length of the intervals
+   * @return the downsampled track
+   */
+  public Track downsample(long intervalSeconds) {
+    int n = times.length;
+    int kept = 0;
+    int[] indexes = new int[n];
+    for (int i = 0; i < n; i++) {
+      if (i == n - 1 || Math.floorDiv(times[i + 1], intervalSeconds)
+              != Math.floorDiv(times[i], intervalSeconds)) {
+        indexes[kept++] = i;
+      }
+    }
+    if (kept == n) {
+      return this;
+    }
+    long[] keptTimes = new long[kept];
+    double[] keptLatitudes = new double[kept];
+    double[] keptLongitudes = new double[kept];
+    for (int k = 0; k < kept; k++) {
+      keptTimes[k] = times[indexes[k]];
+      keptLatitudes[k] = latitudes[indexes[k]];
+      keptLongitudes[k] = longitudes[indexes[k]];
+    }
+    return new Track(keptTimes, keptLatitudes, keptLongitudes);
+  }
+
+  /**
+   * Encodes the track.
+   *
+   * @return the encoded points
+   */
+  public String encode() {
+    StringBuilder builder = new StringBuilder(times.length * 8);
+    long previousTime = 0;
+    long previousLatitude = 0;
+    long previousLongitude = 0;
+    for (int i = 0; i < times.length; i++) {
+      long latitude = Math.round(latitudes[i] * PolylineCodec.PRECISION);
+      long longitude = Math.round(longitudes[i] * PolylineCodec.PRECISION);
+      PolylineCodec.encodeValue(times[i] - previousTime, builder);
+      PolylineCodec.encodeValue(latitude - previousLatitude, builder);
+      PolylineCodec.encodeValue(longitude - previousLongitude, builder);
+      previousTime = times[i];
+      previousLatitude = latitude;
+      previousLongitude = longitude;
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Decodes a track written by {@link #encode}.
+   *
+   * @param encoded the encoded points
+   * @return the track
+   * @throws IllegalArgumentException if the string is not a valid encoding
+   */
+  public static Track decode(String encoded) {
+    int capacity = 16;
+    long[] times = new long[capacity];
+    double[] latitudes = new double[capacity];
+    double[] longitudes = new double[capacity];
+    int size = 0;
+    long time = 0;
+    long latitude = 0;
+    long longitude = 0;
+    int[] position = {0};
+    int end = encoded.length();
+    while (position[0] < end) {
+      time += PolylineCodec.decodeValue(encoded, position, end);
+      latitude += PolylineCodec.decodeValue(encoded, position, end);
+      longitude += PolylineCodec.decodeValue(encoded, position, end);
+      if (size == capacity) {
+        capacity *= 2;
+        times = Arrays.copyOf(times, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+      }
+      times[size] = time;
+      latitudes[size] = latitude / PolylineCodec.PRECISION;
+      longitudes[size] = longitude / PolylineCodec.PRECISION;
+      size++;
+    }
+    return of(Arrays.copyOf(times, size), Arrays.copyOf(latitudes, size),
+            Arrays.copyOf(longitudes, size));
+  }
+
+  private int lowerBound(long time) {
+    int low = 0;
+    int high = times.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (times[mid] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,123 @@
+package com.group7.krisefikser.utils;
+
+import com.group7.krisefikser.model.other.SerializedContent;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utility class for content that is serialized once and served many times.
+ * This class provides methods to compress the content, to derive a version from it and to
+ * write it in a response.
+ */
+public class ContentUtils {
+
+  /**
+   * Private constructor to prevent instantiation of the utility class.
+   */
+  private ContentUtils() {
+  }
+
+  /**
+   * Compresses content with gzip.
+   *
+   * @param content the content to compress
+   * @return the gzipped content
+   */
+  public static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Derives a version from content, which stays the same as long as the content does.
+   *
+   * @param content the content
+   * @return the first 8 bytes of the SHA-256 digest of the content, in hex
+   */
+  public static String versionOf(byte[] content) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      return HexFormat.of().formatHex(Arrays.copyOf(digest, 8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Creates serialized content from JSON, gzipping it and deriving its version.
+   *
+   * @param json the content as JSON
+   * @return the content
+   */
+  public static SerializedContent fromJson(byte[] json) {
+    return new SerializedContent(versionOf(json), json, gzip(json));
+  }
+
+  /**
+   * Creates a response with cached content. The content is sent gzipped if the client
+   * accepts gzip, and the response is 304 if the client already has this version. Clients
+   * may store the content but must check that it is current before they use it.
+   *
+   * @param content        the content
+   * @param ifNoneMatch    the ETag of the content the client already has
+   * @param acceptEncoding the encodings the client accepts
+   * @return the response
+   */
+  public static ResponseEntity<byte[]> toResponse(SerializedContent content,
+                                                  String ifNoneMatch, String acceptEncoding) {
+    return toResponse(content, ifNoneMatch, acceptEncoding, CacheControl.noCache(),
+            HttpHeaders.EMPTY);
+  }
+
+  /**
+   * Creates a response with serialized content, like
+   * {@link #toResponse(SerializedContent, String, String)} but with the given caching
+   * rules and extra headers, which are also sent with a 304 response.
+   *
+   * @param content        the content
+   * @param ifNoneMatch    the ETag of the content the client already has
+   * @param acceptEncoding the encodings the client accepts
+   * @param cacheControl   the caching rules of the response
+   * @param headers        the extra headers of the response
+   * @return the response
+   */
+  public static ResponseEntity<byte[]> toResponse(SerializedContent content,
+                                                  String ifNoneMatch, String acceptEncoding,
+                                                  CacheControl cacheControl,
+                                                  HttpHeaders headers) {
+    String etag = "\"" + content.getVersion() + "\"";
+    boolean notModified = ifNoneMatch != null && ifNoneMatch.contains(etag);
+    ResponseEntity.BodyBuilder builder = ResponseEntity
+            .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .headers(headers);
+    if (notModified) {
+      return builder.build();
+    }
+    builder.contentType(MediaType.APPLICATION_JSON);
+    if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+              .contentLength(content.getGzipped().length)
+              .body(content.getGzipped());
+    }
+    return builder.contentLength(content.getJson().length).body(content.getJson());
+  }
+}
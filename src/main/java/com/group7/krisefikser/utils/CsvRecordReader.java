@@ -0,0 +1,125 @@
+package com.group7.krisefikser.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records one at a time as described in RFC 4180.
+ * Fields are separated by commas, and a field in double quotes may hold commas, line breaks
+ * and doubled quotes. Records end with LF or CRLF. Only one record is held in memory, and a
+ * record longer than the maximum length is rejected, so memory use does not depend on the
+ * size of the input.
+ */
+public class CsvRecordReader implements Closeable {
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private final Reader reader;
+  private final int maxRecordLength;
+  private long recordNumber;
+  private int pushedBack = -1;
+
+  /**
+   * Creates a reader.
+   *
+   * @param reader          the reader the CSV is read from
+   * @param maxRecordLength the maximum number of characters in a record
+   */
+  public CsvRecordReader(Reader reader, int maxRecordLength) {
+    this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    this.maxRecordLength = maxRecordLength;
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return the fields of the record, or null at the end of the input
+   * @throws IOException if the input cannot be read, a quoted field is not closed or a
+   *                     record is too long
+   */
+  public List<String> readRecord() throws IOException {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean empty = true;
+    int length = 0;
+    while (true) {
+      int c = read();
+      if (c == -1) {
+        if (quoted) {
+          throw new IOException("Quoted field in record " + (recordNumber + 1)
+                  + " is not closed");
+        }
+        if (empty) {
+          return null;
+        }
+        break;
+      }
+      if (empty && recordNumber == 0 && c == BYTE_ORDER_MARK) {
+        continue;
+      }
+      empty = false;
+      if (++length > maxRecordLength) {
+        throw new IOException("Record " + (recordNumber + 1) + " is longer than "
+                + maxRecordLength + " characters");
+      }
+      if (quoted) {
+        if (c != '"') {
+          field.append((char) c);
+        } else {
+          int next = read();
+          if (next == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            pushedBack = next;
+          }
+        }
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n') {
+        break;
+      } else if (c == '\r') {
+        int next = read();
+        if (next != '\n') {
+          pushedBack = next;
+        }
+        break;
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else {
+        field.append((char) c);
+      }
+    }
+    fields.add(field.toString());
+    recordNumber++;
+    return fields;
+  }
+
+  /**
+   * Returns the number of records read so far.
+   *
+   * @return the number of the last record read, starting at 1
+   */
+  public long getRecordNumber() {
+    return recordNumber;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private int read() throws IOException {
+    if (pushedBack != -1) {
+      int c = pushedBack;
+      pushedBack = -1;
+      return c;
+    }
+    return reader.read();
+  }
+}
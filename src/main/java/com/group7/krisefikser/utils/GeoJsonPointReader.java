@@ -0,0 +1,127 @@
+package com.group7.krisefikser.utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads the point features of a GeoJSON FeatureCollection one at a time.
+ * The collection is read with a streaming parser, and only the current feature is turned
+ * into a tree, so memory use does not depend on the number of features. Each feature is
+ * returned as its properties, with its coordinates as {@value #LATITUDE} and
+ * {@value #LONGITUDE}, and the feature ID as {@value #EXTERNAL_ID} unless the properties
+ * have one.
+ */
+public class GeoJsonPointReader implements Closeable {
+  public static final String EXTERNAL_ID = "external_id";
+  public static final String LATITUDE = "latitude";
+  public static final String LONGITUDE = "longitude";
+
+  private final JsonParser parser;
+  private boolean started;
+  private boolean finished;
+
+  /**
+   * Creates a reader.
+   *
+   * @param objectMapper the mapper used to create the parser
+   * @param in           the stream the GeoJSON is read from
+   * @throws IOException if the stream cannot be read
+   */
+  public GeoJsonPointReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+    this.parser = objectMapper.createParser(in);
+  }
+
+  /**
+   * Reads the next feature. A feature that is not a point is read completely before it is
+   * rejected, so the next feature can still be read.
+   *
+   * @return the properties of the feature, or null after the last feature
+   * @throws IOException              if the input cannot be read or is not a GeoJSON
+   *                                  FeatureCollection
+   * @throws IllegalArgumentException if the feature is not a point feature
+   */
+  public Map<String, String> readFeature() throws IOException {
+    if (!started) {
+      started = true;
+      finished = !seekFeatures();
+    }
+    if (finished) {
+      return null;
+    }
+    JsonToken token = parser.nextToken();
+    if (token == JsonToken.END_ARRAY || token == null) {
+      finished = true;
+      return null;
+    }
+    JsonNode feature = parser.readValueAsTree();
+    return toProperties(feature);
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+
+  /**
+   * Moves the parser to the start of the features array.
+   *
+   * @return whether the collection has a features array
+   */
+  private boolean seekFeatures() throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "GeoJSON must be a FeatureCollection object");
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("features".equals(name)) {
+        if (value != JsonToken.START_ARRAY) {
+          throw new JsonParseException(parser, "Features must be an array");
+        }
+        return true;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  private static Map<String, String> toProperties(JsonNode feature) {
+    if (!feature.isObject()) {
+      throw new IllegalArgumentException("Feature must be an object");
+    }
+    JsonNode geometry = feature.path("geometry");
+    JsonNode coordinates = geometry.path("coordinates");
+    if (!"Point".equals(geometry.path("type").asText())) {
+      throw new IllegalArgumentException("Geometry must be a Point");
+    }
+    if (!coordinates.isArray() || coordinates.size() < 2
+            || !coordinates.get(0).isNumber() || !coordinates.get(1).isNumber()) {
+      throw new IllegalArgumentException("Point must have a longitude and a latitude");
+    }
+
+    Map<String, String> properties = new HashMap<>();
+    Iterator<Map.Entry<String, JsonNode>> fields = feature.path("properties").fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode value = field.getValue();
+      properties.put(field.getKey(), value.isNull() ? null
+              : value.isValueNode() ? value.asText() : value.toString());
+    }
+    JsonNode id = feature.path("id");
+    if (id.isValueNode() && !id.isNull()) {
+      properties.putIfAbsent(EXTERNAL_ID, id.asText());
+    }
+    properties.put(LONGITUDE, coordinates.get(0).asText());
+    properties.put(LATITUDE, coordinates.get(1).asText());
+    return properties;
+  }
+}
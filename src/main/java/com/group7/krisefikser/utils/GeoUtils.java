@@ -0,0 +1,92 @@
+package com.group7.krisefikser.utils;
+
+/**
+ * Utility class for geographical calculations.
+ * Provides great-circle distances and conversions between geographical coordinates,
+ * unit vectors and chord lengths used by the in-memory spatial indexes.
+ */
+public class GeoUtils {
+  public static final double EARTH_RADIUS_KM = 6371.0;
+  public static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+  /**
+   * Private constructor to prevent instantiation of the utility class.
+   */
+  private GeoUtils() {
+  }
+
+  /**
+   * Calculates the great-circle distance between two points using the Haversine formula.
+   *
+   * @param lat1 the latitude of the first point
+   * @param lon1 the longitude of the first point
+   * @param lat2 the latitude of the second point
+   * @param lon2 the longitude of the second point
+   * @return the distance in kilometers between the two points
+   */
+  public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+    double latDistance = Math.toRadians(lat2 - lat1);
+    double lonDistance = Math.toRadians(lon2 - lon1);
+
+    double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+
+    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+    return EARTH_RADIUS_KM * c;
+  }
+
+  /**
+   * Converts a coordinate to a point on the unit sphere.
+   *
+   * @param lat the latitude in degrees
+   * @param lon the longitude in degrees
+   * @param out an array of at least three elements receiving x, y and z
+   */
+  public static void toUnitVector(double lat, double lon, double[] out) {
+    double latRad = Math.toRadians(lat);
+    double lonRad = Math.toRadians(lon);
+    double cosLat = Math.cos(latRad);
+    out[0] = cosLat * Math.cos(lonRad);
+    out[1] = cosLat * Math.sin(lonRad);
+    out[2] = Math.sin(latRad);
+  }
+
+  /**
+   * Converts the straight-line distance between two unit vectors to a great-circle distance.
+   *
+   * @param chord the chord length on the unit sphere
+   * @return the great-circle distance in kilometers
+   */
+  public static double chordToKm(double chord) {
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+  }
+
+  /**
+   * Converts a great-circle distance to the chord length between two unit vectors.
+   *
+   * @param km the great-circle distance in kilometers
+   * @return the chord length on the unit sphere
+   */
+  public static double kmToChord(double km) {
+    double angle = Math.min(Math.PI, km / EARTH_RADIUS_KM);
+    return 2 * Math.sin(angle / 2);
+  }
+
+  /**
+   * Returns how many degrees of longitude span the given distance at a latitude.
+   * Near the poles the whole longitude range is returned.
+   *
+   * @param km  the distance in kilometers
+   * @param lat the latitude in degrees
+   * @return the longitude span in degrees
+   */
+  public static double kmToLongitudeDegrees(double km, double lat) {
+    double cosLat = Math.cos(Math.toRadians(lat));
+    if (cosLat < 1e-6) {
+      return 360.0;
+    }
+    return Math.min(360.0, km / (KM_PER_DEGREE_LATITUDE * cosLat));
+  }
+}
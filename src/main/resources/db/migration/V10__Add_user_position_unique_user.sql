@@ -0,0 +1,8 @@
+DELETE FROM user_position
+WHERE id NOT IN (
+    SELECT latest_id FROM (
+        SELECT MAX(id) AS latest_id FROM user_position GROUP BY user_id
+    ) AS latest
+);
+
+ALTER TABLE user_position ADD CONSTRAINT uk_user_position_user UNIQUE (user_id);
@@ -0,0 +1,12 @@
+CREATE TABLE position_history (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    resolution_seconds INT NOT NULL,
+    point_count INT NOT NULL,
+    points TEXT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX (user_id, end_time),
+    INDEX (resolution_seconds, end_time)
+);
@@ -0,0 +1,16 @@
+ALTER TABLE points_of_interest ADD COLUMN capacity INT DEFAULT NULL;
+ALTER TABLE points_of_interest ADD COLUMN occupancy INT NOT NULL DEFAULT 0;
+
+CREATE TABLE shelter_assignments (
+    household_id INT PRIMARY KEY,
+    shelter_id INT NOT NULL,
+    affected_area_id INT NOT NULL,
+    people INT NOT NULL,
+    distance_km DOUBLE NOT NULL,
+    assigned_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
+    FOREIGN KEY (shelter_id) REFERENCES points_of_interest(id) ON DELETE CASCADE,
+    FOREIGN KEY (affected_area_id) REFERENCES affected_areas(id) ON DELETE CASCADE,
+    INDEX (shelter_id),
+    INDEX (affected_area_id)
+);
@@ -0,0 +1,8 @@
+ALTER TABLE points_of_interest ADD COLUMN checked_in INT NOT NULL DEFAULT 0;
+
+CREATE TABLE shelter_check_in_checkpoint (
+    id INT PRIMARY KEY,
+    generation BIGINT NOT NULL
+);
+
+INSERT INTO shelter_check_in_checkpoint (id, generation) VALUES (1, 0);
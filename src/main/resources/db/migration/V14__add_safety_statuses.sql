@@ -0,0 +1,10 @@
+CREATE TABLE safety_statuses (
+    user_id INT NOT NULL,
+    affected_area_id INT NOT NULL,
+    safe BOOLEAN NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, affected_area_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (affected_area_id) REFERENCES affected_areas(id) ON DELETE CASCADE,
+    INDEX (affected_area_id)
+);
@@ -0,0 +1,16 @@
+CREATE TABLE change_log (
+    seq BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id INT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    INDEX (entity_type, entity_id),
+    INDEX (changed_at)
+);
+
+CREATE TABLE change_log_compaction (
+    id INT PRIMARY KEY,
+    compacted_seq BIGINT NOT NULL
+);
+
+INSERT INTO change_log_compaction (id, compacted_seq) VALUES (1, 0);
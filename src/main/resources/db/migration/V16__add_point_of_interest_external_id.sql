@@ -0,0 +1,2 @@
+ALTER TABLE points_of_interest ADD COLUMN external_id VARCHAR(64) DEFAULT NULL;
+CREATE UNIQUE INDEX ux_points_of_interest_external_id ON points_of_interest (external_id);
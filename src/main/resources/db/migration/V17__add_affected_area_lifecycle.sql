@@ -0,0 +1,20 @@
+ALTER TABLE affected_areas ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'active';
+ALTER TABLE affected_areas ADD COLUMN end_time TIMESTAMP NULL DEFAULT NULL;
+CREATE INDEX idx_affected_areas_status_end_time ON affected_areas (status, end_time);
+
+CREATE TABLE affected_areas_archive (
+    id INT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    longitude DOUBLE NOT NULL,
+    latitude DOUBLE NOT NULL,
+    high_danger_radius_km DOUBLE NOT NULL,
+    medium_danger_radius_km DOUBLE NOT NULL,
+    low_danger_radius_km DOUBLE NOT NULL,
+    severity_level INT NOT NULL,
+    description TEXT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    polygon TEXT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    INDEX (end_time)
+);
@@ -0,0 +1 @@
+ALTER TABLE affected_areas ADD COLUMN polygon TEXT NULL;
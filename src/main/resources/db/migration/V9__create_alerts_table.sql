@@ -0,0 +1,15 @@
+CREATE TABLE alerts (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    affected_area_id INT NOT NULL,
+    danger_level VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (affected_area_id) REFERENCES affected_areas(id) ON DELETE CASCADE,
+    UNIQUE (user_id, affected_area_id),
+    INDEX (user_id, is_read)
+);
+
+CREATE INDEX idx_households_location ON households (latitude, longitude);
+CREATE INDEX idx_user_position_location ON user_position (latitude, longitude);
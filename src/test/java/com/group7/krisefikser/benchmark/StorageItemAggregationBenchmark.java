@@ -0,0 +1,109 @@
+package com.group7.krisefikser.benchmark;
+
+import com.group7.krisefikser.model.item.StorageItem;
+import com.group7.krisefikser.service.item.StorageItemAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH comparison of the storage item aggregation strategies.
+ * The "grouping" benchmark reproduces the previous implementation in StorageItemService
+ * (groupingBy into boxed lists, then two streams per group), while the other two run
+ * the primitive aggregator sequentially and with fork/join.
+ * Run with the main method, e.g. from the IDE or with
+ * {@code java -cp target/test-classes:<test classpath> ...StorageItemAggregationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageItemAggregationBenchmark {
+
+  @Param({"1000", "20000", "200000"})
+  private int rows;
+
+  @Param({"50", "2000"})
+  private int distinctItems;
+
+  private List<StorageItem> storageItems;
+  private final StorageItemAggregator sequential = new StorageItemAggregator(Integer.MAX_VALUE);
+  private final StorageItemAggregator parallel = new StorageItemAggregator(10_000);
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+    storageItems = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      storageItems.add(new StorageItem(
+              i,
+              base.plusHours(random.nextInt(24 * 365 * 3)),
+              1 + random.nextInt(20),
+              1 + random.nextInt(500),
+              1 + random.nextInt(distinctItems),
+              true));
+    }
+  }
+
+  @Benchmark
+  public void grouping(Blackhole blackhole) {
+    Map<Integer, List<StorageItem>> groupedByItemId = storageItems.stream()
+            .collect(Collectors.groupingBy(StorageItem::getItemId));
+    for (Map.Entry<Integer, List<StorageItem>> entry : groupedByItemId.entrySet()) {
+      List<StorageItem> items = entry.getValue();
+      double totalQuantity = items.stream()
+              .mapToDouble(StorageItem::getQuantity)
+              .sum();
+      LocalDateTime earliestDate = items.stream()
+              .map(StorageItem::getExpirationDate)
+              .min(LocalDateTime::compareTo)
+              .orElse(null);
+      blackhole.consume(entry.getKey());
+      blackhole.consume(totalQuantity);
+      blackhole.consume(earliestDate);
+    }
+  }
+
+  @Benchmark
+  public StorageItemAggregator.Result primitiveSequential() {
+    return sequential.aggregate(storageItems);
+  }
+
+  @Benchmark
+  public StorageItemAggregator.Result primitiveForkJoin() {
+    return parallel.aggregate(storageItems);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+            .include(StorageItemAggregationBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+    new Runner(options).run();
+  }
+}
@@ -2,8 +2,13 @@ package com.group7.krisefikser.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.request.location.AffectedAreaRequest;
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.dto.response.location.EvacuationResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
 import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.service.location.EvacuationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,8 +27,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +42,8 @@ class AffectedAreaControllerTest {
   private MockMvc mockMvc;
   @MockitoBean
   private AffectedAreaService affectedAreaService;
+  @MockitoBean
+  private EvacuationService evacuationService;
   @Autowired
   private ObjectMapper objectMapper;
 
@@ -80,8 +89,8 @@ class AffectedAreaControllerTest {
   @Test
   void getAllAffectedAreas_shouldReturnOkAndJsonListOfAreas() throws Exception {
     List<AffectedAreaResponse> mockResponses = Arrays.asList(
-            new AffectedAreaResponse(1L, "Name 1", 10.0, 60.0, 5.0, 6.1, 7.0, 1, "High danger area 1", null),
-            new AffectedAreaResponse(2L, "Name 2", 11.0, 61.0, 3.0, 4.1, 4.9, 2, "Medium danger area 2", null)
+            new AffectedAreaResponse(1L, "Name 1", 10.0, 60.0, 5.0, 6.1, 7.0, 1, "High danger area 1", null, null, "active", null),
+            new AffectedAreaResponse(2L, "Name 2", 11.0, 61.0, 3.0, 4.1, 4.9, 2, "Medium danger area 2", null, null, "active", null)
     );
     when(affectedAreaService.getAllAffectedAreas()).thenReturn(mockResponses);
 
@@ -219,6 +228,35 @@ class AffectedAreaControllerTest {
             .andExpect(MockMvcResultMatchers.status().isForbidden());
   }
 
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void resolveAffectedArea_activeArea_returnsNoContent() throws Exception {
+    doNothing().when(affectedAreaService).resolveAffectedArea(testId);
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + testId + "/resolve"))
+            .andExpect(MockMvcResultMatchers.status().isNoContent());
+    verify(affectedAreaService).resolveAffectedArea(testId);
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void resolveAffectedArea_noActiveArea_returnsNotFound() throws Exception {
+    doThrow(new ResourceNotFoundException("Active affected area not found"))
+            .when(affectedAreaService).resolveAffectedArea(testId);
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + testId + "/resolve"))
+            .andExpect(MockMvcResultMatchers.status().isNotFound())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                    .value("Active affected area not found"));
+  }
+
+  @Test
+  @WithMockUser
+  void resolveAffectedArea_normalUserRole_returnsForbidden() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + testId + "/resolve"))
+            .andExpect(MockMvcResultMatchers.status().isForbidden());
+  }
+
   @Test
   @WithMockUser(roles = "SUPER_ADMIN")
   void updateAffectedArea_validIdAndInput_returnsOkWithUpdatedArea() throws Exception {
@@ -280,4 +318,61 @@ class AffectedAreaControllerTest {
                     .content(objectMapper.writeValueAsString(testAreaRequest1)))
             .andExpect(MockMvcResultMatchers.status().isForbidden());
   }
+
+  @Test
+  void getAffectedAreaClusters_shouldReturnOkWithoutAuthentication() throws Exception {
+    when(affectedAreaService.getAffectedAreaClusters(any(ClusterRequest.class)))
+            .thenReturn(List.of(new ClusterResponse(null, 63.4, 10.4, 3, Map.of("2", 3))));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BASE_URL + "/clusters")
+                    .param("zoom", "5")
+                    .param("minLatitude", "57")
+                    .param("minLongitude", "4")
+                    .param("maxLatitude", "72")
+                    .param("maxLongitude", "32"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].count").value(3))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].breakdown.2").value(3));
+  }
+
+  @Test
+  void getAffectedAreaClusters_missingZoom_returnsBadRequest() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.get(BASE_URL + "/clusters")
+                    .param("minLatitude", "57")
+                    .param("minLongitude", "4")
+                    .param("maxLatitude", "72")
+                    .param("maxLongitude", "32"))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    verify(affectedAreaService, never()).getAffectedAreaClusters(any());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void assignShelters_adminRole_returnsSummary() throws Exception {
+    when(evacuationService.assignShelters(testId))
+            .thenReturn(new EvacuationResponse(testId, 120, 300, 4, 3));
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + testId + "/evacuation"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.householdsAssigned").value(120))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.householdsUnassigned").value(4));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void assignShelters_unknownArea_returnsNotFound() throws Exception {
+    when(evacuationService.assignShelters(testId))
+            .thenThrow(new ResourceNotFoundException("Affected area not found"));
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + testId + "/evacuation"))
+            .andExpect(MockMvcResultMatchers.status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser
+  void assignShelters_normalUserRole_returnsForbidden() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + testId + "/evacuation"))
+            .andExpect(MockMvcResultMatchers.status().isForbidden());
+    verify(evacuationService, never()).assignShelters(anyLong());
+  }
 }
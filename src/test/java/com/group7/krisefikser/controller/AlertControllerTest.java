@@ -0,0 +1,73 @@
+package com.group7.krisefikser.controller;
+
+import com.group7.krisefikser.dto.response.other.AlertResponse;
+import com.group7.krisefikser.dto.response.other.UnreadAlertCountResponse;
+import com.group7.krisefikser.service.other.AlertService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AlertControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private AlertService alertService;
+
+  @Test
+  @WithMockUser
+  void getAlerts_shouldReturnAlerts() throws Exception {
+    when(alertService.getAlerts()).thenReturn(List.of(
+        new AlertResponse(1L, 7L, "Gas leak", "HIGH", "2025-05-01T12:00", false)));
+
+    mockMvc.perform(get("/api/alerts"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].affectedAreaName").value("Gas leak"))
+        .andExpect(jsonPath("$[0].dangerLevel").value("HIGH"));
+  }
+
+  @Test
+  @WithMockUser
+  void getUnreadCount_shouldReturnCount() throws Exception {
+    when(alertService.getUnreadCount()).thenReturn(new UnreadAlertCountResponse(4));
+
+    mockMvc.perform(get("/api/alerts/unread-count"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.unreadCount").value(4));
+  }
+
+  @Test
+  @WithMockUser
+  void markAllAsRead_shouldReturnNoContent() throws Exception {
+    mockMvc.perform(put("/api/alerts/read"))
+        .andExpect(status().isNoContent());
+
+    verify(alertService).markAllAsRead();
+  }
+
+  @Test
+  void getUnreadCount_withoutAuthentication_shouldBeRejected() throws Exception {
+    mockMvc.perform(get("/api/alerts/unread-count"))
+        .andExpect(status().is4xxClientError());
+
+    verify(alertService, never()).getUnreadCount();
+  }
+}
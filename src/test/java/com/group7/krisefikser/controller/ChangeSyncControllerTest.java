@@ -0,0 +1,49 @@
+package com.group7.krisefikser.controller;
+
+import com.group7.krisefikser.dto.response.location.ChangesResponse;
+import com.group7.krisefikser.service.location.ChangeSyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeSyncControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private ChangeSyncService changeSyncService;
+
+  @Test
+  void getChanges_withoutLogin_returnsChanges() throws Exception {
+    when(changeSyncService.getChanges(5L)).thenReturn(new ChangesResponse(7L, false, false,
+        List.of(), List.of(), List.of(3L), List.of()));
+
+    mockMvc.perform(get("/api/changes").param("since", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.seq").value(7))
+        .andExpect(jsonPath("$.deletedPointOfInterestIds[0]").value(3));
+  }
+
+  @Test
+  void getChanges_negativeSince_returnsBadRequest() throws Exception {
+    when(changeSyncService.getChanges(-1L))
+        .thenThrow(new IllegalArgumentException("Since must not be negative"));
+
+    mockMvc.perform(get("/api/changes").param("since", "-1"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -5,6 +5,7 @@ import com.group7.krisefikser.dto.request.household.EmergencyGroupRequest;
 import com.group7.krisefikser.dto.request.household.InvitationReplyRequest;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupInvitationResponse;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupResponse;
+import com.group7.krisefikser.dto.response.household.NearbyHouseholdResponse;
 import com.group7.krisefikser.dto.response.other.ErrorResponse;
 import com.group7.krisefikser.service.household.EmergencyGroupService;
 import com.group7.krisefikser.service.user.UserService;
@@ -354,4 +355,28 @@ class EmergencyGroupControllerTest {
                     .contentType(MediaType.APPLICATION_JSON))
             .andExpect(MockMvcResultMatchers.status().isForbidden());
   }
-}
\ No newline at end of file
+
+  @Test
+  @WithMockUser
+  void getNearbyHouseholds_shouldReturnHouseholds() throws Exception {
+    when(emergencyGroupService.findNearbyHouseholds(3.0, 20)).thenReturn(
+            List.of(new NearbyHouseholdResponse("Neighbours", 1)));
+
+    mockMvc.perform(get("/api/emergency-groups/nearby-households").param("radiusKm", "3"))
+            .andExpect(status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Neighbours"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].distanceKm").value(1));
+  }
+
+  @Test
+  @WithMockUser
+  void getNearbyHouseholds_shouldReturnBadRequestForInvalidRadius() throws Exception {
+    when(emergencyGroupService.findNearbyHouseholds(100.0, 20))
+            .thenThrow(new IllegalArgumentException("The radius must be between 0 and 20 km."));
+
+    mockMvc.perform(get("/api/emergency-groups/nearby-households").param("radiusKm", "100"))
+            .andExpect(status().isBadRequest())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                    .value("The radius must be between 0 and 20 km."));
+  }
+}
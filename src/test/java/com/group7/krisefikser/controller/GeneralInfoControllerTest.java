@@ -5,12 +5,15 @@ import com.group7.krisefikser.dto.request.article.GeneralInfoRequest;
 import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
 import com.group7.krisefikser.enums.Theme;
 import com.group7.krisefikser.model.article.GeneralInfo;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.service.article.GeneralInfoService;
+import com.group7.krisefikser.utils.ContentUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -50,7 +53,8 @@ class GeneralInfoControllerTest {
         new GeneralInfoResponse(info.getId().toString(),
             info.getTheme().name(), info.getTitle(), info.getContent()));
 
-    Mockito.when(generalInfoService.getAllGeneralInfo()).thenReturn(response);
+    Mockito.when(generalInfoService.getAllGeneralInfoContent())
+        .thenReturn(ContentUtils.fromJson(objectMapper.writeValueAsBytes(response)));
 
     mockMvc.perform(get("/api/general-info/all"))
         .andExpect(status().isOk())
@@ -64,8 +68,8 @@ class GeneralInfoControllerTest {
     response.setTitle("Title");
     response.setContent("Content");
 
-    Mockito.when(generalInfoService.getGeneralInfoByTheme(Theme.AFTER_CRISIS))
-        .thenReturn(List.of(response));
+    Mockito.when(generalInfoService.getGeneralInfoByThemeContent(Theme.AFTER_CRISIS))
+        .thenReturn(ContentUtils.fromJson(objectMapper.writeValueAsBytes(List.of(response))));
 
     mockMvc.perform(get("/api/general-info/after_crisis"))
         .andExpect(status().isOk())
@@ -74,6 +78,21 @@ class GeneralInfoControllerTest {
         .andExpect(jsonPath("$[0].content").value("Content"));
   }
 
+  @Test
+  void getAllGeneralInfo_shouldServeGzippedContentAndNotModified() throws Exception {
+    SerializedContent content = ContentUtils.fromJson("[]".getBytes());
+    Mockito.when(generalInfoService.getAllGeneralInfoContent()).thenReturn(content);
+    String etag = "\"" + content.getVersion() + "\"";
+
+    mockMvc.perform(get("/api/general-info/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().bytes(content.getGzipped()));
+    mockMvc.perform(get("/api/general-info/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+  }
+
   @Test
   void getGeneralInfoByTheme_shouldReturnBadRequestForInvalidTheme() throws Exception {
     mockMvc.perform(get("/api/general-info/invalid_theme"))
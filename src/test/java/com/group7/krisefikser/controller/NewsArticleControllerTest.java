@@ -1,8 +1,10 @@
 package com.group7.krisefikser.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.response.article.NewsArticleResponse;
 import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
 import com.group7.krisefikser.service.article.NewsArticleService;
+import com.group7.krisefikser.utils.ContentUtils;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +30,9 @@ class NewsArticleControllerTest {
   @Autowired
   private MockMvc mockMvc;
 
+  @Autowired
+  private ObjectMapper objectMapper;
+
   @org.springframework.boot.test.mock.mockito.MockBean
   private NewsArticleService newsArticleService;
 
@@ -44,7 +49,8 @@ class NewsArticleControllerTest {
 
     List<ShortenedNewsArticleResponse> articles = Arrays.asList(article1, article2);
 
-    when(newsArticleService.getAllNewsArticles()).thenReturn(articles);
+    when(newsArticleService.getAllNewsArticlesContent())
+        .thenReturn(ContentUtils.fromJson(objectMapper.writeValueAsBytes(articles)));
 
     mockMvc.perform(get("/api/news").accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
@@ -82,7 +88,7 @@ class NewsArticleControllerTest {
 
   @Test
   void testGetAllNews_InternalServerError() throws Exception {
-    when(newsArticleService.getAllNewsArticles()).thenThrow(new RuntimeException("Database error"));
+    when(newsArticleService.getAllNewsArticlesContent()).thenThrow(new RuntimeException("Database error"));
 
     mockMvc.perform(get("/api/news").accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isInternalServerError());
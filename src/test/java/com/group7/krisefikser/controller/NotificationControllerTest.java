@@ -2,7 +2,11 @@ package com.group7.krisefikser.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.request.other.NotificationRequest;
+import com.group7.krisefikser.dto.request.other.ZoneClassificationRequest;
 import com.group7.krisefikser.dto.response.other.NotificationResponse;
+import com.group7.krisefikser.dto.response.other.ZoneClassificationResponse;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.service.other.IncidentStreamService;
 import com.group7.krisefikser.service.other.NotificationService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,11 +17,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +41,9 @@ class NotificationControllerTest {
   @MockitoBean
   private NotificationService notificationService;
 
+  @MockitoBean
+  private IncidentStreamService incidentStreamService;
+
   @Autowired
   private ObjectMapper objectMapper;
 
@@ -81,4 +93,56 @@ class NotificationControllerTest {
             .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().isInternalServerError());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("POST /api/notification/zones - Success")
+  void testPostZonesSuccess() throws Exception {
+    NotificationRequest point = new NotificationRequest();
+    point.setLatitude(60.0);
+    point.setLongitude(10.85);
+    when(notificationService.classifyZones(anyList()))
+        .thenReturn(List.of(new ZoneClassificationResponse(DangerLevel.MEDIUM, 2L)));
+
+    mockMvc.perform(post("/api/notification/zones")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                new ZoneClassificationRequest(List.of(point)))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].level").value("MEDIUM"))
+        .andExpect(jsonPath("$[0].areaId").value(2));
+  }
+
+  @Test
+  @DisplayName("POST /api/notification/zones - Empty request")
+  void testPostZonesEmpty() throws Exception {
+    mockMvc.perform(post("/api/notification/zones")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new ZoneClassificationRequest(List.of()))))
+        .andExpect(status().isBadRequest());
+    verify(notificationService, never()).classifyZones(anyList());
+  }
+
+  @Test
+  @DisplayName("GET /api/notification/stream - Opens stream without authentication")
+  void testStreamIncidents() throws Exception {
+    when(incidentStreamService.subscribe(60.0, 10.85)).thenReturn(new SseEmitter());
+
+    mockMvc.perform(get("/api/notification/stream")
+            .param("latitude", "60.0")
+            .param("longitude", "10.85"))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted());
+  }
+
+  @Test
+  @DisplayName("GET /api/notification/stream - Invalid coordinates")
+  void testStreamIncidentsInvalidCoordinates() throws Exception {
+    when(incidentStreamService.subscribe(91.0, 10.85))
+        .thenThrow(new IllegalArgumentException("Invalid coordinates"));
+
+    mockMvc.perform(get("/api/notification/stream")
+            .param("latitude", "91.0")
+            .param("longitude", "10.85"))
+        .andExpect(status().isBadRequest());
+  }
+}
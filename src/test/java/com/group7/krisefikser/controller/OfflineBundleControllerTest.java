@@ -0,0 +1,68 @@
+package com.group7.krisefikser.controller;
+
+import com.group7.krisefikser.model.other.SerializedContent;
+import com.group7.krisefikser.service.other.OfflineBundleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OfflineBundleControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private OfflineBundleService offlineBundleService;
+
+  private final byte[] json = "{\"version\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+  private final byte[] gzipped = {31, -117, 8, 0};
+
+  @BeforeEach
+  void setUp() {
+    when(offlineBundleService.getBundle())
+        .thenReturn(new SerializedContent("abc", json, gzipped));
+  }
+
+  @Test
+  void getLatestBundle_withGzip_returnsGzippedBytesWithoutLogin() throws Exception {
+    mockMvc.perform(get("/api/offline-bundle").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+        .andExpect(header().string(HttpHeaders.CONTENT_LOCATION, "/api/offline-bundle/abc"))
+        .andExpect(content().bytes(gzipped));
+  }
+
+  @Test
+  void getLatestBundle_withMatchingEtag_returnsNotModified() throws Exception {
+    mockMvc.perform(get("/api/offline-bundle").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void getBundleVersion_returnsImmutableBundleOrNotFound() throws Exception {
+    mockMvc.perform(get("/api/offline-bundle/abc"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+        .andExpect(content().bytes(json));
+
+    mockMvc.perform(get("/api/offline-bundle/old"))
+        .andExpect(status().isNotFound());
+  }
+}
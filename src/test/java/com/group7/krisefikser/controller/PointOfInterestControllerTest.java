@@ -4,8 +4,13 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.request.location.GetPointsOfInterestRequest;
 import com.group7.krisefikser.dto.request.location.PointOfInterestRequest;
+import com.group7.krisefikser.dto.response.location.NearestPointOfInterestResponse;
+import com.group7.krisefikser.dto.response.location.PointOfInterestImportResponse;
 import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
+import com.group7.krisefikser.dto.response.location.ShelterOccupancyResponse;
+import com.group7.krisefikser.service.location.PointOfInterestImportService;
 import com.group7.krisefikser.service.location.PointOfInterestService;
+import com.group7.krisefikser.service.location.ShelterCheckInService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -26,6 +31,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -44,6 +51,12 @@ class PointOfInterestControllerTest {
   @MockitoBean
   private PointOfInterestService pointOfInterestService;
 
+  @MockitoBean
+  private ShelterCheckInService shelterCheckInService;
+
+  @MockitoBean
+  private PointOfInterestImportService pointOfInterestImportService;
+
   @Autowired
   private ObjectMapper objectMapper;
 
@@ -89,9 +102,9 @@ class PointOfInterestControllerTest {
     String requestString = "?types=SHELTER&types=WATER_STATION";
     List<PointOfInterestResponse> mockResponses = Arrays.asList(
             new PointOfInterestResponse(1L, 63.4297, 10.3933, "SHELTER"
-                    , "08:00", "20:00", "123456789", "A shelter for people in need"),
+                    , "08:00", "20:00", "123456789", "A shelter for people in need", null, 0),
             new PointOfInterestResponse(2L, 63.4297, 10.3933, "WATER_STATION",
-                    "08:00", "20:00", "123456789", "A water station for people in need")
+                    "08:00", "20:00", "123456789", "A water station for people in need", null, 0)
     );
     when(pointOfInterestService.getPointsOfInterestByTypes(request)).thenReturn(mockResponses);
 
@@ -353,4 +366,116 @@ class PointOfInterestControllerTest {
             .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(errorMessage));
   }
+
+  @Test
+  void getNearestPointsOfInterest_shouldReturnOkWithoutAuthentication() throws Exception {
+    when(pointOfInterestService.getNearestPointsOfInterest(List.of("SHELTER"), 63.4, 10.4, 1))
+            .thenReturn(List.of(new NearestPointOfInterestResponse(
+                    createValidPointOfInterestResponse(TEST_ID), 2.5)));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BASE_URL + "/nearest")
+                    .param("types", "SHELTER")
+                    .param("latitude", "63.4")
+                    .param("longitude", "10.4")
+                    .param("k", "1"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].pointOfInterest.id").value(TEST_ID))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].distanceKm").value(2.5));
+  }
+
+  @Test
+  void getNearestPointsOfInterest_shouldReturnBadRequest_whenServiceRejectsArguments()
+          throws Exception {
+    when(pointOfInterestService.getNearestPointsOfInterest(List.of("SHELTER"), 63.4, 10.4, 0))
+            .thenThrow(new IllegalArgumentException("k must be between 1 and 100"));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BASE_URL + "/nearest")
+                    .param("types", "SHELTER")
+                    .param("latitude", "63.4")
+                    .param("longitude", "10.4")
+                    .param("k", "0"))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+  }
+
+  @Test
+  void getShelterOccupancy_shouldReturnOkWithoutAuthentication() throws Exception {
+    when(shelterCheckInService.getOccupancy(TEST_ID))
+            .thenReturn(new ShelterOccupancyResponse(TEST_ID, 200, 57));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BASE_URL + "/" + TEST_ID + "/occupancy"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.capacity").value(200))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.checkedIn").value(57));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void checkIn_shouldReturnOccupancyAfterCheckIn() throws Exception {
+    when(shelterCheckInService.checkIn(TEST_ID, 3))
+            .thenReturn(new ShelterOccupancyResponse(TEST_ID, 200, 60));
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + TEST_ID + "/check-in")
+                    .param("people", "3"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.checkedIn").value(60));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void checkOut_shouldReturnConflict_whenFewerPeopleAreCheckedIn() throws Exception {
+    when(shelterCheckInService.checkOut(TEST_ID, 1))
+            .thenThrow(new IllegalStateException("Only 0 people are checked in"));
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + TEST_ID + "/check-out"))
+            .andExpect(MockMvcResultMatchers.status().isConflict());
+  }
+
+  @Test
+  @WithMockUser
+  void checkIn_shouldReturnForbidden_forNormalUser() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/" + TEST_ID + "/check-in"))
+            .andExpect(MockMvcResultMatchers.status().isForbidden());
+    verify(shelterCheckInService, never()).checkIn(anyLong(), anyInt());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void importPointsOfInterest_shouldReturnImportResult() throws Exception {
+    when(pointOfInterestImportService.importPointsOfInterest(any(), eq("csv")))
+            .thenReturn(new PointOfInterestImportResponse(2, 1, true,
+                    List.of("Row 3: Invalid type: bunker")));
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/import")
+                    .param("format", "csv")
+                    .contentType("text/csv")
+                    .content("external_id,type,latitude,longitude\n"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void importPointsOfInterest_shouldReturnBadRequest_whenFileIsCutOff() throws Exception {
+    when(pointOfInterestImportService.importPointsOfInterest(any(), eq("geojson")))
+            .thenReturn(new PointOfInterestImportResponse(1, 0, false,
+                    List.of("Stopped at row 2: Unexpected end-of-input")));
+
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/import")
+                    .param("format", "geojson")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"type\":\"FeatureCollection\",\"features\":["))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.complete").value(false));
+  }
+
+  @Test
+  @WithMockUser
+  void importPointsOfInterest_shouldReturnForbidden_forNormalUser() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.post(BASE_URL + "/import")
+                    .param("format", "csv")
+                    .content("external_id,type,latitude,longitude\n"))
+            .andExpect(MockMvcResultMatchers.status().isForbidden());
+    verifyNoInteractions(pointOfInterestImportService);
+  }
 }
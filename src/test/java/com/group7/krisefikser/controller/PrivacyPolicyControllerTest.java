@@ -6,6 +6,7 @@ import com.group7.krisefikser.dto.request.article.UpdateUnregisteredPrivacyPolic
 import com.group7.krisefikser.dto.response.article.GetRegisteredPrivacyPolicyResponse;
 import com.group7.krisefikser.dto.response.article.GetUnregisteredPrivacyPolicyResponse;
 import com.group7.krisefikser.service.article.PrivacyPolicyService;
+import com.group7.krisefikser.utils.ContentUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,7 +40,8 @@ class PrivacyPolicyControllerTest {
   void testGetRegisteredPrivacyPolicy() throws Exception {
     GetRegisteredPrivacyPolicyResponse mockResponse = new GetRegisteredPrivacyPolicyResponse();
     mockResponse.setRegistered("Some policy");
-    Mockito.when(privacyPolicyService.getRegisteredPrivacyPolicy()).thenReturn(mockResponse);
+    Mockito.when(privacyPolicyService.getRegisteredPrivacyPolicyContent())
+        .thenReturn(ContentUtils.fromJson(objectMapper.writeValueAsBytes(mockResponse)));
 
     mockMvc.perform(get("/api/privacy-policy/registered"))
         .andExpect(status().isOk())
@@ -50,7 +52,8 @@ class PrivacyPolicyControllerTest {
   void testGetUnregisteredPrivacyPolicy() throws Exception {
     GetUnregisteredPrivacyPolicyResponse mockResponse = new GetUnregisteredPrivacyPolicyResponse();
     mockResponse.setUnregistered("Other policy");
-    Mockito.when(privacyPolicyService.getUnregisteredPrivacyPolicy()).thenReturn(mockResponse);
+    Mockito.when(privacyPolicyService.getUnregisteredPrivacyPolicyContent())
+        .thenReturn(ContentUtils.fromJson(objectMapper.writeValueAsBytes(mockResponse)));
 
     mockMvc.perform(get("/api/privacy-policy/unregistered"))
         .andExpect(status().isOk())
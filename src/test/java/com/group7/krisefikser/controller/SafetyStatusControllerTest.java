@@ -0,0 +1,83 @@
+package com.group7.krisefikser.controller;
+
+import com.group7.krisefikser.dto.response.household.SafetyStatusResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.service.household.SafetyStatusService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SafetyStatusControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private SafetyStatusService safetyStatusService;
+
+  @Test
+  @WithMockUser
+  void reportStatus_returnsReportedStatus() throws Exception {
+    when(safetyStatusService.reportStatus(1L, true)).thenReturn(
+        new SafetyStatusResponse(1L, "Ada", 1L, true, LocalDateTime.of(2025, 5, 1, 12, 0)));
+
+    mockMvc.perform(post("/api/safety-status/1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"safe\": true}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Ada"))
+        .andExpect(jsonPath("$.safe").value(true));
+  }
+
+  @Test
+  @WithMockUser
+  void reportStatus_missingSafe_returnsBadRequest() throws Exception {
+    mockMvc.perform(post("/api/safety-status/1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(safetyStatusService);
+  }
+
+  @Test
+  @WithMockUser
+  void getGroupStatuses_returnsStatuses() throws Exception {
+    when(safetyStatusService.getGroupStatuses(1L)).thenReturn(List.of(
+        new SafetyStatusResponse(1L, "Ada", 1L, true, LocalDateTime.of(2025, 5, 1, 12, 0)),
+        new SafetyStatusResponse(3L, "Cy", 3L, null, null)));
+
+    mockMvc.perform(get("/api/safety-status/1/group"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].householdId").value(3));
+  }
+
+  @Test
+  @WithMockUser
+  void getHouseholdStatuses_unknownArea_returnsNotFound() throws Exception {
+    when(safetyStatusService.getHouseholdStatuses(99L))
+        .thenThrow(new ResourceNotFoundException("Affected area not found"));
+
+    mockMvc.perform(get("/api/safety-status/99/household"))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.request.location.SharePositionRequest;
 import com.group7.krisefikser.dto.response.location.GroupMemberPositionResponse;
 import com.group7.krisefikser.dto.response.location.HouseholdMemberPositionResponse;
+import com.group7.krisefikser.dto.response.location.PositionHistoryPointResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
 import com.group7.krisefikser.service.location.UserPositionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,7 +18,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -129,4 +137,50 @@ class UserPositionControllerTest {
         .andExpect(status().isInternalServerError())
         .andExpect(content().string("Error retrieving group positions"));
   }
+
+  @Test
+  @WithMockUser
+  void testStreamPositions_Success() throws Exception {
+    when(userPositionService.subscribeToPositions()).thenReturn(new SseEmitter());
+
+    mockMvc.perform(get("/api/position/stream"))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted());
+  }
+
+  @Test
+  @WithMockUser
+  void testStreamPositions_TooManySubscribers() throws Exception {
+    when(userPositionService.subscribeToPositions())
+        .thenThrow(new IllegalStateException("Too many position stream subscribers"));
+
+    mockMvc.perform(get("/api/position/stream"))
+        .andExpect(status().isServiceUnavailable());
+  }
+
+  @Test
+  @WithMockUser
+  void testGetPositionHistory_Success() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2025, 10, 9, 8, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 10, 9, 10, 0);
+    when(userPositionService.getPositionHistory(7L, from, to)).thenReturn(
+        List.of(new PositionHistoryPointResponse(from.plusMinutes(5), 60.0, 11.0)));
+
+    mockMvc.perform(get("/api/position/history/7")
+            .param("from", "2025-10-09T08:00:00")
+            .param("to", "2025-10-09T10:00:00"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].latitude").value(60.0))
+        .andExpect(jsonPath("$[0].longitude").value(11.0));
+  }
+
+  @Test
+  @WithMockUser
+  void testGetPositionHistory_NotVisible() throws Exception {
+    when(userPositionService.getPositionHistory(eq(8L), any(), any()))
+        .thenThrow(new ResourceNotFoundException("No position history for user 8"));
+
+    mockMvc.perform(get("/api/position/history/8"))
+        .andExpect(status().isNotFound());
+  }
 }
@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -137,4 +138,53 @@ class AffectedAreaRepoTest {
     assertEquals(java.sql.Timestamp.valueOf(updatedArea.getStartDate()).toLocalDateTime().truncatedTo(ChronoUnit.MILLIS),
             ((java.sql.Timestamp) retrievedArea.get("start_time")).toLocalDateTime().truncatedTo(ChronoUnit.MILLIS));
   }
+
+  @Test
+  @Transactional
+  void resolveAffectedArea_shouldHideAreaAndRecordRemoval() {
+    affectedAreaRepo.addAffectedArea(testArea1);
+    LocalDateTime endDate = LocalDateTime.now().withNano(0);
+
+    assertEquals(1, affectedAreaRepo.resolveAffectedArea(testArea1.getId(), endDate));
+    assertEquals(0, affectedAreaRepo.resolveAffectedArea(testArea1.getId(), endDate),
+            "A resolved area should not be resolved again");
+
+    assertTrue(affectedAreaRepo.getAffectedAreaById(testArea1.getId()).isEmpty());
+    assertEquals(3, affectedAreaRepo.getAllAffectedAreas().size());
+    Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT status, end_time FROM affected_areas WHERE id = ?", testArea1.getId());
+    assertEquals("resolved", row.get("status"));
+    assertEquals(endDate, ((java.sql.Timestamp) row.get("end_time")).toLocalDateTime());
+    assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("SELECT deleted FROM change_log "
+                    + "WHERE entity_type = 'affected_area' AND entity_id = ? "
+                    + "ORDER BY seq DESC LIMIT 1", Boolean.class, testArea1.getId()));
+
+    testArea1.setName("Changed");
+    assertEquals(0, affectedAreaRepo.updateAffectedArea(testArea1),
+            "A resolved area should not be updated");
+  }
+
+  @Test
+  @Transactional
+  void archiveResolvedAffectedAreas_shouldMoveOnlyAreasResolvedBeforeCutoff() {
+    affectedAreaRepo.addAffectedArea(testArea1);
+    affectedAreaRepo.addAffectedArea(testArea2);
+    LocalDateTime now = LocalDateTime.now();
+    affectedAreaRepo.resolveAffectedArea(testArea1.getId(), now.minusDays(10));
+    affectedAreaRepo.resolveAffectedArea(testArea2.getId(), now.minusDays(1));
+
+    List<Long> ids = affectedAreaRepo.getResolvedAffectedAreaIds(now.minusDays(7), 10);
+    assertEquals(List.of(testArea1.getId()), ids);
+    assertEquals(1, affectedAreaRepo.archiveResolvedAffectedAreas(ids));
+    assertEquals(0, affectedAreaRepo.archiveResolvedAffectedAreas(ids));
+    assertEquals(List.of(), affectedAreaRepo.getResolvedAffectedAreaIds(now.minusDays(7), 10));
+
+    assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM affected_areas WHERE id = ?", Integer.class, testArea1.getId()));
+    Map<String, Object> archived = jdbcTemplate.queryForMap(
+            "SELECT name, end_time FROM affected_areas_archive WHERE id = ?", testArea1.getId());
+    assertEquals("Name 1", archived.get("name"));
+    assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM affected_areas WHERE id = ?", Integer.class, testArea2.getId()));
+  }
 }
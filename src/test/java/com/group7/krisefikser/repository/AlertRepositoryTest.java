@@ -0,0 +1,105 @@
+package com.group7.krisefikser.repository;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.model.other.Alert;
+import com.group7.krisefikser.repository.other.AlertRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AlertRepositoryTest {
+
+  private static final LocalDateTime FIRST = LocalDateTime.of(2025, 5, 1, 10, 0);
+  private static final LocalDateTime SECOND = FIRST.plusHours(1);
+
+  @Autowired
+  private AlertRepository alertRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Alert alertOf(long userId) {
+    List<Alert> alerts = alertRepository.getAlertsByUserId(userId, 10);
+    assertEquals(1, alerts.size());
+    return alerts.get(0);
+  }
+
+  @Test
+  void upsertAlerts_shouldInsertUnreadAlerts() {
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.HIGH, 2L, DangerLevel.LOW),
+        FIRST);
+
+    Alert alert = alertOf(1L);
+    assertEquals(1L, alert.getAffectedAreaId());
+    assertEquals("Chemical Spill", alert.getAffectedAreaName());
+    assertEquals(DangerLevel.HIGH, alert.getDangerLevel());
+    assertEquals(FIRST, alert.getCreatedAt());
+    assertFalse(alert.isRead());
+    assertEquals(DangerLevel.LOW, alertOf(2L).getDangerLevel());
+  }
+
+  @Test
+  void upsertAlerts_sameLevel_shouldKeepReadStateAndTime() {
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.MEDIUM), FIRST);
+    alertRepository.markAllAsRead(1L);
+
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.MEDIUM), SECOND);
+
+    Alert alert = alertOf(1L);
+    assertTrue(alert.isRead());
+    assertEquals(FIRST, alert.getCreatedAt());
+    assertEquals(1, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM alerts WHERE user_id = 1", Integer.class));
+  }
+
+  @Test
+  void upsertAlerts_newLevel_shouldMarkAlertAsUnreadAgain() {
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.LOW), FIRST);
+    alertRepository.markAllAsRead(1L);
+
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.HIGH), SECOND);
+
+    Alert alert = alertOf(1L);
+    assertFalse(alert.isRead());
+    assertEquals(DangerLevel.HIGH, alert.getDangerLevel());
+    assertEquals(SECOND, alert.getCreatedAt());
+  }
+
+  @Test
+  void deleteAlerts_shouldOnlyDeleteAlertsOfTheAreaForTheGivenUsers() {
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.HIGH, 2L, DangerLevel.LOW),
+        FIRST);
+    alertRepository.upsertAlerts(2L, Map.of(2L, DangerLevel.LOW), FIRST);
+
+    alertRepository.deleteAlerts(1L, List.of(2L));
+
+    assertEquals(List.of(1L), alertRepository.getAlertedUserIds(1L));
+    assertEquals(List.of(2L), alertRepository.getAlertedUserIds(2L));
+  }
+
+  @Test
+  void countUnreadAlertsAndMarkAllAsRead_shouldOnlyCountUnreadAlertsOfTheUser() {
+    alertRepository.upsertAlerts(1L, Map.of(1L, DangerLevel.HIGH, 2L, DangerLevel.HIGH),
+        FIRST);
+    alertRepository.upsertAlerts(2L, Map.of(1L, DangerLevel.LOW), FIRST);
+    assertEquals(2, alertRepository.countUnreadAlerts(1L));
+
+    assertEquals(2, alertRepository.markAllAsRead(1L));
+
+    assertEquals(0, alertRepository.countUnreadAlerts(1L));
+    assertEquals(0, alertRepository.markAllAsRead(1L));
+    assertEquals(1, alertRepository.countUnreadAlerts(2L));
+  }
+}
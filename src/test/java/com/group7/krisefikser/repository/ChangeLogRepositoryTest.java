@@ -0,0 +1,84 @@
+package com.group7.krisefikser.repository;
+
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.enums.SyncEntityType;
+import com.group7.krisefikser.model.location.ChangeLogEntry;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.ChangeLogRepository;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ChangeLogRepositoryTest {
+
+  @Autowired
+  private ChangeLogRepository changeLogRepository;
+
+  @Autowired
+  private PointOfInterestRepo pointOfInterestRepo;
+
+  @Autowired
+  private AffectedAreaRepo affectedAreaRepo;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long latestSeq() {
+    Long seq = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM change_log", Long.class);
+    return seq == null ? 0 : seq;
+  }
+
+  @Test
+  void repositoryWrites_areRecordedInOrder() {
+    long since = latestSeq();
+    PointOfInterest point = new PointOfInterest(null, 60.0, 10.0,
+        PointOfInterestType.SHELTER, null, null, null, "New shelter", 50, 0);
+    pointOfInterestRepo.addPointOfInterest(point);
+    pointOfInterestRepo.deletePointOfInterest(point.getId());
+    affectedAreaRepo.deleteAffectedArea(2L);
+
+    List<ChangeLogEntry> changes = changeLogRepository.getChangesSince(since, 10);
+
+    assertEquals(3, changes.size());
+    assertEquals(point.getId(), changes.get(0).getEntityId());
+    assertFalse(changes.get(0).isDeleted());
+    assertTrue(changes.get(1).isDeleted());
+    assertEquals(SyncEntityType.AFFECTED_AREA, changes.get(2).getEntityType());
+    assertEquals(2L, changes.get(2).getEntityId());
+    assertEquals(2, changeLogRepository.getChangesSince(since, 2).size());
+  }
+
+  @Test
+  void compaction_removesSupersededChangesAndOldDeletions() {
+    changeLogRepository.recordChange(SyncEntityType.POINT_OF_INTEREST, 1L, false);
+    changeLogRepository.recordChange(SyncEntityType.POINT_OF_INTEREST, 1L, false);
+    changeLogRepository.recordChange(SyncEntityType.AFFECTED_AREA, 3L, true);
+    long deletionSeq = latestSeq();
+
+    assertTrue(changeLogRepository.deleteSupersededChanges() >= 1);
+    assertEquals(0, changeLogRepository.deleteDeletionsBefore(
+        LocalDateTime.now().minusDays(1)));
+    assertEquals(1, changeLogRepository.deleteDeletionsBefore(
+        LocalDateTime.now().plusMinutes(1)));
+
+    assertEquals(deletionSeq, changeLogRepository.getCompactedSeq());
+    List<ChangeLogEntry> remaining = changeLogRepository.getChangesSince(0, 10);
+    assertEquals(1, remaining.size());
+    assertEquals(deletionSeq - 1, remaining.get(0).getSeq());
+    assertEquals(deletionSeq - 1,
+        changeLogRepository.getSettledSeq(LocalDateTime.now().plusMinutes(1)));
+  }
+}
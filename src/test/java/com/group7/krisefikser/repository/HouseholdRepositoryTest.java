@@ -1,6 +1,7 @@
 package com.group7.krisefikser.repository;
 
 import com.group7.krisefikser.model.household.Household;
+import com.group7.krisefikser.model.household.HouseholdSupply;
 import com.group7.krisefikser.repository.household.HouseholdRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,8 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -93,4 +96,42 @@ class HouseholdRepositoryTest {
     Household household = householdOptional.get();
     assertEquals(groupId, household.getEmergencyGroupId());
   }
-}
\ No newline at end of file
+
+  @Test
+  void getHouseholdSuppliesByEmergencyGroupId_existingGroup_returnsOneRowPerHousehold() {
+    List<Household> households = householdRepository.getHouseholdsByEmergencyGroupId(1L);
+    List<HouseholdSupply> supplies = householdRepository.getHouseholdSuppliesByEmergencyGroupId(1L);
+
+    assertFalse(supplies.isEmpty());
+    assertEquals(households.size(), supplies.size());
+    for (HouseholdSupply supply : supplies) {
+      assertTrue(supply.getCalories() >= 0);
+      assertTrue(supply.getLiters() >= 0);
+      assertTrue(supply.getUserCount() >= 0);
+    }
+  }
+
+  @Test
+  void findHouseholdLocation_existingHousehold_returnsLocationAndGroup() {
+    List<Object[]> rows = new ArrayList<>();
+    householdRepository.findHouseholdLocation(1L, (id, name, latitude, longitude, groupId) ->
+            rows.add(new Object[] {id, name, latitude, longitude, groupId}));
+    householdRepository.findHouseholdLocation(2L, (id, name, latitude, longitude, groupId) ->
+            rows.add(new Object[] {id, name, latitude, longitude, groupId}));
+
+    assertEquals(2, rows.size());
+    assertEquals("The Smiths", rows.get(0)[1]);
+    assertEquals(59.91, (double) rows.get(0)[2], 1e-9);
+    assertEquals(1L, rows.get(0)[4]);
+    assertNull(rows.get(1)[4]);
+  }
+
+  @Test
+  void forEachHouseholdLocation_returnsEveryHousehold() {
+    List<Long> ids = new ArrayList<>();
+    householdRepository.forEachHouseholdLocation((id, name, latitude, longitude, groupId) ->
+            ids.add(id));
+
+    assertTrue(ids.containsAll(List.of(1L, 2L, 3L, 4L, 5L)));
+  }
+}
@@ -1,6 +1,7 @@
 package com.group7.krisefikser.repository;
 
 import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.model.location.ImportedPointOfInterest;
 import com.group7.krisefikser.model.location.PointOfInterest;
 import com.group7.krisefikser.repository.location.PointOfInterestRepo;
 import org.junit.jupiter.api.Test;
@@ -82,7 +83,7 @@ class PointOfInterestRepoTest {
             LocalTime.of(9, 0),
             LocalTime.of(17, 0),
             "12345678",
-            "General supplies available here"
+            "General supplies available here", null, 0
     );
 
     pointOfInterestRepo.addPointOfInterest(newPoint);
@@ -149,7 +150,7 @@ class PointOfInterestRepoTest {
             LocalTime.of(8, 0),
             LocalTime.of(20, 0),
             "98765432",
-            "Updated hospital description"
+            "Updated hospital description", null, 0
     );
 
     int rowsAffected = pointOfInterestRepo.updatePointOfInterest(updatedPoint);
@@ -165,7 +166,7 @@ class PointOfInterestRepoTest {
                     rs.getObject("opens_at", LocalTime.class),
                     rs.getObject("closes_at", LocalTime.class),
                     rs.getString("contact_number"),
-                    rs.getString("description")
+                    rs.getString("description"), null, 0
             ));
 
     assertEquals(updatedPoint.getId(), pointAfter.getId());
@@ -194,7 +195,7 @@ class PointOfInterestRepoTest {
             LocalTime.of(8, 0),
             LocalTime.of(20, 0),
             "98765432",
-            "Updated hospital description"
+            "Updated hospital description", null, 0
     );
 
     int rowsAffected = pointOfInterestRepo.updatePointOfInterest(nonExistingPoint);
@@ -204,4 +205,46 @@ class PointOfInterestRepoTest {
     Integer totalCount = jdbcTemplate.queryForObject(selectAllSql, Integer.class);
     assertEquals(6, totalCount);
   }
+
+  @Test
+  void updatePointOfInterest_shouldKeepOccupancyOfShelter() {
+    jdbcTemplate.update("UPDATE points_of_interest SET capacity = 50, occupancy = 7 "
+            + "WHERE id = 1");
+    PointOfInterest shelter = new PointOfInterest(1L, 59.91, 10.76,
+            PointOfInterestType.SHELTER, null, null, null, "Updated shelter", 60, 0);
+
+    assertEquals(1, pointOfInterestRepo.updatePointOfInterest(shelter));
+
+    assertEquals(7, shelter.getOccupancy());
+    assertEquals(7, jdbcTemplate.queryForObject(
+            "SELECT occupancy FROM points_of_interest WHERE id = 1", Integer.class));
+  }
+
+  @Test
+  void upsertPointsOfInterest_shouldAddNewAndUpdateImportedPointsByExternalId() {
+    jdbcTemplate.update("UPDATE points_of_interest SET external_id = 'reg-1', occupancy = 7 "
+            + "WHERE id = 1");
+    Long changesBefore = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_log",
+            Long.class);
+
+    int written = pointOfInterestRepo.upsertPointsOfInterest(List.of(
+            new ImportedPointOfInterest("reg-1", new PointOfInterest(null, 59.92, 10.76,
+                    PointOfInterestType.SHELTER, null, null, null, "Moved shelter", 250, 0)),
+            new ImportedPointOfInterest("reg-2", new PointOfInterest(null, 60.39, 5.32,
+                    PointOfInterestType.DEFIBRILLATOR, null, null, "12345678", null, null, 0))));
+
+    assertEquals(2, written);
+    assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM points_of_interest",
+            Integer.class));
+    PointOfInterest updated = pointOfInterestRepo.getPointsOfInterestByIds(List.of(1L)).get(0);
+    assertEquals(59.92, updated.getLatitude());
+    assertEquals("Moved shelter", updated.getDescription());
+    assertEquals(250, updated.getCapacity());
+    assertEquals(7, updated.getOccupancy());
+    assertEquals(PointOfInterestType.DEFIBRILLATOR, PointOfInterestType.fromString(
+            jdbcTemplate.queryForObject("SELECT type FROM points_of_interest "
+                    + "WHERE external_id = 'reg-2'", String.class)));
+    assertEquals(changesBefore + 2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM change_log", Long.class));
+  }
 }
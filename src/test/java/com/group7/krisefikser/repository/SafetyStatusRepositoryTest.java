@@ -0,0 +1,42 @@
+package com.group7.krisefikser.repository;
+
+import com.group7.krisefikser.model.household.SafetyStatus;
+import com.group7.krisefikser.repository.household.SafetyStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SafetyStatusRepositoryTest {
+
+  @Autowired
+  private SafetyStatusRepository safetyStatusRepository;
+
+  @Test
+  void upsertSafetyStatuses_insertsAndReplacesStatuses() {
+    LocalDateTime reportedAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+    safetyStatusRepository.upsertSafetyStatuses(List.of(
+        new SafetyStatus(1L, 1L, false, reportedAt),
+        new SafetyStatus(2L, 1L, true, reportedAt)));
+    safetyStatusRepository.upsertSafetyStatuses(List.of(
+        new SafetyStatus(1L, 1L, true, reportedAt.plusMinutes(5))));
+
+    List<SafetyStatus> statuses = safetyStatusRepository.getSafetyStatusesByAffectedArea(1L);
+
+    assertEquals(2, statuses.size());
+    SafetyStatus first = statuses.stream()
+        .filter(status -> status.getUserId() == 1L).findFirst().orElseThrow();
+    assertTrue(first.isSafe());
+    assertEquals(reportedAt.plusMinutes(5), first.getUpdatedAt());
+    assertTrue(safetyStatusRepository.getSafetyStatusesByAffectedArea(2L).isEmpty());
+  }
+}
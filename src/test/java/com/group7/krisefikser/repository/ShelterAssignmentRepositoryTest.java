@@ -0,0 +1,85 @@
+package com.group7.krisefikser.repository;
+
+import com.group7.krisefikser.model.location.ShelterAssignment;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ShelterAssignmentRepositoryTest {
+
+  @Autowired
+  private ShelterAssignmentRepository shelterAssignmentRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("UPDATE points_of_interest SET capacity = 10 WHERE id = 1");
+  }
+
+  private Map<Long, Integer> unassignedHouseholds() {
+    Map<Long, Integer> households = new HashMap<>();
+    shelterAssignmentRepository.forEachUnassignedHouseholdInBox(59.9, 10.7, 60.0, 11.0,
+        (householdId, latitude, longitude, people) -> households.put(householdId, people));
+    return households;
+  }
+
+  @Test
+  void forEachUnassignedHouseholdInBox_countsPeopleAndSkipsAssignedHouseholds() {
+    assertEquals(Map.of(1L, 4, 3L, 3), unassignedHouseholds());
+
+    shelterAssignmentRepository.insertAssignments(List.of(
+        new ShelterAssignment(1L, 1L, 1L, 4, 0.6, LocalDateTime.now())));
+
+    assertEquals(Map.of(3L, 3), unassignedHouseholds());
+  }
+
+  @Test
+  void addOccupancy_withinCapacity_updatesOccupancy() {
+    shelterAssignmentRepository.addOccupancy(Map.of(1L, 4));
+    shelterAssignmentRepository.addOccupancy(Map.of(1L, 6));
+
+    assertEquals(10, jdbcTemplate.queryForObject(
+        "SELECT occupancy FROM points_of_interest WHERE id = 1", Integer.class));
+  }
+
+  @Test
+  void addOccupancy_overCapacity_throwsException() {
+    shelterAssignmentRepository.addOccupancy(Map.of(1L, 8));
+
+    assertThrows(IllegalStateException.class,
+        () -> shelterAssignmentRepository.addOccupancy(Map.of(1L, 3)));
+  }
+
+  @Test
+  void releaseAssignments_subtractsPeopleAndDeletesAssignmentsOfArea() {
+    shelterAssignmentRepository.insertAssignments(List.of(
+        new ShelterAssignment(1L, 1L, 1L, 4, 0.6, LocalDateTime.now()),
+        new ShelterAssignment(3L, 1L, 1L, 3, 0.8, LocalDateTime.now())));
+    shelterAssignmentRepository.addOccupancy(Map.of(1L, 9));
+
+    assertEquals(Set.of(1L), shelterAssignmentRepository.releaseAssignments(List.of(1L)));
+
+    assertEquals(2, jdbcTemplate.queryForObject(
+        "SELECT occupancy FROM points_of_interest WHERE id = 1", Integer.class));
+    assertEquals(Map.of(1L, 4, 3L, 3), unassignedHouseholds());
+    assertEquals(Set.of(), shelterAssignmentRepository.releaseAssignments(List.of(1L)));
+  }
+}
@@ -0,0 +1,42 @@
+package com.group7.krisefikser.repository;
+
+import com.group7.krisefikser.model.location.ShelterOccupancy;
+import com.group7.krisefikser.repository.location.ShelterCheckInRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ShelterCheckInRepositoryTest {
+
+  @Autowired
+  private ShelterCheckInRepository shelterCheckInRepository;
+
+  @Test
+  void findShelterOccupancy_returnsSheltersOnly() {
+    ShelterOccupancy occupancy = shelterCheckInRepository.findShelterOccupancy(1L)
+        .orElseThrow();
+
+    assertEquals(0, occupancy.getCheckedIn());
+    assertNull(occupancy.getCapacity());
+    assertTrue(shelterCheckInRepository.findShelterOccupancy(2L).isEmpty());
+  }
+
+  @Test
+  void applyCheckIns_addsDeltasAndRecordsCheckpoint() {
+    shelterCheckInRepository.applyCheckIns(Map.of(1L, 12), 4L);
+    shelterCheckInRepository.applyCheckIns(Map.of(1L, -2), 5L);
+
+    assertEquals(10, shelterCheckInRepository.findShelterOccupancy(1L).orElseThrow()
+        .getCheckedIn());
+    assertEquals(5L, shelterCheckInRepository.getCheckpoint());
+  }
+}
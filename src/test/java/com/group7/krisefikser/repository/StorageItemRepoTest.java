@@ -12,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,6 +103,21 @@ class StorageItemRepoTest {
     assertNotNull(items);
     assertTrue(items.isEmpty());
   }
+
+  @Test
+  void getSharedQuantitiesInGroupByItemId_valid_sumsPerHousehold() {
+    long groupId = 1L;
+    int itemId = 1;
+    List<StorageItem> items = storageItemRepo.getSharedStorageItemsInGroupByItemId(groupId, itemId);
+
+    Map<Long, Double> quantities = storageItemRepo.getSharedQuantitiesInGroupByItemId(groupId, itemId);
+
+    assertEquals(items.stream().mapToDouble(StorageItem::getQuantity).sum(),
+            quantities.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+    assertEquals(items.stream().map(StorageItem::getHouseholdId).distinct().count(),
+            quantities.size());
+  }
+
   /**
    * This method tests the findById method in the StorageItemRepo class.
    * It retrieves a storage item based on its id and household id from the database
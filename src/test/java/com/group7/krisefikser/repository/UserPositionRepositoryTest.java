@@ -26,49 +26,48 @@ class UserPositionRepositoryTest {
     // No cleanup here to avoid foreign key constraint errors.
   }
 
-  @Test
-  void isSharingPosition_existingUser_returnsTrue() {
-    boolean result = userPositionRepository.isSharingPosition(1L);
-    assertTrue(result);
-  }
-
-  @Test
-  void isSharingPosition_nonExistingUser_returnsFalse() {
-    boolean result = userPositionRepository.isSharingPosition(999L);
-    assertFalse(result);
+  private UserPosition findPosition(long userId) {
+    return userPositionRepository.getAllUserPositions().stream()
+        .filter(position -> position.getUserId() == userId)
+        .findFirst()
+        .orElse(null);
   }
 
   @Test
-  void addUserPosition_validUser_addsPosition() {
-    UserPosition newPosition = new UserPosition();
-    newPosition.setUserId(8L);
-    newPosition.setLatitude(60.55);
-    newPosition.setLongitude(11.55);
+  void getAllUserPositions_returnsOnePositionPerSharingUser() {
+    List<UserPosition> positions = userPositionRepository.getAllUserPositions();
 
-    userPositionRepository.addUserPosition(newPosition);
-
-    boolean stored = userPositionRepository.isSharingPosition(8L);
-    assertTrue(stored);
+    assertFalse(positions.isEmpty());
+    assertEquals(positions.size(),
+        positions.stream().map(UserPosition::getUserId).distinct().count());
+    assertNotNull(findPosition(1L));
   }
 
   @Test
-  void updateUserPosition_existingUser_updatesCoordinates() {
+  void upsertUserPositions_insertsNewAndUpdatesExistingPositions() {
     UserPosition updated = new UserPosition();
     updated.setUserId(1L);
     updated.setLatitude(59.999);
     updated.setLongitude(10.999);
-
-    userPositionRepository.updateUserPosition(updated);
-
-    boolean stillSharing = userPositionRepository.isSharingPosition(1L);
-    assertTrue(stillSharing);
+    userPositionRepository.deleteUserPosition(8L);
+    UserPosition added = new UserPosition();
+    added.setUserId(8L);
+    added.setLatitude(60.55);
+    added.setLongitude(11.55);
+
+    userPositionRepository.upsertUserPositions(List.of(updated, added));
+
+    assertEquals(59.999, findPosition(1L).getLatitude());
+    assertEquals(11.55, findPosition(8L).getLongitude());
+    assertEquals(1, userPositionRepository.getAllUserPositions().stream()
+        .filter(position -> position.getUserId() == 1L)
+        .count());
   }
 
   @Test
   void deleteUserPosition_existingUser_removesPosition() {
     userPositionRepository.deleteUserPosition(8L);
-    boolean stillExists = userPositionRepository.isSharingPosition(8L);
-    assertFalse(stillExists);
+    assertNull(findPosition(8L));
   }
 
   @Test
@@ -0,0 +1,103 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import com.group7.krisefikser.service.location.AffectedAreaArchiveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AffectedAreaArchiveService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class AffectedAreaArchiveServiceTest {
+  @Mock
+  private AffectedAreaRepo affectedAreaRepo;
+
+  @Mock
+  private ShelterAssignmentRepository shelterAssignmentRepository;
+
+  @Mock
+  private PointOfInterestRepo pointOfInterestRepo;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private AffectedAreaArchiveService archiveService;
+
+  @BeforeEach
+  void setUp() {
+    archiveService = new AffectedAreaArchiveService(affectedAreaRepo,
+            shelterAssignmentRepository, pointOfInterestRepo, transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    archiveService.shutdown();
+  }
+
+  private static List<Long> ids(int count) {
+    return LongStream.rangeClosed(1, count).boxed().toList();
+  }
+
+  @Test
+  void archive_shouldMoveBatchesUntilOneIsNotFull() {
+    when(affectedAreaRepo.getResolvedAffectedAreaIds(any(LocalDateTime.class), anyInt()))
+            .thenReturn(ids(500), ids(500), ids(20));
+    when(affectedAreaRepo.archiveResolvedAffectedAreas(anyList()))
+            .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+    assertEquals(1020, archiveService.archive());
+
+    ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(affectedAreaRepo, times(3)).getResolvedAffectedAreaIds(cutoff.capture(), eq(500));
+    LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
+    assertTrue(cutoff.getValue().isAfter(weekAgo.minusMinutes(1))
+            && !cutoff.getValue().isAfter(weekAgo));
+    verify(transactionManager, times(3)).commit(any());
+  }
+
+  @Test
+  void archive_shouldReleaseShelterAssignmentsBeforeMovingAreas() {
+    when(affectedAreaRepo.getResolvedAffectedAreaIds(any(LocalDateTime.class), anyInt()))
+            .thenReturn(List.of(4L));
+    when(shelterAssignmentRepository.releaseAssignments(List.of(4L))).thenReturn(Set.of(11L));
+    when(affectedAreaRepo.archiveResolvedAffectedAreas(List.of(4L))).thenReturn(1);
+
+    assertEquals(1, archiveService.archive());
+
+    InOrder order = inOrder(shelterAssignmentRepository, affectedAreaRepo);
+    order.verify(shelterAssignmentRepository).releaseAssignments(List.of(4L));
+    order.verify(affectedAreaRepo).archiveResolvedAffectedAreas(List.of(4L));
+    verify(pointOfInterestRepo).publishChanges(Set.of(11L));
+  }
+
+  @Test
+  void archive_shouldReturnZero_whenNothingIsResolved() {
+    when(affectedAreaRepo.getResolvedAffectedAreaIds(any(LocalDateTime.class), anyInt()))
+            .thenReturn(List.of());
+
+    assertEquals(0, archiveService.archive());
+    verify(affectedAreaRepo, times(1)).getResolvedAffectedAreaIds(any(), anyInt());
+  }
+}
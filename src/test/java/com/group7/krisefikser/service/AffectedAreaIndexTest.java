@@ -0,0 +1,221 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.enums.AffectedAreaStatus;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
+import com.group7.krisefikser.spatial.PolylineCodec;
+import com.group7.krisefikser.utils.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AffectedAreaIndex class.
+ */
+@ExtendWith(MockitoExtension.class)
+class AffectedAreaIndexTest {
+  @Mock
+  private AffectedAreaRepo affectedAreaRepo;
+
+  private AffectedAreaIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new AffectedAreaIndex(affectedAreaRepo);
+  }
+
+  private static AffectedArea area(long id, double latitude, double longitude,
+                                   double mediumRadiusKm) {
+    return new AffectedArea(id, "Area " + id, longitude, latitude, mediumRadiusKm / 2,
+            mediumRadiusKm, mediumRadiusKm * 2, 2, "Description " + id, LocalDateTime.now(),
+            null, AffectedAreaStatus.ACTIVE, null);
+  }
+
+  private static Set<Long> ids(List<AffectedArea> areas) {
+    Set<Long> ids = new HashSet<>();
+    for (AffectedArea area : areas) {
+      ids.add(area.getId());
+    }
+    return ids;
+  }
+
+  @Test
+  void findAreasInMediumDangerZone_shouldLoadOnceAndMatchRadius() {
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(
+            area(1, 60.0, 10.85, 5), area(2, 61.0, 10.85, 5), area(3, 60.03, 10.85, 3)));
+
+    assertEquals(Set.of(1L), ids(index.findAreasInMediumDangerZone(60.0, 10.85)));
+    assertEquals(Set.of(1L, 3L), ids(index.findAreasInMediumDangerZone(60.02, 10.85)));
+    verify(affectedAreaRepo, times(1)).getAllAffectedAreas();
+  }
+
+  @Test
+  void findAreasInMediumDangerZone_shouldHandleAntimeridian() {
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(area(1, 0, 179.99, 10)));
+
+    assertEquals(Set.of(1L), ids(index.findAreasInMediumDangerZone(0, -179.99)));
+    assertTrue(index.findAreasInMediumDangerZone(0, -179.5).isEmpty());
+  }
+
+  @Test
+  void onAffectedAreaChanged_shouldSwapInNewCircles() {
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(area(1, 60.0, 10.85, 5)));
+    assertEquals(1, index.findAreasInMediumDangerZone(60.0, 10.85).size());
+
+    index.onAffectedAreaChanged(new AffectedAreaChangedEvent(1L, area(1, 61.0, 10.85, 5)));
+    index.onAffectedAreaChanged(new AffectedAreaChangedEvent(2L, area(2, 60.0, 10.85, 1)));
+
+    assertEquals(Set.of(2L), ids(index.findAreasInMediumDangerZone(60.0, 10.85)));
+    index.onAffectedAreaChanged(new AffectedAreaChangedEvent(2L, null));
+    assertTrue(index.findAreasInMediumDangerZone(60.0, 10.85).isEmpty());
+  }
+
+  @Test
+  void findAreasInMediumDangerZone_shouldMatchHaversine() {
+    Random random = new Random(11);
+    List<AffectedArea> areas = new ArrayList<>();
+    for (int id = 1; id <= 300; id++) {
+      areas.add(area(id, 58 + random.nextDouble() * 4, 8 + random.nextDouble() * 6,
+              1 + random.nextDouble() * 40));
+    }
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(areas);
+
+    for (int i = 0; i < 200; i++) {
+      double latitude = 58 + random.nextDouble() * 4;
+      double longitude = 8 + random.nextDouble() * 6;
+      Set<Long> expected = new HashSet<>();
+      for (AffectedArea area : areas) {
+        double distance = GeoUtils.haversineKm(area.getLatitude(), area.getLongitude(),
+                latitude, longitude);
+        if (distance <= area.getMediumDangerRadiusKm() - 1e-6) {
+          expected.add(area.getId());
+        } else if (distance <= area.getMediumDangerRadiusKm() + 1e-6) {
+          expected = null;
+          break;
+        }
+      }
+      if (expected != null) {
+        assertEquals(expected, ids(index.findAreasInMediumDangerZone(latitude, longitude)));
+      }
+    }
+  }
+
+  @Test
+  void classify_shouldReturnMostDangerousZoneInInputOrder() {
+    AffectedArea mild = area(1, 60.0, 10.85, 5);
+    mild.setSeverityLevel(1);
+    AffectedArea severe = area(2, 60.04, 10.85, 5);
+    severe.setSeverityLevel(3);
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(mild, severe));
+
+    AffectedAreaIndex.ZoneClassification result = index.classify(
+            new double[] {61.0, 60.0, 60.02, 60.0 - 8 / GeoUtils.KM_PER_DEGREE_LATITUDE},
+            new double[] {10.85, 10.85, 10.85, 10.85});
+
+    assertEquals(DangerLevel.NONE, result.getLevel(0));
+    assertNull(result.getAreaId(0));
+    assertEquals(DangerLevel.HIGH, result.getLevel(1));
+    assertEquals(1L, result.getAreaId(1));
+    assertEquals(DangerLevel.HIGH, result.getLevel(2));
+    assertEquals(2L, result.getAreaId(2));
+    assertEquals(DangerLevel.LOW, result.getLevel(3));
+    assertEquals(1L, result.getAreaId(3));
+  }
+
+  @Test
+  void classify_shouldMatchSinglePositionLookups() {
+    Random random = new Random(5);
+    List<AffectedArea> areas = new ArrayList<>();
+    for (int id = 1; id <= 200; id++) {
+      areas.add(area(id, 58 + random.nextDouble() * 4, 8 + random.nextDouble() * 6,
+              1 + random.nextDouble() * 30));
+    }
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(areas);
+    double[] latitudes = new double[1000];
+    double[] longitudes = new double[1000];
+    for (int i = 0; i < latitudes.length; i++) {
+      latitudes[i] = 58 + random.nextDouble() * 4;
+      longitudes[i] = 8 + random.nextDouble() * 6;
+    }
+
+    AffectedAreaIndex.ZoneClassification result = index.classify(latitudes, longitudes);
+
+    for (int i = 0; i < latitudes.length; i++) {
+      boolean inMediumZone = !index.findAreasInMediumDangerZone(latitudes[i], longitudes[i])
+              .isEmpty();
+      assertEquals(inMediumZone, result.getLevel(i).compareTo(DangerLevel.MEDIUM) >= 0,
+              "position " + i);
+    }
+  }
+
+  @Test
+  void locate_shouldAgreeWithBatchClassification() {
+    AffectedArea mild = area(1, 60.0, 10.85, 5);
+    mild.setSeverityLevel(1);
+    AffectedArea severe = area(2, 60.04, 10.85, 5);
+    severe.setSeverityLevel(3);
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(mild, severe));
+    double[] latitudes = {61.0, 60.0, 60.02, 60.0 - 8 / GeoUtils.KM_PER_DEGREE_LATITUDE};
+    double[] longitudes = {10.85, 10.85, 10.85, 10.85};
+
+    AffectedAreaIndex.ZoneClassification result = index.classify(latitudes, longitudes);
+
+    for (int i = 0; i < latitudes.length; i++) {
+      long zone = index.locate(latitudes[i], longitudes[i]);
+      assertEquals(result.getLevel(i), AffectedAreaIndex.levelOf(zone), "position " + i);
+      assertEquals(result.getAreaId(i), AffectedAreaIndex.areaIdOf(zone), "position " + i);
+    }
+    assertEquals(AffectedAreaIndex.NO_ZONE, index.locate(61.0, 10.85));
+  }
+
+  @Test
+  void polygonArea_shouldBeHighInsideAndBufferedByRadiiOutside() {
+    AffectedArea flood = area(1, 60.05, 10.1, 2);
+    flood.setPolygon(PolylineCodec.encode(List.of(
+            new double[] {60.0, 10.0, 60.0, 10.2, 60.1, 10.2, 60.1, 10.0})));
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(flood));
+    double kmPerDegree = GeoUtils.KM_PER_DEGREE_LATITUDE;
+
+    AffectedAreaIndex.ZoneClassification result = index.classify(
+            new double[] {60.01, 60.1 + 0.5 / kmPerDegree, 60.1 + 1.5 / kmPerDegree,
+                    60.1 + 3 / kmPerDegree, 60.1 + 5 / kmPerDegree},
+            new double[] {10.19, 10.1, 10.1, 10.1, 10.1});
+
+    assertEquals(DangerLevel.HIGH, result.getLevel(0));
+    assertEquals(DangerLevel.HIGH, result.getLevel(1));
+    assertEquals(DangerLevel.MEDIUM, result.getLevel(2));
+    assertEquals(DangerLevel.LOW, result.getLevel(3));
+    assertEquals(DangerLevel.NONE, result.getLevel(4));
+    assertEquals(Set.of(1L), ids(index.findAreasInMediumDangerZone(60.01, 10.19)));
+    assertTrue(index.findAreasInMediumDangerZone(60.1 + 3 / kmPerDegree, 10.1).isEmpty());
+  }
+
+  @Test
+  void polygonArea_shouldIgnoreCircleAroundLabelPoint() {
+    AffectedArea plume = area(1, 60.0, 10.0, 2);
+    plume.setPolygon(PolylineCodec.encode(List.of(
+            new double[] {60.5, 10.0, 60.5, 10.2, 60.6, 10.1})));
+    AffectedArea invalid = area(2, 61.0, 10.0, 2);
+    invalid.setPolygon("?");
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(plume, invalid));
+
+    assertTrue(index.findAreasInMediumDangerZone(60.0, 10.0).isEmpty());
+    assertEquals(Set.of(1L), ids(index.findAreasInMediumDangerZone(60.53, 10.1)));
+    assertEquals(Set.of(2L), ids(index.findAreasInMediumDangerZone(61.0, 10.0)));
+  }
+}
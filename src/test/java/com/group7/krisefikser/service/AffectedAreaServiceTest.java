@@ -1,11 +1,20 @@
 package com.group7.krisefikser.service;
 
 import com.group7.krisefikser.dto.request.location.AffectedAreaRequest;
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.enums.AffectedAreaStatus;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
 import com.group7.krisefikser.mapper.location.AffectedAreaMapper;
 import com.group7.krisefikser.model.location.AffectedArea;
 import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
 import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.spatial.ClusterPyramid;
+import com.group7.krisefikser.spatial.PolylineCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +24,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +45,12 @@ import static org.mockito.Mockito.*;
 class AffectedAreaServiceTest {
   @Mock
   private AffectedAreaRepo affectedAreaRepo;
+  @Mock
+  private AffectedAreaIndex affectedAreaIndex;
+  @Mock
+  private ShelterAssignmentRepository shelterAssignmentRepository;
+  @Mock
+  private PointOfInterestRepo pointOfInterestRepo;
   @InjectMocks
   private AffectedAreaService affectedAreaService;
 
@@ -71,9 +91,11 @@ class AffectedAreaServiceTest {
   void getAllAffectedAreas_shouldReturnListOfAffectedAreaResponses() {
     List<AffectedArea> affectedAreas = Arrays.asList(
             new AffectedArea(1L, "Name 1", 10.0, 60.0, 5.0, 6.1, 7.0,
-                    1, "High danger area 1", LocalDateTime.now()),
+                    1, "High danger area 1", LocalDateTime.now(), null,
+                    AffectedAreaStatus.ACTIVE, null),
             new AffectedArea(2L, "Name 2", 11.0, 61.0, 3.0, 4.1, 4.9,
-                    2, "Medium danger area 2", LocalDateTime.now())
+                    2, "Medium danger area 2", LocalDateTime.now(), null,
+                    AffectedAreaStatus.ACTIVE, null)
     );
     when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(affectedAreas);
 
@@ -161,13 +183,25 @@ class AffectedAreaServiceTest {
     verify(affectedAreaRepo, times(1)).addAffectedArea(any(AffectedArea.class));
   }
 
+  @Test
+  void addAffectedArea_polygonWithTooFewVertices_shouldThrowWithoutSaving() {
+    testAreaRequest1.setPolygon(PolylineCodec.encode(List.of(new double[] {60, 10, 61, 11})));
+
+    assertThrows(IllegalArgumentException.class,
+            () -> affectedAreaService.addAffectedArea(testAreaRequest1));
+    verify(affectedAreaRepo, never()).addAffectedArea(any(AffectedArea.class));
+  }
+
   @Test
   void deleteAffectedArea_successfulDeletion() {
     long areaIdToDelete = 1L;
     when(affectedAreaRepo.deleteAffectedArea(areaIdToDelete)).thenReturn(1);
+    when(shelterAssignmentRepository.releaseAssignments(List.of(areaIdToDelete)))
+            .thenReturn(Set.of(11L));
 
     assertDoesNotThrow(() -> affectedAreaService.deleteAffectedArea(areaIdToDelete));
     verify(affectedAreaRepo, times(1)).deleteAffectedArea(areaIdToDelete);
+    verify(pointOfInterestRepo).publishChanges(Set.of(11L));
   }
 
   @Test
@@ -196,6 +230,26 @@ class AffectedAreaServiceTest {
     verify(affectedAreaRepo, times(1)).deleteAffectedArea(areaIdToDelete);
   }
 
+  @Test
+  void resolveAffectedArea_successfulResolution() {
+    when(affectedAreaRepo.resolveAffectedArea(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+    when(shelterAssignmentRepository.releaseAssignments(List.of(1L))).thenReturn(Set.of(11L));
+
+    assertDoesNotThrow(() -> affectedAreaService.resolveAffectedArea(1L));
+    verify(affectedAreaRepo, times(1)).resolveAffectedArea(eq(1L), any(LocalDateTime.class));
+    verify(pointOfInterestRepo).publishChanges(Set.of(11L));
+  }
+
+  @Test
+  void resolveAffectedArea_shouldThrow_whenAreaIsNotActive() {
+    when(affectedAreaRepo.resolveAffectedArea(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+
+    ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+            () -> affectedAreaService.resolveAffectedArea(1L));
+
+    assertEquals("Active affected area not found", exception.getMessage());
+  }
+
   @Test
   void updateAffectedArea_successfulUpdate() {
     long areaIdToUpdate = 1L;
@@ -229,5 +283,32 @@ class AffectedAreaServiceTest {
     assertEquals("Failed to update affected area", exception.getMessage());
     verify(affectedAreaRepo, times(1)).updateAffectedArea(argThat(area -> area.getId().equals(areaIdToUpdate)));
   }
-}
 
+  @Test
+  void getAffectedAreaClusters_shouldMapSeverityBreakdownAndSingleId() {
+    ClusterPyramid pyramid = new ClusterPyramid(4, 3);
+    pyramid.put(7, 63.43, 10.39, 2);
+    pyramid.put(8, 63.44, 10.40, 0);
+    pyramid.put(9, 59.91, 10.75, 2);
+    List<ClusterPyramid.Cluster> clusters = new ArrayList<>();
+    pyramid.query(4, 57, 4, 72, 32, null, clusters::add);
+    when(affectedAreaIndex.findClusters(4, 57.0, 4.0, 72.0, 32.0)).thenReturn(clusters);
+
+    List<ClusterResponse> result = affectedAreaService.getAffectedAreaClusters(
+            new ClusterRequest(4, 57.0, 4.0, 72.0, 32.0));
+
+    ClusterResponse pair = result.stream().filter(c -> c.getCount() == 2).findFirst().orElseThrow();
+    ClusterResponse single = result.stream().filter(c -> c.getCount() == 1).findFirst().orElseThrow();
+    assertEquals(2, result.size());
+    assertNull(pair.getId());
+    assertEquals(Map.of("1", 1, "3", 1), pair.getBreakdown());
+    assertEquals(9L, single.getId());
+  }
+
+  @Test
+  void getAffectedAreaClusters_invertedBox_shouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> affectedAreaService
+            .getAffectedAreaClusters(new ClusterRequest(4, 72.0, 4.0, 57.0, 32.0)));
+    verifyNoInteractions(affectedAreaIndex);
+  }
+}
@@ -0,0 +1,145 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.enums.AffectedAreaStatus;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.event.DangerZoneTransitionEvent;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.repository.other.AlertRepository;
+import com.group7.krisefikser.service.location.UserPositionStore;
+import com.group7.krisefikser.service.other.AlertFanOutService;
+import com.group7.krisefikser.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AlertFanOutService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class AlertFanOutServiceTest {
+  @Mock
+  private AlertRepository alertRepository;
+
+  @Mock
+  private UserPositionStore userPositionStore;
+
+  @InjectMocks
+  private AlertFanOutService alertFanOutService;
+
+  private static AffectedArea area(double latitude, double longitude) {
+    return new AffectedArea(7L, "Gas leak", longitude, latitude, 1.0, 2.0, 3.0, 3,
+            "Stay indoors", LocalDateTime.now(), null,
+            AffectedAreaStatus.ACTIVE, null);
+  }
+
+  private static double north(double latitude, double km) {
+    return latitude + km / GeoUtils.KM_PER_DEGREE_LATITUDE;
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void fanOut_shouldAlertUsersInsideZonesWithTheirMostDangerousLevel() {
+    doAnswer(invocation -> {
+      AlertRepository.CandidateHandler handler = invocation.getArgument(4);
+      handler.accept(1L, north(60, 0.5), 10);
+      handler.accept(2L, north(60, 2.5), 10);
+      handler.accept(3L, north(60, 2.9), 10);
+      handler.accept(4L, north(60, 3.5), 10);
+      return null;
+    }).when(alertRepository).forEachHouseholdMemberInBox(anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), any());
+    doAnswer(invocation -> {
+      AlertRepository.CandidateHandler handler = invocation.getArgument(4);
+      handler.accept(3L, north(60, 1.5), 10);
+      handler.accept(5L, north(60, 10), 10);
+      return null;
+    }).when(alertRepository).forEachSharedPositionInBox(anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), any());
+
+    int alerted = alertFanOutService.fanOut(7L, area(60, 10));
+
+    InOrder inOrder = inOrder(userPositionStore, alertRepository);
+    inOrder.verify(userPositionStore).flush();
+    inOrder.verify(alertRepository).forEachSharedPositionInBox(anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), any());
+
+    ArgumentCaptor<Map<Long, DangerLevel>> recipients = ArgumentCaptor.forClass(Map.class);
+    verify(alertRepository).upsertAlerts(eq(7L), recipients.capture(),
+            any(LocalDateTime.class));
+    assertEquals(3, alerted);
+    assertEquals(Map.of(1L, DangerLevel.HIGH, 2L, DangerLevel.LOW, 3L, DangerLevel.MEDIUM),
+            recipients.getValue());
+  }
+
+  @Test
+  void fanOut_shouldWithdrawAlertsOfUsersNoLongerInsideTheArea() {
+    doAnswer(invocation -> {
+      AlertRepository.CandidateHandler handler = invocation.getArgument(4);
+      handler.accept(1L, north(60, 0.5), 10);
+      return null;
+    }).when(alertRepository).forEachHouseholdMemberInBox(anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), any());
+    when(alertRepository.getAlertedUserIds(7L)).thenReturn(List.of(1L, 2L, 3L));
+
+    alertFanOutService.fanOut(7L, area(60, 10));
+
+    verify(alertRepository).upsertAlerts(eq(7L), eq(Map.of(1L, DangerLevel.HIGH)), any());
+    verify(alertRepository).deleteAlerts(7L, List.of(2L, 3L));
+  }
+
+  @Test
+  void fanOut_shouldQueryBoundingBoxOfOutermostZone() {
+    alertFanOutService.fanOut(7L, area(60, 10));
+
+    double latitudeSpan = 3.0 / GeoUtils.KM_PER_DEGREE_LATITUDE;
+    verify(alertRepository).forEachHouseholdMemberInBox(
+            doubleThat(v -> Math.abs(v - (60 - latitudeSpan)) < 1e-9),
+            doubleThat(v -> v < 10 && v > 9.9),
+            doubleThat(v -> Math.abs(v - (60 + latitudeSpan)) < 1e-9),
+            doubleThat(v -> v > 10 && v < 10.1),
+            any());
+    verify(alertRepository, never()).upsertAlerts(anyLong(), any(), any());
+    verify(alertRepository, never()).deleteAlerts(anyLong(), any());
+  }
+
+  @Test
+  void fanOut_shouldSplitBoxesCrossingTheAntimeridian() {
+    alertFanOutService.fanOut(7L, area(0, 179.99));
+
+    verify(alertRepository).forEachSharedPositionInBox(anyDouble(), anyDouble(), anyDouble(),
+            eq(180.0), any());
+    verify(alertRepository).forEachSharedPositionInBox(anyDouble(), eq(-180.0), anyDouble(),
+            anyDouble(), any());
+  }
+
+  @Test
+  void onAffectedAreaChanged_shouldIgnoreDeletedAreas() {
+    alertFanOutService.onAffectedAreaChanged(new AffectedAreaChangedEvent(7L, null));
+
+    verifyNoInteractions(alertRepository);
+  }
+
+  @Test
+  void onDangerZoneTransition_shouldAlertOnEntryOnly() {
+    alertFanOutService.onDangerZoneTransition(new DangerZoneTransitionEvent(1L, null,
+            DangerLevel.NONE, 7L, DangerLevel.MEDIUM));
+    alertFanOutService.onDangerZoneTransition(new DangerZoneTransitionEvent(1L, 7L,
+            DangerLevel.MEDIUM, null, DangerLevel.NONE));
+
+    verify(alertRepository).upsertAlerts(eq(7L), eq(Map.of(1L, DangerLevel.MEDIUM)), any());
+    verifyNoMoreInteractions(alertRepository);
+  }
+}
@@ -0,0 +1,76 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.dto.response.other.AlertResponse;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.model.other.Alert;
+import com.group7.krisefikser.repository.other.AlertRepository;
+import com.group7.krisefikser.service.other.AlertService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AlertService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class AlertServiceTest {
+  @Mock
+  private AlertRepository alertRepository;
+
+  @InjectMocks
+  private AlertService alertService;
+
+  @BeforeEach
+  void setUp() {
+    SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("42", null, List.of()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void getAlerts_shouldMapAlertsOfCurrentUser() {
+    LocalDateTime createdAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+    when(alertRepository.getAlertsByUserId(eq(42L), anyInt())).thenReturn(List.of(
+            new Alert(1L, 42L, 7L, "Gas leak", DangerLevel.HIGH, createdAt, false)));
+
+    List<AlertResponse> alerts = alertService.getAlerts();
+
+    assertEquals(1, alerts.size());
+    assertEquals("Gas leak", alerts.get(0).getAffectedAreaName());
+    assertEquals("HIGH", alerts.get(0).getDangerLevel());
+    assertEquals(createdAt.toString(), alerts.get(0).getCreatedAt());
+    assertFalse(alerts.get(0).isRead());
+  }
+
+  @Test
+  void getUnreadCount_shouldCountAlertsOfCurrentUser() {
+    when(alertRepository.countUnreadAlerts(42L)).thenReturn(3);
+
+    assertEquals(3, alertService.getUnreadCount().getUnreadCount());
+  }
+
+  @Test
+  void markAllAsRead_shouldUpdateAlertsOfCurrentUser() {
+    alertService.markAllAsRead();
+
+    verify(alertRepository).markAllAsRead(42L);
+  }
+}
@@ -0,0 +1,146 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.dto.response.location.ChangesResponse;
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.enums.SyncEntityType;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.model.location.ChangeLogEntry;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.ChangeLogRepository;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.service.location.ChangeSyncService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ChangeSyncService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeSyncServiceTest {
+  @Mock
+  private ChangeLogRepository changeLogRepository;
+
+  @Mock
+  private PointOfInterestRepo pointOfInterestRepo;
+
+  @Mock
+  private AffectedAreaRepo affectedAreaRepo;
+
+  private ChangeSyncService changeSyncService;
+
+  private final LocalDateTime settled = LocalDateTime.now().minusMinutes(5);
+
+  @BeforeEach
+  void setUp() {
+    changeSyncService =
+            new ChangeSyncService(changeLogRepository, pointOfInterestRepo, affectedAreaRepo);
+  }
+
+  @AfterEach
+  void tearDown() {
+    changeSyncService.shutdown();
+  }
+
+  private static PointOfInterest point(long id) {
+    return new PointOfInterest(id, 60.0, 10.0, PointOfInterestType.SHELTER, null, null, null,
+            null, 100, 0);
+  }
+
+  private ChangeLogEntry entry(long seq, SyncEntityType type, long id, boolean deleted) {
+    return new ChangeLogEntry(seq, type, id, deleted, settled);
+  }
+
+  @Test
+  void getChanges_withoutSince_shouldReturnSnapshot() {
+    when(changeLogRepository.getSettledSeq(any())).thenReturn(42L);
+    when(pointOfInterestRepo.getAllPointsOfInterest()).thenReturn(List.of(point(1L)));
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(new AffectedArea()));
+
+    ChangesResponse response = changeSyncService.getChanges(null);
+
+    assertTrue(response.isReset());
+    assertEquals(42L, response.getSeq());
+    assertEquals(1, response.getPointsOfInterest().size());
+    assertEquals(1, response.getAffectedAreas().size());
+    verify(changeLogRepository, never()).getChangesSince(anyLong(), anyInt());
+  }
+
+  @Test
+  void getChanges_sinceBeforeCompaction_shouldReturnSnapshot() {
+    when(changeLogRepository.getCompactedSeq()).thenReturn(10L);
+
+    assertTrue(changeSyncService.getChanges(9L).isReset());
+    verify(changeLogRepository, never()).getChangesSince(anyLong(), anyInt());
+  }
+
+  @Test
+  void getChanges_shouldReturnLatestStateOfEachChangedEntity() {
+    when(changeLogRepository.getChangesSince(10L, 1001)).thenReturn(List.of(
+            entry(11, SyncEntityType.POINT_OF_INTEREST, 1L, false),
+            entry(12, SyncEntityType.POINT_OF_INTEREST, 2L, false),
+            entry(13, SyncEntityType.POINT_OF_INTEREST, 2L, true),
+            entry(14, SyncEntityType.AFFECTED_AREA, 3L, true)));
+    when(pointOfInterestRepo.getPointsOfInterestByIds(Set.of(1L)))
+            .thenReturn(List.of(point(1L)));
+
+    ChangesResponse response = changeSyncService.getChanges(10L);
+
+    assertFalse(response.isReset());
+    assertFalse(response.isHasMore());
+    assertEquals(14L, response.getSeq());
+    assertEquals(1L, response.getPointsOfInterest().get(0).getId());
+    assertEquals(List.of(2L), response.getDeletedPointOfInterestIds());
+    assertEquals(List.of(3L), response.getDeletedAffectedAreaIds());
+    verify(affectedAreaRepo).getAffectedAreasByIds(Set.of());
+  }
+
+  @Test
+  void getChanges_recentChange_shouldBeReturnedWithoutMovingSeqPastIt() {
+    List<ChangeLogEntry> entries = new ArrayList<>();
+    for (long seq = 11; seq <= 1011; seq++) {
+      entries.add(entry(seq, SyncEntityType.POINT_OF_INTEREST, seq, false));
+    }
+    entries.set(5, new ChangeLogEntry(16, SyncEntityType.POINT_OF_INTEREST, 16L, false,
+            LocalDateTime.now()));
+    when(changeLogRepository.getChangesSince(10L, 1001)).thenReturn(entries);
+
+    ChangesResponse response = changeSyncService.getChanges(10L);
+
+    assertEquals(15L, response.getSeq());
+    assertFalse(response.isHasMore());
+    verify(pointOfInterestRepo).getPointsOfInterestByIds(argThat(ids -> ids.size() == 1000));
+  }
+
+  @Test
+  void getChanges_negativeSince_shouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> changeSyncService.getChanges(-1L));
+  }
+
+  @Test
+  void compact_shouldRemoveSupersededChangesAndOldDeletions() {
+    changeSyncService.compact();
+
+    verify(changeLogRepository).deleteSupersededChanges();
+    verify(changeLogRepository).deleteDeletionsBefore(argThat(before ->
+            before.isBefore(LocalDateTime.now().minusDays(29))));
+
+    doThrow(new QueryTimeoutException("Database unavailable"))
+            .when(changeLogRepository).deleteSupersededChanges();
+    assertDoesNotThrow(() -> changeSyncService.compact());
+  }
+}
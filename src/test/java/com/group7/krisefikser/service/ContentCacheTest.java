@@ -0,0 +1,136 @@
+package com.group7.krisefikser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group7.krisefikser.model.other.SerializedContent;
+import com.group7.krisefikser.service.article.ContentCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ContentCache class.
+ */
+class ContentCacheTest {
+  private final ContentCache contentCache = new ContentCache(new ObjectMapper());
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private List<String> load() {
+    return List.of("item " + loads.incrementAndGet());
+  }
+
+  private static String json(SerializedContent content) {
+    return new String(content.getJson(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void get_shouldSerializeOnceAndGzipTheSameJson() throws IOException {
+    SerializedContent content = contentCache.get("news", this::load);
+
+    assertSame(content, contentCache.get("news", this::load));
+    assertEquals(1, loads.get());
+    assertEquals("[\"item 1\"]", json(content));
+    try (GZIPInputStream in = new GZIPInputStream(
+        new ByteArrayInputStream(content.getGzipped()))) {
+      assertArrayEquals(content.getJson(), in.readAllBytes());
+    }
+  }
+
+  @Test
+  void invalidate_shouldRemoveKeyAndEntriesBelowIt() {
+    contentCache.get(ContentCache.GENERAL_INFO, this::load);
+    SerializedContent theme = contentCache.get(
+        ContentCache.key(ContentCache.GENERAL_INFO, "BEFORE_CRISIS"), this::load);
+    SerializedContent other = contentCache.get("general-information", this::load);
+
+    contentCache.invalidate(ContentCache.GENERAL_INFO);
+
+    assertNotSame(theme, contentCache.get(
+        ContentCache.key(ContentCache.GENERAL_INFO, "BEFORE_CRISIS"), this::load));
+    assertEquals("[\"item 5\"]", json(contentCache.get(ContentCache.GENERAL_INFO, this::load)));
+    assertSame(other, contentCache.get("general-information", this::load));
+  }
+
+  @Test
+  void get_shouldReloadContentOlderThanMaxAge() throws InterruptedException {
+    SerializedContent first = contentCache.get("news", Duration.ofMillis(20), this::load);
+    Thread.sleep(40);
+
+    SerializedContent second = contentCache.get("news", Duration.ofMillis(20), this::load);
+
+    assertEquals("[\"item 2\"]", json(second));
+    assertNotEquals(first.getVersion(), second.getVersion());
+  }
+
+  @Test
+  void get_shouldNotStoreContentLoadedDuringInvalidation() {
+    SerializedContent stale = contentCache.get("privacy-policy/registered", () -> {
+      contentCache.invalidate("privacy-policy/registered");
+      return Map.of("registered", "old");
+    });
+
+    assertTrue(json(stale).contains("old"));
+    SerializedContent current = contentCache.get("privacy-policy/registered",
+        () -> Map.of("registered", "new"));
+    assertTrue(json(current).contains("new"));
+  }
+
+  @Test
+  void get_shouldLoadOnce_whenManyRequestsMissTogether() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      Future<SerializedContent> first = pool.submit(() -> contentCache.get("news", () -> {
+        loading.countDown();
+        await(release);
+        return load();
+      }));
+      assertTrue(loading.await(5, TimeUnit.SECONDS));
+      List<Future<SerializedContent>> others = new ArrayList<>();
+      for (int i = 0; i < 7; i++) {
+        others.add(pool.submit(() -> contentCache.get("news", this::load)));
+      }
+      release.countDown();
+
+      SerializedContent content = first.get(5, TimeUnit.SECONDS);
+      for (Future<SerializedContent> other : others) {
+        assertSame(content, other.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, loads.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void get_shouldNotStoreAnything_whenLoadFails() {
+    assertThrows(IllegalStateException.class, () -> contentCache.get("news", () -> {
+      throw new IllegalStateException("Database down");
+    }));
+
+    assertEquals("[\"item 1\"]", json(contentCache.get("news", this::load)));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,22 +1,29 @@
 package com.group7.krisefikser.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import com.group7.krisefikser.dto.request.household.EmergencyGroupRequest;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupInvitationResponse;
 import com.group7.krisefikser.dto.response.household.EmergencyGroupResponse;
+import com.group7.krisefikser.dto.response.household.NearbyHouseholdResponse;
+import com.group7.krisefikser.dto.response.household.RedistributionPlanResponse;
 import com.group7.krisefikser.model.household.EmergencyGroup;
 
 import com.group7.krisefikser.service.household.EmergencyGroupService;
+import com.group7.krisefikser.service.household.HouseholdLocationIndex;
 import java.sql.Date;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import com.group7.krisefikser.model.household.EmergencyGroupInvitation;
 import com.group7.krisefikser.model.household.Household;
+import com.group7.krisefikser.model.household.HouseholdSupply;
 import com.group7.krisefikser.model.user.User;
 import com.group7.krisefikser.repository.household.EmergencyGroupInvitationsRepo;
 import com.group7.krisefikser.repository.household.EmergencyGroupRepo;
@@ -25,6 +32,7 @@ import com.group7.krisefikser.repository.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -46,6 +54,8 @@ class EmergencyGroupServiceTest {
   private UserRepository userRepository;
   @Mock
   private EmergencyGroupInvitationsRepo emergencyGroupInvitationsRepo;
+  @Mock
+  private HouseholdLocationIndex householdLocationIndex;
 
   @InjectMocks
   private EmergencyGroupService emergencyGroupService;
@@ -357,4 +367,60 @@ class EmergencyGroupServiceTest {
     assertNotNull(responses);
     assertTrue(responses.isEmpty());
   }
+
+  @Test
+  void getRedistributionPlan_shouldPlanFromHouseholdSupplies() {
+    when(householdRepository.getHouseholdSuppliesByEmergencyGroupId(1L)).thenReturn(List.of(
+            new HouseholdSupply(1L, "A", 63.43, 10.39, 2, 0, 40000, 0),
+            new HouseholdSupply(2L, "B", 63.44, 10.40, 2, 0, 0, 0)
+    ));
+
+    RedistributionPlanResponse plan = emergencyGroupService.getRedistributionPlan(1L);
+
+    assertEquals(5, plan.getCalorieDays(), 1e-9);
+    assertEquals(1, plan.getTransfers().size());
+    assertEquals(20000, plan.getTransfers().get(0).getAmount(), 1e-9);
+    verify(householdRepository).getHouseholdSuppliesByEmergencyGroupId(1L);
+  }
+
+  @Test
+  void findNearbyHouseholds_shouldRejectInvalidRadiusAndLimit() {
+    assertThrows(IllegalArgumentException.class,
+            () -> emergencyGroupService.findNearbyHouseholds(0, 10));
+    assertThrows(IllegalArgumentException.class,
+            () -> emergencyGroupService.findNearbyHouseholds(21, 10));
+    assertThrows(IllegalArgumentException.class,
+            () -> emergencyGroupService.findNearbyHouseholds(5, 51));
+    verifyNoInteractions(householdLocationIndex);
+  }
+
+  @Test
+  void findNearbyHouseholds_shouldSearchAroundOwnHouseholdWithCoarseDistances() {
+    Authentication authentication = mock(Authentication.class);
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    when(authentication.getName()).thenReturn("100");
+    testHousehold.setLatitude(63.43);
+    testHousehold.setLongitude(10.39);
+    when(userRepository.findById(100L)).thenReturn(Optional.of(testUser));
+    when(householdRepository.getHouseholdById(200L)).thenReturn(Optional.of(testHousehold));
+    when(householdRepository.getEmergencyIdByHouseholdId(200L)).thenReturn(1L);
+    HouseholdLocationIndex.Neighbour neighbour = mock(HouseholdLocationIndex.Neighbour.class);
+    when(neighbour.getName()).thenReturn("Neighbor's Household");
+    when(neighbour.getDistanceKm()).thenReturn(1.2);
+    ArgumentCaptor<Comparator<HouseholdLocationIndex.Neighbour>> order =
+            ArgumentCaptor.forClass(Comparator.class);
+    when(householdLocationIndex.findNearby(eq(63.43), eq(10.39), eq(5.0), eq(10), any(),
+            order.capture())).thenReturn(List.of(neighbour));
+
+    List<NearbyHouseholdResponse> nearby = emergencyGroupService.findNearbyHouseholds(5, 10);
+
+    assertEquals(List.of(new NearbyHouseholdResponse("Neighbor's Household", 2)), nearby);
+    HouseholdLocationIndex.Neighbour farther = mock(HouseholdLocationIndex.Neighbour.class);
+    when(farther.getName()).thenReturn("A household");
+    when(farther.getDistanceKm()).thenReturn(1.8);
+    assertTrue(order.getValue().compare(farther, neighbour) < 0,
+            "Households at the same rounded distance should be chosen by name");
+  }
 }
@@ -0,0 +1,33 @@
+package com.group7.krisefikser.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Helpers for tests of services that write to mocked Server-Sent Event emitters.
+ */
+final class EmitterTestUtils {
+  private static final long TIMEOUT_MILLIS = 2000;
+
+  private EmitterTestUtils() {
+  }
+
+  /**
+   * Waits until a sender thread has completed an emitter. Verifying complete with a
+   * timeout would wait inside the synchronized method on the test thread and block the
+   * sender from completing it.
+   *
+   * @param emitter the mocked emitter
+   */
+  static void awaitCompleted(SseEmitter emitter) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (System.currentTimeMillis() < deadline && mockingDetails(emitter).getInvocations()
+            .stream().noneMatch(invocation -> invocation.getMethod().getName()
+                    .equals("complete"))) {
+      Thread.sleep(10);
+    }
+    verify(emitter).complete();
+  }
+}
@@ -0,0 +1,142 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.dto.response.location.EvacuationResponse;
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.model.location.ShelterAssignment;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.repository.location.ShelterAssignmentRepository;
+import com.group7.krisefikser.service.location.EvacuationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the EvacuationService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class EvacuationServiceTest {
+  @Mock
+  private AffectedAreaRepo affectedAreaRepo;
+
+  @Mock
+  private PointOfInterestRepo pointOfInterestRepo;
+
+  @Mock
+  private ShelterAssignmentRepository shelterAssignmentRepository;
+
+  @InjectMocks
+  private EvacuationService evacuationService;
+
+  @BeforeEach
+  void setUp() {
+    AffectedArea area = new AffectedArea();
+    area.setId(1L);
+    area.setLatitude(60.0);
+    area.setLongitude(10.0);
+    area.setHighDangerRadiusKm(2.0);
+    area.setMediumDangerRadiusKm(5.0);
+    area.setLowDangerRadiusKm(10.0);
+    area.setStartDate(LocalDateTime.now());
+    lenient().when(affectedAreaRepo.getAffectedAreaById(1L)).thenReturn(Optional.of(area));
+    lenient().when(pointOfInterestRepo.getPointsOfInterestByTypes(
+            List.of(PointOfInterestType.SHELTER))).thenReturn(List.of(
+            shelter(11L, 60.1, 4, 0),
+            shelter(12L, 59.85, 12, 2),
+            shelter(13L, 60.01, 100, 0),
+            new PointOfInterest(14L, 60.02, 10.0, PointOfInterestType.SHELTER, null, null,
+                    null, null, null, 0)));
+  }
+
+  private static PointOfInterest shelter(long id, double latitude, int capacity,
+                                         int occupancy) {
+    return new PointOfInterest(id, latitude, 10.0, PointOfInterestType.SHELTER, null, null,
+            null, null, capacity, occupancy);
+  }
+
+  private void households(Object[]... households) {
+    doAnswer(invocation -> {
+      ShelterAssignmentRepository.HouseholdHandler handler = invocation.getArgument(4);
+      for (Object[] household : households) {
+        handler.accept((long) household[0], (double) household[1], 10.0, (int) household[2]);
+      }
+      return null;
+    }).when(shelterAssignmentRepository).forEachUnassignedHouseholdInBox(anyDouble(),
+            anyDouble(), anyDouble(), anyDouble(), any());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ShelterAssignment> insertedAssignments() {
+    ArgumentCaptor<List<ShelterAssignment>> captor = ArgumentCaptor.forClass(List.class);
+    verify(shelterAssignmentRepository).insertAssignments(captor.capture());
+    return captor.getValue();
+  }
+
+  @Test
+  void assignShelters_shouldAssignClosestPairsFirstAndSkipFullShelters() {
+    households(new Object[] {1L, 60.0, 3}, new Object[] {2L, 60.005, 2},
+            new Object[] {3L, 60.05, 1});
+
+    EvacuationResponse response = evacuationService.assignShelters(1L);
+
+    assertEquals(2, response.getHouseholdsAssigned());
+    assertEquals(5, response.getPeopleAssigned());
+    assertEquals(0, response.getHouseholdsUnassigned());
+    assertEquals(2, response.getSheltersUsed());
+    List<ShelterAssignment> assignments = insertedAssignments();
+    assertEquals(2L, assignments.get(0).getHouseholdId());
+    assertEquals(11L, assignments.get(0).getShelterId());
+    assertEquals(1L, assignments.get(1).getHouseholdId());
+    assertEquals(12L, assignments.get(1).getShelterId());
+    assertEquals(16.7, assignments.get(1).getDistanceKm(), 0.1);
+    verify(shelterAssignmentRepository).addOccupancy(Map.of(11L, 2, 12L, 3));
+    verify(pointOfInterestRepo).publishChanges(Set.of(11L, 12L));
+  }
+
+  @Test
+  void assignShelters_shouldLeaveHouseholdsWithoutRoomUnassigned() {
+    households(new Object[] {1L, 60.0, 11}, new Object[] {2L, 60.001, 1});
+
+    EvacuationResponse response = evacuationService.assignShelters(1L);
+
+    assertEquals(1, response.getHouseholdsAssigned());
+    assertEquals(1, response.getHouseholdsUnassigned());
+    assertEquals(11L, insertedAssignments().get(0).getShelterId());
+  }
+
+  @Test
+  void assignShelters_shouldThrowWhenHouseholdWasAssignedConcurrently() {
+    households(new Object[] {1L, 60.0, 2});
+    doThrow(new DuplicateKeyException("Duplicate household"))
+            .when(shelterAssignmentRepository).insertAssignments(any());
+
+    assertThrows(IllegalStateException.class, () -> evacuationService.assignShelters(1L));
+    verify(shelterAssignmentRepository, never()).addOccupancy(any());
+  }
+
+  @Test
+  void assignShelters_shouldThrowWhenAreaDoesNotExist() {
+    when(affectedAreaRepo.getAffectedAreaById(2L)).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> evacuationService.assignShelters(2L));
+    verifyNoInteractions(shelterAssignmentRepository);
+  }
+}
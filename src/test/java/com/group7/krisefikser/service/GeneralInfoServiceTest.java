@@ -1,10 +1,14 @@
 package com.group7.krisefikser.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.request.article.GeneralInfoRequest;
 import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
 import com.group7.krisefikser.enums.Theme;
+import com.group7.krisefikser.event.GeneralInfoChangedEvent;
 import com.group7.krisefikser.model.article.GeneralInfo;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.repository.article.GeneralInfoRepository;
+import com.group7.krisefikser.service.article.ContentCache;
 import com.group7.krisefikser.service.article.GeneralInfoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +24,9 @@ class GeneralInfoServiceTest {
   @Mock
   private GeneralInfoRepository generalInfoRepo;
 
+  @Spy
+  private ContentCache contentCache = new ContentCache(new ObjectMapper());
+
   @InjectMocks
   private GeneralInfoService generalInfoService;
 
@@ -60,7 +67,7 @@ class GeneralInfoServiceTest {
     request.setTitle("Title");
     request.setContent("Content");
 
-    GeneralInfoService service = new GeneralInfoService(generalInfoRepo);
+    GeneralInfoService service = new GeneralInfoService(generalInfoRepo, contentCache);
     service.addGeneralInfo(request);
 
     verify(generalInfoRepo).addGeneralInfo(any(GeneralInfo.class));
@@ -82,4 +89,26 @@ class GeneralInfoServiceTest {
     generalInfoService.deleteGeneralInfo(10L);
     verify(generalInfoRepo).deleteGeneralInfo(10L);
   }
-}
\ No newline at end of file
+
+  @Test
+  void getGeneralInfoContent_shouldBeCachedPerThemeUntilGeneralInfoChanges() {
+    when(generalInfoRepo.getAllGeneralInfo()).thenReturn(Collections.emptyList());
+    when(generalInfoRepo.getGeneralInfoByTheme(any(Theme.class)))
+        .thenReturn(Collections.emptyList());
+
+    SerializedContent all = generalInfoService.getAllGeneralInfoContent();
+    SerializedContent during = generalInfoService.getGeneralInfoByThemeContent(Theme.DURING_CRISIS);
+    generalInfoService.getGeneralInfoByThemeContent(Theme.AFTER_CRISIS);
+    assertSame(all, generalInfoService.getAllGeneralInfoContent());
+    assertSame(during, generalInfoService.getGeneralInfoByThemeContent(Theme.DURING_CRISIS));
+    assertArrayEquals("[]".getBytes(), all.getJson());
+
+    contentCache.onGeneralInfoChanged(new GeneralInfoChangedEvent(1L));
+    generalInfoService.getAllGeneralInfoContent();
+    generalInfoService.getGeneralInfoByThemeContent(Theme.DURING_CRISIS);
+
+    verify(generalInfoRepo, times(2)).getAllGeneralInfo();
+    verify(generalInfoRepo, times(2)).getGeneralInfoByTheme(Theme.DURING_CRISIS);
+    verify(generalInfoRepo, times(1)).getGeneralInfoByTheme(Theme.AFTER_CRISIS);
+  }
+}
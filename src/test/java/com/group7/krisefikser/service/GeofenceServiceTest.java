@@ -0,0 +1,86 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.event.DangerZoneTransitionEvent;
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
+import com.group7.krisefikser.service.location.GeofenceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the GeofenceService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class GeofenceServiceTest {
+  // Area 7 at the medium and high level, packed like AffectedAreaIndex.locate does.
+  private static final long MEDIUM_ZONE = 7L << 2 | 2;
+  private static final long HIGH_ZONE = 7L << 2 | 3;
+
+  @Mock
+  private AffectedAreaIndex affectedAreaIndex;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private GeofenceService geofenceService;
+
+  private List<DangerZoneTransitionEvent> publishedEvents(int count) {
+    ArgumentCaptor<DangerZoneTransitionEvent> captor =
+            ArgumentCaptor.forClass(DangerZoneTransitionEvent.class);
+    verify(eventPublisher, times(count)).publishEvent(captor.capture());
+    return captor.getAllValues();
+  }
+
+  @Test
+  void update_shouldPublishEntryLevelChangeAndExit() {
+    when(affectedAreaIndex.locate(anyDouble(), anyDouble())).thenReturn(
+            MEDIUM_ZONE, MEDIUM_ZONE, HIGH_ZONE, AffectedAreaIndex.NO_ZONE);
+
+    assertTrue(geofenceService.update(1L, 60.0, 10.0));
+    assertFalse(geofenceService.update(1L, 60.0, 10.0));
+    assertTrue(geofenceService.update(1L, 60.0, 10.0));
+    assertTrue(geofenceService.update(1L, 60.0, 10.0));
+
+    List<DangerZoneTransitionEvent> events = publishedEvents(3);
+    assertEquals(new DangerZoneTransitionEvent(1L, null, DangerLevel.NONE, 7L,
+            DangerLevel.MEDIUM), events.get(0));
+    assertEquals(new DangerZoneTransitionEvent(1L, 7L, DangerLevel.MEDIUM, 7L,
+            DangerLevel.HIGH), events.get(1));
+    assertEquals(new DangerZoneTransitionEvent(1L, 7L, DangerLevel.HIGH, null,
+            DangerLevel.NONE), events.get(2));
+    assertFalse(events.get(2).isEntry());
+  }
+
+  @Test
+  void update_shouldPublishNothingOutsideZones() {
+    when(affectedAreaIndex.locate(anyDouble(), anyDouble())).thenReturn(
+            AffectedAreaIndex.NO_ZONE);
+
+    assertFalse(geofenceService.update(1L, 60.0, 10.0));
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void onUserPositionChanged_shouldForgetZoneWhenSharingStops() {
+    when(affectedAreaIndex.locate(60.0, 10.0)).thenReturn(MEDIUM_ZONE);
+
+    geofenceService.onUserPositionChanged(new UserPositionChangedEvent(1L, 60.0, 10.0));
+    geofenceService.onUserPositionChanged(new UserPositionChangedEvent(1L, null, null));
+    geofenceService.onUserPositionChanged(new UserPositionChangedEvent(1L, 60.0, 10.0));
+
+    assertEquals(2, publishedEvents(2).stream().filter(DangerZoneTransitionEvent::isEntry)
+            .count());
+  }
+}
@@ -0,0 +1,88 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.event.HouseholdChangedEvent;
+import com.group7.krisefikser.repository.household.HouseholdRepository;
+import com.group7.krisefikser.service.household.HouseholdLocationIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HouseholdLocationIndex class.
+ */
+@ExtendWith(MockitoExtension.class)
+class HouseholdLocationIndexTest {
+  @Mock
+  private HouseholdRepository householdRepository;
+
+  @InjectMocks
+  private HouseholdLocationIndex householdLocationIndex;
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(invocation -> {
+      HouseholdRepository.LocationHandler handler = invocation.getArgument(0);
+      handler.accept(1L, "Home", 63.4300, 10.3900, null);
+      handler.accept(2L, "Next door", 63.4310, 10.3900, 5L);
+      handler.accept(3L, "Across town", 63.4500, 10.3900, null);
+      handler.accept(4L, "Far away", 59.9100, 10.7500, null);
+      handler.accept(5L, "No location", 0, 0, null);
+      return null;
+    }).when(householdRepository).forEachHouseholdLocation(any());
+  }
+
+  private static final Comparator<HouseholdLocationIndex.Neighbour> NEAREST =
+          Comparator.comparingDouble(HouseholdLocationIndex.Neighbour::getDistanceKm);
+
+  private List<String> names(List<HouseholdLocationIndex.Neighbour> neighbours) {
+    return neighbours.stream().map(HouseholdLocationIndex.Neighbour::getName).toList();
+  }
+
+  @Test
+  void findNearby_shouldReturnFilteredHouseholdsNearestFirst() {
+    List<HouseholdLocationIndex.Neighbour> nearby = householdLocationIndex.findNearby(63.43,
+            10.39, 5, 10, neighbour -> neighbour.getHouseholdId() != 1L, NEAREST);
+
+    assertEquals(List.of("Next door", "Across town"), names(nearby));
+    assertEquals(0.11, nearby.get(0).getDistanceKm(), 0.01);
+    assertEquals(5L, nearby.get(0).getEmergencyGroupId());
+    assertEquals(List.of("Home"), names(householdLocationIndex.findNearby(63.43, 10.39, 5, 1,
+            neighbour -> true, NEAREST)));
+    verify(householdRepository, times(1)).forEachHouseholdLocation(any());
+  }
+
+  @Test
+  void findNearby_shouldKeepHouseholdsFirstInGivenOrder_whenTruncating() {
+    List<HouseholdLocationIndex.Neighbour> nearby = householdLocationIndex.findNearby(63.43,
+            10.39, 5, 2, neighbour -> true,
+            Comparator.comparing(HouseholdLocationIndex.Neighbour::getName));
+
+    assertEquals(List.of("Across town", "Home"), names(nearby));
+  }
+
+  @Test
+  void onHouseholdChanged_shouldReadChangedHouseholdAgain() {
+    householdLocationIndex.findNearby(63.43, 10.39, 1, 10, neighbour -> true, NEAREST);
+    doAnswer(invocation -> {
+      HouseholdRepository.LocationHandler handler = invocation.getArgument(1);
+      handler.accept(4L, "Far away", 63.4301, 10.3901, 5L);
+      return null;
+    }).when(householdRepository).findHouseholdLocation(eq(4L), any());
+
+    householdLocationIndex.onHouseholdChanged(new HouseholdChangedEvent(4L, 5L));
+    householdLocationIndex.onHouseholdChanged(new HouseholdChangedEvent(2L, null));
+
+    assertEquals(List.of("Home", "Far away"), names(householdLocationIndex.findNearby(63.43,
+            10.39, 1, 10, neighbour -> true, NEAREST)));
+  }
+}
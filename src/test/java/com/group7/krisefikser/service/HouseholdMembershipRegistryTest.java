@@ -0,0 +1,107 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.event.HouseholdChangedEvent;
+import com.group7.krisefikser.event.UserHouseholdChangedEvent;
+import com.group7.krisefikser.repository.user.UserRepository;
+import com.group7.krisefikser.service.household.HouseholdMembershipRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HouseholdMembershipRegistry class.
+ */
+@ExtendWith(MockitoExtension.class)
+class HouseholdMembershipRegistryTest {
+  @Mock
+  private UserRepository userRepository;
+
+  @InjectMocks
+  private HouseholdMembershipRegistry membershipRegistry;
+
+  @BeforeEach
+  void setUp() {
+    // Households 10 and 11 are in group 100, household 12 has no group.
+    doAnswer(invocation -> {
+      UserRepository.MemberHandler handler = invocation.getArgument(0);
+      handler.accept(1L, "Ada", 10L, 100L);
+      handler.accept(2L, "Bo", 10L, 100L);
+      handler.accept(3L, "Cy", 11L, 100L);
+      handler.accept(4L, "Di", 12L, null);
+      handler.accept(5L, "Ed", 12L, null);
+      return null;
+    }).when(userRepository).forEachHouseholdMember(any());
+  }
+
+  private Map<Long, Boolean> peersOf(long userId) {
+    Map<Long, Boolean> peers = new TreeMap<>();
+    membershipRegistry.forEachPeer(userId, peers::put);
+    return peers;
+  }
+
+  @Test
+  void forEachPeer_shouldVisitWholeEmergencyGroupExceptSelf() {
+    assertEquals(Map.of(2L, true, 3L, false), peersOf(1L));
+    assertEquals(Map.of(1L, false, 2L, false), peersOf(3L));
+  }
+
+  @Test
+  void forEachPeer_shouldVisitHouseholdWhenNotInGroup() {
+    assertEquals(Map.of(5L, true), peersOf(4L));
+    assertEquals(Map.of(), peersOf(99L));
+    assertEquals("Di", membershipRegistry.nameOf(4L));
+    assertNull(membershipRegistry.nameOf(99L));
+  }
+
+  @Test
+  void forEachMember_shouldVisitHouseholdOrGroupIncludingSelf() {
+    Map<Long, Long> household = new TreeMap<>();
+    membershipRegistry.forEachHouseholdMember(1L, (userId, name, householdId) ->
+            household.put(userId, householdId));
+    Map<Long, Long> group = new TreeMap<>();
+    membershipRegistry.forEachGroupMember(1L, (userId, name, householdId) ->
+            group.put(userId, householdId));
+    Map<Long, Long> ungrouped = new TreeMap<>();
+    membershipRegistry.forEachGroupMember(4L, (userId, name, householdId) ->
+            ungrouped.put(userId, householdId));
+
+    assertEquals(Map.of(1L, 10L, 2L, 10L), household);
+    assertEquals(Map.of(1L, 10L, 2L, 10L, 3L, 11L), group);
+    assertEquals(Map.of(4L, 12L, 5L, 12L), ungrouped);
+    assertEquals(11L, membershipRegistry.householdIdOf(3L));
+    assertNull(membershipRegistry.householdIdOf(99L));
+  }
+
+  @Test
+  void isPeer_shouldMatchHouseholdOrGroupMembers() {
+    assertTrue(membershipRegistry.isPeer(1L, 3L));
+    assertTrue(membershipRegistry.isPeer(4L, 5L));
+    assertFalse(membershipRegistry.isPeer(1L, 4L));
+    assertFalse(membershipRegistry.isPeer(1L, 1L));
+    assertFalse(membershipRegistry.isPeer(1L, 99L));
+  }
+
+  @Test
+  void membershipChanges_shouldReloadRegistry() {
+    peersOf(1L);
+    peersOf(2L);
+    verify(userRepository, times(1)).forEachHouseholdMember(any());
+
+    membershipRegistry.onUserHouseholdChanged(new UserHouseholdChangedEvent(6L, 10L));
+    peersOf(1L);
+    membershipRegistry.onHouseholdChanged(new HouseholdChangedEvent(12L, 100L));
+    peersOf(1L);
+
+    verify(userRepository, times(3)).forEachHouseholdMember(any());
+  }
+}
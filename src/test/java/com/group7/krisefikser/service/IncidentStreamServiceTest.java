@@ -0,0 +1,131 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.enums.AffectedAreaStatus;
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
+import com.group7.krisefikser.service.other.IncidentStreamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the IncidentStreamService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class IncidentStreamServiceTest {
+  @Mock
+  private AffectedAreaIndex affectedAreaIndex;
+
+  private IncidentStreamService incidentStreamService;
+  private MockedConstruction<SseEmitter> emitters;
+
+  @BeforeEach
+  void setUp() {
+    emitters = mockConstruction(SseEmitter.class);
+    incidentStreamService = new IncidentStreamService(affectedAreaIndex);
+  }
+
+  @AfterEach
+  void tearDown() {
+    incidentStreamService.shutdown();
+    emitters.close();
+  }
+
+  private static AffectedArea area(long id, double latitude, double longitude) {
+    return new AffectedArea(id, "Area " + id, longitude, latitude, 1.0, 2.0, 3.0, 2,
+            "Description " + id, LocalDateTime.now(), null,
+            AffectedAreaStatus.ACTIVE, null);
+  }
+
+  /**
+   * Returns the names of the events sent to an emitter, in order.
+   */
+  private static List<String> sentEvents(SseEmitter emitter, int expected) throws Exception {
+    ArgumentCaptor<SseEmitter.SseEventBuilder> events =
+            ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+    verify(emitter, timeout(2000).times(expected)).send(events.capture());
+    return events.getAllValues().stream()
+            .map(event -> event.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()))
+            .map(text -> text.substring(text.indexOf("event:") + 6, text.indexOf('\n')))
+            .toList();
+  }
+
+  @Test
+  void subscribe_shouldSendCurrentIncidentsFirst() throws Exception {
+    when(affectedAreaIndex.findAreasInMediumDangerZone(60.0, 10.0))
+            .thenReturn(List.of(area(1, 60.0, 10.0)));
+
+    SseEmitter emitter = incidentStreamService.subscribe(60.0, 10.0);
+
+    assertEquals(List.of("incidents"), sentEvents(emitter, 1));
+    assertEquals(1, incidentStreamService.getSubscriberCount());
+  }
+
+  @Test
+  void subscribe_invalidCoordinates_shouldThrow() {
+    assertThrows(IllegalArgumentException.class,
+            () -> incidentStreamService.subscribe(91, 10));
+    assertEquals(0, incidentStreamService.getSubscriberCount());
+  }
+
+  @Test
+  void onAffectedAreaChanged_shouldOnlyNotifySubscribersInsideTheArea() throws Exception {
+    when(affectedAreaIndex.findAreasInMediumDangerZone(anyDouble(), anyDouble()))
+            .thenReturn(List.of());
+    SseEmitter inside = incidentStreamService.subscribe(60.0, 10.0);
+    SseEmitter outside = incidentStreamService.subscribe(61.0, 10.0);
+
+    incidentStreamService.onAffectedAreaChanged(
+            new AffectedAreaChangedEvent(5L, area(5, 60.0, 10.0)));
+    incidentStreamService.onAffectedAreaChanged(
+            new AffectedAreaChangedEvent(5L, area(5, 60.5, 10.0)));
+
+    assertEquals(List.of("incidents", "incident", "resolved"), sentEvents(inside, 3));
+    assertEquals(List.of("incidents"), sentEvents(outside, 1));
+  }
+
+  @Test
+  void onAffectedAreaChanged_deletedArea_shouldResolveItForItsSubscribers() throws Exception {
+    when(affectedAreaIndex.findAreasInMediumDangerZone(60.0, 10.0))
+            .thenReturn(List.of(area(1, 60.0, 10.0)));
+    SseEmitter emitter = incidentStreamService.subscribe(60.0, 10.0);
+
+    incidentStreamService.onAffectedAreaChanged(new AffectedAreaChangedEvent(1L, null));
+    incidentStreamService.onAffectedAreaChanged(new AffectedAreaChangedEvent(1L, null));
+
+    assertEquals(List.of("incidents", "resolved"), sentEvents(emitter, 2));
+  }
+
+  @Test
+  void send_failure_shouldDropSubscriber() throws Exception {
+    when(affectedAreaIndex.findAreasInMediumDangerZone(anyDouble(), anyDouble()))
+            .thenReturn(List.of());
+    emitters.close();
+    emitters = mockConstruction(SseEmitter.class, (mock, context) ->
+            doThrow(new IOException("Broken pipe"))
+                    .when(mock).send(any(SseEmitter.SseEventBuilder.class)));
+
+    SseEmitter emitter = incidentStreamService.subscribe(60.0, 10.0);
+
+    EmitterTestUtils.awaitCompleted(emitter);
+    assertEquals(0, incidentStreamService.getSubscriberCount());
+  }
+}
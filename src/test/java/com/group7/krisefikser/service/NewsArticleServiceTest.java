@@ -1,14 +1,18 @@
 package com.group7.krisefikser.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.response.article.NewsArticleResponse;
 import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
 import com.group7.krisefikser.model.article.NewsArticle;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.repository.article.NewsArticleRepository;
+import com.group7.krisefikser.service.article.ContentCache;
 import com.group7.krisefikser.service.article.NewsArticleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,7 +27,8 @@ class NewsArticleServiceTest {
   @BeforeEach
   void setUp() {
     newsArticleRepository = Mockito.mock(NewsArticleRepository.class);
-    newsArticleService = new NewsArticleService(newsArticleRepository);
+    newsArticleService = new NewsArticleService(newsArticleRepository,
+        new ContentCache(new ObjectMapper()));
   }
 
   @Test
@@ -54,4 +59,17 @@ class NewsArticleServiceTest {
     assertThat(result.getTitle()).isEqualTo("Mock Title");
     verify(newsArticleRepository, times(1)).getNewsArticleById(1L);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testGetAllNewsArticlesContent_servesCachedJson() {
+    when(newsArticleRepository.getAllNewsArticles()).thenReturn(List.of(
+        new NewsArticle(1L, "Title 1", "Content 1", LocalDateTime.now())));
+
+    SerializedContent first = newsArticleService.getAllNewsArticlesContent();
+    SerializedContent second = newsArticleService.getAllNewsArticlesContent();
+
+    assertThat(new String(first.getJson(), StandardCharsets.UTF_8)).contains("\"Title 1\"");
+    assertThat(second).isSameAs(first);
+    verify(newsArticleRepository, times(1)).getAllNewsArticles();
+  }
+}
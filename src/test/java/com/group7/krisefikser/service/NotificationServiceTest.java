@@ -1,12 +1,16 @@
 package com.group7.krisefikser.service;
 
-import com.group7.krisefikser.dto.response.location.AffectedAreaResponse;
+import com.group7.krisefikser.dto.request.other.NotificationRequest;
 import com.group7.krisefikser.dto.response.other.NotificationResponse;
-import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.dto.response.other.ZoneClassificationResponse;
+import com.group7.krisefikser.enums.DangerLevel;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.service.location.AffectedAreaIndex;
 import com.group7.krisefikser.service.other.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -21,26 +25,32 @@ import static org.mockito.Mockito.when;
 class NotificationServiceTest {
 
   @Mock
-  private AffectedAreaService affectedAreaService;
+  private AffectedAreaRepo affectedAreaRepo;
 
-  @InjectMocks
   private NotificationService notificationService;
 
+  @BeforeEach
+  void setUp() {
+    notificationService = new NotificationService(new AffectedAreaIndex(affectedAreaRepo));
+  }
+
   @Test
   void getIncidentsNotification_shouldReturnMatchingAreaWithinRadius() {
-    AffectedAreaResponse matchingArea = new AffectedAreaResponse();
+    AffectedArea matchingArea = new AffectedArea();
+    matchingArea.setId(1L);
     matchingArea.setDescription("Flood warning");
     matchingArea.setLatitude(60.0);
     matchingArea.setLongitude(10.85);
     matchingArea.setMediumDangerRadiusKm(5.0);  // within radius
 
-    AffectedAreaResponse outsideArea = new AffectedAreaResponse();
+    AffectedArea outsideArea = new AffectedArea();
+    outsideArea.setId(2L);
     outsideArea.setDescription("Landslide");
     outsideArea.setLatitude(61.0); // ~111 km north
     outsideArea.setLongitude(10.85);
     outsideArea.setMediumDangerRadiusKm(5.0);
 
-    when(affectedAreaService.getAllAffectedAreas())
+    when(affectedAreaRepo.getAllAffectedAreas())
         .thenReturn(Arrays.asList(matchingArea, outsideArea));
 
     List<NotificationResponse> result = notificationService.getIncidentsNotification(60.0, 10.85);
@@ -51,13 +61,14 @@ class NotificationServiceTest {
 
   @Test
   void getIncidentsNotification_shouldReturnEmptyListWhenNoAreasWithinRadius() {
-    AffectedAreaResponse farAwayArea = new AffectedAreaResponse();
+    AffectedArea farAwayArea = new AffectedArea();
+    farAwayArea.setId(1L);
     farAwayArea.setDescription("Distant earthquake");
     farAwayArea.setLatitude(61.0);  // ~111 km away
     farAwayArea.setLongitude(10.85);
     farAwayArea.setMediumDangerRadiusKm(3.0);
 
-    when(affectedAreaService.getAllAffectedAreas())
+    when(affectedAreaRepo.getAllAffectedAreas())
         .thenReturn(Collections.singletonList(farAwayArea));
 
     List<NotificationResponse> result = notificationService.getIncidentsNotification(60.0, 10.85);
@@ -67,11 +78,45 @@ class NotificationServiceTest {
 
   @Test
   void getIncidentsNotification_shouldReturnEmptyListWhenNoAreas() {
-    when(affectedAreaService.getAllAffectedAreas()).thenReturn(Collections.emptyList());
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(Collections.emptyList());
 
     List<NotificationResponse> result = notificationService.getIncidentsNotification(60.0, 10.85);
 
     assertNotNull(result);
     assertTrue(result.isEmpty());
   }
-}
\ No newline at end of file
+
+  @Test
+  void classifyZones_shouldClassifyEveryPointInOrder() {
+    AffectedArea area = new AffectedArea();
+    area.setId(4L);
+    area.setLatitude(60.0);
+    area.setLongitude(10.85);
+    area.setHighDangerRadiusKm(1.0);
+    area.setMediumDangerRadiusKm(3.0);
+    area.setLowDangerRadiusKm(6.0);
+    when(affectedAreaRepo.getAllAffectedAreas()).thenReturn(List.of(area));
+
+    NotificationRequest center = new NotificationRequest();
+    center.setLatitude(60.0);
+    center.setLongitude(10.85);
+    NotificationRequest far = new NotificationRequest();
+    far.setLatitude(61.0);
+    far.setLongitude(10.85);
+
+    List<ZoneClassificationResponse> result =
+        notificationService.classifyZones(List.of(far, center));
+
+    assertEquals(new ZoneClassificationResponse(DangerLevel.NONE, null), result.get(0));
+    assertEquals(new ZoneClassificationResponse(DangerLevel.HIGH, 4L), result.get(1));
+  }
+
+  @Test
+  void classifyZones_shouldRejectInvalidCoordinates() {
+    NotificationRequest invalid = new NotificationRequest();
+    invalid.setLatitude(95.0);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> notificationService.classifyZones(List.of(invalid)));
+  }
+}
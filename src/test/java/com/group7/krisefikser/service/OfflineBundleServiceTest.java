@@ -0,0 +1,136 @@
+package com.group7.krisefikser.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group7.krisefikser.dto.response.article.GeneralInfoResponse;
+import com.group7.krisefikser.dto.response.article.ShortenedNewsArticleResponse;
+import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
+import com.group7.krisefikser.event.GeneralInfoChangedEvent;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.model.other.SerializedContent;
+import com.group7.krisefikser.service.article.GeneralInfoService;
+import com.group7.krisefikser.service.article.NewsArticleService;
+import com.group7.krisefikser.service.location.AffectedAreaService;
+import com.group7.krisefikser.service.location.PointOfInterestService;
+import com.group7.krisefikser.service.other.OfflineBundleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OfflineBundleService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class OfflineBundleServiceTest {
+  @Mock
+  private PointOfInterestService pointOfInterestService;
+
+  @Mock
+  private AffectedAreaService affectedAreaService;
+
+  @Mock
+  private GeneralInfoService generalInfoService;
+
+  @Mock
+  private NewsArticleService newsArticleService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private OfflineBundleService offlineBundleService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(pointOfInterestService.getAllPointsOfInterest()).thenReturn(List.of(
+            new PointOfInterestResponse(1L, 59.9, 10.7, "SHELTER", null, null, null,
+                    "Shelter", 100, 0)));
+    lenient().when(generalInfoService.getAllGeneralInfo()).thenReturn(List.of(
+            new GeneralInfoResponse("1", "BEFORE_CRISIS", "Prepare", "Store water"),
+            new GeneralInfoResponse("2", "DURING_CRISIS", "Stay calm", "Listen to radio"),
+            new GeneralInfoResponse("3", "BEFORE_CRISIS", "Plan", "Make a plan")));
+    List<ShortenedNewsArticleResponse> news = new ArrayList<>();
+    for (long id = 1; id <= 30; id++) {
+      ShortenedNewsArticleResponse article = new ShortenedNewsArticleResponse();
+      article.setId(id);
+      article.setTitle("Headline " + id);
+      news.add(article);
+    }
+    lenient().when(newsArticleService.getAllNewsArticles()).thenReturn(news);
+    offlineBundleService = new OfflineBundleService(pointOfInterestService,
+            affectedAreaService, generalInfoService, newsArticleService, objectMapper);
+  }
+
+  @AfterEach
+  void tearDown() {
+    offlineBundleService.shutdown();
+  }
+
+  @Test
+  void getBundle_shouldGzipAllContentOnceAndReuseIt() throws Exception {
+    SerializedContent bundle = offlineBundleService.getBundle();
+
+    byte[] json;
+    try (GZIPInputStream in =
+                 new GZIPInputStream(new ByteArrayInputStream(bundle.getGzipped()))) {
+      json = in.readAllBytes();
+    }
+    assertArrayEquals(bundle.getJson(), json);
+    JsonNode root = objectMapper.readTree(json);
+    assertEquals(bundle.getVersion(), root.get("version").asText());
+    assertEquals(1, root.get("pointsOfInterest").size());
+    assertEquals(2, root.get("generalInfo").get("BEFORE_CRISIS").size());
+    assertEquals(20, root.get("news").size());
+
+    assertSame(bundle, offlineBundleService.getBundle());
+    verify(pointOfInterestService, times(1)).getAllPointsOfInterest();
+  }
+
+  @Test
+  void rebuild_shouldKeepVersionWhenContentIsUnchanged() {
+    String version = offlineBundleService.getBundle().getVersion();
+
+    offlineBundleService.onGeneralInfoChanged(new GeneralInfoChangedEvent(1L));
+    verify(generalInfoService, timeout(5000).times(2)).getAllGeneralInfo();
+
+    assertEquals(version, offlineBundleService.getBundle().getVersion());
+  }
+
+  @Test
+  void rebuild_shouldChangeVersionWhenContentChanges() {
+    String version = offlineBundleService.getBundle().getVersion();
+    when(pointOfInterestService.getAllPointsOfInterest()).thenReturn(List.of());
+
+    offlineBundleService.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L, null));
+    offlineBundleService.onPointOfInterestChanged(new PointOfInterestChangedEvent(2L, null));
+    verify(pointOfInterestService, timeout(5000).times(2)).getAllPointsOfInterest();
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (offlineBundleService.getBundle().getVersion().equals(version)
+            && System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertNotEquals(version, offlineBundleService.getBundle().getVersion());
+  }
+
+  @Test
+  void rebuild_failing_shouldKeepPreviousBundle() throws Exception {
+    SerializedContent bundle = offlineBundleService.getBundle();
+    when(newsArticleService.getAllNewsArticles()).thenThrow(new IllegalStateException("Down"));
+
+    offlineBundleService.onGeneralInfoChanged(new GeneralInfoChangedEvent(1L));
+    verify(newsArticleService, timeout(5000).times(2)).getAllNewsArticles();
+    Thread.sleep(50);
+
+    assertSame(bundle, offlineBundleService.getBundle());
+  }
+}
@@ -0,0 +1,181 @@
+package com.group7.krisefikser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group7.krisefikser.dto.response.location.PointOfInterestImportResponse;
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.model.location.ImportedPointOfInterest;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.service.location.PointOfInterestImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PointOfInterestImportService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class PointOfInterestImportServiceTest {
+  @Mock
+  private PointOfInterestRepo pointOfInterestRepo;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private PointOfInterestImportService importService;
+
+  private final List<List<ImportedPointOfInterest>> chunks = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    importService = new PointOfInterestImportService(pointOfInterestRepo, transactionManager,
+            new ObjectMapper());
+    lenient().when(pointOfInterestRepo.upsertPointsOfInterest(anyList()))
+            .thenAnswer(invocation -> {
+              List<ImportedPointOfInterest> chunk = invocation.getArgument(0);
+              chunks.add(chunk);
+              return chunk.size();
+            });
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<ImportedPointOfInterest> imported() {
+    return chunks.stream().flatMap(List::stream).toList();
+  }
+
+  @Test
+  void importCsv_shouldImportValidRowsAndReportInvalidOnes() {
+    String csv = "External_ID,type,latitude,longitude,opens_at,closes_at,description,capacity\r\n"
+            + "s-1,shelter,59.91,10.75,08:00,20:00,\"Basement, \"\"North\"\" entrance\",120\r\n"
+            + "\r\n"
+            + "d-1,DEFIBRILLATOR,60.39,5.32,,,\"Lobby\nsecond floor\",\r\n"
+            + "x-1,bunker,60.0,10.0,,,,\r\n"
+            + "x-2,shelter,,10.0,,,,\r\n"
+            + "x-3,shelter,60.0,10.0,,,,-5\r\n"
+            + "x-4,shelter,60.0\r\n";
+
+    PointOfInterestImportResponse response = importService.importPointsOfInterest(stream(csv),
+            "csv");
+
+    assertTrue(response.isComplete());
+    assertEquals(2, response.getImported());
+    assertEquals(4, response.getRejected());
+    assertEquals(List.of("Row 3: Invalid type: bunker", "Row 4: The latitude is required",
+            "Row 5: Capacity cannot be negative", "Row 6: Expected 8 fields but found 3"),
+            response.getErrors());
+
+    List<ImportedPointOfInterest> rows = imported();
+    assertEquals("s-1", rows.get(0).getExternalId());
+    PointOfInterest shelter = rows.get(0).getPointOfInterest();
+    assertEquals(PointOfInterestType.SHELTER, shelter.getType());
+    assertEquals(59.91, shelter.getLatitude());
+    assertEquals(LocalTime.of(8, 0), shelter.getOpensAt());
+    assertEquals("Basement, \"North\" entrance", shelter.getDescription());
+    assertEquals(120, shelter.getCapacity());
+    PointOfInterest defibrillator = rows.get(1).getPointOfInterest();
+    assertEquals(PointOfInterestType.DEFIBRILLATOR, defibrillator.getType());
+    assertEquals("Lobby\nsecond floor", defibrillator.getDescription());
+    assertNull(defibrillator.getOpensAt());
+    assertNull(defibrillator.getCapacity());
+  }
+
+  @Test
+  void importGeoJson_shouldReadPointFeatures() {
+    String geoJson = "{\"type\":\"FeatureCollection\",\"name\":{\"nested\":[1,2]},\"features\":["
+            + "{\"type\":\"Feature\",\"id\":\"h-1\",\"geometry\":{\"type\":\"Point\","
+            + "\"coordinates\":[10.72,59.95]},\"properties\":{\"type\":\"hospital\","
+            + "\"contact_number\":\"22 11 80 80\"}},"
+            + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\","
+            + "\"coordinates\":[[10.0,60.0],[11.0,61.0]]},\"properties\":{}},"
+            + "{\"type\":\"Feature\",\"id\":7,\"geometry\":{\"type\":\"Point\","
+            + "\"coordinates\":[5.32,60.39]},\"properties\":{\"external_id\":\"s-2\","
+            + "\"type\":\"shelter\",\"capacity\":300}}"
+            + "],\"crs\":null}";
+
+    PointOfInterestImportResponse response = importService.importPointsOfInterest(
+            stream(geoJson), "GeoJSON");
+
+    assertTrue(response.isComplete());
+    assertEquals(2, response.getImported());
+    assertEquals(List.of("Row 2: Geometry must be a Point"), response.getErrors());
+    List<ImportedPointOfInterest> rows = imported();
+    assertEquals("h-1", rows.get(0).getExternalId());
+    assertEquals(59.95, rows.get(0).getPointOfInterest().getLatitude());
+    assertEquals(10.72, rows.get(0).getPointOfInterest().getLongitude());
+    assertEquals("22 11 80 80", rows.get(0).getPointOfInterest().getContactNumber());
+    assertEquals("s-2", rows.get(1).getExternalId());
+    assertEquals(300, rows.get(1).getPointOfInterest().getCapacity());
+  }
+
+  @Test
+  void importCsv_shouldWriteLargeFilesInChunksWhileReading() {
+    int rows = 2500;
+    Enumeration<InputStream> lines = new Enumeration<>() {
+      private int line;
+
+      @Override
+      public boolean hasMoreElements() {
+        return line <= rows;
+      }
+
+      @Override
+      public InputStream nextElement() {
+        int i = line++;
+        return stream(i == 0 ? "external_id,type,latitude,longitude\n"
+                : "aed-" + i + ",defibrillator,60.0,10.0\n");
+      }
+    };
+
+    PointOfInterestImportResponse response = importService.importPointsOfInterest(
+            new SequenceInputStream(lines), "csv");
+
+    assertEquals(rows, response.getImported());
+    assertEquals(List.of(1000, 1000, 500), chunks.stream().map(List::size).toList());
+    assertEquals("aed-2500", chunks.get(2).get(499).getExternalId());
+    verify(transactionManager, times(3)).commit(any());
+  }
+
+  @Test
+  void importGeoJson_shouldKeepEarlierRows_whenFileIsCutOff() {
+    String geoJson = "{\"type\":\"FeatureCollection\",\"features\":["
+            + "{\"type\":\"Feature\",\"id\":\"m-1\",\"geometry\":{\"type\":\"Point\","
+            + "\"coordinates\":[10.0,60.0]},\"properties\":{\"type\":\"meeting_place\"}},"
+            + "{\"type\":\"Feature\",\"id\":\"m-2\",\"geometry\":{\"type\":";
+
+    PointOfInterestImportResponse response = importService.importPointsOfInterest(
+            stream(geoJson), "geojson");
+
+    assertFalse(response.isComplete());
+    assertEquals(1, response.getImported());
+    assertTrue(response.getErrors().get(0).startsWith("Stopped at row 2"));
+  }
+
+  @Test
+  void importPointsOfInterest_shouldThrow_forUnknownFormatOrMissingColumn() {
+    assertThrows(IllegalArgumentException.class,
+            () -> importService.importPointsOfInterest(stream(""), "xlsx"));
+    assertThrows(IllegalArgumentException.class,
+            () -> importService.importPointsOfInterest(stream("external_id,type,latitude\n"),
+                    "csv"));
+    verify(pointOfInterestRepo, never()).upsertPointsOfInterest(anyList());
+  }
+}
@@ -0,0 +1,162 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.service.location.PointOfInterestIndex;
+import com.group7.krisefikser.spatial.ClusterPyramid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PointOfInterestIndex class.
+ */
+@ExtendWith(MockitoExtension.class)
+class PointOfInterestIndexTest {
+  @Mock
+  private PointOfInterestRepo pointOfInterestRepo;
+
+  private PointOfInterestIndex index;
+
+  private final PointOfInterest shelter = new PointOfInterest(1L, 63.43, 10.39,
+          PointOfInterestType.SHELTER, null, null, null, "Shelter", null, 0);
+  private final PointOfInterest hospital = new PointOfInterest(2L, 63.42, 10.40,
+          PointOfInterestType.HOSPITAL, null, null, null, "Hospital", null, 0);
+  private final PointOfInterest farShelter = new PointOfInterest(3L, 59.91, 10.75,
+          PointOfInterestType.SHELTER, null, null, null, "Far shelter", null, 0);
+
+  @BeforeEach
+  void setUp() {
+    index = new PointOfInterestIndex(pointOfInterestRepo);
+  }
+
+  @Test
+  void findInBox_shouldLoadOnceAndFilterByType() {
+    when(pointOfInterestRepo.getAllPointsOfInterest())
+            .thenReturn(List.of(shelter, hospital, farShelter));
+
+    List<PointOfInterest> shelters = index.findInBox(List.of(PointOfInterestType.SHELTER),
+            63, 10, 64, 11, null);
+    List<PointOfInterest> all = index.findInBox(
+            List.of(PointOfInterestType.SHELTER, PointOfInterestType.HOSPITAL), 63, 10, 64, 11, null);
+
+    assertEquals(List.of(shelter), shelters);
+    assertEquals(2, all.size());
+    verify(pointOfInterestRepo, times(1)).getAllPointsOfInterest();
+  }
+
+  @Test
+  void findWithinRadius_shouldOrderByDistance() {
+    when(pointOfInterestRepo.getAllPointsOfInterest())
+            .thenReturn(List.of(shelter, hospital, farShelter));
+
+    List<PointOfInterest> result = index.findWithinRadius(
+            List.of(PointOfInterestType.SHELTER, PointOfInterestType.HOSPITAL),
+            63.421, 10.401, 5, null);
+
+    assertEquals(List.of(hospital, shelter), result);
+  }
+
+  @Test
+  void onPointOfInterestChanged_shouldApplyUpdatesAndDeletes() {
+    when(pointOfInterestRepo.getAllPointsOfInterest()).thenReturn(List.of(shelter));
+    index.findInBox(List.of(PointOfInterestType.SHELTER), 63, 10, 64, 11, null);
+
+    PointOfInterest converted = new PointOfInterest(1L, 63.43, 10.39,
+            PointOfInterestType.HOSPITAL, null, null, null, "Now a hospital", null, 0);
+    index.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L, converted));
+
+    assertTrue(index.findInBox(List.of(PointOfInterestType.SHELTER), 63, 10, 64, 11, null).isEmpty());
+    assertEquals(List.of(converted),
+            index.findInBox(List.of(PointOfInterestType.HOSPITAL), 63, 10, 64, 11, null));
+
+    index.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L, null));
+    assertTrue(index.findInBox(List.of(PointOfInterestType.HOSPITAL), 63, 10, 64, 11, null).isEmpty());
+  }
+
+  @Test
+  void onPointOfInterestChanged_beforeLoad_shouldBeIgnored() {
+    index.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L, shelter));
+    when(pointOfInterestRepo.getAllPointsOfInterest()).thenReturn(List.of());
+
+    assertTrue(index.findInBox(List.of(PointOfInterestType.SHELTER), 63, 10, 64, 11, null).isEmpty());
+  }
+
+  @Test
+  void findNearest_shouldMergeTypesAndLimitToK() {
+    when(pointOfInterestRepo.getAllPointsOfInterest())
+            .thenReturn(List.of(shelter, hospital, farShelter));
+
+    List<PointOfInterestIndex.NearestPoint> result = index.findNearest(
+            List.of(PointOfInterestType.SHELTER, PointOfInterestType.HOSPITAL),
+            63.421, 10.401, 2);
+
+    assertEquals(2, result.size());
+    assertEquals(hospital, result.get(0).getPointOfInterest());
+    assertEquals(shelter, result.get(1).getPointOfInterest());
+    assertTrue(result.get(0).getDistanceKm() < result.get(1).getDistanceKm());
+  }
+
+  @Test
+  void findNearest_shouldRebuildAfterChange() {
+    when(pointOfInterestRepo.getAllPointsOfInterest()).thenReturn(List.of(farShelter));
+    assertEquals(farShelter, index.findNearest(List.of(PointOfInterestType.SHELTER),
+            63.43, 10.39, 1).get(0).getPointOfInterest());
+
+    index.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L, shelter));
+    List<PointOfInterestIndex.NearestPoint> result =
+            index.findNearest(List.of(PointOfInterestType.SHELTER), 63.43, 10.39, 1);
+
+    assertEquals(shelter, result.get(0).getPointOfInterest());
+    assertEquals(0, result.get(0).getDistanceKm(), 1e-6);
+  }
+
+  @Test
+  void openAt_shouldFilterAloneAndWithSpatialQueries() {
+    PointOfInterest nightShelter = new PointOfInterest(4L, 63.431, 10.391,
+            PointOfInterestType.SHELTER, LocalTime.of(20, 0), LocalTime.of(6, 0), null, "Night", null, 0);
+    PointOfInterest dayShelter = new PointOfInterest(5L, 63.432, 10.392,
+            PointOfInterestType.SHELTER, LocalTime.of(8, 0), LocalTime.of(16, 0), null, "Day", null, 0);
+    when(pointOfInterestRepo.getAllPointsOfInterest())
+            .thenReturn(List.of(shelter, farShelter, nightShelter, dayShelter));
+
+    List<PointOfInterest> openAtNight = index.findOpenAt(List.of(PointOfInterestType.SHELTER),
+            LocalTime.of(2, 30));
+    List<PointOfInterest> openNearbyAtNight = index.findWithinRadius(
+            List.of(PointOfInterestType.SHELTER), 63.43, 10.39, 5, LocalTime.of(2, 30));
+    List<PointOfInterest> openInBoxAtNoon = index.findInBox(
+            List.of(PointOfInterestType.SHELTER), 63, 10, 64, 11, LocalTime.NOON);
+
+    assertEquals(3, openAtNight.size());
+    assertFalse(openAtNight.contains(dayShelter));
+    assertEquals(List.of(shelter, nightShelter), openNearbyAtNight);
+    assertEquals(2, openInBoxAtNoon.size());
+    assertFalse(openInBoxAtNoon.contains(nightShelter));
+  }
+
+  @Test
+  void findClusters_shouldFilterByTypeAndFollowChanges() {
+    when(pointOfInterestRepo.getAllPointsOfInterest())
+            .thenReturn(List.of(shelter, hospital, farShelter));
+
+    List<ClusterPyramid.Cluster> shelters = index.findClusters(
+            List.of(PointOfInterestType.SHELTER), 3, 57, 4, 72, 32);
+    index.onPointOfInterestChanged(new PointOfInterestChangedEvent(3L, null));
+    List<ClusterPyramid.Cluster> afterDelete = index.findClusters(
+            List.of(PointOfInterestType.SHELTER), 3, 57, 4, 72, 32);
+
+    assertEquals(2, shelters.stream().mapToInt(ClusterPyramid.Cluster::getCount).sum());
+    assertEquals(1, afterDelete.size());
+    assertEquals(1L, afterDelete.get(0).getPointId());
+  }
+}
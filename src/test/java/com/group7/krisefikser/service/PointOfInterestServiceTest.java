@@ -1,12 +1,17 @@
 package com.group7.krisefikser.service;
 
+import com.group7.krisefikser.dto.request.location.ClusterRequest;
 import com.group7.krisefikser.dto.request.location.GetPointsOfInterestRequest;
 import com.group7.krisefikser.dto.request.location.PointOfInterestRequest;
+import com.group7.krisefikser.dto.response.location.ClusterResponse;
+import com.group7.krisefikser.dto.response.location.NearestPointOfInterestResponse;
 import com.group7.krisefikser.dto.response.location.PointOfInterestResponse;
 import com.group7.krisefikser.enums.PointOfInterestType;
 import com.group7.krisefikser.model.location.PointOfInterest;
 import com.group7.krisefikser.repository.location.PointOfInterestRepo;
+import com.group7.krisefikser.service.location.PointOfInterestIndex;
 import com.group7.krisefikser.service.location.PointOfInterestService;
+import com.group7.krisefikser.spatial.ClusterPyramid;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +20,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +38,8 @@ import static org.mockito.Mockito.*;
 class PointOfInterestServiceTest {
   @Mock
   private PointOfInterestRepo pointOfInterestRepo;
+  @Mock
+  private PointOfInterestIndex pointOfInterestIndex;
   @InjectMocks
   private PointOfInterestService pointOfInterestService;
 
@@ -41,13 +50,13 @@ class PointOfInterestServiceTest {
   @BeforeEach
   void setUp() {
     addRequest = new PointOfInterestRequest(
-            10.0, 20.0, "shelter", "09:00", "17:00", "12345678", "A safe shelter"
+            10.0, 20.0, "shelter", "09:00", "17:00", "12345678", "A safe shelter", null
     );
     savedPoint = new PointOfInterest(
-            1L, 10.0, 20.0, PointOfInterestType.SHELTER, LocalTime.parse("09:00"), LocalTime.parse("17:00"), "12345678", "A safe shelter"
+            1L, 10.0, 20.0, PointOfInterestType.SHELTER, LocalTime.parse("09:00"), LocalTime.parse("17:00"), "12345678", "A safe shelter", null, 0
     );
     updateRequest = new PointOfInterestRequest(
-            11.0, 21.0, "hospital", "10:00", "18:00", "87654321", "Updated hospital info"
+            11.0, 21.0, "hospital", "10:00", "18:00", "87654321", "Updated hospital info", null
     );
   }
 
@@ -87,9 +96,9 @@ class PointOfInterestServiceTest {
 
     List<PointOfInterest> mockPoints = Arrays.asList(
             new PointOfInterest(1L, 63.4297, 10.3933, PointOfInterestType.SHELTER,
-                    null, null, "12345678", "Shelter description"),
+                    null, null, "12345678", "Shelter description", null, 0),
             new PointOfInterest(2L, 63.4300, 10.4000, PointOfInterestType.WATER_STATION,
-                    null, null, "12345678", "Water station description")
+                    null, null, "12345678", "Water station description", null, 0)
     );
     when(pointOfInterestRepo.getPointsOfInterestByTypes(
             requestedTypes.stream().map(PointOfInterestType::fromString).toList())
@@ -109,6 +118,84 @@ class PointOfInterestServiceTest {
     assertEquals("WATER_STATION", response.get(1).getType());
   }
 
+  @Test
+  void getPointsOfInterestByTypes_withBoundingBox_shouldUseIndex() {
+    GetPointsOfInterestRequest request = new GetPointsOfInterestRequest(List.of("shelter"));
+    request.setMinLatitude(63.0);
+    request.setMinLongitude(10.0);
+    request.setMaxLatitude(64.0);
+    request.setMaxLongitude(11.0);
+    when(pointOfInterestIndex.findInBox(List.of(PointOfInterestType.SHELTER), 63.0, 10.0,
+            64.0, 11.0, null)).thenReturn(List.of(savedPoint));
+
+    List<PointOfInterestResponse> response = pointOfInterestService.getPointsOfInterestByTypes(request);
+
+    assertEquals(1, response.size());
+    assertEquals(1L, response.get(0).getId());
+    verifyNoInteractions(pointOfInterestRepo);
+  }
+
+  @Test
+  void getPointsOfInterestByTypes_withRadius_shouldUseIndex() {
+    GetPointsOfInterestRequest request = new GetPointsOfInterestRequest(List.of("shelter"));
+    request.setLatitude(10.0);
+    request.setLongitude(20.0);
+    request.setRadiusKm(5.0);
+    when(pointOfInterestIndex.findWithinRadius(List.of(PointOfInterestType.SHELTER), 10.0,
+            20.0, 5.0, null)).thenReturn(List.of(savedPoint));
+
+    List<PointOfInterestResponse> response = pointOfInterestService.getPointsOfInterestByTypes(request);
+
+    assertEquals(1, response.size());
+    verifyNoInteractions(pointOfInterestRepo);
+  }
+
+  @Test
+  void getPointsOfInterestByTypes_withOpenAt_shouldUseOpeningHoursIndex() {
+    GetPointsOfInterestRequest request = new GetPointsOfInterestRequest(List.of("shelter"));
+    request.setOpenAt("23:30");
+    when(pointOfInterestIndex.findOpenAt(List.of(PointOfInterestType.SHELTER),
+            LocalTime.of(23, 30))).thenReturn(List.of(savedPoint));
+
+    List<PointOfInterestResponse> response = pointOfInterestService.getPointsOfInterestByTypes(request);
+
+    assertEquals(1, response.size());
+    verifyNoInteractions(pointOfInterestRepo);
+  }
+
+  @Test
+  void getPointsOfInterestByTypes_withRadiusAndOpenNow_shouldPassCurrentTime() {
+    GetPointsOfInterestRequest request = new GetPointsOfInterestRequest(List.of("shelter"));
+    request.setLatitude(10.0);
+    request.setLongitude(20.0);
+    request.setRadiusKm(5.0);
+    request.setOpenNow(true);
+    when(pointOfInterestIndex.findWithinRadius(eq(List.of(PointOfInterestType.SHELTER)),
+            eq(10.0), eq(20.0), eq(5.0), notNull())).thenReturn(List.of(savedPoint));
+
+    List<PointOfInterestResponse> response = pointOfInterestService.getPointsOfInterestByTypes(request);
+
+    assertEquals(1, response.size());
+  }
+
+  @Test
+  void getPointsOfInterestByTypes_withInvalidOpenAt_shouldThrow() {
+    GetPointsOfInterestRequest request = new GetPointsOfInterestRequest(List.of("shelter"));
+    request.setOpenAt("25:00");
+
+    assertThrows(IllegalArgumentException.class, () ->
+            pointOfInterestService.getPointsOfInterestByTypes(request));
+  }
+
+  @Test
+  void getPointsOfInterestByTypes_withIncompleteBoundingBox_shouldThrow() {
+    GetPointsOfInterestRequest request = new GetPointsOfInterestRequest(List.of("shelter"));
+    request.setMinLatitude(63.0);
+
+    assertThrows(IllegalArgumentException.class, () ->
+            pointOfInterestService.getPointsOfInterestByTypes(request));
+  }
+
   /**
    * Test for getPointsOfInterestByTypes method.
    * This test verifies that the method throws an exception
@@ -127,6 +214,51 @@ class PointOfInterestServiceTest {
     assertEquals("Invalid type: invalid_type", exception.getCause().getMessage());
   }
 
+  @Test
+  void getNearestPointsOfInterest_shouldMapIndexResults() {
+    when(pointOfInterestIndex.findNearest(List.of(PointOfInterestType.SHELTER), 10.0, 20.0, 3))
+            .thenReturn(List.of(new PointOfInterestIndex.NearestPoint(savedPoint, 1.5)));
+
+    List<NearestPointOfInterestResponse> result = pointOfInterestService
+            .getNearestPointsOfInterest(List.of("shelter", "shelter"), 10.0, 20.0, 3);
+
+    assertEquals(1, result.size());
+    assertEquals(1L, result.get(0).getPointOfInterest().getId());
+    assertEquals(1.5, result.get(0).getDistanceKm());
+  }
+
+  @Test
+  void getNearestPointsOfInterest_shouldRejectInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> pointOfInterestService
+            .getNearestPointsOfInterest(List.of(), 10.0, 20.0, 3));
+    assertThrows(IllegalArgumentException.class, () -> pointOfInterestService
+            .getNearestPointsOfInterest(List.of("shelter"), 10.0, 20.0, 0));
+    assertThrows(IllegalArgumentException.class, () -> pointOfInterestService
+            .getNearestPointsOfInterest(List.of("shelter"), 91.0, 20.0, 3));
+    verifyNoInteractions(pointOfInterestIndex);
+  }
+
+  @Test
+  void getPointOfInterestClusters_shouldMapTypeBreakdown() {
+    ClusterPyramid pyramid = new ClusterPyramid(4, PointOfInterestType.values().length);
+    pyramid.put(1, 63.43, 10.39, PointOfInterestType.SHELTER.ordinal());
+    pyramid.put(2, 63.44, 10.40, PointOfInterestType.HOSPITAL.ordinal());
+    List<ClusterPyramid.Cluster> clusters = new ArrayList<>();
+    pyramid.query(4, 57, 4, 72, 32, null, clusters::add);
+    List<PointOfInterestType> types = List.of(PointOfInterestType.SHELTER,
+            PointOfInterestType.HOSPITAL);
+    when(pointOfInterestIndex.findClusters(types, 4, 57.0, 4.0, 72.0, 32.0))
+            .thenReturn(clusters);
+
+    List<ClusterResponse> result = pointOfInterestService.getPointOfInterestClusters(
+            new ClusterRequest(4, 57.0, 4.0, 72.0, 32.0), List.of("shelter", "hospital"));
+
+    assertEquals(1, result.size());
+    assertEquals(2, result.get(0).getCount());
+    assertNull(result.get(0).getId());
+    assertEquals(Map.of("SHELTER", 1, "HOSPITAL", 1), result.get(0).getBreakdown());
+  }
+
   @Test
   void addPointOfInterest_authorizedUser_shouldAddAndReturnResponse() {
     doAnswer(invocation -> {
@@ -213,7 +345,7 @@ class PointOfInterestServiceTest {
   @Test
   void updatePointOfInterest_nonExistingId_shouldThrowIllegalArgumentException() {
     PointOfInterestRequest nonExistingRequest = new PointOfInterestRequest(
-            11.0, 21.0, "hospital", "10:00", "18:00", "87654321", "Updated hospital info"
+            11.0, 21.0, "hospital", "10:00", "18:00", "87654321", "Updated hospital info", null
     );
     when(pointOfInterestRepo.updatePointOfInterest(any(PointOfInterest.class)))
             .thenReturn(0);
@@ -0,0 +1,182 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.dto.response.location.PositionHistoryPointResponse;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.location.PositionHistoryChunk;
+import com.group7.krisefikser.repository.location.PositionHistoryRepository;
+import com.group7.krisefikser.service.household.HouseholdMembershipRegistry;
+import com.group7.krisefikser.service.location.PositionHistoryService;
+import com.group7.krisefikser.spatial.Track;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PositionHistoryService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class PositionHistoryServiceTest {
+  // A whole hour, so five minute and hourly intervals start at START.
+  private static final long START = 1_759_996_800L;
+
+  @Mock
+  private PositionHistoryRepository positionHistoryRepository;
+
+  @Mock
+  private HouseholdMembershipRegistry membershipRegistry;
+
+  private PositionHistoryService positionHistoryService;
+
+  @BeforeEach
+  void setUp() {
+    positionHistoryService = new PositionHistoryService(positionHistoryRepository,
+            membershipRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    positionHistoryService.shutdown();
+  }
+
+  private static LocalDateTime time(long epochSecond) {
+    return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<PositionHistoryChunk> insertedChunks() {
+    ArgumentCaptor<List<PositionHistoryChunk>> captor = ArgumentCaptor.forClass(List.class);
+    verify(positionHistoryRepository).insertChunks(captor.capture());
+    return captor.getValue();
+  }
+
+  @Test
+  void getHistory_shouldReturnRecentPointsAndMergeClosePoints() {
+    positionHistoryService.record(1L, START, 60.0, 10.0);
+    positionHistoryService.record(1L, START + 2, 60.1, 10.1);
+    positionHistoryService.record(1L, START + 60, 60.2, 10.2);
+    positionHistoryService.record(1L, START + 30, 50.0, 5.0);
+
+    List<PositionHistoryPointResponse> history = positionHistoryService.getHistory(1L, 1L,
+            time(START - 60), time(START + 120));
+
+    assertEquals(2, history.size());
+    assertEquals(time(START + 2), history.get(0).getTime());
+    assertEquals(60.1, history.get(0).getLatitude());
+    assertEquals(60.2, history.get(1).getLatitude());
+  }
+
+  @Test
+  void flush_shouldWriteOneDownsampledChunkPerCompletedHour() {
+    for (long t = 0; t < 7200; t += 60) {
+      positionHistoryService.record(1L, START + t, 60 + t * 1e-5, 10.0);
+    }
+
+    assertEquals(0, positionHistoryService.flush(START + 7200));
+    verify(positionHistoryRepository, never()).insertChunks(any());
+    assertEquals(1, positionHistoryService.flush(START + 7260));
+
+    PositionHistoryChunk chunk = insertedChunks().get(0);
+    assertEquals(1L, chunk.getUserId());
+    assertEquals(300, chunk.getResolutionSeconds());
+    assertEquals(12, chunk.getPointCount());
+    assertEquals(time(START + 240), chunk.getStartTime());
+    assertEquals(time(START + 3540), chunk.getEndTime());
+    assertEquals(12, Track.decode(chunk.getPoints()).size());
+  }
+
+  @Test
+  void flush_shouldWritePendingPointsOfIdleUsers() {
+    positionHistoryService.record(2L, START, 60.0, 10.0);
+
+    assertEquals(1, positionHistoryService.flush(START + 3601));
+    assertEquals(1, insertedChunks().get(0).getPointCount());
+    when(positionHistoryRepository.getChunks(eq(2L), any(), any())).thenReturn(List.of());
+    assertTrue(positionHistoryService.getHistory(2L, 2L, time(START), time(START + 10))
+            .isEmpty());
+  }
+
+  @Test
+  void flush_databaseUnavailable_shouldKeepChunksForNextFlush() {
+    positionHistoryService.record(2L, START, 60.0, 10.0);
+    doThrow(new QueryTimeoutException("Database down"))
+            .doThrow(new QueryTimeoutException("Database down"))
+            .doNothing()
+            .when(positionHistoryRepository).insertChunks(anyList());
+    when(positionHistoryRepository.getChunks(eq(2L), any(), any())).thenReturn(List.of());
+
+    assertEquals(0, positionHistoryService.flush(START + 3601));
+    assertEquals(1, positionHistoryService.getHistory(2L, 2L, time(START), time(START + 10))
+            .size());
+
+    assertEquals(1, positionHistoryService.flush(START + 3901));
+    assertEquals(0, positionHistoryService.flush(START + 4201));
+    verify(positionHistoryRepository, times(3)).insertChunks(anyList());
+  }
+
+  @Test
+  void getHistory_shouldCombineStoredChunksWithMemoryForPeers() {
+    Track stored = Track.of(new long[] {START - 7200, START - 3600},
+            new double[] {59.0, 59.5}, new double[] {9.0, 9.5});
+    when(membershipRegistry.isPeer(5L, 1L)).thenReturn(true);
+    when(positionHistoryRepository.getChunks(eq(1L), any(), any())).thenReturn(List.of(
+            new PositionHistoryChunk(1L, 1L, time(START - 7200), time(START - 3600), 300, 2,
+                    stored.encode())));
+    positionHistoryService.record(1L, START, 60.0, 10.0);
+
+    List<PositionHistoryPointResponse> history = positionHistoryService.getHistory(5L, 1L,
+            time(START - 3600), time(START + 60));
+
+    assertEquals(2, history.size());
+    assertEquals(59.5, history.get(0).getLatitude(), 1e-9);
+    assertEquals(60.0, history.get(1).getLatitude());
+  }
+
+  @Test
+  void getHistory_shouldRejectStrangersAndInvalidRanges() {
+    when(membershipRegistry.isPeer(5L, 1L)).thenReturn(false);
+
+    assertThrows(ResourceNotFoundException.class, () -> positionHistoryService.getHistory(5L,
+            1L, time(START), time(START + 60)));
+    assertThrows(IllegalArgumentException.class, () -> positionHistoryService.getHistory(1L,
+            1L, time(START + 60), time(START)));
+    assertThrows(IllegalArgumentException.class, () -> positionHistoryService.getHistory(1L,
+            1L, time(START).minusDays(31), time(START)));
+  }
+
+  @Test
+  void compact_shouldMergeDayOldChunksIntoHourlyChunksPerDay() {
+    Track first = Track.of(new long[] {START, START + 300, START + 3600},
+            new double[] {60.0, 60.1, 60.2}, new double[] {10.0, 10.1, 10.2});
+    Track nextDay = Track.of(new long[] {START + 86_400}, new double[] {61.0},
+            new double[] {11.0});
+    when(positionHistoryRepository.getChunksEndingBefore(eq(300), any(), anyInt()))
+            .thenReturn(List.of(
+                    new PositionHistoryChunk(7L, 1L, time(START), time(START + 3600), 300, 3,
+                            first.encode()),
+                    new PositionHistoryChunk(8L, 1L, time(START + 86_400),
+                            time(START + 86_400), 300, 1, nextDay.encode())));
+
+    assertEquals(2, positionHistoryService.compact(START + 10 * 86_400));
+
+    List<PositionHistoryChunk> compacted = insertedChunks();
+    assertEquals(2, compacted.size());
+    assertEquals(3600, compacted.get(0).getResolutionSeconds());
+    assertEquals(2, compacted.get(0).getPointCount());
+    verify(positionHistoryRepository).deleteChunks(List.of(7L, 8L));
+    verify(positionHistoryRepository).deleteChunksEndingBefore(time(START - 20 * 86_400));
+  }
+}
@@ -0,0 +1,154 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import com.group7.krisefikser.model.location.UserPosition;
+import com.group7.krisefikser.service.household.HouseholdMembershipRegistry;
+import com.group7.krisefikser.service.location.PositionStreamService;
+import com.group7.krisefikser.service.location.UserPositionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PositionStreamService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class PositionStreamServiceTest {
+  @Mock
+  private HouseholdMembershipRegistry membershipRegistry;
+
+  @Mock
+  private UserPositionStore userPositionStore;
+
+  private PositionStreamService positionStreamService;
+  private MockedConstruction<SseEmitter> emitters;
+  private volatile CountDownLatch gate = new CountDownLatch(0);
+
+  @BeforeEach
+  void setUp() {
+    emitters = mockConstruction(SseEmitter.class, (emitter, context) ->
+            lenient().doAnswer(invocation -> gate.await(2, TimeUnit.SECONDS))
+                    .when(emitter).send(any(SseEmitter.SseEventBuilder.class)));
+    positionStreamService = new PositionStreamService(membershipRegistry, userPositionStore);
+    // Users 1 and 2 share a household, user 3 is in the same emergency group.
+    lenient().doAnswer(invocation -> {
+      long userId = invocation.getArgument(0);
+      HouseholdMembershipRegistry.PeerHandler handler = invocation.getArgument(1);
+      for (long peer = 1; peer <= 3; peer++) {
+        if (peer != userId) {
+          handler.accept(peer, peer != 3 && userId != 3);
+        }
+      }
+      return null;
+    }).when(membershipRegistry).forEachPeer(anyLong(), any());
+    lenient().when(membershipRegistry.nameOf(anyLong()))
+            .thenAnswer(invocation -> "Member " + invocation.getArgument(0));
+  }
+
+  @AfterEach
+  void tearDown() {
+    gate.countDown();
+    positionStreamService.shutdown();
+    emitters.close();
+  }
+
+  private static UserPosition position(long userId, double latitude, double longitude) {
+    UserPosition userPosition = new UserPosition();
+    userPosition.setUserId(userId);
+    userPosition.setLatitude(latitude);
+    userPosition.setLongitude(longitude);
+    return userPosition;
+  }
+
+  /**
+   * Returns the events sent to an emitter, in order, as their wire text.
+   */
+  private static List<String> sentEvents(SseEmitter emitter, int expected) throws Exception {
+    ArgumentCaptor<SseEmitter.SseEventBuilder> events =
+            ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+    verify(emitter, timeout(2000).times(expected)).send(events.capture());
+    return events.getAllValues().stream()
+            .map(event -> event.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()))
+            .toList();
+  }
+
+  @Test
+  void subscribe_shouldSendPositionsOfSharingPeersFirst() throws Exception {
+    when(userPositionStore.get(2L)).thenReturn(position(2L, 60.0, 10.0));
+
+    SseEmitter emitter = positionStreamService.subscribe(1L);
+
+    List<String> events = sentEvents(emitter, 1);
+    assertTrue(events.get(0).startsWith("event:positions"));
+    assertTrue(events.get(0).contains("userId=2"));
+    assertFalse(events.get(0).contains("userId=3"));
+    assertEquals(1, positionStreamService.getSubscriberCount());
+  }
+
+  @Test
+  void onUserPositionChanged_shouldNotifyOnlySubscribedPeers() throws Exception {
+    SseEmitter peer = positionStreamService.subscribe(1L);
+    SseEmitter self = positionStreamService.subscribe(2L);
+    sentEvents(peer, 1);
+    sentEvents(self, 1);
+
+    positionStreamService.onUserPositionChanged(new UserPositionChangedEvent(2L, 60.5, 10.5));
+    positionStreamService.onUserPositionChanged(new UserPositionChangedEvent(3L, null, null));
+
+    List<String> events = sentEvents(peer, 3);
+    assertTrue(events.get(1).startsWith("event:position\n"));
+    assertTrue(events.get(1).contains("latitude=60.5"));
+    assertTrue(events.get(1).contains("householdMember=true"));
+    assertTrue(events.get(2).startsWith("event:stopped"));
+    assertTrue(events.get(2).contains("householdMember=false"));
+    sentEvents(self, 2);
+  }
+
+  @Test
+  void onUserPositionChanged_shouldOnlyKeepLatestPositionForSlowSubscriber() throws Exception {
+    gate = new CountDownLatch(1);
+    SseEmitter emitter = positionStreamService.subscribe(1L);
+    verify(emitter, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+
+    for (int i = 1; i <= 5; i++) {
+      positionStreamService.onUserPositionChanged(
+              new UserPositionChangedEvent(2L, 60.0 + i, 10.0));
+    }
+    positionStreamService.onUserPositionChanged(new UserPositionChangedEvent(3L, 59.0, 9.0));
+    gate.countDown();
+
+    List<String> events = sentEvents(emitter, 3);
+    assertTrue(events.get(1).contains("userId=2") && events.get(1).contains("latitude=65.0"));
+    assertTrue(events.get(2).contains("userId=3"));
+  }
+
+  @Test
+  void failedSend_shouldRemoveSubscriber() throws Exception {
+    SseEmitter emitter = positionStreamService.subscribe(1L);
+    verify(emitter, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+    doThrow(new IOException("gone")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+    positionStreamService.onUserPositionChanged(new UserPositionChangedEvent(2L, 60.0, 10.0));
+
+    EmitterTestUtils.awaitCompleted(emitter);
+    assertEquals(0, positionStreamService.getSubscriberCount());
+  }
+}
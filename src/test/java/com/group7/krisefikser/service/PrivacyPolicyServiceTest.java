@@ -1,15 +1,21 @@
 package com.group7.krisefikser.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group7.krisefikser.dto.request.article.UpdateRegisteredPrivacyPolicyRequest;
 import com.group7.krisefikser.dto.request.article.UpdateUnregisteredPrivacyPolicyRequest;
 import com.group7.krisefikser.dto.response.article.GetRegisteredPrivacyPolicyResponse;
 import com.group7.krisefikser.dto.response.article.GetUnregisteredPrivacyPolicyResponse;
+import com.group7.krisefikser.event.PrivacyPolicyChangedEvent;
+import com.group7.krisefikser.model.other.SerializedContent;
 import com.group7.krisefikser.repository.article.PrivacyPolicyRepository;
+import com.group7.krisefikser.service.article.ContentCache;
 import com.group7.krisefikser.service.article.PrivacyPolicyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,11 +23,13 @@ class PrivacyPolicyServiceTest {
 
   private PrivacyPolicyRepository privacyPolicyRepository;
   private PrivacyPolicyService service;
+  private ContentCache contentCache;
 
   @BeforeEach
   void setUp() {
     privacyPolicyRepository = Mockito.mock(PrivacyPolicyRepository.class);
-    service = new PrivacyPolicyService(privacyPolicyRepository);
+    contentCache = new ContentCache(new ObjectMapper());
+    service = new PrivacyPolicyService(privacyPolicyRepository, contentCache);
   }
 
   @Test
@@ -65,4 +73,24 @@ class PrivacyPolicyServiceTest {
 
     verify(privacyPolicyRepository, times(1)).updateUnregisteredPrivacyPolicy("Updated Unregistered Policy");
   }
+
+  @Test
+  void testGetRegisteredPrivacyPolicyContent_reloadsOnlyAfterChange() {
+    when(privacyPolicyRepository.getRegisteredPrivacyPolicy()).thenReturn("First", "Second");
+    when(privacyPolicyRepository.getUnregisteredPrivacyPolicy()).thenReturn("Unregistered");
+
+    SerializedContent first = service.getRegisteredPrivacyPolicyContent();
+    SerializedContent unregistered = service.getUnregisteredPrivacyPolicyContent();
+    assertSame(first, service.getRegisteredPrivacyPolicyContent());
+
+    contentCache.onPrivacyPolicyChanged(new PrivacyPolicyChangedEvent(true));
+    SerializedContent second = service.getRegisteredPrivacyPolicyContent();
+
+    assertEquals("{\"registered\":\"First\"}", new String(first.getJson(), StandardCharsets.UTF_8));
+    assertEquals("{\"registered\":\"Second\"}", new String(second.getJson(), StandardCharsets.UTF_8));
+    assertNotEquals(first.getVersion(), second.getVersion());
+    assertSame(unregistered, service.getUnregisteredPrivacyPolicyContent());
+    verify(privacyPolicyRepository, times(2)).getRegisteredPrivacyPolicy();
+    verify(privacyPolicyRepository, times(1)).getUnregisteredPrivacyPolicy();
+  }
 }
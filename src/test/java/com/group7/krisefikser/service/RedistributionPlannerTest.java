@@ -0,0 +1,126 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.dto.response.household.RedistributionPlanResponse;
+import com.group7.krisefikser.dto.response.household.SupplyTransferResponse;
+import com.group7.krisefikser.enums.SupplyType;
+import com.group7.krisefikser.model.household.HouseholdSupply;
+import com.group7.krisefikser.service.household.RedistributionPlanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RedistributionPlanner class.
+ */
+class RedistributionPlannerTest {
+
+  private final RedistributionPlanner planner = new RedistributionPlanner();
+
+  @Test
+  void plan_shouldMoveSurplusToHouseholdInDeficit() {
+    List<HouseholdSupply> households = List.of(
+            new HouseholdSupply(1L, "Rich", 63.43, 10.39, 1, 0, 20000, 20),
+            new HouseholdSupply(2L, "Poor", 63.44, 10.40, 1, 0, 0, 0)
+    );
+
+    RedistributionPlanResponse plan = planner.plan(households);
+
+    assertEquals(5, plan.getCalorieDays(), 1e-9);
+    assertEquals(5, plan.getWaterDays(), 1e-9);
+    assertEquals(2, plan.getTransfers().size());
+    SupplyTransferResponse calories = plan.getTransfers().get(0);
+    assertEquals(SupplyType.CALORIES, calories.getType());
+    assertEquals(1L, calories.getFromHouseholdId());
+    assertEquals(2L, calories.getToHouseholdId());
+    assertEquals(10000, calories.getAmount(), 1e-9);
+    assertTrue(calories.getDistanceKm() > 0);
+    SupplyTransferResponse water = plan.getTransfers().get(1);
+    assertEquals(SupplyType.WATER, water.getType());
+    assertEquals(10, water.getAmount(), 1e-9);
+  }
+
+  @Test
+  void plan_shouldWeightNonUserMembers() {
+    List<HouseholdSupply> households = List.of(
+            new HouseholdSupply(1L, "Alone", 0, 0, 1, 0, 7000, 0),
+            new HouseholdSupply(2L, "With dog", 0, 0.01, 0, 1, 0, 0)
+    );
+
+    RedistributionPlanResponse plan = planner.plan(households);
+
+    // 1 user needs 2000 kcal and 1 non-user member 1500 kcal a day, so 2 days for both.
+    assertEquals(2, plan.getCalorieDays(), 1e-9);
+    assertEquals(3000, plan.getTransfers().get(0).getAmount(), 1e-9);
+  }
+
+  @Test
+  void plan_shouldTakeFromNearestDonorFirst() {
+    List<HouseholdSupply> households = List.of(
+            new HouseholdSupply(1L, "Far donor", 60.0, 10.0, 1, 0, 12000, 0),
+            new HouseholdSupply(2L, "Near donor", 63.0, 10.0, 1, 0, 12000, 0),
+            new HouseholdSupply(3L, "Receiver", 63.1, 10.0, 1, 0, 0, 0)
+    );
+
+    RedistributionPlanResponse plan = planner.plan(households);
+
+    assertEquals(2, plan.getTransfers().size());
+    assertEquals(2L, plan.getTransfers().get(0).getFromHouseholdId());
+    assertEquals(4000, plan.getTransfers().get(0).getAmount(), 1e-9);
+    assertEquals(1L, plan.getTransfers().get(1).getFromHouseholdId());
+    assertTrue(plan.getTransfers().get(0).getDistanceKm()
+            < plan.getTransfers().get(1).getDistanceKm());
+  }
+
+  @Test
+  void plan_shouldReturnNoTransfersWithoutMembers() {
+    RedistributionPlanResponse plan = planner.plan(List.of(
+            new HouseholdSupply(1L, "Empty", 63.43, 10.39, 0, 0, 5000, 5)));
+
+    assertEquals(0, plan.getCalorieDays());
+    assertTrue(plan.getTransfers().isEmpty());
+  }
+
+  @Test
+  void plan_shouldBalanceLargeGroupWithBoundedTransfers() {
+    Random random = new Random(3);
+    int n = 600;
+    List<HouseholdSupply> households = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      households.add(new HouseholdSupply((long) i, "Household " + i,
+              63 + random.nextDouble(), 10 + random.nextDouble(),
+              1 + random.nextInt(4), random.nextInt(3),
+              random.nextInt(60000), random.nextInt(40)));
+    }
+
+    long start = System.nanoTime();
+    RedistributionPlanResponse plan = planner.plan(households);
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue(elapsedMillis < 1000, "Planning took " + elapsedMillis + " ms");
+    assertTrue(plan.getTransfers().size() <= 2 * (n - 1));
+
+    Map<Long, Double> calories = new HashMap<>();
+    for (HouseholdSupply household : households) {
+      calories.put(household.getHouseholdId(), household.getCalories());
+    }
+    for (SupplyTransferResponse transfer : plan.getTransfers()) {
+      if (transfer.getType() == SupplyType.CALORIES) {
+        calories.merge(transfer.getFromHouseholdId(), -transfer.getAmount(), Double::sum);
+        calories.merge(transfer.getToHouseholdId(), transfer.getAmount(), Double::sum);
+      }
+    }
+    for (HouseholdSupply household : households) {
+      double need = (household.getUserCount() + household.getNonUserCount() * 0.75) * 2000;
+      double days = calories.get(household.getHouseholdId()) / need;
+      // Receivers may keep a deficit below the minimum transfer of 500 kcal.
+      assertTrue(days >= plan.getCalorieDays() - 500 / need - 1e-6,
+              "Household " + household.getHouseholdId() + " lasts " + days + " days");
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.dto.response.household.SafetyStatusResponse;
+import com.group7.krisefikser.model.household.SafetyStatus;
+import com.group7.krisefikser.service.household.HouseholdMembershipRegistry;
+import com.group7.krisefikser.service.household.SafetyStatusService;
+import com.group7.krisefikser.service.household.SafetyStatusStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SafetyStatusService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SafetyStatusServiceTest {
+  @Mock
+  private SafetyStatusStore safetyStatusStore;
+
+  @Mock
+  private HouseholdMembershipRegistry membershipRegistry;
+
+  @InjectMocks
+  private SafetyStatusService safetyStatusService;
+
+  private final LocalDateTime reportedAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+  @BeforeEach
+  void setUp() {
+    SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("1", null, List.of()));
+    lenient().when(safetyStatusStore.getStatuses(5L))
+            .thenReturn(Map.of(2L, new SafetyStatus(2L, 5L, true, reportedAt)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void reportStatus_shouldRecordStatusOfCurrentUser() {
+    when(safetyStatusStore.record(5L, 1L, true))
+            .thenReturn(new SafetyStatus(1L, 5L, true, reportedAt));
+    when(membershipRegistry.nameOf(1L)).thenReturn("Ada");
+    when(membershipRegistry.householdIdOf(1L)).thenReturn(10L);
+
+    assertEquals(new SafetyStatusResponse(1L, "Ada", 10L, true, reportedAt),
+            safetyStatusService.reportStatus(5L, true));
+  }
+
+  @Test
+  void getHouseholdStatuses_shouldIncludeMembersWithoutStatus() {
+    doAnswer(invocation -> {
+      HouseholdMembershipRegistry.MemberHandler handler = invocation.getArgument(1);
+      handler.accept(1L, "Ada", 10L);
+      handler.accept(2L, "Bo", 10L);
+      return null;
+    }).when(membershipRegistry).forEachHouseholdMember(eq(1L), any());
+
+    assertEquals(List.of(new SafetyStatusResponse(1L, "Ada", 10L, null, null),
+                    new SafetyStatusResponse(2L, "Bo", 10L, true, reportedAt)),
+            safetyStatusService.getHouseholdStatuses(5L));
+  }
+
+  @Test
+  void getGroupStatuses_shouldVisitWholeGroup() {
+    doAnswer(invocation -> {
+      HouseholdMembershipRegistry.MemberHandler handler = invocation.getArgument(1);
+      handler.accept(1L, "Ada", 10L);
+      handler.accept(3L, "Cy", 11L);
+      return null;
+    }).when(membershipRegistry).forEachGroupMember(eq(1L), any());
+
+    List<SafetyStatusResponse> statuses = safetyStatusService.getGroupStatuses(5L);
+
+    assertEquals(2, statuses.size());
+    assertEquals(11L, statuses.get(1).getHouseholdId());
+    assertNull(statuses.get(1).getSafe());
+  }
+}
@@ -0,0 +1,145 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.event.AffectedAreaChangedEvent;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.household.SafetyStatus;
+import com.group7.krisefikser.model.location.AffectedArea;
+import com.group7.krisefikser.repository.household.SafetyStatusRepository;
+import com.group7.krisefikser.repository.location.AffectedAreaRepo;
+import com.group7.krisefikser.service.household.SafetyStatusStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SafetyStatusStore class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SafetyStatusStoreTest {
+  @Mock
+  private SafetyStatusRepository safetyStatusRepository;
+
+  @Mock
+  private AffectedAreaRepo affectedAreaRepo;
+
+  private SafetyStatusStore store;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(affectedAreaRepo.getAffectedAreaById(1L))
+            .thenReturn(Optional.of(new AffectedArea()));
+    lenient().when(safetyStatusRepository.getSafetyStatusesByAffectedArea(1L))
+            .thenReturn(List.of(new SafetyStatus(7L, 1L, false, LocalDateTime.now())));
+    store = new SafetyStatusStore(safetyStatusRepository, affectedAreaRepo);
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.shutdown();
+  }
+
+  @Test
+  void record_shouldBeReadableBeforeFlushAndWrittenOncePerUser() {
+    store.record(1L, 3L, false);
+    store.record(1L, 3L, true);
+
+    assertTrue(store.getStatuses(1L).get(3L).isSafe());
+    assertFalse(store.getStatuses(1L).get(7L).isSafe());
+    verify(safetyStatusRepository, never()).upsertSafetyStatuses(anyList());
+
+    assertEquals(1, store.flush());
+    verify(safetyStatusRepository).upsertSafetyStatuses(argThat(batch ->
+            batch.size() == 1 && batch.get(0).getUserId() == 3L && batch.get(0).isSafe()));
+    assertEquals(0, store.flush());
+    verify(safetyStatusRepository, times(1)).getSafetyStatusesByAffectedArea(1L);
+  }
+
+  @Test
+  void record_concurrently_shouldKeepEveryUser() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<?>> tasks = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      long first = t * 1000L + 100;
+      tasks.add(pool.submit(() -> {
+        for (long userId = first; userId < first + 1000; userId++) {
+          store.record(1L, userId, true);
+        }
+      }));
+    }
+    for (Future<?> task : tasks) {
+      task.get();
+    }
+    pool.shutdown();
+
+    assertEquals(8001, store.getStatuses(1L).size());
+    assertEquals(8000, store.flush());
+  }
+
+  @Test
+  void record_unknownArea_shouldThrow() {
+    when(affectedAreaRepo.getAffectedAreaById(2L)).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> store.record(2L, 3L, true));
+    assertEquals(0, store.flush());
+  }
+
+  @Test
+  void flush_failedBatch_shouldWriteRowsOneByOneAndDropBadRows() {
+    store.record(1L, 3L, true);
+    store.record(1L, 4L, true);
+    doAnswer(invocation -> {
+      List<SafetyStatus> batch = invocation.getArgument(0);
+      if (batch.size() > 1 || batch.get(0).getUserId() == 4L) {
+        throw new DataIntegrityViolationException("No such user");
+      }
+      return null;
+    }).when(safetyStatusRepository).upsertSafetyStatuses(anyList());
+
+    assertEquals(1, store.flush());
+    assertTrue(store.getStatuses(1L).containsKey(3L));
+    assertFalse(store.getStatuses(1L).containsKey(4L));
+  }
+
+  @Test
+  void flush_databaseUnavailable_shouldKeepStatusesForNextFlush() {
+    store.record(1L, 3L, true);
+    store.record(1L, 4L, false);
+    doThrow(new QueryTimeoutException("Database down"))
+            .doThrow(new QueryTimeoutException("Database down"))
+            .doNothing()
+            .when(safetyStatusRepository).upsertSafetyStatuses(anyList());
+
+    assertEquals(0, store.flush());
+    assertTrue(store.getStatuses(1L).containsKey(4L));
+    assertEquals(2, store.flush());
+    assertEquals(0, store.flush());
+    verify(safetyStatusRepository, times(3)).upsertSafetyStatuses(anyList());
+  }
+
+  @Test
+  void onAffectedAreaChanged_deletedArea_shouldDropUnflushedStatuses() {
+    store.record(1L, 3L, true);
+
+    store.onAffectedAreaChanged(new AffectedAreaChangedEvent(1L, null));
+
+    assertEquals(0, store.flush());
+    verify(safetyStatusRepository, never()).upsertSafetyStatuses(anyList());
+  }
+}
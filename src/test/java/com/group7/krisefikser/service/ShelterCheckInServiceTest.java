@@ -0,0 +1,202 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.enums.PointOfInterestType;
+import com.group7.krisefikser.event.PointOfInterestChangedEvent;
+import com.group7.krisefikser.exception.ResourceNotFoundException;
+import com.group7.krisefikser.model.location.PointOfInterest;
+import com.group7.krisefikser.model.location.ShelterOccupancy;
+import com.group7.krisefikser.repository.location.ShelterCheckInRepository;
+import com.group7.krisefikser.service.location.ShelterCheckInService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ShelterCheckInService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShelterCheckInServiceTest {
+  @Mock
+  private ShelterCheckInRepository shelterCheckInRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  Path directory;
+
+  private final List<ShelterCheckInService> services = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(shelterCheckInRepository.findShelterOccupancy(1L))
+            .thenReturn(Optional.of(new ShelterOccupancy(1L, 100, 10)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    services.forEach(ShelterCheckInService::shutdown);
+  }
+
+  private ShelterCheckInService service() {
+    ShelterCheckInService service = new ShelterCheckInService(shelterCheckInRepository,
+            transactionManager, directory.resolve("check-ins.journal").toString());
+    services.add(service);
+    return service;
+  }
+
+  @Test
+  void checkInAndOut_shouldCountInMemoryAndFlushOneDelta() {
+    ShelterCheckInService service = service();
+
+    service.checkIn(1L, 3);
+    service.checkIn(1L, 4);
+    assertEquals(15, service.checkOut(1L, 2).getCheckedIn());
+    assertEquals(100, service.getOccupancy(1L).getCapacity());
+
+    assertEquals(1, service.flush());
+    verify(shelterCheckInRepository).applyCheckIns(Map.of(1L, 5), 1L);
+    assertEquals(0, service.flush());
+    assertEquals(15, service.getOccupancy(1L).getCheckedIn());
+  }
+
+  @Test
+  void checkIn_concurrently_shouldNotLoseCheckIns() throws Exception {
+    ShelterCheckInService service = service();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<?>> tasks = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      tasks.add(pool.submit(() -> {
+        for (int i = 0; i < 5000; i++) {
+          service.checkIn(1L, 1);
+        }
+      }));
+    }
+    for (Future<?> task : tasks) {
+      task.get();
+    }
+    pool.shutdown();
+
+    assertEquals(40_010, service.getOccupancy(1L).getCheckedIn());
+    service.flush();
+    verify(shelterCheckInRepository, atLeastOnce()).applyCheckIns(argThat(deltas -> {
+      assertEquals(40_000, deltas.get(1L));
+      return true;
+    }), anyLong());
+  }
+
+  @Test
+  void checkOut_concurrently_shouldNotGoBelowZero() throws Exception {
+    ShelterCheckInService service = service();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<Integer>> tasks = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      tasks.add(pool.submit(() -> {
+        int checkedOut = 0;
+        for (int i = 0; i < 1000; i++) {
+          try {
+            service.checkOut(1L, 1);
+            checkedOut++;
+          } catch (IllegalStateException e) {
+            // Everyone has already checked out
+          }
+        }
+        return checkedOut;
+      }));
+    }
+    int checkedOut = 0;
+    for (Future<Integer> task : tasks) {
+      checkedOut += task.get();
+    }
+    pool.shutdown();
+
+    assertEquals(10, checkedOut);
+    assertEquals(0, service.getOccupancy(1L).getCheckedIn());
+    service.flush();
+    verify(shelterCheckInRepository).applyCheckIns(eq(Map.of(1L, -10)), anyLong());
+  }
+
+  /**
+   * Checks in at a service whose flush fails, leaving the check-ins only in the journal.
+   */
+  private void checkInWithoutFlush(int people) {
+    ShelterCheckInService crashed = service();
+    crashed.checkIn(1L, people);
+    doThrow(new QueryTimeoutException("Database unavailable"))
+            .when(shelterCheckInRepository).applyCheckIns(anyMap(), anyLong());
+    assertEquals(0, crashed.flush());
+    reset(shelterCheckInRepository);
+    when(shelterCheckInRepository.findShelterOccupancy(1L))
+            .thenReturn(Optional.of(new ShelterOccupancy(1L, 100, 10)));
+  }
+
+  @Test
+  void restart_shouldReplayJournaledCheckInsNotInTheDatabase() {
+    checkInWithoutFlush(6);
+
+    service().getOccupancy(1L);
+
+    verify(shelterCheckInRepository).applyCheckIns(Map.of(1L, 6), 1L);
+  }
+
+  @Test
+  void restart_shouldSkipJournalTheDatabaseAlreadyHas() {
+    checkInWithoutFlush(6);
+    // The write committed, but the failure was reported afterwards.
+    when(shelterCheckInRepository.getCheckpoint()).thenReturn(1L);
+
+    service().getOccupancy(1L);
+
+    verify(shelterCheckInRepository, never()).applyCheckIns(anyMap(), anyLong());
+  }
+
+  @Test
+  void checkOut_moreThanCheckedIn_shouldThrow() {
+    ShelterCheckInService service = service();
+
+    assertThrows(IllegalStateException.class, () -> service.checkOut(1L, 11));
+    assertThrows(IllegalArgumentException.class, () -> service.checkIn(1L, 0));
+    assertEquals(10, service.getOccupancy(1L).getCheckedIn());
+  }
+
+  @Test
+  void checkIn_unknownShelter_shouldThrow() {
+    when(shelterCheckInRepository.findShelterOccupancy(2L)).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> service().checkIn(2L, 1));
+  }
+
+  @Test
+  void onPointOfInterestChanged_shouldUpdateCapacityAndForgetDeletedShelters() {
+    ShelterCheckInService service = service();
+    service.checkIn(1L, 1);
+
+    service.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L,
+            new PointOfInterest(1L, 60.0, 10.0, PointOfInterestType.SHELTER, null, null, null,
+                    null, 250, 0)));
+    assertEquals(250, service.getOccupancy(1L).getCapacity());
+
+    service.onPointOfInterestChanged(new PointOfInterestChangedEvent(1L, null));
+    service.getOccupancy(1L);
+    verify(shelterCheckInRepository, times(2)).findShelterOccupancy(1L);
+  }
+}
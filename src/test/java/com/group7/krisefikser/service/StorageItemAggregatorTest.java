@@ -0,0 +1,93 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.model.item.StorageItem;
+import com.group7.krisefikser.service.item.StorageItemAggregator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the StorageItemAggregator class.
+ */
+class StorageItemAggregatorTest {
+
+  private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+  @Test
+  void aggregate_shouldSumQuantitiesAndFindEarliestDatePerItem() {
+    LocalDateTime earliest = BASE.plusDays(2);
+    List<StorageItem> items = List.of(
+            new StorageItem(1, BASE.plusDays(10), 5, 1, 7, true),
+            new StorageItem(2, earliest, 2.5, 1, 7, true),
+            new StorageItem(3, BASE.plusDays(4), 1, 2, 3, false)
+    );
+
+    StorageItemAggregator.Result result = new StorageItemAggregator().aggregate(items);
+
+    assertEquals(2, result.size());
+    assertEquals(3, result.itemId(0));
+    assertEquals(1, result.totalQuantity(0));
+    assertEquals(7, result.itemId(1));
+    assertEquals(7.5, result.totalQuantity(1));
+    assertSame(earliest, result.earliestExpirationDate(1));
+  }
+
+  @Test
+  void aggregate_shouldReturnEmptyResultForEmptyInput() {
+    StorageItemAggregator.Result result = new StorageItemAggregator().aggregate(List.of());
+
+    assertEquals(0, result.size());
+  }
+
+  @Test
+  void aggregate_shouldCompareTimeOfDayWhenDatesAreEqual() {
+    List<StorageItem> items = new LinkedList<>();
+    items.add(new StorageItem(1, BASE.plusHours(3), 1, 1, 1, true));
+    items.add(new StorageItem(2, BASE.plusMinutes(1), 1, 1, 1, true));
+    items.add(new StorageItem(3, BASE.plusHours(1), 1, 1, 1, true));
+
+    StorageItemAggregator.Result result = new StorageItemAggregator().aggregate(items);
+
+    assertEquals(BASE.plusMinutes(1), result.earliestExpirationDate(0));
+  }
+
+  @Test
+  void aggregate_forkJoinShouldMatchSequentialResult() {
+    Random random = new Random(7);
+    List<StorageItem> items = new ArrayList<>();
+    Map<Integer, Double> expectedTotals = new HashMap<>();
+    Map<Integer, LocalDateTime> expectedEarliest = new HashMap<>();
+    for (int i = 0; i < 60_000; i++) {
+      int itemId = 1 + random.nextInt(3_000);
+      double quantity = random.nextInt(10);
+      LocalDateTime date = BASE.plusMinutes(random.nextInt(1_000_000));
+      items.add(new StorageItem(i, date, quantity, 1, itemId, true));
+      expectedTotals.merge(itemId, quantity, Double::sum);
+      expectedEarliest.merge(itemId, date, (a, b) -> a.isBefore(b) ? a : b);
+    }
+
+    StorageItemAggregator.Result parallel = new StorageItemAggregator(1_000).aggregate(items);
+    StorageItemAggregator.Result sequential =
+            new StorageItemAggregator(Integer.MAX_VALUE).aggregate(items);
+
+    assertEquals(expectedTotals.size(), parallel.size());
+    assertEquals(sequential.size(), parallel.size());
+    for (int row = 0; row < parallel.size(); row++) {
+      int itemId = parallel.itemId(row);
+      assertEquals(sequential.itemId(row), itemId);
+      assertEquals(expectedTotals.get(itemId), parallel.totalQuantity(row), 1e-9);
+      assertEquals(expectedEarliest.get(itemId), parallel.earliestExpirationDate(row));
+      if (row > 0) {
+        assertTrue(parallel.itemId(row - 1) < itemId);
+      }
+    }
+  }
+}
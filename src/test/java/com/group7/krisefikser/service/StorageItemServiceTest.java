@@ -5,6 +5,7 @@ import com.group7.krisefikser.dto.request.item.StorageItemRequest;
 import com.group7.krisefikser.dto.request.item.StorageItemSortRequest;
 import com.group7.krisefikser.dto.response.item.AggregatedStorageItemResponse;
 import com.group7.krisefikser.dto.response.item.ItemResponse;
+import com.group7.krisefikser.dto.response.item.NearestSharedItemResponse;
 import com.group7.krisefikser.dto.response.item.StorageItemGroupResponse;
 import com.group7.krisefikser.dto.response.item.StorageItemResponse;
 import com.group7.krisefikser.enums.ItemType;
@@ -14,6 +15,7 @@ import com.group7.krisefikser.model.item.StorageItem;
 import com.group7.krisefikser.repository.household.HouseholdRepository;
 import com.group7.krisefikser.repository.item.ItemRepo;
 import com.group7.krisefikser.repository.item.StorageItemRepo;
+import com.group7.krisefikser.service.household.GroupHouseholdIndex;
 import com.group7.krisefikser.service.household.HouseholdService;
 import com.group7.krisefikser.service.item.ItemService;
 import com.group7.krisefikser.service.item.StorageItemService;
@@ -52,6 +54,8 @@ class StorageItemServiceTest {
   HouseholdService householdService;
   @Mock
   private HouseholdRepository householdRepository;
+  @Mock
+  private GroupHouseholdIndex groupHouseholdIndex;
 
   @InjectMocks
   private StorageItemService storageItemService;
@@ -258,6 +262,53 @@ class StorageItemServiceTest {
     }
   }
 
+  @Test
+  void getNearestSharedStorageItemsInGroupByItemId_returnsNearestSharingHouseholds() {
+    int itemId = 1;
+    long groupId = 1L;
+    List<Household> households = List.of(
+            new Household(1L, "Far", 10.50, 63.50, groupId),
+            new Household(2L, "Near", 10.40, 63.43, groupId),
+            new Household(3L, "Nearest but not sharing", 10.39, 63.43, groupId),
+            new Household(4L, "Middle", 10.45, 63.45, groupId)
+    );
+    when(householdService.getGroupIdForCurrentUser()).thenReturn(groupId);
+    when(storageItemRepo.getSharedQuantitiesInGroupByItemId(groupId, itemId))
+            .thenReturn(Map.of(1L, 4.0, 2L, 2.5, 4L, 1.0));
+    when(householdRepository.getHouseholdsByEmergencyGroupId(groupId)).thenReturn(households);
+    GroupHouseholdIndex.GroupSnapshot snapshot =
+            new GroupHouseholdIndex(householdRepository).getSnapshot(groupId);
+    when(groupHouseholdIndex.getSnapshot(groupId)).thenReturn(snapshot);
+
+    List<NearestSharedItemResponse> result = storageItemService
+            .getNearestSharedStorageItemsInGroupByItemId(itemId, 63.43, 10.39, 2);
+
+    assertEquals(2, result.size());
+    assertEquals(2L, result.get(0).getHouseholdId());
+    assertEquals("Near", result.get(0).getHouseholdName());
+    assertEquals(2.5, result.get(0).getQuantity());
+    assertEquals(4L, result.get(1).getHouseholdId());
+    assertTrue(result.get(0).getDistanceKm() < result.get(1).getDistanceKm());
+  }
+
+  @Test
+  void getNearestSharedStorageItemsInGroupByItemId_noSharedItems_returnsEmptyList() {
+    when(householdService.getGroupIdForCurrentUser()).thenReturn(1L);
+    when(storageItemRepo.getSharedQuantitiesInGroupByItemId(1L, 1)).thenReturn(Map.of());
+
+    List<NearestSharedItemResponse> result = storageItemService
+            .getNearestSharedStorageItemsInGroupByItemId(1, 63.43, 10.39, 5);
+
+    assertTrue(result.isEmpty());
+    verifyNoInteractions(groupHouseholdIndex);
+  }
+
+  @Test
+  void getNearestSharedStorageItemsInGroupByItemId_invalidK_throwsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () ->
+            storageItemService.getNearestSharedStorageItemsInGroupByItemId(1, 63.43, 10.39, 0));
+  }
+
   @Test
   void getSharedStorageItemsInGroupByItemId_validNoGroup_throwsNoSuchElementException() {
     int itemId = 1;
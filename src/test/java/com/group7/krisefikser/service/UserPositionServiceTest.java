@@ -5,13 +5,21 @@ import com.group7.krisefikser.dto.response.location.GroupMemberPositionResponse;
 import com.group7.krisefikser.dto.response.location.HouseholdMemberPositionResponse;
 import com.group7.krisefikser.model.location.UserPosition;
 import com.group7.krisefikser.repository.location.UserPositionRepository;
+import com.group7.krisefikser.dto.response.location.PositionHistoryPointResponse;
+import com.group7.krisefikser.service.location.PositionHistoryService;
+import com.group7.krisefikser.service.location.PositionStreamService;
 import com.group7.krisefikser.service.location.UserPositionService;
+import com.group7.krisefikser.service.location.UserPositionStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,60 +32,52 @@ class UserPositionServiceTest {
   @Mock
   private UserPositionRepository userPositionRepository;
 
+  @Mock
+  private UserPositionStore userPositionStore;
+
+  @Mock
+  private PositionStreamService positionStreamService;
+
+  @Mock
+  private PositionHistoryService positionHistoryService;
+
   @Mock
   private SecurityContext securityContext;
 
   @Mock
   private Authentication authentication;
 
-  @Captor
-  private ArgumentCaptor<UserPosition> userPositionCaptor;
-
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
     SecurityContextHolder.setContext(securityContext);
     when(securityContext.getAuthentication()).thenReturn(authentication);
     when(authentication.getName()).thenReturn("42"); // Simulate authenticated user with ID 42
+    when(userPositionStore.withLatestCoordinates(any()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
   }
 
   @Test
-  void sharePosition_shouldAddNewPositionIfNotAlreadySharing() {
+  void sharePosition_shouldRecordPositionInStore() {
     SharePositionRequest request = new SharePositionRequest();
     request.setLatitude(10.0);
     request.setLongitude(20.0);
 
-    when(userPositionRepository.isSharingPosition(42L)).thenReturn(false);
-
-    userPositionService.sharePosition(request);
-
-    verify(userPositionRepository).addUserPosition(userPositionCaptor.capture());
-    assertEquals(42L, userPositionCaptor.getValue().getUserId());
-  }
-
-  @Test
-  void sharePosition_shouldUpdatePositionIfAlreadySharing() {
-    SharePositionRequest request = new SharePositionRequest();
-    request.setLatitude(15.0);
-    request.setLongitude(25.0);
-
-    when(userPositionRepository.isSharingPosition(42L)).thenReturn(true);
-
     userPositionService.sharePosition(request);
 
-    verify(userPositionRepository).updateUserPosition(userPositionCaptor.capture());
-    assertEquals(42L, userPositionCaptor.getValue().getUserId());
+    verify(userPositionStore).record(42L, 10.0, 20.0);
+    verifyNoInteractions(userPositionRepository);
   }
 
   @Test
   void isSharingPosition_shouldReturnTrueWhenSharing() {
-    when(userPositionRepository.isSharingPosition(42L)).thenReturn(true);
+    when(userPositionStore.isSharing(42L)).thenReturn(true);
     assertTrue(userPositionService.isSharingPosition());
   }
 
   @Test
   void isSharingPosition_shouldReturnFalseWhenNotSharing() {
-    when(userPositionRepository.isSharingPosition(42L)).thenReturn(false);
+    when(userPositionStore.isSharing(42L)).thenReturn(false);
     assertFalse(userPositionService.isSharingPosition());
   }
 
@@ -95,12 +95,13 @@ class UserPositionServiceTest {
     assertNotNull(responses);
     assertEquals(1, responses.length);
     assertEquals(10.0, responses[0].getLatitude());
+    verify(userPositionStore).withLatestCoordinates(userPositions);
   }
 
   @Test
-  void deleteUserPosition_shouldCallRepository() {
+  void deleteUserPosition_shouldRemovePositionFromStore() {
     userPositionService.deleteUserPosition();
-    verify(userPositionRepository).deleteUserPosition(42L);
+    verify(userPositionStore).remove(42L);
   }
 
   @Test
@@ -136,4 +137,23 @@ class UserPositionServiceTest {
     // Verify repository was called with correct user ID
     verify(userPositionRepository).getGroupPositions(42L);
   }
+
+  @Test
+  void subscribeToPositions_shouldSubscribeAuthenticatedUser() {
+    SseEmitter emitter = new SseEmitter();
+    when(positionStreamService.subscribe(42L)).thenReturn(emitter);
+
+    assertSame(emitter, userPositionService.subscribeToPositions());
+  }
+
+  @Test
+  void getPositionHistory_shouldPassAuthenticatedUserAsViewer() {
+    LocalDateTime to = LocalDateTime.now();
+    LocalDateTime from = to.minusHours(2);
+    List<PositionHistoryPointResponse> history =
+        List.of(new PositionHistoryPointResponse(from, 60.0, 10.0));
+    when(positionHistoryService.getHistory(42L, 43L, from, to)).thenReturn(history);
+
+    assertEquals(history, userPositionService.getPositionHistory(43L, from, to));
+  }
 }
@@ -0,0 +1,154 @@
+package com.group7.krisefikser.service;
+
+import com.group7.krisefikser.event.UserPositionChangedEvent;
+import com.group7.krisefikser.model.location.UserPosition;
+import com.group7.krisefikser.repository.location.UserPositionRepository;
+import com.group7.krisefikser.service.location.UserPositionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the UserPositionStore class.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserPositionStoreTest {
+  @Mock
+  private UserPositionRepository userPositionRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private UserPositionStore userPositionStore;
+
+  private static UserPosition position(long userId, double latitude, double longitude) {
+    UserPosition userPosition = new UserPosition();
+    userPosition.setUserId(userId);
+    userPosition.setLatitude(latitude);
+    userPosition.setLongitude(longitude);
+    return userPosition;
+  }
+
+  @BeforeEach
+  void setUp() {
+    userPositionStore = new UserPositionStore(userPositionRepository, eventPublisher);
+  }
+
+  @AfterEach
+  void tearDown() {
+    userPositionStore.shutdown();
+  }
+
+  @Test
+  void isSharing_shouldLoadPositionsFromDatabaseOnce() {
+    when(userPositionRepository.getAllUserPositions()).thenReturn(List.of(position(1L, 60, 10)));
+
+    assertTrue(userPositionStore.isSharing(1L));
+    assertFalse(userPositionStore.isSharing(2L));
+    assertEquals(60, userPositionStore.get(1L).getLatitude());
+    verify(userPositionRepository, times(1)).getAllUserPositions();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void flush_shouldWriteOnlyTheLatestPositionOfEachUser() {
+    when(userPositionRepository.getAllUserPositions()).thenReturn(List.of());
+
+    userPositionStore.record(1L, 60, 10);
+    userPositionStore.record(1L, 61, 11);
+    userPositionStore.record(1L, 62, 12);
+    userPositionStore.record(2L, 50, 5);
+
+    assertEquals(62, userPositionStore.get(1L).getLatitude());
+    assertEquals(2, userPositionStore.flush());
+    ArgumentCaptor<List<UserPosition>> captor = ArgumentCaptor.forClass(List.class);
+    verify(userPositionRepository).upsertUserPositions(captor.capture());
+    assertEquals(2, captor.getValue().size());
+    assertTrue(captor.getValue().stream()
+            .anyMatch(p -> p.getUserId() == 1L && p.getLatitude() == 62));
+    assertEquals(0, userPositionStore.flush());
+    verify(userPositionRepository, times(1)).upsertUserPositions(any());
+  }
+
+  @Test
+  void remove_shouldDeleteImmediatelyAndSkipPendingWrite() {
+    when(userPositionRepository.getAllUserPositions()).thenReturn(List.of());
+    userPositionStore.record(1L, 60, 10);
+
+    userPositionStore.remove(1L);
+
+    assertFalse(userPositionStore.isSharing(1L));
+    verify(userPositionRepository).deleteUserPosition(1L);
+    verify(eventPublisher).publishEvent(new UserPositionChangedEvent(1L, 60.0, 10.0));
+    verify(eventPublisher).publishEvent(new UserPositionChangedEvent(1L, null, null));
+    assertEquals(0, userPositionStore.flush());
+    verify(userPositionRepository, never()).upsertUserPositions(any());
+  }
+
+  @Test
+  void flush_shouldFallBackToSingleRowsAndDropRejectedPositions() {
+    when(userPositionRepository.getAllUserPositions()).thenReturn(List.of());
+    userPositionStore.record(1L, 60, 10);
+    userPositionStore.record(2L, 50, 5);
+    doAnswer(invocation -> {
+      List<UserPosition> batch = invocation.getArgument(0);
+      if (batch.stream().anyMatch(p -> p.getUserId() == 2L)) {
+        throw new DataIntegrityViolationException("user deleted");
+      }
+      return null;
+    }).when(userPositionRepository).upsertUserPositions(any());
+
+    assertEquals(1, userPositionStore.flush());
+
+    assertTrue(userPositionStore.isSharing(1L));
+    assertFalse(userPositionStore.isSharing(2L));
+  }
+
+  @Test
+  void flush_databaseUnavailable_shouldKeepPositionsForNextFlush() {
+    when(userPositionRepository.getAllUserPositions()).thenReturn(List.of());
+    userPositionStore.record(1L, 60, 10);
+    userPositionStore.record(2L, 50, 5);
+    doThrow(new QueryTimeoutException("Database down"))
+            .doThrow(new QueryTimeoutException("Database down"))
+            .doNothing()
+            .when(userPositionRepository).upsertUserPositions(any());
+
+    assertEquals(0, userPositionStore.flush());
+    assertTrue(userPositionStore.isSharing(1L));
+    assertTrue(userPositionStore.isSharing(2L));
+
+    assertEquals(2, userPositionStore.flush());
+    assertEquals(0, userPositionStore.flush());
+    verify(userPositionRepository, times(3)).upsertUserPositions(any());
+  }
+
+  @Test
+  void withLatestCoordinates_shouldOverlayStoredPositionsAndDropStoppedUsers() {
+    when(userPositionRepository.getAllUserPositions()).thenReturn(List.of(position(1L, 60, 10)));
+    userPositionStore.record(1L, 61, 11);
+    UserPosition stale = position(1L, 60, 10);
+    stale.setName("Member");
+
+    UserPosition[] result = userPositionStore.withLatestCoordinates(
+            new UserPosition[] {stale, position(3L, 40, 4)});
+
+    assertEquals(1, result.length);
+    assertEquals("Member", result[0].getName());
+    assertEquals(61, result[0].getLatitude());
+    assertEquals(11, result[0].getLongitude());
+  }
+}
@@ -0,0 +1,105 @@
+package com.group7.krisefikser.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ClusterPyramid class.
+ */
+class ClusterPyramidTest {
+
+  private static List<ClusterPyramid.Cluster> query(ClusterPyramid pyramid, int zoom,
+                                                    double minLatitude, double minLongitude,
+                                                    double maxLatitude, double maxLongitude,
+                                                    boolean[] categories) {
+    List<ClusterPyramid.Cluster> result = new ArrayList<>();
+    pyramid.query(zoom, minLatitude, minLongitude, maxLatitude, maxLongitude, categories,
+            result::add);
+    return result;
+  }
+
+  @Test
+  void query_shouldMergeNearbyPointsAtLowZoomAndSplitAtHighZoom() {
+    ClusterPyramid pyramid = new ClusterPyramid(16, 2);
+    pyramid.put(1, 63.430, 10.390, 0);
+    pyramid.put(2, 63.431, 10.391, 1);
+    pyramid.put(3, 59.910, 10.750, 0);
+
+    List<ClusterPyramid.Cluster> national = query(pyramid, 4, 57, 4, 72, 32, null);
+    List<ClusterPyramid.Cluster> street = query(pyramid, 16, 63.4, 10.3, 63.5, 10.5, null);
+
+    ClusterPyramid.Cluster trondheim = national.stream()
+            .filter(cluster -> cluster.getCount() == 2).findFirst().orElseThrow();
+    assertEquals(2, national.size());
+    assertEquals(63.4305, trondheim.getLatitude(), 1e-9);
+    assertEquals(1, trondheim.getCategoryCount(0));
+    assertEquals(1, trondheim.getCategoryCount(1));
+    assertEquals(-1, trondheim.getPointId());
+    assertEquals(2, street.size());
+    assertTrue(street.stream().allMatch(cluster -> cluster.getPointId() > 0));
+  }
+
+  @Test
+  void query_shouldOnlyCountIncludedCategories() {
+    ClusterPyramid pyramid = new ClusterPyramid(16, 2);
+    pyramid.put(1, 63.430, 10.390, 0);
+    pyramid.put(2, 63.431, 10.391, 1);
+
+    List<ClusterPyramid.Cluster> result = query(pyramid, 4, 57, 4, 72, 32,
+            new boolean[] {false, true});
+
+    assertEquals(1, result.size());
+    assertEquals(1, result.get(0).getCount());
+    assertEquals(2, result.get(0).getPointId());
+    assertEquals(0, result.get(0).getCategoryCount(0));
+  }
+
+  @Test
+  void putAndRemove_shouldUpdateEveryLevel() {
+    ClusterPyramid pyramid = new ClusterPyramid(10, 1);
+    pyramid.put(1, 63.43, 10.39, 0);
+    pyramid.put(2, 63.44, 10.40, 0);
+    pyramid.put(1, 59.91, 10.75, 0);
+    pyramid.remove(2);
+
+    for (int zoom = 0; zoom <= 12; zoom++) {
+      List<ClusterPyramid.Cluster> result = query(pyramid, zoom, -85, -180, 85, 180, null);
+      assertEquals(1, result.size(), "zoom " + zoom);
+      assertEquals(1, result.get(0).getPointId());
+      assertEquals(59.91, result.get(0).getLatitude(), 1e-9);
+    }
+    assertTrue(pyramid.remove(1));
+    assertTrue(query(pyramid, 0, -85, -180, 85, 180, null).isEmpty());
+  }
+
+  @Test
+  void query_shouldHandleAntimeridian() {
+    ClusterPyramid pyramid = new ClusterPyramid(8, 1);
+    pyramid.put(1, 0, 179.5, 0);
+    pyramid.put(2, 0, -179.5, 0);
+    pyramid.put(3, 0, 0, 0);
+
+    List<ClusterPyramid.Cluster> result = query(pyramid, 8, -1, 179, 1, -179, null);
+
+    assertEquals(2, result.stream().mapToInt(ClusterPyramid.Cluster::getCount).sum());
+  }
+
+  @Test
+  void query_shouldBoundResultByViewportAndKeepTotalCount() {
+    ClusterPyramid pyramid = new ClusterPyramid(16, 1);
+    Random random = new Random(3);
+    for (int id = 1; id <= 5000; id++) {
+      pyramid.put(id, 58 + random.nextDouble() * 13, 5 + random.nextDouble() * 25, 0);
+    }
+
+    List<ClusterPyramid.Cluster> national = query(pyramid, 5, 57, 4, 72, 32, null);
+
+    assertTrue(national.size() < 200);
+    assertEquals(5000, national.stream().mapToInt(ClusterPyramid.Cluster::getCount).sum());
+  }
+}
@@ -0,0 +1,104 @@
+package com.group7.krisefikser.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DailyIntervalIndex class.
+ */
+class DailyIntervalIndexTest {
+
+  private static List<String> queryAt(DailyIntervalIndex<String> index, String time) {
+    List<String> result = new ArrayList<>();
+    index.queryAt(DailyIntervalIndex.minuteOfDay(LocalTime.parse(time)), result::add);
+    return result;
+  }
+
+  @Test
+  void queryAt_shouldIncludeStartAndExcludeEnd() {
+    DailyIntervalIndex<String> index = new DailyIntervalIndex<>();
+    index.put(1, LocalTime.of(9, 0), LocalTime.of(17, 0), "day");
+
+    assertEquals(List.of(), queryAt(index, "08:59"));
+    assertEquals(List.of("day"), queryAt(index, "09:00"));
+    assertEquals(List.of("day"), queryAt(index, "16:59"));
+    assertEquals(List.of(), queryAt(index, "17:00"));
+  }
+
+  @Test
+  void queryAt_shouldHandleIntervalsPastMidnight() {
+    DailyIntervalIndex<String> index = new DailyIntervalIndex<>();
+    index.put(1, LocalTime.of(22, 0), LocalTime.of(2, 0), "night");
+
+    assertEquals(List.of("night"), queryAt(index, "23:30"));
+    assertEquals(List.of("night"), queryAt(index, "00:00"));
+    assertEquals(List.of("night"), queryAt(index, "01:59"));
+    assertEquals(List.of(), queryAt(index, "02:00"));
+    assertEquals(List.of(), queryAt(index, "12:00"));
+  }
+
+  @Test
+  void put_withMissingOrEqualTimes_shouldBeOpenAllDay() {
+    DailyIntervalIndex<String> index = new DailyIntervalIndex<>();
+    index.put(1, null, null, "unknown");
+    index.put(2, LocalTime.of(8, 0), LocalTime.of(8, 0), "always");
+
+    for (int minute = 0; minute < DailyIntervalIndex.MINUTES_PER_DAY; minute += 7) {
+      assertTrue(index.isAvailableAt(1, minute));
+      assertTrue(index.isAvailableAt(2, minute));
+    }
+  }
+
+  @Test
+  void putAndRemove_shouldReplaceAndDropIntervals() {
+    DailyIntervalIndex<String> index = new DailyIntervalIndex<>();
+    index.put(1, LocalTime.of(9, 0), LocalTime.of(17, 0), "day");
+    index.put(1, LocalTime.of(18, 0), LocalTime.of(20, 0), "evening");
+
+    assertEquals(1, index.size());
+    assertEquals(List.of(), queryAt(index, "10:00"));
+    assertEquals(List.of("evening"), queryAt(index, "19:00"));
+
+    assertTrue(index.remove(1));
+    assertFalse(index.remove(1));
+    assertEquals(List.of(), queryAt(index, "19:00"));
+    assertFalse(index.isAvailableAt(1, 19 * 60));
+  }
+
+  @Test
+  void queryAt_shouldMatchBruteForce() {
+    DailyIntervalIndex<Integer> index = new DailyIntervalIndex<>();
+    java.util.Random random = new java.util.Random(7);
+    int[][] intervals = new int[200][];
+    for (int id = 0; id < intervals.length; id++) {
+      LocalTime opens = LocalTime.of(random.nextInt(24), random.nextInt(60));
+      LocalTime closes = LocalTime.of(random.nextInt(24), random.nextInt(60));
+      index.put(id, opens, closes, id);
+      intervals[id] = new int[] {DailyIntervalIndex.minuteOfDay(opens),
+          DailyIntervalIndex.minuteOfDay(closes)};
+    }
+
+    for (int minute = 0; minute < DailyIntervalIndex.MINUTES_PER_DAY; minute++) {
+      List<Integer> expected = new ArrayList<>();
+      for (int id = 0; id < intervals.length; id++) {
+        int opens = intervals[id][0];
+        int closes = intervals[id][1];
+        boolean open = opens < closes
+                ? minute >= opens && minute < closes
+                : opens == closes || minute >= opens || minute < closes;
+        if (open) {
+          expected.add(id);
+        }
+      }
+      List<Integer> actual = new ArrayList<>();
+      index.queryAt(minute, actual::add);
+      actual.sort(null);
+      assertEquals(expected, actual, "minute " + minute);
+    }
+  }
+}
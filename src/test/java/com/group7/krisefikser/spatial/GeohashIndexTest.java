@@ -0,0 +1,97 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GeohashIndex class.
+ */
+class GeohashIndexTest {
+
+  @Test
+  void encode_shouldMatchTextGeohash() {
+    // "u4pruydqqvj" is the geohash of 57.64911, 10.40744; its first eight characters are
+    // the 40 bits of the index key.
+    String base32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    long expected = 0;
+    for (char c : "u4pruydq".toCharArray()) {
+      expected = expected << 5 | base32.indexOf(c);
+    }
+
+    assertEquals(expected, GeohashIndex.encode(57.64911, 10.40744));
+  }
+
+  @Test
+  void queryRadius_shouldMatchBruteForce() {
+    Random random = new Random(11);
+    GeohashIndex<Integer> index = new GeohashIndex<>();
+    double[] latitudes = new double[5000];
+    double[] longitudes = new double[5000];
+    for (int i = 0; i < latitudes.length; i++) {
+      latitudes[i] = 58 + random.nextDouble() * 13;
+      longitudes[i] = 5 + random.nextDouble() * 25;
+      index.put(i, latitudes[i], longitudes[i], i);
+    }
+
+    for (double radiusKm : new double[] {0.5, 3, 20, 150}) {
+      for (int q = 0; q < 20; q++) {
+        double latitude = 58 + random.nextDouble() * 13;
+        double longitude = 5 + random.nextDouble() * 25;
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < latitudes.length; i++) {
+          if (GeoUtils.haversineKm(latitude, longitude, latitudes[i], longitudes[i])
+                  <= radiusKm) {
+            expected.add(i);
+          }
+        }
+        Set<Integer> actual = new HashSet<>();
+        index.queryRadius(latitude, longitude, radiusKm, (value, distance) -> {
+          assertTrue(distance <= radiusKm);
+          assertTrue(actual.add(value));
+        });
+        assertEquals(expected, actual, "radius " + radiusKm + ", query " + q);
+      }
+    }
+  }
+
+  @Test
+  void queryRadius_shouldCrossAntimeridianAndPoles() {
+    GeohashIndex<String> index = new GeohashIndex<>();
+    index.put(1, 0, 179.999, "east");
+    index.put(2, 0, -179.999, "west");
+    index.put(3, 89.999, 0, "pole");
+
+    Set<String> result = new HashSet<>();
+    index.queryRadius(0, 180, 1, (value, distance) -> result.add(value));
+    assertEquals(Set.of("east", "west"), result);
+
+    result.clear();
+    index.queryRadius(89.999, 180, 1, (value, distance) -> result.add(value));
+    assertEquals(Set.of("pole"), result);
+  }
+
+  @Test
+  void put_shouldReplaceAndRemoveShouldDelete() {
+    GeohashIndex<String> index = new GeohashIndex<>();
+    index.put(1, 63.43, 10.39, "old");
+    index.put(2, 63.43, 10.39, "same cell");
+    index.put(1, 59.91, 10.75, "moved");
+
+    Set<String> result = new HashSet<>();
+    index.queryRadius(63.43, 10.39, 1, (value, distance) -> result.add(value));
+    assertEquals(Set.of("same cell"), result);
+    assertEquals(2, index.size());
+
+    assertTrue(index.remove(2));
+    assertFalse(index.remove(2));
+    result.clear();
+    index.queryRadius(63.43, 10.39, 1, (value, distance) -> result.add(value));
+    assertTrue(result.isEmpty());
+  }
+}
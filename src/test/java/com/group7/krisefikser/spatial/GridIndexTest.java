@@ -0,0 +1,88 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GridIndex class.
+ */
+class GridIndexTest {
+
+  @Test
+  void queryBox_shouldReturnOnlyValuesInsideBox() {
+    GridIndex<String> index = new GridIndex<>(0.05);
+    index.put(1, 63.43, 10.39, "inside");
+    index.put(2, 63.50, 10.39, "north");
+    index.put(3, 63.43, 10.60, "east");
+
+    List<String> result = new ArrayList<>();
+    index.queryBox(63.40, 10.30, 63.45, 10.45, result::add);
+
+    assertEquals(List.of("inside"), result);
+  }
+
+  @Test
+  void put_shouldReplaceAndRemoveShouldDelete() {
+    GridIndex<String> index = new GridIndex<>(0.05);
+    index.put(1, 63.43, 10.39, "old");
+    index.put(1, 59.91, 10.75, "moved");
+
+    List<String> result = new ArrayList<>();
+    index.queryBox(-90, -180, 90, 180, result::add);
+    assertEquals(List.of("moved"), result);
+    assertEquals(1, index.size());
+
+    assertTrue(index.remove(1));
+    assertFalse(index.remove(1));
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  void queryBox_shouldHandleAntimeridian() {
+    GridIndex<String> index = new GridIndex<>(1);
+    index.put(1, 0, 179.5, "west of line");
+    index.put(2, 0, -179.5, "east of line");
+    index.put(3, 0, 0, "far away");
+
+    Set<String> result = new HashSet<>();
+    index.queryBox(-1, 179, 1, -179, result::add);
+
+    assertEquals(Set.of("west of line", "east of line"), result);
+  }
+
+  @Test
+  void queryRadius_shouldMatchBruteForce() {
+    Random random = new Random(5);
+    GridIndex<Integer> index = new GridIndex<>(0.05);
+    double[] lats = new double[3_000];
+    double[] lons = new double[3_000];
+    for (int i = 0; i < lats.length; i++) {
+      lats[i] = 63 + random.nextDouble();
+      lons[i] = 10 + random.nextDouble() * 2;
+      index.put(i, lats[i], lons[i], i);
+    }
+
+    Set<Integer> expected = new HashSet<>();
+    for (int i = 0; i < lats.length; i++) {
+      if (GeoUtils.haversineKm(63.5, 11, lats[i], lons[i]) <= 7.5) {
+        expected.add(i);
+      }
+    }
+    Set<Integer> actual = new HashSet<>();
+    index.queryRadius(63.5, 11, 7.5, (value, distance) -> {
+      assertTrue(distance <= 7.5);
+      actual.add(value);
+    });
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, actual);
+  }
+}
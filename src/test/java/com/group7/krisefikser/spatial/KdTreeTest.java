@@ -0,0 +1,86 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the KdTree class.
+ */
+class KdTreeTest {
+
+  @Test
+  void nearest_shouldMatchBruteForceOrder() {
+    Random random = new Random(11);
+    int n = 5_000;
+    double[] lats = new double[n];
+    double[] lons = new double[n];
+    for (int i = 0; i < n; i++) {
+      lats[i] = 58 + random.nextDouble() * 12;
+      lons[i] = 5 + random.nextDouble() * 25;
+    }
+    KdTree tree = KdTree.build(lats, lons);
+
+    for (int query = 0; query < 50; query++) {
+      double lat = 58 + random.nextDouble() * 12;
+      double lon = 5 + random.nextDouble() * 25;
+      int[] expected = IntStream.range(0, n).boxed()
+              .sorted(Comparator.comparingDouble(
+                      i -> GeoUtils.haversineKm(lat, lon, lats[i], lons[i])))
+              .limit(10)
+              .mapToInt(Integer::intValue)
+              .toArray();
+
+      KdTree.Neighbors neighbors = tree.nearest(lat, lon, 10, null);
+
+      assertEquals(10, neighbors.size());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(expected[i], neighbors.index(i));
+        assertEquals(GeoUtils.haversineKm(lat, lon, lats[expected[i]], lons[expected[i]]),
+                neighbors.distanceKm(i), 1e-6);
+      }
+    }
+  }
+
+  @Test
+  void nearest_shouldSkipPointsRejectedByFilter() {
+    double[] lats = {63.43, 63.44, 63.45, 63.46};
+    double[] lons = {10.39, 10.39, 10.39, 10.39};
+    KdTree tree = KdTree.build(lats, lons);
+
+    KdTree.Neighbors neighbors = tree.nearest(63.43, 10.39, 2, i -> i % 2 == 1);
+
+    assertEquals(2, neighbors.size());
+    assertEquals(1, neighbors.index(0));
+    assertEquals(3, neighbors.index(1));
+  }
+
+  @Test
+  void nearest_shouldRespectMaxDistance() {
+    double[] lats = {0, 0, 0};
+    double[] lons = {0, 1, 2};
+    KdTree tree = KdTree.build(lats, lons);
+
+    KdTree.Neighbors neighbors = tree.nearest(0, 0, 3, 150, null);
+
+    assertArrayEquals(new int[] {0, 1},
+            IntStream.range(0, neighbors.size()).map(neighbors::index).toArray());
+  }
+
+  @Test
+  void nearest_shouldHandleAntimeridianAndEmptyTree() {
+    KdTree tree = KdTree.build(new double[] {0, 0}, new double[] {179.9, 170});
+
+    KdTree.Neighbors neighbors = tree.nearest(0, -179.9, 1, null);
+    assertEquals(0, neighbors.index(0));
+    assertTrue(neighbors.distanceKm(0) < 25);
+
+    KdTree empty = KdTree.build(new double[0], new double[0]);
+    assertEquals(0, empty.nearest(0, 0, 3, null).size());
+  }
+}
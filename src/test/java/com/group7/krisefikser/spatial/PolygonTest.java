@@ -0,0 +1,101 @@
+package com.group7.krisefikser.spatial;
+
+import com.group7.krisefikser.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Polygon and PolylineCodec classes.
+ */
+class PolygonTest {
+  private static final double[] SQUARE = {60.0, 10.0, 60.0, 10.2, 60.1, 10.2, 60.1, 10.0};
+  private static final double[] HOLE = {60.04, 10.08, 60.04, 10.12, 60.06, 10.12, 60.06, 10.08};
+
+  @Test
+  void encode_shouldMatchReferenceEncodingAndRoundTrip() {
+    double[] ring = {38.5, -120.2, 40.7, -120.95, 43.252, -126.453};
+
+    String encoded = PolylineCodec.encode(List.of(ring));
+
+    assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+    assertArrayEquals(ring, PolylineCodec.decode(encoded).get(0), 1e-9);
+  }
+
+  @Test
+  void decode_shouldSplitRingsAndRejectInvalidInput() {
+    List<double[]> rings = PolylineCodec.decode(PolylineCodec.encode(List.of(SQUARE, HOLE)));
+
+    assertEquals(2, rings.size());
+    assertArrayEquals(HOLE, rings.get(1), 1e-9);
+    assertThrows(IllegalArgumentException.class, () -> PolylineCodec.decode("_p~iF~ps|"));
+    assertThrows(IllegalArgumentException.class, () -> PolylineCodec.decode("_p~iF ps|U"));
+    assertThrows(IllegalArgumentException.class,
+            () -> Polygon.decode(PolylineCodec.encode(List.of(new double[] {60, 10, 61, 11}))));
+  }
+
+  @Test
+  void contains_shouldRespectHoles() {
+    Polygon polygon = Polygon.decode(PolylineCodec.encode(List.of(SQUARE, HOLE)));
+
+    assertTrue(polygon.contains(60.02, 10.02));
+    assertTrue(polygon.contains(60.09, 10.19));
+    assertFalse(polygon.contains(60.05, 10.1));
+    assertFalse(polygon.contains(60.11, 10.1));
+    assertFalse(polygon.contains(60.05, 9.99));
+  }
+
+  @Test
+  void contains_shouldMatchBruteForceRayCastingOnIrregularPolygon() {
+    Random random = new Random(3);
+    int vertices = 400;
+    double[] ring = new double[vertices * 2];
+    for (int v = 0; v < vertices; v++) {
+      double angle = 2 * Math.PI * v / vertices;
+      double radius = 0.05 + random.nextDouble() * 0.1;
+      ring[v * 2] = 60 + radius * Math.sin(angle);
+      ring[v * 2 + 1] = 10 + 2 * radius * Math.cos(angle);
+    }
+    Polygon polygon = Polygon.of(List.of(ring));
+    assertEquals(vertices, polygon.getEdgeCount());
+
+    for (int i = 0; i < 5_000; i++) {
+      double latitude = 59.8 + random.nextDouble() * 0.4;
+      double longitude = 9.6 + random.nextDouble() * 0.8;
+      assertEquals(bruteForceContains(ring, latitude, longitude),
+              polygon.contains(latitude, longitude), "position " + i);
+    }
+  }
+
+  @Test
+  void distanceToBoundaryKm_shouldMeasureToNearestEdgeWithinLimit() {
+    Polygon polygon = Polygon.of(List.of(SQUARE));
+    double kmEast = 2;
+    double longitude = 10.2 + kmEast / (GeoUtils.KM_PER_DEGREE_LATITUDE
+            * Math.cos(Math.toRadians(60.05)));
+
+    assertEquals(kmEast, polygon.distanceToBoundaryKm(60.05, longitude, 5), 0.01);
+    assertEquals(Double.POSITIVE_INFINITY, polygon.distanceToBoundaryKm(60.05, longitude, 1));
+    assertEquals(1.11, polygon.distanceToBoundaryKm(60.11, 10.1, 5), 0.01);
+    assertEquals(Double.POSITIVE_INFINITY, polygon.distanceToBoundaryKm(61, 10.1, 5));
+  }
+
+  private static boolean bruteForceContains(double[] ring, double latitude, double longitude) {
+    boolean inside = false;
+    int n = ring.length / 2;
+    for (int i = 0, j = n - 1; i < n; j = i++) {
+      double yi = ring[i * 2];
+      double xi = ring[i * 2 + 1];
+      double yj = ring[j * 2];
+      double xj = ring[j * 2 + 1];
+      if ((yi > latitude) != (yj > latitude)
+              && longitude < (xj - xi) * (latitude - yi) / (yj - yi) + xi) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+}
@@ -0,0 +1,68 @@
+package com.group7.krisefikser.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RTree class.
+ */
+class RTreeTest {
+
+  @Test
+  void query_shouldMatchBruteForce() {
+    Random random = new Random(17);
+    int n = 2_000;
+    double[] minLats = new double[n];
+    double[] minLons = new double[n];
+    double[] maxLats = new double[n];
+    double[] maxLons = new double[n];
+    for (int i = 0; i < n; i++) {
+      minLats[i] = 58 + random.nextDouble() * 12;
+      minLons[i] = 5 + random.nextDouble() * 25;
+      maxLats[i] = minLats[i] + random.nextDouble() * 0.5;
+      maxLons[i] = minLons[i] + random.nextDouble() * 1;
+    }
+    RTree tree = RTree.build(minLats, minLons, maxLats, maxLons);
+    assertEquals(n, tree.size());
+
+    for (int query = 0; query < 500; query++) {
+      double lat = 58 + random.nextDouble() * 12;
+      double lon = 5 + random.nextDouble() * 25;
+      Set<Integer> expected = new HashSet<>();
+      for (int i = 0; i < n; i++) {
+        if (lat >= minLats[i] && lat <= maxLats[i] && lon >= minLons[i] && lon <= maxLons[i]) {
+          expected.add(i);
+        }
+      }
+      Set<Integer> actual = new HashSet<>();
+      tree.query(lat, lon, actual::add);
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  void query_shouldTreatAntimeridianBoxesAsCoveringAllLongitudes() {
+    RTree tree = RTree.build(new double[] {-1, 10}, new double[] {179, 10},
+            new double[] {1, 11}, new double[] {-179, 11});
+
+    Set<Integer> hits = new HashSet<>();
+    tree.query(0, -179.5, hits::add);
+    tree.query(0, 0, hits::add);
+    tree.query(10.5, 10.5, hits::add);
+
+    assertEquals(Set.of(0, 1), hits);
+  }
+
+  @Test
+  void query_shouldHandleEmptyTree() {
+    RTree tree = RTree.build(new double[0], new double[0], new double[0], new double[0]);
+
+    tree.query(0, 0, i -> fail("empty tree returned " + i));
+    assertEquals(0, tree.size());
+  }
+}
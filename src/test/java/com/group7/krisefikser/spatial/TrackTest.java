@@ -0,0 +1,76 @@
+package com.group7.krisefikser.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Track class.
+ */
+class TrackTest {
+  private static final long START = 1_759_996_800L;
+
+  private static Track track(long... offsets) {
+    long[] times = new long[offsets.length];
+    double[] latitudes = new double[offsets.length];
+    double[] longitudes = new double[offsets.length];
+    for (int i = 0; i < offsets.length; i++) {
+      times[i] = START + offsets[i];
+      latitudes[i] = 60 + i * 0.001;
+      longitudes[i] = 10 - i * 0.002;
+    }
+    return Track.of(times, latitudes, longitudes);
+  }
+
+  @Test
+  void encode_shouldRoundTripCompactly() {
+    Track track = track(0, 5, 300, 600, 3600);
+
+    String encoded = track.encode();
+    Track decoded = Track.decode(encoded);
+
+    assertEquals(track.size(), decoded.size());
+    for (int i = 0; i < track.size(); i++) {
+      assertEquals(track.getTime(i), decoded.getTime(i));
+      assertEquals(track.getLatitude(i), decoded.getLatitude(i), 1e-9);
+      assertEquals(track.getLongitude(i), decoded.getLongitude(i), 1e-9);
+    }
+    assertTrue(encoded.length() < 30 + 4 * 10, "Deltas should take a few characters each");
+    assertEquals(0, Track.decode("").size());
+    assertThrows(IllegalArgumentException.class, () -> Track.decode(encoded.substring(0, 3)));
+  }
+
+  @Test
+  void downsample_shouldKeepLastPointOfEachInterval() {
+    Track track = track(0, 10, 299, 301, 590, 900).downsample(300);
+
+    assertEquals(List.of(START + 299, START + 590, START + 900),
+            List.of(track.getTime(0), track.getTime(1), track.getTime(2)));
+    assertEquals(3, track.size());
+  }
+
+  @Test
+  void between_shouldSelectInclusiveRange() {
+    Track track = track(0, 10, 20, 30);
+
+    Track slice = track.between(START + 10, START + 20);
+
+    assertEquals(2, slice.size());
+    assertEquals(START + 10, slice.getTime(0));
+    assertEquals(4, track.between(Long.MIN_VALUE, Long.MAX_VALUE).size());
+    assertEquals(0, track.between(START + 31, START + 40).size());
+  }
+
+  @Test
+  void concat_shouldOrderPointsByTime() {
+    Track merged = Track.concat(List.of(track(100, 200), track(0, 50), Track.empty()));
+
+    assertEquals(4, merged.size());
+    assertEquals(START, merged.getTime(0));
+    assertEquals(START + 200, merged.getTime(3));
+    assertThrows(IllegalArgumentException.class,
+            () -> Track.of(new long[] {2, 1}, new double[2], new double[2]));
+  }
+}